@@ -98,7 +98,7 @@ public class PaletteDescriptionTool extends javax.swing.JFrame {
         public int getPaletteIndexAtCoord(int x, int y) {
             int pixelX = x / scale;
             int pixelY = y / scale;
-            return bufferedImage.getData().getSample(pixelX, pixelY, 0) + 1;
+            return bufferedImage.getRaster().getSample(pixelX, pixelY, 0) + 1;
         }
 
         private void update() {
@@ -48,8 +48,7 @@ public class CheckValueCalculator {
     }
 
     private void addEncounterInfo() {
-        boolean useTimeBasedEncounters = settings.isUseTimeBasedEncounters() ||
-                (!settings.isRandomizeWildPokemon() && settings.isWildLevelsModified());
+        boolean useTimeBasedEncounters = settings.isShowTimeBasedEncounters();
         for (EncounterArea area : romHandler.getEncounters(useTimeBasedEncounters)) {
             for (Encounter e : area) {
                 addToCV(e.getLevel(), e.getSpecies().getNumber());
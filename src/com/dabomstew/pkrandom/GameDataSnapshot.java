@@ -0,0 +1,611 @@
+package com.dabomstew.pkrandom;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+
+import com.dabomstew.pkromio.gamedata.*;
+import com.dabomstew.pkromio.romhandlers.RomHandler;
+
+import java.util.*;
+
+/**
+ * A copy of some of a {@link RomHandler}'s game data, which can be written into another RomHandler
+ * that has loaded the same ROM.<br>
+ * Species, moves and items are referred to by their position in the RomHandler's lists, so a snapshot
+ * holds no references into the RomHandler it was taken from. If some data can't be referred to that way,
+ * taking the snapshot throws an {@link IllegalStateException}.<br>
+ * The exception is {@link #beforeRandomization(RomHandler)}, which can only be restored into the RomHandler
+ * it was taken from.
+ */
+public abstract class GameDataSnapshot {
+
+    /**
+     * The last of the {@link GameRandomizer#STAGE_ORDER stages} whose changes a
+     * {@link #beforeRandomization(RomHandler)} snapshot undoes.
+     */
+    public static final String UNDONE_THROUGH_STAGE = GameRandomizer.STAGE_STATIC_POKEMON;
+
+    /**
+     * Writes the copied data into "romHandler", which must have loaded the same ROM as the one the
+     * snapshot was taken from.
+     */
+    public abstract void restore(RomHandler romHandler);
+
+    /**
+     * Takes a snapshot of the type table, and of the move data the move randomizers change.
+     */
+    static GameDataSnapshot typesAndMoves(RomHandler romHandler) {
+        return new TypesAndMoves(romHandler);
+    }
+
+    /**
+     * Takes a snapshot of the Species data the species randomizers change: names, types, base stats,
+     * abilities, wild held items, EXP curves and evolutions.
+     */
+    static GameDataSnapshot species(RomHandler romHandler) {
+        return new SpeciesData(romHandler);
+    }
+
+    /**
+     * Takes a snapshot of the level-up movesets and egg moves.
+     */
+    static GameDataSnapshot movesets(RomHandler romHandler) {
+        return new Movesets(romHandler);
+    }
+
+    /**
+     * Takes a snapshot of the TM moves and TM/HM compatibility.
+     */
+    static GameDataSnapshot tmhms(RomHandler romHandler) {
+        return new TMHMs(romHandler);
+    }
+
+    /**
+     * Takes a snapshot of the Move Tutor moves and compatibility. If the game has no Move Tutors, the snapshot
+     * is empty.
+     */
+    static GameDataSnapshot moveTutors(RomHandler romHandler) {
+        return new MoveTutors(romHandler);
+    }
+
+    /**
+     * Takes a snapshot of the wild encounters.
+     */
+    static GameDataSnapshot encounters(RomHandler romHandler) {
+        return new Encounters(romHandler);
+    }
+
+    /**
+     * Takes a snapshot of all the game data changed by {@link GameRandomizer#randomizeThrough(long, String)}
+     * through {@link #UNDONE_THROUGH_STAGE}, from a freshly loaded RomHandler. Restoring it puts that data back
+     * the way it was loaded, so the same RomHandler can be randomized again, with the same results as a freshly
+     * loaded one, without loading the ROM again.<br>
+     * Misc. tweaks patch the ROM itself, and are not undone; since they patch the same way each time, randomizing
+     * again applies them over themselves. So this is only meant for runs that are never saved, like seed searches.
+     */
+    public static GameDataSnapshot beforeRandomization(RomHandler romHandler) {
+        return new BeforeRandomization(romHandler);
+    }
+
+    /**
+     * Returns whether a {@link #beforeRandomization(RomHandler)} snapshot undoes all the changes of
+     * {@link GameRandomizer#randomizeThrough(long, String)} with "lastStage".
+     */
+    public static boolean undoesThrough(String lastStage) {
+        int index = GameRandomizer.STAGE_ORDER.indexOf(lastStage);
+        return index != -1 && index <= GameRandomizer.STAGE_ORDER.indexOf(UNDONE_THROUGH_STAGE);
+    }
+
+    private static <T> Map<T, Integer> indexMap(List<T> list) {
+        Map<T, Integer> indices = new IdentityHashMap<>();
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) != null) {
+                indices.put(list.get(i), i);
+            }
+        }
+        return indices;
+    }
+
+    private static <T> int indexOf(Map<T, Integer> indices, T t) {
+        if (t == null) {
+            return -1;
+        }
+        Integer index = indices.get(t);
+        if (index == null) {
+            throw new IllegalStateException(t + " is not in the RomHandler's list");
+        }
+        return index;
+    }
+
+    private static <T> T get(List<T> list, int index) {
+        return index == -1 ? null : list.get(index);
+    }
+
+    private static class TypesAndMoves extends GameDataSnapshot {
+
+        private final TypeTable typeTable;
+        private final int[] power;
+        private final int[] pp;
+        private final double[] hitratio;
+        private final Type[] type;
+        private final MoveCategory[] category;
+
+        TypesAndMoves(RomHandler romHandler) {
+            typeTable = new TypeTable(romHandler.getTypeTable());
+            List<Move> moves = romHandler.getMoves();
+            power = new int[moves.size()];
+            pp = new int[moves.size()];
+            hitratio = new double[moves.size()];
+            type = new Type[moves.size()];
+            category = new MoveCategory[moves.size()];
+            for (int i = 0; i < moves.size(); i++) {
+                Move move = moves.get(i);
+                if (move != null) {
+                    power[i] = move.power;
+                    pp[i] = move.pp;
+                    hitratio[i] = move.hitratio;
+                    type[i] = move.type;
+                    category[i] = move.category;
+                }
+            }
+        }
+
+        @Override
+        public void restore(RomHandler romHandler) {
+            if (!typeTable.equals(romHandler.getTypeTable())) {
+                romHandler.setTypeTable(new TypeTable(typeTable));
+            }
+            List<Move> moves = romHandler.getMoves();
+            for (int i = 0; i < moves.size(); i++) {
+                Move move = moves.get(i);
+                if (move != null) {
+                    move.power = power[i];
+                    move.pp = pp[i];
+                    move.hitratio = hitratio[i];
+                    move.type = type[i];
+                    move.category = category[i];
+                }
+            }
+        }
+    }
+
+    private static class SpeciesData extends GameDataSnapshot {
+
+        private static final int STATS = 7;
+        private static final int HELD_ITEMS = 4;
+
+        private final String[] names;
+        private final Type[] primaryTypes;
+        private final Type[] secondaryTypes;
+        private final int[] stats;
+        private final int[] abilities;
+        private final int[] heldItems;
+        private final ExpCurve[] growthCurves;
+
+        // Evolutions are shared between the evolutionsFrom of one Species and the evolutionsTo of another,
+        // so they are stored once, and the lists refer to them by index.
+        private final int[][] evolutions;
+        private final EvolutionType[] evolutionTypes;
+        private final int[][] evolutionsFrom;
+        private final int[][] evolutionsTo;
+
+        SpeciesData(RomHandler romHandler) {
+            List<Species> speciesList = romHandler.getSpeciesInclFormes();
+            Map<Species, Integer> speciesIndices = indexMap(speciesList);
+            Map<Item, Integer> itemIndices = indexMap(romHandler.getItems());
+            int n = speciesList.size();
+
+            names = new String[n];
+            primaryTypes = new Type[n];
+            secondaryTypes = new Type[n];
+            stats = new int[n * STATS];
+            abilities = new int[n * 3];
+            heldItems = new int[n * HELD_ITEMS];
+            growthCurves = new ExpCurve[n];
+            evolutionsFrom = new int[n][];
+            evolutionsTo = new int[n][];
+
+            Map<Evolution, Integer> evolutionIndices = new IdentityHashMap<>();
+            for (int i = 0; i < n; i++) {
+                Species sp = speciesList.get(i);
+                if (sp == null) {
+                    continue;
+                }
+                names[i] = sp.getName();
+                primaryTypes[i] = sp.getPrimaryType(false);
+                secondaryTypes[i] = sp.getSecondaryType(false);
+                int s = i * STATS;
+                stats[s] = sp.getHp();
+                stats[s + 1] = sp.getAttack();
+                stats[s + 2] = sp.getDefense();
+                stats[s + 3] = sp.getSpatk();
+                stats[s + 4] = sp.getSpdef();
+                stats[s + 5] = sp.getSpeed();
+                stats[s + 6] = sp.getSpecial();
+                abilities[i * 3] = sp.getAbility1();
+                abilities[i * 3 + 1] = sp.getAbility2();
+                abilities[i * 3 + 2] = sp.getAbility3();
+                int h = i * HELD_ITEMS;
+                heldItems[h] = indexOf(itemIndices, sp.getGuaranteedHeldItem());
+                heldItems[h + 1] = indexOf(itemIndices, sp.getCommonHeldItem());
+                heldItems[h + 2] = indexOf(itemIndices, sp.getRareHeldItem());
+                heldItems[h + 3] = indexOf(itemIndices, sp.getDarkGrassHeldItem());
+                growthCurves[i] = sp.getGrowthCurve();
+                evolutionsFrom[i] = evolutionIndices(sp.getEvolutionsFrom(), evolutionIndices);
+                evolutionsTo[i] = evolutionIndices(sp.getEvolutionsTo(), evolutionIndices);
+            }
+
+            evolutions = new int[evolutionIndices.size()][];
+            evolutionTypes = new EvolutionType[evolutionIndices.size()];
+            for (Map.Entry<Evolution, Integer> entry : evolutionIndices.entrySet()) {
+                Evolution evo = entry.getKey();
+                evolutions[entry.getValue()] = new int[]{indexOf(speciesIndices, evo.getFrom()),
+                        indexOf(speciesIndices, evo.getTo()), evo.getExtraInfo(), evo.getForme()};
+                evolutionTypes[entry.getValue()] = evo.getType();
+            }
+        }
+
+        private static int[] evolutionIndices(List<Evolution> evos, Map<Evolution, Integer> evolutionIndices) {
+            int[] indices = new int[evos.size()];
+            for (int i = 0; i < indices.length; i++) {
+                Evolution evo = evos.get(i);
+                Integer index = evolutionIndices.get(evo);
+                if (index == null) {
+                    index = evolutionIndices.size();
+                    evolutionIndices.put(evo, index);
+                }
+                indices[i] = index;
+            }
+            return indices;
+        }
+
+        @Override
+        public void restore(RomHandler romHandler) {
+            List<Species> speciesList = romHandler.getSpeciesInclFormes();
+            List<Item> items = romHandler.getItems();
+            if (speciesList.size() != names.length) {
+                throw new IllegalStateException("Snapshot is of a different ROM");
+            }
+
+            Evolution[] newEvolutions = new Evolution[evolutions.length];
+            for (int i = 0; i < evolutions.length; i++) {
+                int[] evo = evolutions[i];
+                newEvolutions[i] = new Evolution(speciesList.get(evo[0]), speciesList.get(evo[1]),
+                        evolutionTypes[i], evo[2]);
+                newEvolutions[i].setForme(evo[3]);
+            }
+
+            // Some formes share their evolution lists with their base forme, so each list is filled only once.
+            Map<List<Evolution>, Boolean> filledLists = new IdentityHashMap<>();
+            for (int i = 0; i < speciesList.size(); i++) {
+                Species sp = speciesList.get(i);
+                if (sp == null) {
+                    continue;
+                }
+                sp.setName(names[i]);
+                sp.setPrimaryType(primaryTypes[i]);
+                sp.setSecondaryType(secondaryTypes[i]);
+                int s = i * STATS;
+                sp.setHp(stats[s]);
+                sp.setAttack(stats[s + 1]);
+                sp.setDefense(stats[s + 2]);
+                sp.setSpatk(stats[s + 3]);
+                sp.setSpdef(stats[s + 4]);
+                sp.setSpeed(stats[s + 5]);
+                sp.setSpecial(stats[s + 6]);
+                sp.setAbility1(abilities[i * 3]);
+                sp.setAbility2(abilities[i * 3 + 1]);
+                sp.setAbility3(abilities[i * 3 + 2]);
+                int h = i * HELD_ITEMS;
+                sp.setGuaranteedHeldItem(get(items, heldItems[h]));
+                sp.setCommonHeldItem(get(items, heldItems[h + 1]));
+                sp.setRareHeldItem(get(items, heldItems[h + 2]));
+                sp.setDarkGrassHeldItem(get(items, heldItems[h + 3]));
+                sp.setGrowthCurve(growthCurves[i]);
+                fillEvolutions(sp.getEvolutionsFrom(), evolutionsFrom[i], newEvolutions, filledLists);
+                fillEvolutions(sp.getEvolutionsTo(), evolutionsTo[i], newEvolutions, filledLists);
+            }
+        }
+
+        private static void fillEvolutions(List<Evolution> evos, int[] indices, Evolution[] newEvolutions,
+                                           Map<List<Evolution>, Boolean> filledLists) {
+            if (filledLists.put(evos, Boolean.TRUE) != null) {
+                return;
+            }
+            evos.clear();
+            for (int index : indices) {
+                evos.add(newEvolutions[index]);
+            }
+        }
+    }
+
+    private static class Movesets extends GameDataSnapshot {
+
+        // Movesets refer to their moves by number already, so they can be copied as they are.
+        private final Map<Integer, List<MoveLearnt>> movesLearnt;
+        private final Map<Integer, List<Integer>> eggMoves;
+
+        Movesets(RomHandler romHandler) {
+            movesLearnt = copyMovesLearnt(romHandler.getMovesLearnt());
+            eggMoves = copyEggMoves(romHandler.getEggMoves());
+        }
+
+        @Override
+        public void restore(RomHandler romHandler) {
+            romHandler.setMovesLearnt(copyMovesLearnt(movesLearnt));
+            romHandler.setEggMoves(copyEggMoves(eggMoves));
+        }
+
+        private static Map<Integer, List<MoveLearnt>> copyMovesLearnt(Map<Integer, List<MoveLearnt>> original) {
+            Map<Integer, List<MoveLearnt>> copy = new LinkedHashMap<>();
+            for (Map.Entry<Integer, List<MoveLearnt>> entry : original.entrySet()) {
+                List<MoveLearnt> moves = new ArrayList<>(entry.getValue().size());
+                for (MoveLearnt ml : entry.getValue()) {
+                    moves.add(new MoveLearnt(ml));
+                }
+                copy.put(entry.getKey(), moves);
+            }
+            return copy;
+        }
+
+        private static Map<Integer, List<Integer>> copyEggMoves(Map<Integer, List<Integer>> original) {
+            Map<Integer, List<Integer>> copy = new LinkedHashMap<>();
+            for (Map.Entry<Integer, List<Integer>> entry : original.entrySet()) {
+                copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * The compatibility of each Species with a list of moves, e.g. the TMs, with the Species referred to by index.
+     */
+    private static class Compatibility {
+
+        private final int[] species;
+        private final boolean[][] compatible;
+
+        Compatibility(Map<Species, boolean[]> compatData, List<Species> speciesList) {
+            Map<Species, Integer> speciesIndices = indexMap(speciesList);
+            species = new int[compatData.size()];
+            compatible = new boolean[compatData.size()][];
+            int i = 0;
+            for (Map.Entry<Species, boolean[]> entry : compatData.entrySet()) {
+                species[i] = indexOf(speciesIndices, entry.getKey());
+                compatible[i] = entry.getValue().clone();
+                i++;
+            }
+        }
+
+        Map<Species, boolean[]> toMap(List<Species> speciesList) {
+            Map<Species, boolean[]> compatData = new LinkedHashMap<>();
+            for (int i = 0; i < species.length; i++) {
+                compatData.put(speciesList.get(species[i]), compatible[i].clone());
+            }
+            return compatData;
+        }
+    }
+
+    private static class TMHMs extends GameDataSnapshot {
+
+        private final List<Integer> tmMoves;
+        private final Compatibility compatibility;
+
+        TMHMs(RomHandler romHandler) {
+            tmMoves = new ArrayList<>(romHandler.getTMMoves());
+            compatibility = new Compatibility(romHandler.getTMHMCompatibility(), romHandler.getSpeciesInclFormes());
+        }
+
+        @Override
+        public void restore(RomHandler romHandler) {
+            romHandler.setTMMoves(new ArrayList<>(tmMoves));
+            romHandler.setTMHMCompatibility(compatibility.toMap(romHandler.getSpeciesInclFormes()));
+        }
+    }
+
+    private static class MoveTutors extends GameDataSnapshot {
+
+        private final List<Integer> moveTutorMoves;
+        private final Compatibility compatibility;
+
+        MoveTutors(RomHandler romHandler) {
+            if (romHandler.hasMoveTutors()) {
+                moveTutorMoves = new ArrayList<>(romHandler.getMoveTutorMoves());
+                compatibility = new Compatibility(romHandler.getMoveTutorCompatibility(),
+                        romHandler.getSpeciesInclFormes());
+            } else {
+                moveTutorMoves = null;
+                compatibility = null;
+            }
+        }
+
+        @Override
+        public void restore(RomHandler romHandler) {
+            if (moveTutorMoves != null) {
+                romHandler.setMoveTutorMoves(new ArrayList<>(moveTutorMoves));
+                romHandler.setMoveTutorCompatibility(compatibility.toMap(romHandler.getSpeciesInclFormes()));
+            }
+        }
+    }
+
+    private static class Encounters extends GameDataSnapshot {
+
+        private final boolean useTimeOfDay;
+        // copies of the areas and their Encounters, without any Species
+        private final List<EncounterArea> areas;
+        private final int[][] species;
+        private final int[][] bannedSpecies;
+
+        Encounters(RomHandler romHandler) {
+            // the time-based encounters are the full set; the others are derived from them
+            useTimeOfDay = romHandler.hasTimeBasedEncounters();
+            Map<Species, Integer> speciesIndices = indexMap(romHandler.getSpeciesInclFormes());
+            List<EncounterArea> original = romHandler.getEncounters(useTimeOfDay);
+
+            areas = new ArrayList<>(original.size());
+            species = new int[original.size()][];
+            bannedSpecies = new int[original.size()][];
+            for (int i = 0; i < original.size(); i++) {
+                EncounterArea area = original.get(i);
+                areas.add(copyWithoutSpecies(area));
+                species[i] = new int[area.size()];
+                for (int j = 0; j < area.size(); j++) {
+                    species[i][j] = indexOf(speciesIndices, area.get(j).getSpecies());
+                }
+                bannedSpecies[i] = new int[area.getBannedSpecies().size()];
+                int j = 0;
+                for (Species banned : area.getBannedSpecies()) {
+                    bannedSpecies[i][j++] = indexOf(speciesIndices, banned);
+                }
+            }
+        }
+
+        @Override
+        public void restore(RomHandler romHandler) {
+            List<Species> speciesList = romHandler.getSpeciesInclFormes();
+            List<EncounterArea> encounters = new ArrayList<>(areas.size());
+            for (int i = 0; i < areas.size(); i++) {
+                EncounterArea area = copyWithoutSpecies(areas.get(i));
+                for (int j = 0; j < area.size(); j++) {
+                    area.get(j).setSpecies(get(speciesList, species[i][j]));
+                }
+                for (int banned : bannedSpecies[i]) {
+                    area.banSpecies(speciesList.get(banned));
+                }
+                encounters.add(area);
+            }
+            romHandler.setEncounters(useTimeOfDay, encounters);
+        }
+
+        private static EncounterArea copyWithoutSpecies(EncounterArea original) {
+            EncounterArea copy = new EncounterArea();
+            for (Encounter enc : original) {
+                Encounter encCopy = new Encounter(enc);
+                encCopy.setSpecies(null);
+                copy.add(encCopy);
+            }
+            copy.setRate(original.getRate());
+            copy.setIdentifiers(original.getDisplayName(), original.getMapIndex(), original.getEncounterType(),
+                    original.getLocationTag());
+            copy.setPostGame(original.isPostGame());
+            copy.setPartiallyPostGameCutoff(original.getPartiallyPostGameCutoff());
+            copy.setForceMultipleSpecies(original.isForceMultipleSpecies());
+            return copy;
+        }
+    }
+
+    /**
+     * Unlike the other snapshots, this holds copies of the RomHandler's own objects, e.g. its Trainers, which
+     * still refer to its Species and Items. That is what lets it cover so much data, but it also means it can
+     * only be restored into the RomHandler it was taken from.
+     */
+    private static class BeforeRandomization extends GameDataSnapshot {
+
+        private final RomHandler source;
+
+        private final GameDataSnapshot typesAndMoves;
+        private final GameDataSnapshot species;
+        private final List<Species> starters;
+        private final List<Item> starterHeldItems;
+        private final List<Type> starterTypeTriangle;
+        private final GameDataSnapshot movesets;
+        private final GameDataSnapshot tmhms;
+        private final GameDataSnapshot moveTutors;
+        private final GameDataSnapshot encounters;
+        private final List<Trainer> trainers;
+        private final List<String> trainerNames;
+        private final List<String> trainerClassNames;
+        private final List<StaticEncounter> staticPokemon;
+
+        BeforeRandomization(RomHandler romHandler) {
+            source = romHandler;
+
+            typesAndMoves = new TypesAndMoves(romHandler);
+            species = new SpeciesData(romHandler);
+            starters = new ArrayList<>(romHandler.getStarters());
+            starterHeldItems = romHandler.supportsStarterHeldItems() ?
+                    new ArrayList<>(romHandler.getStarterHeldItems()) : null;
+            starterTypeTriangle = romHandler.hasStarterTypeTriangleSupport() ?
+                    new ArrayList<>(romHandler.getStarterTypeTriangle()) : null;
+            movesets = new Movesets(romHandler);
+            tmhms = new TMHMs(romHandler);
+            moveTutors = new MoveTutors(romHandler);
+            encounters = new Encounters(romHandler);
+            trainers = copyTrainers(romHandler.getTrainers());
+            if (romHandler.canChangeTrainerText()) {
+                trainerNames = new ArrayList<>(romHandler.getTrainerNames());
+                trainerClassNames = new ArrayList<>(romHandler.getTrainerClassNames());
+            } else {
+                trainerNames = null;
+                trainerClassNames = null;
+            }
+            staticPokemon = romHandler.canChangeStaticPokemon() ? copyStatics(romHandler.getStaticPokemon()) : null;
+        }
+
+        @Override
+        public void restore(RomHandler romHandler) {
+            if (romHandler != source) {
+                throw new IllegalArgumentException("Snapshot is of another RomHandler");
+            }
+            typesAndMoves.restore(romHandler);
+            species.restore(romHandler);
+            romHandler.setStarters(new ArrayList<>(starters));
+            if (starterHeldItems != null) {
+                romHandler.setStarterHeldItems(new ArrayList<>(starterHeldItems));
+            }
+            if (starterTypeTriangle != null) {
+                romHandler.setStarterTypeTriangle(new ArrayList<>(starterTypeTriangle));
+            }
+            movesets.restore(romHandler);
+            tmhms.restore(romHandler);
+            moveTutors.restore(romHandler);
+            encounters.restore(romHandler);
+            // the names go first, since setting them also updates the trainers' display names
+            if (trainerNames != null) {
+                romHandler.setTrainerNames(new ArrayList<>(trainerNames));
+                romHandler.setTrainerClassNames(new ArrayList<>(trainerClassNames));
+            }
+            romHandler.setTrainers(copyTrainers(trainers));
+            if (staticPokemon != null) {
+                romHandler.setStaticPokemon(copyStatics(staticPokemon));
+            }
+        }
+
+        private static List<Trainer> copyTrainers(List<Trainer> original) {
+            List<Trainer> copy = new ArrayList<>(original.size());
+            for (Trainer tr : original) {
+                copy.add(new Trainer(tr));
+            }
+            return copy;
+        }
+
+        private static List<StaticEncounter> copyStatics(List<StaticEncounter> original) {
+            List<StaticEncounter> copy = new ArrayList<>(original.size());
+            for (StaticEncounter se : original) {
+                copy.add(new StaticEncounter(se));
+            }
+            return copy;
+        }
+    }
+
+}
@@ -22,7 +22,9 @@ package com.dabomstew.pkrandom;
 /*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
 /*----------------------------------------------------------------------------*/
 
+import com.dabomstew.pkrandom.log.LogFile;
 import com.dabomstew.pkrandom.log.RandomizationLogger;
+import com.dabomstew.pkrandom.log.StructuredLogWriter;
 import com.dabomstew.pkrandom.random.RandomSource;
 import com.dabomstew.pkrandom.random.SeedPicker;
 import com.dabomstew.pkrandom.randomizers.*;
@@ -35,8 +37,14 @@ import com.dabomstew.pkromio.graphics.packs.CustomPlayerGraphics;
 import com.dabomstew.pkromio.romhandlers.Gen1RomHandler;
 import com.dabomstew.pkromio.romhandlers.RomHandler;
 
-import java.io.OutputStream;
 import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
 
 /**
@@ -49,11 +57,33 @@ import java.util.ResourceBundle;
  */
 public class GameRandomizer {
 
+    // Names of the stages that are useful to stop after, see randomizeThrough()
+    public static final String STAGE_TYPE_EFFECTIVENESS = "randomizeTypeEffectiveness";
+    public static final String STAGE_EVOLUTIONS = "randomizeEvolutions";
+    public static final String STAGE_SPECIES_TYPES = "randomizeSpeciesTypes";
+    public static final String STAGE_SPECIES_BASE_STATS = "randomizeSpeciesBaseStats";
+    public static final String STAGE_SPECIES_ABILITIES = "randomizeSpeciesAbilities";
+    public static final String STAGE_EVOLUTION_IMPROVEMENTS = "applyEvolutionImprovements";
+    public static final String STAGE_STARTERS = "randomizeStarters";
+    public static final String STAGE_WILD_POKEMON = "randomizeWildPokemon";
+    public static final String STAGE_TRAINER_POKEMON = "randomizeTrainerPokemon";
+    public static final String STAGE_TRAINER_HELD_ITEMS = "randomizeTrainerHeldItems";
+    public static final String STAGE_STATIC_POKEMON = "randomizeStaticPokemon";
+
+    /**
+     * The STAGE_ constants, in the order the stages are applied.
+     */
+    public static final List<String> STAGE_ORDER = Collections.unmodifiableList(Arrays.asList(
+            STAGE_TYPE_EFFECTIVENESS, STAGE_EVOLUTIONS, STAGE_SPECIES_TYPES, STAGE_SPECIES_BASE_STATS,
+            STAGE_SPECIES_ABILITIES, STAGE_EVOLUTION_IMPROVEMENTS, STAGE_STARTERS, STAGE_WILD_POKEMON,
+            STAGE_TRAINER_POKEMON, STAGE_TRAINER_HELD_ITEMS, STAGE_STATIC_POKEMON));
+
     public static class Results {
 
         private Exception e;
         private Exception logE;
         private int checkValue;
+        private List<StageProfiler.StageProfile> stageProfiles = Collections.emptyList();
 
         private Results() {}
 
@@ -82,9 +112,18 @@ public class GameRandomizer {
         public int getCheckValue() {
             return checkValue;
         }
+
+        /**
+         * Returns the profile of each stage that was run, in order. If randomization failed, this ends
+         * with the stage that failed.
+         */
+        public List<StageProfiler.StageProfile> getStageProfiles() {
+            return stageProfiles;
+        }
     }
 
     private final RandomSource randomSource = new RandomSource();
+    private final StageProfiler profiler = new StageProfiler(randomSource);
 
     private final Settings settings;
     private final CustomPlayerGraphics customPlayerGraphics;
@@ -93,6 +132,8 @@ public class GameRandomizer {
 
     private final RandomizationLogger logger;
 
+    private StageCheckpoints checkpoints;
+
     private final SpeciesBaseStatUpdater speciesBSUpdater;
     private final MoveUpdater moveUpdater;
     private final TypeEffectivenessUpdater typeEffUpdater;
@@ -177,12 +218,16 @@ public class GameRandomizer {
                 typeEffRandomizer, paletteRandomizer, miscTweakRandomizer);
     }
 
+    /**
+     * Sets where {@link #randomize(String, PrintStream, long)} looks for a checkpoint to resume from,
+     * and puts new checkpoints. If null (the default), every stage is always run.
+     */
+    public void setCheckpoints(StageCheckpoints checkpoints) {
+        this.checkpoints = checkpoints;
+    }
+
     public Results randomize(final String filename) {
-        return randomize(filename, new PrintStream(new OutputStream() {
-            @Override
-            public void write(int b) {
-            }
-        }));
+        return randomize(filename, LogFile.NULL_LOG);
     }
 
     public Results randomize(final String filename, final PrintStream log) {
@@ -192,32 +237,61 @@ public class GameRandomizer {
     }
 
     public Results randomize(final String filename, final PrintStream log, long seed) {
+        return randomize(filename, log, seed, null);
+    }
+
+    /**
+     * As {@link #randomize(String, PrintStream, long)}, but also writes a {@link StructuredLogWriter structured log}
+     * to "structuredLog", unless it is null.
+     */
+    public Results randomize(final String filename, final PrintStream log, long seed, final Writer structuredLog) {
         Results results = new Results();
         try {
             final long startTime = System.currentTimeMillis();
             randomSource.seed(seed);
+            profiler.clear();
 
-            setupSpeciesRestrictions();
-            applyUpdaters();
             applyRandomizers();
-            maybeSetCustomPlayerGraphics();
+            profiler.run("customPlayerGraphics", this::maybeSetCustomPlayerGraphics);
 
-            results.checkValue = new CheckValueCalculator(romHandler, settings).calculate();
+            results.checkValue = profiler.call("checkValue",
+                    () -> new CheckValueCalculator(romHandler, settings).calculate());
 
-            romHandler.saveRom(filename, seed, saveAsDirectory);
+            profiler.call("saveRom", () -> romHandler.saveRom(filename, seed, saveAsDirectory));
 
             try {
-                logger.logResults(log, startTime);
+                profiler.call("log", () -> {
+                    logger.logResults(log, startTime, profiler.getStages());
+                    if (structuredLog != null) {
+                        new StructuredLogWriter(randomSource, settings, romHandler).write(structuredLog);
+                    }
+                    return null;
+                });
             } catch (Exception e) {
                 results.logE = e;
             }
         } catch (Exception e) {
             results.e = e;
         }
+        results.stageProfiles = new ArrayList<>(profiler.getStages());
 
         return results;
     }
 
+    /**
+     * Runs the randomization with the given seed only as far as the stage named "lastStage" (one of the
+     * STAGE_ constants), leaving the results in the {@link RomHandler}. Nothing is saved or logged.<br>
+     * Since the stages always run in the same order and draw from the same random source, everything up to
+     * "lastStage" comes out exactly as it would in a full {@link #randomize(String, PrintStream, long)} with
+     * the same seed.
+     */
+    public void randomizeThrough(long seed, String lastStage) {
+        randomSource.seed(seed);
+        profiler.clear();
+
+        applyRandomizersThrough(getRandomizerStages(), lastStage);
+    }
+
     private void setupSpeciesRestrictions() {
         romHandler.getRestrictedSpeciesService().setRestrictions(settings.getCurrentRestrictions());
         if (settings.isLimitPokemon()) {
@@ -250,64 +324,267 @@ public class GameRandomizer {
 
 
     private void applyRandomizers() {
+        List<RandomizerStage> stages = getRandomizerStages();
+        if (checkpoints == null) {
+            applyRandomizersThrough(stages, null);
+        } else {
+            applyRandomizersWithCheckpoints(stages);
+        }
+    }
+
+    /**
+     * Applies the randomizers in order, stopping after the stage named "lastStage", or after all of them if null.
+     */
+    private void applyRandomizersThrough(List<RandomizerStage> stages, String lastStage) {
+        for (RandomizerStage stage : stages) {
+            profiler.run(stage.getName(), stage.getAction());
+            if (stage.getName().equals(lastStage)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Applies the randomizers in order, but resumes from the deepest matching checkpoint in {@link #checkpoints}
+     * if there is one, and puts a checkpoint after each stage with a snapshot that is run.
+     */
+    private void applyRandomizersWithCheckpoints(List<RandomizerStage> stages) {
+        Map<String, String> keys = StageCheckpoints.keys(stages, romHandler, settings, randomSource.getSeed());
+        StageCheckpoints.Checkpoint resumedFrom = checkpoints.getDeepest(new ArrayList<>(keys.values()));
+        StageCheckpoints.Checkpoint checkpoint = new StageCheckpoints.Checkpoint(resumedFrom);
+
+        Iterator<RandomizerStage> it = stages.iterator();
+        if (resumedFrom != null) {
+            RandomizerStage stage;
+            do {
+                stage = it.next();
+                resumeStage(stage, resumedFrom);
+            } while (!stage.getName().equals(resumedFrom.getStage()));
+            randomSource.restoreState(resumedFrom.getFinalState());
+            setChangeFlags(resumedFrom.getChangeFlags());
+        }
+
+        while (it.hasNext()) {
+            RandomizerStage stage = it.next();
+            if (checkpoint != null && !stage.hasDeclaredSettings()) {
+                // no later stage can be checkpointed
+                checkpoint = null;
+            }
+            if (checkpoint != null) {
+                checkpoint.recordBefore(stage, randomSource);
+            }
+            profiler.run(stage.getName(), stage.getAction());
+            if (checkpoint != null) {
+                try {
+                    checkpoint.recordAfter(stage, romHandler);
+                } catch (IllegalStateException e) {
+                    // the game data can't be snapshotted, so just run without checkpoints
+                    checkpoint = null;
+                    continue;
+                }
+                if (keys.containsKey(stage.getName())) {
+                    checkpoints.put(keys.get(stage.getName()),
+                            checkpoint.finish(stage.getName(), randomSource, getChangeFlags()));
+                }
+            }
+        }
+    }
 
-        maybeRandomizeTypeEffectiveness();
+    /**
+     * Restores the results of "stage" from "checkpoint", running it again if it is replayed.
+     */
+    private void resumeStage(RandomizerStage stage, StageCheckpoints.Checkpoint checkpoint) {
+        String name = stage.getName();
+        if (stage.isReplayed()) {
+            randomSource.restoreState(checkpoint.getStateBefore(name));
+            profiler.run(name, stage.getAction());
+        }
+        GameDataSnapshot snapshot = checkpoint.getSnapshotAfter(name);
+        if (snapshot != null) {
+            profiler.run(name + "FromCheckpoint", () -> snapshot.restore(romHandler));
+        }
+    }
 
-        maybeRandomizeMoveData();
+    /**
+     * All the randomizers, in a fixed order.
+     */
+    private List<Randomizer> getRandomizers() {
+        List<Randomizer> randomizers = new ArrayList<>(Arrays.asList(introPokeRandomizer, speciesBSRandomizer,
+                speciesTypeRandomizer, speciesAbilityRandomizer, evoRandomizer, starterRandomizer,
+                staticPokeRandomizer, tradeRandomizer, moveDataRandomizer, speciesMovesetRandomizer,
+                trainerPokeRandomizer, trainerMovesetRandomizer, trainerNameRandomizer, wildEncounterRandomizer,
+                encHeldItemRandomizer, tmtMoveRandomizer, tmhmtCompRandomizer, itemRandomizer, typeEffRandomizer,
+                miscTweakRandomizer));
+        if (paletteRandomizer != null) {
+            randomizers.add(paletteRandomizer);
+        }
+        return randomizers;
+    }
 
-        maybeApplyMiscTweaks();
+    private boolean[][] getChangeFlags() {
+        List<Randomizer> randomizers = getRandomizers();
+        boolean[][] changeFlags = new boolean[randomizers.size()][];
+        for (int i = 0; i < changeFlags.length; i++) {
+            changeFlags[i] = randomizers.get(i).getChangeFlags();
+        }
+        return changeFlags;
+    }
 
-        maybeStandardizeEXPCurves();
+    private void setChangeFlags(boolean[][] changeFlags) {
+        List<Randomizer> randomizers = getRandomizers();
+        for (int i = 0; i < changeFlags.length; i++) {
+            randomizers.get(i).setChangeFlags(changeFlags[i]);
+        }
+    }
 
-        // Applied before anything that can be carried up evolutions, so the new evos are used for that.
-        maybeRandomizeEvolutions();
+    /**
+     * The randomizer stages, in the order they are applied. Later stages may depend on earlier ones,
+     * but never the other way around.<br>
+     * Each stage declares the Settings it reads, and how its results are restored from a checkpoint,
+     * see {@link RandomizerStage}. Once one stage has not declared that, the ones after it are never checkpointed.
+     */
+    private List<RandomizerStage> getRandomizerStages() {
+        List<RandomizerStage> stages = new ArrayList<>();
 
-        maybeRandomizeSpeciesTypes();
-        maybeRandomizeWildHeldItems();
-        maybeRandomizeSpeciesBaseStats();
-        maybeRandomizeSpeciesAbilities();
+        stages.add(new RandomizerStage("speciesRestrictions", this::setupSpeciesRestrictions)
+                .reads(Arrays.asList(Settings::isLimitPokemon,
+                        s -> s.getCurrentRestrictions() == null ? null : s.getCurrentRestrictions().toInt()))
+                .replayed());
+        stages.add(new RandomizerStage("updaters", this::applyUpdaters)
+                .reads(Arrays.asList(Settings::isUpdateTypeEffectiveness,
+                        Settings::isUpdateMoves, Settings::getUpdateMovesToGeneration,
+                        Settings::isUpdateBaseStats, Settings::getUpdateBaseStatsToGeneration))
+                .replayed());
 
-        maybeApplyEvolutionImprovements();
+        stages.add(new RandomizerStage(STAGE_TYPE_EFFECTIVENESS, this::maybeRandomizeTypeEffectiveness)
+                .reads(Arrays.asList(Settings::getTypeEffectivenessMod, Settings::isInverseTypesRandomImmunities)));
 
-        // Applied after species types both some settings and the in-game strings should depend on the new types.
-        maybeRandomizeStarters();
+        stages.add(new RandomizerStage("randomizeMoveData", this::maybeRandomizeMoveData)
+                .reads(Arrays.asList(Settings::isRandomizeMovePowers, Settings::isRandomizeMoveAccuracies,
+                        Settings::isRandomizeMovePPs, Settings::isRandomizeMoveTypes,
+                        Settings::isRandomizeMoveCategory))
+                .snapshot(GameDataSnapshot::typesAndMoves));
 
-        maybeRandomizeMovesets();
+        stages.add(new RandomizerStage("applyMiscTweaks", this::maybeApplyMiscTweaks)
+                .reads(Collections.singletonList(Settings::getCurrentMiscTweaks))
+                .replayed());
 
-        maybeRandomizeTMMoves();
-        maybeRandomizeTMHMCompatibility();
+        stages.add(new RandomizerStage("standardizeEXPCurves", this::maybeStandardizeEXPCurves)
+                .reads(Arrays.asList(Settings::isStandardizeEXPCurves, Settings::getExpCurveMod,
+                        Settings::getSelectedEXPCurve)));
 
-        maybeRandomizeMoveTutorMoves();
-        maybeRandomizeMoveTutorCompatibility();
+        // Applied before anything that can be carried up evolutions, so the new evos are used for that.
+        stages.add(new RandomizerStage(STAGE_EVOLUTIONS, this::maybeRandomizeEvolutions)
+                .reads(Arrays.asList(Settings::getEvolutionsMod, Settings::isEvosSimilarStrength,
+                        Settings::isEvosSameTyping, Settings::isEvosMaxThreeStages, Settings::isEvosForceChange,
+                        Settings::isEvosForceGrowth, Settings::isEvosNoConvergence,
+                        Settings::isBanIrregularAltFormes)));
+
+        stages.add(new RandomizerStage(STAGE_SPECIES_TYPES, this::maybeRandomizeSpeciesTypes)
+                .reads(Arrays.asList(Settings::getSpeciesTypesMod, Settings::isDualTypeOnly,
+                        Settings::isChangeNamesToTypes, Settings::isTypesFollowMegaEvolutions)));
+        stages.add(new RandomizerStage("randomizeWildHeldItems", this::maybeRandomizeWildHeldItems)
+                .reads(Arrays.asList(Settings::isRandomizeWildPokemonHeldItems,
+                        Settings::isBanBadRandomWildPokemonHeldItems)));
+        stages.add(new RandomizerStage(STAGE_SPECIES_BASE_STATS, this::maybeRandomizeSpeciesBaseStats)
+                .reads(Arrays.asList(Settings::getBaseStatisticsMod, Settings::isBaseStatsFollowEvolutions,
+                        Settings::isBaseStatsFollowMegaEvolutions, Settings::isAssignEvoStatsRandomly)));
+        stages.add(new RandomizerStage(STAGE_SPECIES_ABILITIES, this::maybeRandomizeSpeciesAbilities)
+                .reads(Arrays.asList(Settings::getAbilitiesMod, Settings::isAllowWonderGuard,
+                        Settings::isAbilitiesFollowEvolutions, Settings::isAbilitiesFollowMegaEvolutions,
+                        Settings::isBanTrappingAbilities, Settings::isBanNegativeAbilities,
+                        Settings::isBanBadAbilities, Settings::isWeighDuplicateAbilitiesTogether,
+                        Settings::isEnsureTwoAbilities, s -> s.getBattleStyle().isOnlyMultiBattles()))
+                .snapshot(GameDataSnapshot::species));
+
+        // Replayed since the RomHandler keeps the evolutions from before the improvements, for the log.
+        stages.add(new RandomizerStage(STAGE_EVOLUTION_IMPROVEMENTS, this::maybeApplyEvolutionImprovements)
+                .reads(Arrays.asList(Settings::isChangeImpossibleEvolutions, Settings::getMovesetsMod,
+                        Settings::isMakeEvolutionsEasier, Settings::isRandomizeWildPokemon,
+                        Settings::isRemoveTimeBasedEvolutions))
+                .replayed());
+
+        // Applied after species types both some settings and the in-game strings should depend on the new types.
+        stages.add(new RandomizerStage(STAGE_STARTERS, this::maybeRandomizeStarters)
+                .reads(Arrays.asList(Settings::getStartersMod, Settings::getStartersTypeMod,
+                        Settings::getStartersSingleType, s -> Arrays.toString(s.getCustomStarters()),
+                        Settings::isAllowStarterAltFormes, Settings::isBanIrregularAltFormes,
+                        Settings::isStartersNoLegendaries, Settings::isStartersNoDualTypes,
+                        Settings::getStartersBSTMinimum, Settings::getStartersBSTMaximum,
+                        Settings::getAbilitiesMod, Settings::isRandomizeStartersHeldItems,
+                        Settings::isBanBadRandomStarterHeldItems))
+                .replayed());
+
+        stages.add(new RandomizerStage("randomizeMovesets", this::maybeRandomizeMovesets)
+                .reads(Arrays.asList(Settings::getMovesetsMod, Settings::isBlockBrokenMovesetMoves,
+                        Settings::isStartWithGuaranteedMoves, Settings::getGuaranteedMoveCount,
+                        Settings::isMovesetsForceGoodDamaging, Settings::getMovesetsGoodDamagingPercent,
+                        Settings::isEvolutionMovesForAll, Settings::isReorderDamagingMoves))
+                .snapshot(GameDataSnapshot::movesets));
+
+        stages.add(new RandomizerStage("randomizeTMMoves", this::maybeRandomizeTMMoves)
+                .reads(Arrays.asList(Settings::getMovesetsMod, Settings::getTmsMod,
+                        Settings::isBlockBrokenTMMoves, Settings::isKeepFieldMoveTMs,
+                        Settings::isTmsForceGoodDamaging, Settings::getTmsGoodDamagingPercent)));
+        stages.add(new RandomizerStage("randomizeTMHMCompatibility", this::maybeRandomizeTMHMCompatibility)
+                .reads(Arrays.asList(Settings::getTmsHmsCompatibilityMod, Settings::isTmLevelUpMoveSanity,
+                        Settings::isTmsFollowEvolutions, Settings::isFullHMCompat))
+                .snapshot(GameDataSnapshot::tmhms));
+
+        stages.add(new RandomizerStage("randomizeMoveTutorMoves", this::maybeRandomizeMoveTutorMoves)
+                .reads(Arrays.asList(Settings::getMovesetsMod, Settings::getMoveTutorMovesMod,
+                        Settings::isBlockBrokenTutorMoves, Settings::isKeepFieldMoveTutors,
+                        Settings::isTutorsForceGoodDamaging, Settings::getTutorsGoodDamagingPercent)));
+        stages.add(new RandomizerStage("randomizeMoveTutorCompatibility",
+                this::maybeRandomizeMoveTutorCompatibility)
+                .reads(Arrays.asList(Settings::getMoveTutorsCompatibilityMod, Settings::isTutorLevelUpMoveSanity,
+                        Settings::isTutorFollowEvolutions))
+                .snapshot(GameDataSnapshot::moveTutors));
+
+        // Replayed since it may patch the ROM to guarantee catching.
+        stages.add(new RandomizerStage("changeCatchRates", this::maybeChangeCatchRates)
+                .reads(Arrays.asList(Settings::isUseMinimumCatchRate, Settings::getMinimumCatchRateLevel))
+                .replayed());
 
         // Applied before trainer randomization so "trainers use local pokémon"
         // may be based on new "local pokémon".
-        maybeRandomizeWildPokemon();
-
-        maybeRandomizeTrainerPokemon();
-        maybeRandomizeTrainerMovesets();
-        maybeFixTrainerZCrystals();
-
-        maybeRandomizeTrainerHeldItems();
-        maybeRandomizeTrainerNames();
+        stages.add(new RandomizerStage(STAGE_WILD_POKEMON, this::maybeRandomizeWildPokemon)
+                .reads(Arrays.asList(Settings::isRandomizeWildPokemon, Settings::isWildLevelsModified,
+                        Settings::getWildLevelModifier, Settings::isUseTimeBasedEncounters,
+                        Settings::getWildPokemonZoneMod, Settings::isSplitWildZoneByEncounterTypes,
+                        Settings::getWildPokemonTypeMod, Settings::isKeepWildTypeThemes,
+                        Settings::getWildPokemonEvolutionMod, Settings::isKeepWildEvolutionFamilies,
+                        Settings::isCatchEmAllEncounters, Settings::isSimilarStrengthEncounters,
+                        Settings::isBlockWildLegendaries, Settings::isBalanceShakingGrass,
+                        Settings::isAllowWildAltFormes, Settings::isBanIrregularAltFormes,
+                        Settings::getAbilitiesMod))
+                .snapshot(GameDataSnapshot::encounters));
+
+        stages.add(new RandomizerStage(STAGE_TRAINER_POKEMON, this::maybeRandomizeTrainerPokemon));
+        stages.add(new RandomizerStage("randomizeTrainerMovesets", this::maybeRandomizeTrainerMovesets));
+        stages.add(new RandomizerStage("fixTrainerZCrystals", this::maybeFixTrainerZCrystals));
+
+        stages.add(new RandomizerStage(STAGE_TRAINER_HELD_ITEMS, this::maybeRandomizeTrainerHeldItems));
+        stages.add(new RandomizerStage("randomizeTrainerNames", this::maybeRandomizeTrainerNames));
 
         // Apply metronome only mode now that trainers have been dealt with
         if (settings.getMovesetsMod() == Settings.MovesetsMod.METRONOME_ONLY) {
-            speciesMovesetRandomizer.metronomeOnlyMode();
+            stages.add(new RandomizerStage("metronomeOnlyMode", speciesMovesetRandomizer::metronomeOnlyMode));
         }
 
-        maybeRandomizeStaticPokemon();
-        maybeRandomizeTotemPokemon();
+        stages.add(new RandomizerStage(STAGE_STATIC_POKEMON, this::maybeRandomizeStaticPokemon));
+        stages.add(new RandomizerStage("randomizeTotemPokemon", this::maybeRandomizeTotemPokemon));
 
-        maybeRandomizeInGameTrades();
+        stages.add(new RandomizerStage("randomizeInGameTrades", this::maybeRandomizeInGameTrades));
 
-        maybeRandomizeFieldItems();
-        maybeRandomizeShops();
-        maybeRandomizePickupItems();
+        stages.add(new RandomizerStage("randomizeFieldItems", this::maybeRandomizeFieldItems));
+        stages.add(new RandomizerStage("randomizeShops", this::maybeRandomizeShops));
+        stages.add(new RandomizerStage("randomizePickupItems", this::maybeRandomizePickupItems));
 
-        maybeRandomizePokemonPalettes();
+        stages.add(new RandomizerStage("randomizePokemonPalettes", this::maybeRandomizePokemonPalettes));
 
-        maybeRandomizeIntroPokemon();
+        stages.add(new RandomizerStage("randomizeIntroPokemon", this::maybeRandomizeIntroPokemon));
+        return stages;
     }
 
     private void maybeRandomizeTypeEffectiveness() {
@@ -622,11 +899,13 @@ public class GameRandomizer {
         }
     }
 
-    private void maybeRandomizeWildPokemon() {
+    private void maybeChangeCatchRates() {
         if (settings.isUseMinimumCatchRate()) {
             wildEncounterRandomizer.changeCatchRates();
         }
+    }
 
+    private void maybeRandomizeWildPokemon() {
         if (settings.isRandomizeWildPokemon() || settings.isWildLevelsModified()) {
             wildEncounterRandomizer.randomizeEncounters();
         }
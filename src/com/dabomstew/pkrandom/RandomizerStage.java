@@ -0,0 +1,107 @@
+package com.dabomstew.pkrandom;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+
+import com.dabomstew.pkromio.romhandlers.RomHandler;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One of the stages of a {@link GameRandomizer} run, as registered in its list of stages.<br>
+ * Besides what the stage does, it declares what {@link StageCheckpoints} need to know to skip it: which
+ * {@link Settings} it reads, and how its results are restored. Only the stages before the first one that
+ * has not declared its Settings can be checkpointed.
+ */
+class RandomizerStage {
+
+    private final String name;
+    private final Runnable action;
+    private List<Function<Settings, Object>> settingsRead;
+    private Function<RomHandler, GameDataSnapshot> snapshot;
+    private boolean replayed;
+
+    RandomizerStage(String name, Runnable action) {
+        this.name = name;
+        this.action = action;
+    }
+
+    /**
+     * Declares the Settings the stage reads. Its results may depend only on those Settings, on the ROM,
+     * and on the stages before it.
+     */
+    RandomizerStage reads(List<Function<Settings, Object>> settingsRead) {
+        this.settingsRead = settingsRead;
+        return this;
+    }
+
+    /**
+     * Declares the snapshot that keeps the stage's results, and those of any stages since the last snapshot
+     * that have none of their own. A checkpoint is put after each stage with a snapshot.
+     */
+    RandomizerStage snapshot(Function<RomHandler, GameDataSnapshot> snapshot) {
+        this.snapshot = snapshot;
+        return this;
+    }
+
+    /**
+     * Declares that the stage patches the ROM itself, or changes state no snapshot covers. When resuming from
+     * a checkpoint it is run again, from the same point in the random sequence as the first time.
+     */
+    RandomizerStage replayed() {
+        this.replayed = true;
+        return this;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Runnable getAction() {
+        return action;
+    }
+
+    boolean hasDeclaredSettings() {
+        return settingsRead != null;
+    }
+
+    List<Function<Settings, Object>> getSettingsRead() {
+        return settingsRead;
+    }
+
+    boolean hasSnapshot() {
+        return snapshot != null;
+    }
+
+    /**
+     * @throws IllegalStateException if the game data can't be snapshotted.
+     */
+    GameDataSnapshot takeSnapshot(RomHandler romHandler) {
+        return snapshot.apply(romHandler);
+    }
+
+    boolean isReplayed() {
+        return replayed;
+    }
+}
@@ -2208,6 +2208,15 @@ public class Settings {
         this.useTimeBasedEncounters = useTimeBasedEncounters;
     }
 
+    /**
+     * Whether the wild encounters are read by time of day when they are shown in the logs, counted in the
+     * check value, or tested by seed searches; that is, when they are randomized that way, or only their
+     * levels are modified.
+     */
+    public boolean isShowTimeBasedEncounters() {
+        return useTimeBasedEncounters || (!randomizeWildPokemon && wildLevelsModified);
+    }
+
     public boolean isBlockWildLegendaries() {
         return blockWildLegendaries;
     }
@@ -0,0 +1,223 @@
+package com.dabomstew.pkrandom;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+
+import com.dabomstew.pkrandom.random.RandomSource;
+import com.dabomstew.pkromio.romhandlers.RomHandler;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Keeps the state of {@link GameRandomizer} runs from after their stages, so a later run with the same ROM and seed
+ * can resume from there instead of running those stages again. Since the stages draw from the same random source
+ * in the same order, the results are the same either way.<br>
+ * A checkpoint is put after each stage that has a snapshot (see {@link RandomizerStage}), and is keyed by the ROM,
+ * the seed, and the values of the {@link Settings} read by the stages up to it, see
+ * {@link #keys(List, RomHandler, Settings, long)}. So a run whose Settings differ only in what later stages do
+ * still resumes from the deepest checkpoint before them.<br>
+ * The least recently used checkpoints are dropped once there are more than the capacity.
+ */
+public class StageCheckpoints {
+
+    /**
+     * A run's state after one of its stages.
+     */
+    static class Checkpoint {
+
+        private final Map<String, RandomSource.State> statesBeforeReplay;
+        private final Map<String, GameDataSnapshot> snapshotsAfter;
+        private String stage;
+        private RandomSource.State finalState;
+        private boolean[][] changeFlags;
+
+        /**
+         * Creates a Checkpoint to record a run in, starting with what "resumedFrom" holds, if it is not null.
+         */
+        Checkpoint(Checkpoint resumedFrom) {
+            if (resumedFrom == null) {
+                statesBeforeReplay = new HashMap<>();
+                snapshotsAfter = new HashMap<>();
+            } else {
+                statesBeforeReplay = new HashMap<>(resumedFrom.statesBeforeReplay);
+                snapshotsAfter = new HashMap<>(resumedFrom.snapshotsAfter);
+            }
+        }
+
+        void recordBefore(RandomizerStage stage, RandomSource randomSource) {
+            if (stage.isReplayed()) {
+                statesBeforeReplay.put(stage.getName(), randomSource.saveState());
+            }
+        }
+
+        /**
+         * Takes the snapshot of "stage", if it has one.
+         *
+         * @throws IllegalStateException if the game data can't be snapshotted, in which case this Checkpoint
+         *                               should be discarded.
+         */
+        void recordAfter(RandomizerStage stage, RomHandler romHandler) {
+            if (stage.hasSnapshot()) {
+                snapshotsAfter.put(stage.getName(), stage.takeSnapshot(romHandler));
+            }
+        }
+
+        /**
+         * Returns a finished Checkpoint of the run as recorded so far, to resume from after "stage".
+         */
+        Checkpoint finish(String stage, RandomSource randomSource, boolean[][] changeFlags) {
+            Checkpoint finished = new Checkpoint(this);
+            finished.stage = stage;
+            finished.finalState = randomSource.saveState();
+            finished.changeFlags = changeFlags;
+            return finished;
+        }
+
+        /**
+         * Returns the stage this Checkpoint is from after.
+         */
+        String getStage() {
+            return stage;
+        }
+
+        RandomSource.State getStateBefore(String stage) {
+            return statesBeforeReplay.get(stage);
+        }
+
+        /**
+         * Returns the snapshot to restore after "stage", or null if there is none.
+         */
+        GameDataSnapshot getSnapshotAfter(String stage) {
+            return snapshotsAfter.get(stage);
+        }
+
+        RandomSource.State getFinalState() {
+            return finalState;
+        }
+
+        boolean[][] getChangeFlags() {
+            return changeFlags;
+        }
+    }
+
+    public static final int DEFAULT_CAPACITY = 32;
+
+    private final Map<String, Checkpoint> checkpoints;
+
+    public StageCheckpoints() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public StageCheckpoints(final int capacity) {
+        this.checkpoints = new LinkedHashMap<String, Checkpoint>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Checkpoint> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    synchronized void put(String key, Checkpoint checkpoint) {
+        checkpoints.put(key, checkpoint);
+    }
+
+    public synchronized int size() {
+        return checkpoints.size();
+    }
+
+    public synchronized void clear() {
+        checkpoints.clear();
+    }
+
+    /**
+     * Returns the checkpoint with the latest stage among those with "keys", or null if there is none.
+     */
+    synchronized Checkpoint getDeepest(List<String> keys) {
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            Checkpoint checkpoint = checkpoints.get(keys.get(i));
+            if (checkpoint != null) {
+                return checkpoint;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The keys of the checkpoints for randomizing the ROM loaded by "romHandler" with "settings" and "seed",
+     * by the stage each is after, in order. Only stages before the first one that has not declared its Settings
+     * have a key.<br>
+     * A key identifies the ROM by its file, ROM code and any loaded game update, and the settings by a hash of
+     * the values of those read by the stages up to its own.
+     */
+    static Map<String, String> keys(List<RandomizerStage> stages, RomHandler romHandler, Settings settings,
+                                    long seed) {
+        String romKey = romKey(romHandler) + '|' + seed + '|';
+        Map<String, String> keys = new LinkedHashMap<>();
+        StringBuilder settingsRead = new StringBuilder();
+        for (RandomizerStage stage : stages) {
+            if (!stage.hasDeclaredSettings()) {
+                break;
+            }
+            settingsRead.append(stage.getName());
+            for (Function<Settings, Object> setting : stage.getSettingsRead()) {
+                settingsRead.append(',').append(setting.apply(settings));
+            }
+            settingsRead.append(';');
+            if (stage.hasSnapshot()) {
+                keys.put(stage.getName(), romKey + sha256(settingsRead.toString()));
+            }
+        }
+        return keys;
+    }
+
+    private static String romKey(RomHandler romHandler) {
+        File file = new File(romHandler.loadedFilename());
+        StringBuilder sb = new StringBuilder();
+        sb.append(file.getAbsolutePath()).append('|').append(file.length()).append('|').append(file.lastModified());
+        sb.append('|').append(romHandler.getROMCode());
+        if (romHandler.hasGameUpdateLoaded()) {
+            sb.append('|').append(romHandler.getGameUpdateVersion());
+        }
+        return sb.toString();
+    }
+
+    private static String sha256(String s) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.dabomstew.pkrandom;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+import com.dabomstew.pkrandom.random.RandomSource;
+import com.dabomstew.pkromio.JsonFunctions;
+import com.dabomstew.pkromio.instrumentation.Instrumentation;
+import com.dabomstew.pkromio.instrumentation.Subsystem;
+
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures each stage of a {@link GameRandomizer} run: wall time, CPU time, allocated bytes and RNG calls.
+ * CPU time and allocated bytes are those of the current thread, and are reported as -1 if the JVM
+ * does not support measuring them.
+ */
+public class StageProfiler {
+
+    public static class StageProfile {
+
+        private final String name;
+        private final long wallNanos;
+        private final long cpuNanos;
+        private final long allocatedBytes;
+        private final int rngCalls;
+
+        private StageProfile(String name, long wallNanos, long cpuNanos, long allocatedBytes, int rngCalls) {
+            this.name = name;
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.rngCalls = rngCalls;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        public long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public int getRngCalls() {
+            return rngCalls;
+        }
+    }
+
+    /**
+     * A stage that may throw, e.g. saving the ROM.
+     */
+    public interface Stage<T> {
+        T run() throws Exception;
+    }
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final RandomSource randomSource;
+    private final boolean cpuTimeSupported;
+    private final com.sun.management.ThreadMXBean allocationMXBean;
+    private final List<StageProfile> stages = new ArrayList<>();
+
+    public StageProfiler(RandomSource randomSource) {
+        this.randomSource = randomSource;
+        this.cpuTimeSupported = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()
+                && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+        if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemoryEnabled()) {
+            this.allocationMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+        } else {
+            this.allocationMXBean = null;
+        }
+    }
+
+    public void clear() {
+        stages.clear();
+    }
+
+    public void run(String name, Runnable stage) {
+        try {
+            call(name, () -> {
+                stage.run();
+                return null;
+            });
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            // can't happen, Runnables don't throw checked exceptions
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public <T> T call(String name, Stage<T> stage) throws Exception {
+        long wallStart = System.nanoTime();
+        long cpuStart = cpuTime();
+        long allocStart = allocatedBytes();
+        int rngStart = randomSource.callsSinceSeed();
+        Instrumentation.Timer timer = Instrumentation.time(Subsystem.RANDOMIZER_STAGE, name);
+        try {
+            return stage.run();
+        } finally {
+            timer.close();
+            long cpuEnd = cpuTime();
+            long allocEnd = allocatedBytes();
+            stages.add(new StageProfile(name, System.nanoTime() - wallStart,
+                    cpuStart < 0 ? -1 : cpuEnd - cpuStart,
+                    allocStart < 0 ? -1 : allocEnd - allocStart,
+                    randomSource.callsSinceSeed() - rngStart));
+        }
+    }
+
+    private long cpuTime() {
+        return cpuTimeSupported ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : -1;
+    }
+
+    private long allocatedBytes() {
+        return allocationMXBean == null ? -1 : allocationMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public List<StageProfile> getStages() {
+        return Collections.unmodifiableList(stages);
+    }
+
+    /**
+     * Writes the stages as a JSON array, one object per stage, in the order they were run.
+     */
+    public static void writeJson(PrintWriter pw, List<StageProfile> stages) {
+        pw.println("[");
+        for (int i = 0; i < stages.size(); i++) {
+            StageProfile s = stages.get(i);
+            pw.printf(Locale.ROOT, "  {\"stage\": %s, \"wallNanos\": %d, \"cpuNanos\": %d, "
+                            + "\"allocatedBytes\": %d, \"rngCalls\": %d}%s%n",
+                    JsonFunctions.quote(s.getName()), s.getWallNanos(), s.getCpuNanos(), s.getAllocatedBytes(),
+                    s.getRngCalls(), i == stages.size() - 1 ? "" : ",");
+        }
+        pw.print("]");
+    }
+}
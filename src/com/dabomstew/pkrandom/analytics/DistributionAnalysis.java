@@ -0,0 +1,298 @@
+package com.dabomstew.pkrandom.analytics;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+
+import com.dabomstew.pkrandom.GameRandomizer;
+import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkrandom.seedsearch.SeedSearch;
+import com.dabomstew.pkromio.ConcurrencyFunctions;
+import com.dabomstew.pkromio.JsonFunctions;
+import com.dabomstew.pkromio.gamedata.*;
+import com.dabomstew.pkromio.romhandlers.RomHandler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Randomizes many seeds with the same settings and counts what comes out, to check how the randomizers
+ * are distributed in practice; e.g. whether "distributed" trainer Pokemon really spread evenly over the
+ * species. The counts are taken straight from the {@link Trainer}s, {@link EncounterArea}s and {@link Species}
+ * of each randomized {@link RomHandler}, with nothing saved or logged.<br>
+ * Like {@link SeedSearch}, each thread loads one RomHandler and restores it before each seed, and each seed is
+ * only randomized as far as {@link GameRandomizer#STAGE_TRAINER_HELD_ITEMS}, the last stage any of the
+ * counts depend on. The seeds are spread over a number of threads, each counting into its own histograms,
+ * which are only added together at the end.
+ */
+public class DistributionAnalysis {
+
+    public static final String TRAINER_SPECIES = "trainerSpecies";
+    public static final String WILD_SPECIES = "wildSpecies";
+    public static final String TYPES = "types";
+    public static final String ABILITIES = "abilities";
+    public static final String TRAINER_HELD_ITEMS = "trainerHeldItems";
+
+    /**
+     * The categories counted, in the order they are written.
+     */
+    public static final List<String> CATEGORIES = Collections.unmodifiableList(Arrays.asList(
+            TRAINER_SPECIES, WILD_SPECIES, TYPES, ABILITIES, TRAINER_HELD_ITEMS));
+
+    private static final String LAST_STAGE = GameRandomizer.STAGE_TRAINER_HELD_ITEMS;
+
+    public static class Results {
+        private final long firstSeed;
+        private final long analyzed;
+        private final long failed;
+        private final long nanos;
+        private final Map<String, Histogram> histograms;
+
+        private Results(long firstSeed, long analyzed, long failed, long nanos, Map<String, Histogram> histograms) {
+            this.firstSeed = firstSeed;
+            this.analyzed = analyzed;
+            this.failed = failed;
+            this.nanos = nanos;
+            this.histograms = histograms;
+        }
+
+        public long getFirstSeed() {
+            return firstSeed;
+        }
+
+        /**
+         * How many seeds were randomized and counted.
+         */
+        public long getAnalyzed() {
+            return analyzed;
+        }
+
+        /**
+         * How many seeds could not be randomized at all, e.g. because some randomizer threw a
+         * RandomizationException. These are not counted.
+         */
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * @param category One of the {@link #CATEGORIES}.
+         */
+        public Histogram getHistogram(String category) {
+            return histograms.get(category);
+        }
+
+        /**
+         * Writes one "category,key,count,perSeed" row per key, most common first within each category.
+         */
+        public void writeCsv(Writer out) throws IOException {
+            out.write("category,key,count,perSeed\n");
+            for (String category : CATEGORIES) {
+                Histogram histogram = histograms.get(category);
+                for (String key : histogram.keysByCount()) {
+                    long count = histogram.getCount(key);
+                    out.write(category + "," + csvField(key) + "," + count + ","
+                            + String.format(Locale.ROOT, "%.6f", perSeed(count)) + "\n");
+                }
+            }
+        }
+
+        /**
+         * Writes the counts as a single JSON object, with the keys of each category most common first.
+         */
+        public void writeJson(Writer out) throws IOException {
+            out.write("{\n");
+            out.write("\"firstSeed\": " + firstSeed + ",\n");
+            out.write("\"analyzedSeeds\": " + analyzed + ",\n");
+            out.write("\"failedSeeds\": " + failed + ",\n");
+            out.write("\"categories\": {");
+            for (int i = 0; i < CATEGORIES.size(); i++) {
+                String category = CATEGORIES.get(i);
+                Histogram histogram = histograms.get(category);
+                out.write(i == 0 ? "\n" : ",\n");
+                out.write("  " + JsonFunctions.quote(category) + ": {\"total\": " + histogram.getTotal()
+                        + ", \"counts\": [");
+                List<String> keys = histogram.keysByCount();
+                for (int j = 0; j < keys.size(); j++) {
+                    long count = histogram.getCount(keys.get(j));
+                    out.write(j == 0 ? "\n" : ",\n");
+                    out.write(String.format(Locale.ROOT, "    {\"key\": %s, \"count\": %d, \"perSeed\": %.6f}",
+                            JsonFunctions.quote(keys.get(j)), count, perSeed(count)));
+                }
+                out.write(keys.isEmpty() ? "]}" : "\n  ]}");
+            }
+            out.write("\n}\n}\n");
+        }
+
+        private double perSeed(long count) {
+            return analyzed == 0 ? 0 : (double) count / analyzed;
+        }
+    }
+
+    private final Settings settings;
+    private final Supplier<RomHandler> romHandlerFactory;
+    private final ResourceBundle bundle;
+
+    private Predicate<Trainer> trainerFilter = tr -> true;
+
+    private volatile boolean cancelled;
+
+    /**
+     * @param settings The settings to randomize with. These should already be tweaked for the ROM
+     *                 (see {@link Settings#tweakForRom(RomHandler)}), and are not changed by the analysis.
+     * @param romHandlerFactory Gives a freshly loaded RomHandler each time. Called from several threads.
+     *                          The analysis unloads them once done with them.
+     */
+    public DistributionAnalysis(Settings settings, Supplier<RomHandler> romHandlerFactory, ResourceBundle bundle) {
+        this.settings = settings;
+        this.romHandlerFactory = romHandlerFactory;
+        this.bundle = bundle;
+    }
+
+    /**
+     * Limits which trainers' Pokemon and held items are counted, e.g. to leave out the rivals,
+     * whose teams follow their starters rather than the trainer Pokemon settings.
+     */
+    public void setTrainerFilter(Predicate<Trainer> trainerFilter) {
+        this.trainerFilter = trainerFilter;
+    }
+
+    /**
+     * Makes a running {@link #run} stop after the seeds it is currently randomizing.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Randomizes and counts the seeds from "firstSeed" up to (not including) "firstSeed + seedCount".
+     *
+     * @param onProgress Given the number of seeds done so far, after each seed. May be called from any thread.
+     */
+    public Results run(long firstSeed, long seedCount, int threads, LongConsumer onProgress)
+            throws InterruptedException {
+        cancelled = false;
+        long start = System.nanoTime();
+        AtomicLong done = new AtomicLong(0);
+        AtomicLong failed = new AtomicLong(0);
+
+        List<Worker> workers = ConcurrencyFunctions.runWorkers(seedCount, threads, () -> cancelled, () -> new Worker() {
+            @Override
+            public void run(long i) {
+                // if the ROM can't be loaded, it won't load for the next seed either, so that ends the analysis
+                RomHandler romHandler = reused.next();
+                try {
+                    new GameRandomizer(settings, null, romHandler, bundle, false)
+                            .randomizeThrough(firstSeed + i, LAST_STAGE);
+                    count(romHandler, histograms);
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                }
+                onProgress.accept(done.incrementAndGet());
+            }
+        });
+
+        Map<String, Histogram> total = emptyHistograms();
+        for (Worker worker : workers) {
+            for (String category : CATEGORIES) {
+                total.get(category).addAll(worker.histograms.get(category));
+            }
+        }
+        return new Results(firstSeed, done.get() - failed.get(), failed.get(), System.nanoTime() - start, total);
+    }
+
+    private static Map<String, Histogram> emptyHistograms() {
+        Map<String, Histogram> histograms = new HashMap<>();
+        for (String category : CATEGORIES) {
+            histograms.put(category, new Histogram());
+        }
+        return histograms;
+    }
+
+    /**
+     * One thread's share of a {@link #run}, counting its seeds into its own histograms.
+     */
+    private abstract class Worker implements ConcurrencyFunctions.Worker {
+        final Map<String, Histogram> histograms = emptyHistograms();
+        final SeedSearch.ReusedRomHandler reused = new SeedSearch.ReusedRomHandler(romHandlerFactory, LAST_STAGE);
+
+        @Override
+        public void close() {
+            reused.unload();
+        }
+    }
+
+    private void count(RomHandler romHandler, Map<String, Histogram> histograms) {
+        for (Trainer tr : romHandler.getTrainers()) {
+            if (!trainerFilter.test(tr)) {
+                continue;
+            }
+            for (TrainerPokemon tp : tr.getPokemon()) {
+                histograms.get(TRAINER_SPECIES).add(tp.getSpecies().getFullName());
+                if (tp.getHeldItem() != null) {
+                    histograms.get(TRAINER_HELD_ITEMS).add(tp.getHeldItem().getName());
+                }
+            }
+        }
+
+        for (EncounterArea area : romHandler.getEncounters(settings.isShowTimeBasedEncounters())) {
+            if (area.getEncounterType() == EncounterType.UNUSED) {
+                continue;
+            }
+            for (Encounter enc : area) {
+                histograms.get(WILD_SPECIES).add(enc.getSpecies().getFullName());
+            }
+        }
+
+        boolean hasAbilities = romHandler.abilitiesPerSpecies() > 0;
+        for (Species sp : romHandler.getSpeciesSetInclFormes()) {
+            histograms.get(TYPES).add(sp.getPrimaryType(false).toString());
+            if (sp.getSecondaryType(false) != null) {
+                histograms.get(TYPES).add(sp.getSecondaryType(false).toString());
+            }
+            if (hasAbilities) {
+                for (int ability : new HashSet<>(Arrays.asList(sp.getAbility1(), sp.getAbility2(), sp.getAbility3()))) {
+                    if (ability != 0) {
+                        histograms.get(ABILITIES).add(romHandler.abilityName(ability));
+                    }
+                }
+            }
+        }
+    }
+
+    private static String csvField(String s) {
+        if (s.contains(",") || s.contains("\"") || s.contains("\n")) {
+            return "\"" + s.replace("\"", "\"\"") + "\"";
+        }
+        return s;
+    }
+
+}
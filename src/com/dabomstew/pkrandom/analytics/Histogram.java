@@ -0,0 +1,83 @@
+package com.dabomstew.pkrandom.analytics;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+
+import java.util.*;
+
+/**
+ * Counts how often each key (a species name, a type, ...) has been seen.
+ * Not thread-safe; give each thread its own and {@link #addAll(Histogram)} them together afterwards.
+ */
+public class Histogram {
+
+    private final Map<String, long[]> counts = new HashMap<>();
+    private long total;
+
+    public void add(String key) {
+        add(key, 1);
+    }
+
+    public void add(String key, long count) {
+        long[] c = counts.get(key);
+        if (c == null) {
+            c = new long[1];
+            counts.put(key, c);
+        }
+        c[0] += count;
+        total += count;
+    }
+
+    public void addAll(Histogram other) {
+        for (Map.Entry<String, long[]> entry : other.counts.entrySet()) {
+            add(entry.getKey(), entry.getValue()[0]);
+        }
+    }
+
+    public long getCount(String key) {
+        long[] c = counts.get(key);
+        return c == null ? 0 : c[0];
+    }
+
+    /**
+     * The sum of all counts.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    public int size() {
+        return counts.size();
+    }
+
+    /**
+     * The keys, most common first. Keys that are equally common are in alphabetical order,
+     * so the order does not depend on the order things were counted in.
+     */
+    public List<String> keysByCount() {
+        List<String> keys = new ArrayList<>(counts.keySet());
+        keys.sort(Comparator.comparingLong((String key) -> -counts.get(key)[0]).thenComparing(Comparator.naturalOrder()));
+        return keys;
+    }
+
+}
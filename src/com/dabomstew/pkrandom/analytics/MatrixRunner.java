@@ -0,0 +1,426 @@
+package com.dabomstew.pkrandom.analytics;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+
+import com.dabomstew.pkrandom.GameRandomizer;
+import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkrandom.StageProfiler;
+import com.dabomstew.pkrandom.customnames.CustomNamesSet;
+import com.dabomstew.pkrandom.exceptions.RandomizationException;
+import com.dabomstew.pkrandom.log.LogFile;
+import com.dabomstew.pkromio.ConcurrencyFunctions;
+import com.dabomstew.pkromio.exceptions.RomIOException;
+import com.dabomstew.pkromio.romhandlers.RomHandler;
+import com.dabomstew.pkromio.romio.RomOpener;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Randomizes and saves every combination of a set of ROMs, a set of settings presets (.rnqs files) and a number
+ * of seeds, timing each run and collecting every failure. Meant to be run on a new build before it is released,
+ * to catch both randomizers that started failing for some ROM/settings combination, and ones that got slower.<br>
+ * Each run loads its own copy of the ROM and reads its own copy of the settings (since
+ * {@link Settings#tweakForRom(RomHandler)} changes them), randomizes it with the run's seed, and saves it to a
+ * temporary file which is deleted right after, together with the copy of the ROM. The runs are independent, so they are handed to a work-stealing
+ * pool as separate tasks, which keeps all threads busy even though e.g. 3DS runs take far longer than GB ones.<br>
+ * The time taken by the "saveRom" stage is reported as the save latency, and that of every stage before it
+ * as the randomize latency. Logging is not timed, as the log is thrown away.
+ */
+public class MatrixRunner {
+
+    /**
+     * The outcome of a single ROM/preset/seed run.
+     */
+    public static class Run {
+        private final String rom;
+        private final String preset;
+        private final long seed;
+        private final long randomizeNanos;
+        private final long saveNanos;
+        private final String failedStage;
+        private final Exception exception;
+
+        private Run(String rom, String preset, long seed, long randomizeNanos, long saveNanos,
+                    String failedStage, Exception exception) {
+            this.rom = rom;
+            this.preset = preset;
+            this.seed = seed;
+            this.randomizeNanos = randomizeNanos;
+            this.saveNanos = saveNanos;
+            this.failedStage = failedStage;
+            this.exception = exception;
+        }
+
+        public String getRom() {
+            return rom;
+        }
+
+        public String getPreset() {
+            return preset;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public long getRandomizeNanos() {
+            return randomizeNanos;
+        }
+
+        public long getSaveNanos() {
+            return saveNanos;
+        }
+
+        public boolean wasSuccessful() {
+            return exception == null;
+        }
+
+        /**
+         * The stage that threw, or null if the run was successful or failed before randomizing.
+         */
+        public String getFailedStage() {
+            return failedStage;
+        }
+
+        public Exception getException() {
+            return exception;
+        }
+
+        public boolean isRandomizationException() {
+            return exception instanceof RandomizationException;
+        }
+    }
+
+    public static class Results {
+        private final List<Run> runs;
+        private final long peakHeapBytes;
+        private final long nanos;
+
+        private Results(List<Run> runs, long peakHeapBytes, long nanos) {
+            this.runs = runs;
+            this.peakHeapBytes = peakHeapBytes;
+            this.nanos = nanos;
+        }
+
+        /**
+         * All runs, ordered by ROM, preset and seed.
+         */
+        public List<Run> getRuns() {
+            return runs;
+        }
+
+        public List<Run> getFailures() {
+            List<Run> failures = new ArrayList<>();
+            for (Run run : runs) {
+                if (!run.wasSuccessful()) {
+                    failures.add(run);
+                }
+            }
+            return failures;
+        }
+
+        /**
+         * The highest heap usage seen during the whole matrix, as the sum of the peaks of each heap memory pool.
+         * Since the pools need not peak at the same time, this may somewhat overestimate the true peak.
+         */
+        public long getPeakHeapBytes() {
+            return peakHeapBytes;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Writes one "rom,preset,runs,failed,randomizationExceptions,randomizeP50Millis,randomizeP95Millis,
+         * saveP50Millis,saveP95Millis" row per ROM and preset, followed by a row with rom and preset "*"
+         * covering all runs. The latencies only count successful runs.
+         */
+        public void writeSummaryCsv(Writer out) throws IOException {
+            out.write("rom,preset,runs,failed,randomizationExceptions,randomizeP50Millis,randomizeP95Millis," +
+                    "saveP50Millis,saveP95Millis\n");
+            Map<String, List<Run>> cells = new LinkedHashMap<>();
+            for (Run run : runs) {
+                cells.computeIfAbsent(run.rom + "\n" + run.preset, k -> new ArrayList<>()).add(run);
+            }
+            for (List<Run> cell : cells.values()) {
+                writeSummaryRow(out, cell.get(0).rom, cell.get(0).preset, cell);
+            }
+            writeSummaryRow(out, "*", "*", runs);
+        }
+
+        private static void writeSummaryRow(Writer out, String rom, String preset, List<Run> cellRuns)
+                throws IOException {
+            List<Long> randomize = new ArrayList<>();
+            List<Long> save = new ArrayList<>();
+            int failed = 0;
+            int randomizationExceptions = 0;
+            for (Run run : cellRuns) {
+                if (run.wasSuccessful()) {
+                    randomize.add(run.randomizeNanos);
+                    save.add(run.saveNanos);
+                } else {
+                    failed++;
+                    if (run.isRandomizationException()) {
+                        randomizationExceptions++;
+                    }
+                }
+            }
+            long[] randomizeNanos = sorted(randomize);
+            long[] saveNanos = sorted(save);
+            out.write(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%.1f,%.1f,%.1f,%.1f%n", csvField(rom),
+                    csvField(preset), cellRuns.size(), failed, randomizationExceptions,
+                    percentile(randomizeNanos, 50) / 1e6, percentile(randomizeNanos, 95) / 1e6,
+                    percentile(saveNanos, 50) / 1e6, percentile(saveNanos, 95) / 1e6));
+        }
+
+        /**
+         * Writes one "rom,preset,seed,stage,exception,message" row per failed run.
+         */
+        public void writeFailuresCsv(Writer out) throws IOException {
+            out.write("rom,preset,seed,stage,exception,message\n");
+            for (Run run : getFailures()) {
+                out.write(csvField(run.rom) + "," + csvField(run.preset) + "," + run.seed + ","
+                        + csvField(run.failedStage == null ? "" : run.failedStage) + ","
+                        + run.exception.getClass().getSimpleName() + ","
+                        + csvField(String.valueOf(run.exception.getMessage())) + "\n");
+            }
+        }
+    }
+
+    private static long[] sorted(List<Long> values) {
+        long[] array = new long[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        Arrays.sort(array);
+        return array;
+    }
+
+    /**
+     * The nearest-rank percentile of an already sorted array, or 0 if it is empty.
+     *
+     * @param p The percentile, from 0 to 100.
+     */
+    public static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    private static final String SAVE_STAGE = "saveRom";
+    private static final String LOG_STAGE = "log";
+
+    private final List<File> roms;
+    private final List<File> presets;
+    private final CustomNamesSet customNames;
+    private final ResourceBundle bundle;
+    private final ThreadLocal<RomOpener> romOpeners = ThreadLocal.withInitial(RomOpener::new);
+
+    private volatile boolean cancelled;
+
+    /**
+     * @param roms        The ROMs to randomize. Each must be openable; see {@link #findRoms(File)}.
+     * @param presets     The settings files to randomize them with.
+     * @param customNames Given to the settings of each run, as the CLI does. May be null.
+     */
+    public MatrixRunner(List<File> roms, List<File> presets, CustomNamesSet customNames, ResourceBundle bundle) {
+        this.roms = new ArrayList<>(roms);
+        this.presets = new ArrayList<>(presets);
+        this.customNames = customNames;
+        this.bundle = bundle;
+    }
+
+    /**
+     * Returns the files in "dir" that open as a supported ROM, sorted by name. Other files are left out,
+     * and reported through "onSkipped".
+     */
+    public static List<File> findRoms(File dir, Consumer<String> onSkipped) {
+        List<File> roms = new ArrayList<>();
+        RomOpener romOpener = new RomOpener();
+        for (File file : sortedFiles(dir)) {
+            RomOpener.Results results = romOpener.openRomFile(file);
+            if (results.wasOpeningSuccessful()) {
+                results.getRomHandler().unloadRom();
+                roms.add(file);
+            } else {
+                onSkipped.accept(file.getName() + "; " + results.getFailType());
+            }
+        }
+        return roms;
+    }
+
+    /**
+     * Returns the .rnqs files in "dir", sorted by name.
+     */
+    public static List<File> findPresets(File dir) {
+        List<File> presets = new ArrayList<>();
+        for (File file : sortedFiles(dir)) {
+            if (file.getName().toLowerCase().endsWith(".rnqs")) {
+                presets.add(file);
+            }
+        }
+        return presets;
+    }
+
+    private static List<File> sortedFiles(File dir) {
+        File[] files = dir.listFiles(File::isFile);
+        if (files == null) {
+            throw new RomIOException("Could not list " + dir);
+        }
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        return Arrays.asList(files);
+    }
+
+    /**
+     * Makes a running {@link #run} skip the runs it has not yet started.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Runs every ROM with every preset and each seed from "firstSeed" up to (not including)
+     * "firstSeed + seedCount".
+     *
+     * @param onProgress Given the number of runs done so far, after each run. May be called from any thread.
+     */
+    public Results run(long firstSeed, int seedCount, int threads, LongConsumer onProgress)
+            throws InterruptedException {
+        cancelled = false;
+        long start = System.nanoTime();
+        List<MemoryPoolMXBean> heapPools = heapPools();
+        for (MemoryPoolMXBean pool : heapPools) {
+            pool.resetPeakUsage();
+        }
+
+        AtomicLong done = new AtomicLong(0);
+        List<Callable<Run>> tasks = new ArrayList<>();
+        for (File rom : roms) {
+            for (File preset : presets) {
+                for (int i = 0; i < seedCount; i++) {
+                    long seed = firstSeed + i;
+                    tasks.add(() -> {
+                        Run run = cancelled ? null : runOne(rom, preset, seed);
+                        onProgress.accept(done.incrementAndGet());
+                        return run;
+                    });
+                }
+            }
+        }
+
+        List<Run> runs = new ArrayList<>();
+        for (Run run : ConcurrencyFunctions.invokeAllAndUnwrap(tasks, threads)) {
+            if (run != null) {
+                runs.add(run);
+            }
+        }
+
+        long peakHeapBytes = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakHeapBytes += pool.getPeakUsage().getUsed();
+        }
+        return new Results(runs, peakHeapBytes, System.nanoTime() - start);
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                heapPools.add(pool);
+            }
+        }
+        return heapPools;
+    }
+
+    private Run runOne(File romFile, File presetFile, long seed) {
+        String rom = romFile.getName();
+        String preset = presetFile.getName();
+        File output = null;
+        RomHandler romHandler = null;
+        try {
+            Settings settings;
+            try (FileInputStream fis = new FileInputStream(presetFile)) {
+                settings = Settings.read(fis);
+            }
+            if (customNames != null) {
+                settings.setCustomNames(customNames);
+            }
+            RomOpener.Results opened = romOpeners.get().openRomFile(romFile);
+            if (!opened.wasOpeningSuccessful()) {
+                throw new RomIOException("Could not load " + romFile + "; " + opened.getFailType());
+            }
+            romHandler = opened.getRomHandler();
+            settings.tweakForRom(romHandler);
+
+            output = Files.createTempFile("matrix", "." + romHandler.getDefaultExtension()).toFile();
+            GameRandomizer.Results results = new GameRandomizer(settings, null, romHandler, bundle, false)
+                    .randomize(output.getAbsolutePath(), LogFile.NULL_LOG, seed);
+
+            long randomizeNanos = 0;
+            long saveNanos = 0;
+            List<StageProfiler.StageProfile> stages = results.getStageProfiles();
+            for (StageProfiler.StageProfile stage : stages) {
+                if (stage.getName().equals(SAVE_STAGE)) {
+                    saveNanos = stage.getWallNanos();
+                } else if (!stage.getName().equals(LOG_STAGE)) {
+                    randomizeNanos += stage.getWallNanos();
+                }
+            }
+            if (!results.wasSaveSuccessful()) {
+                String failedStage = stages.isEmpty() ? null : stages.get(stages.size() - 1).getName();
+                return new Run(rom, preset, seed, randomizeNanos, saveNanos, failedStage, results.getException());
+            }
+            return new Run(rom, preset, seed, randomizeNanos, saveNanos, null, null);
+        } catch (Exception e) {
+            return new Run(rom, preset, seed, 0, 0, null, e);
+        } finally {
+            if (romHandler != null) {
+                romHandler.unloadRom();
+            }
+            if (output != null && !output.delete()) {
+                output.deleteOnExit();
+            }
+        }
+    }
+
+    private static String csvField(String s) {
+        if (s.contains(",") || s.contains("\"") || s.contains("\n")) {
+            return "\"" + s.replace("\"", "\"\"") + "\"";
+        }
+        return s;
+    }
+
+}
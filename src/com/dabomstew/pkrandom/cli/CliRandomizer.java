@@ -2,14 +2,25 @@ package com.dabomstew.pkrandom.cli;
 
 import com.dabomstew.pkrandom.GameRandomizer;
 import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkrandom.StageProfiler;
+import com.dabomstew.pkrandom.analytics.DistributionAnalysis;
+import com.dabomstew.pkrandom.analytics.MatrixRunner;
 import com.dabomstew.pkrandom.customnames.CustomNamesSet;
+import com.dabomstew.pkrandom.log.LogFile;
+import com.dabomstew.pkrandom.random.SeedPicker;
+import com.dabomstew.pkrandom.seedsearch.SeedPredicate;
+import com.dabomstew.pkrandom.seedsearch.SeedPredicates;
+import com.dabomstew.pkrandom.seedsearch.SeedSearch;
 import com.dabomstew.pkromio.FileFunctions;
+import com.dabomstew.pkromio.gamedata.Type;
+import com.dabomstew.pkromio.graphics.images.SpriteAtlas;
 import com.dabomstew.pkromio.romhandlers.Abstract3DSRomHandler;
 import com.dabomstew.pkromio.romhandlers.AbstractDSRomHandler;
 import com.dabomstew.pkromio.romhandlers.RomHandler;
 import com.dabomstew.pkromio.romio.RomOpener;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -25,7 +36,8 @@ public class CliRandomizer {
 
     private static boolean performDirectRandomization(String settingsFilePath, String sourceRomFilePath,
                                                       String destinationRomFilePath, boolean saveAsDirectory,
-                                                      String updateFilePath, boolean saveLog) {
+                                                      String updateFilePath, boolean saveLog,
+                                                      String structuredLogFilePath, String profileFilePath) {
         Settings settings;
         try {
             File fh = new File(settingsFilePath);
@@ -39,20 +51,14 @@ public class CliRandomizer {
             return false;
         }
 
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PrintStream log;
-        try {
-            log = new PrintStream(baos, false, "UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            log = new PrintStream(baos);
-        }
-
-        final PrintStream verboseLog = log;
-
+        LogFile logFile = null;
+        Writer structuredLog = null;
         try {
             File romFile = new File(sourceRomFilePath);
 
+            long loadStart = System.nanoTime();
             RomOpener.Results results = romOpener.openRomFile(romFile);
+            long loadNanos = System.nanoTime() - loadStart;
             if (results.wasOpeningSuccessful()) {
                 RomHandler romHandler = results.getRomHandler();
 
@@ -87,22 +93,31 @@ public class CliRandomizer {
 
                 String filename = fh.getAbsolutePath();
 
-                GameRandomizer randomizer = new GameRandomizer(settings, null, romHandler, bundle, saveAsDirectory);
-                randomizer.randomize(filename, verboseLog);
-                verboseLog.close();
-                byte[] out = baos.toByteArray();
+                // the log is streamed straight to its file while randomizing, or not written at all
+                PrintStream log = LogFile.NULL_LOG;
                 if (saveLog) {
                     try {
-                        FileOutputStream fos = new FileOutputStream(filename + ".log");
-                        fos.write(0xEF);
-                        fos.write(0xBB);
-                        fos.write(0xBF);
-                        fos.write(out);
-                        fos.close();
+                        logFile = LogFile.to(new File(filename + ".log"));
+                        log = logFile.getPrintStream();
                     } catch (IOException e) {
                         printWarning("Could not write log.");
                     }
                 }
+                if (structuredLogFilePath != null) {
+                    try {
+                        structuredLog = new BufferedWriter(new OutputStreamWriter(
+                                new FileOutputStream(structuredLogFilePath), StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        printWarning("Could not write structured log.");
+                    }
+                }
+
+                GameRandomizer randomizer = new GameRandomizer(settings, null, romHandler, bundle, saveAsDirectory);
+                long seed = SeedPicker.pickSeed();
+                GameRandomizer.Results randomizationResults = randomizer.randomize(filename, log, seed, structuredLog);
+                if (profileFilePath != null) {
+                    writeProfile(profileFilePath, loadNanos, randomizationResults);
+                }
                 System.out.println("Randomized successfully!");
                 // this is the only successful exit, everything else will return false at the end of the function
                 return true;
@@ -114,10 +129,46 @@ public class CliRandomizer {
 
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            if (logFile != null) {
+                try {
+                    logFile.close();
+                } catch (IOException e) {
+                    printWarning("Could not write log.");
+                }
+            }
+            if (structuredLog != null) {
+                try {
+                    structuredLog.close();
+                } catch (IOException e) {
+                    printWarning("Could not write structured log.");
+                }
+            }
         }
         return false;
     }
 
+    /**
+     * Writes the ROM load time and the per-stage profile of a randomization as JSON, for tools to parse.
+     */
+    private static void writeProfile(String profileFilePath, long loadNanos, GameRandomizer.Results results) {
+        try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(new FileOutputStream(profileFilePath),
+                StandardCharsets.UTF_8))) {
+            pw.println("{");
+            pw.printf("\"successful\": %b,%n", results.wasSaveSuccessful());
+            if (results.wasSaveSuccessful()) {
+                pw.printf("\"checkValue\": \"%08X\",%n", results.getCheckValue());
+            }
+            pw.printf("\"romLoadNanos\": %d,%n", loadNanos);
+            pw.print("\"stages\": ");
+            StageProfiler.writeJson(pw, results.getStageProfiles());
+            pw.println();
+            pw.println("}");
+        } catch (IOException e) {
+            printWarning("Could not write profile.");
+        }
+    }
+
     private static void displaySettingsWarnings(Settings settings, RomHandler romHandler) {
         Settings.TweakForROMFeedback feedback = settings.tweakForRom(romHandler);
         if (feedback.isChangedStarter() && settings.getStartersMod() == Settings.StartersMod.CUSTOM) {
@@ -129,14 +180,32 @@ public class CliRandomizer {
     }
 
     public static int invoke(String[] args) {
+        if (args.length > 0 && args[0].equals("daemon")) {
+            return RandomizerDaemon.invoke(Arrays.copyOfRange(args, 1, args.length), bundle);
+        }
+        if (args.length > 0 && args[0].equals("analyze")) {
+            return performAnalysis(Arrays.copyOfRange(args, 1, args.length));
+        }
+        if (args.length > 0 && args[0].equals("sprites")) {
+            return exportSpriteAtlas(Arrays.copyOfRange(args, 1, args.length));
+        }
+        if (args.length > 0 && args[0].equals("matrix")) {
+            return performMatrix(Arrays.copyOfRange(args, 1, args.length));
+        }
+        if (args.length > 0 && args[0].equals("search")) {
+            return performSeedSearch(Arrays.copyOfRange(args, 1, args.length));
+        }
+
         String settingsFilePath = null;
         String sourceRomFilePath = null;
         String outputRomFilePath = null;
         boolean saveAsDirectory = false;
         String updateFilePath = null;
         boolean saveLog = false;
+        String structuredLogFilePath = null;
+        String profileFilePath = null;
 
-        List<String> allowedFlags = Arrays.asList("-i", "-o", "-s", "-d", "-u", "-l", "--help");
+        List<String> allowedFlags = Arrays.asList("-i", "-o", "-s", "-d", "-u", "-l", "-j", "-p", "--help");
         for (int i = 0; i < args.length; i++) {
             if (allowedFlags.contains(args[i])) {
                 switch(args[i]) {
@@ -158,6 +227,12 @@ public class CliRandomizer {
                     case "-l":
                         saveLog = true;
                         break;
+                    case "-j":
+                        structuredLogFilePath = args[i + 1];
+                        break;
+                    case "-p":
+                        profileFilePath = args[i + 1];
+                        break;
                     case "--help":
                         printUsage();
                         return 0;
@@ -201,7 +276,9 @@ public class CliRandomizer {
                 outputRomFilePath,
                 saveAsDirectory,
                 updateFilePath,
-                saveLog
+                saveLog,
+                structuredLogFilePath,
+                profileFilePath
         );
         if (!processResult) {
             printError("Randomization failed");
@@ -211,6 +288,394 @@ public class CliRandomizer {
         return 0;
     }
 
+    /**
+     * Randomizes many seeds with one settings file and writes how often each species, type etc. came up,
+     * as CSV, or as JSON if the output file name ends with ".json".
+     */
+    private static int performAnalysis(String[] args) {
+        String settingsFilePath = null;
+        String sourceRomFilePath = null;
+        String outputFilePath = null;
+        long seedCount = 1000;
+        Long firstSeed = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean untaggedTrainersOnly = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-i":
+                        sourceRomFilePath = args[++i];
+                        break;
+                    case "-s":
+                        settingsFilePath = args[++i];
+                        break;
+                    case "-o":
+                        outputFilePath = args[++i];
+                        break;
+                    case "-n":
+                        seedCount = Long.parseLong(args[++i]);
+                        break;
+                    case "-f":
+                        firstSeed = Long.parseLong(args[++i]);
+                        break;
+                    case "-t":
+                        threads = Math.max(1, Integer.parseInt(args[++i]));
+                        break;
+                    case "-x":
+                        untaggedTrainersOnly = true;
+                        break;
+                    default:
+                        printError("Unknown argument " + args[i]);
+                        printUsage();
+                        return 1;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            printError("Invalid arguments");
+            printUsage();
+            return 1;
+        }
+        if (settingsFilePath == null || sourceRomFilePath == null || outputFilePath == null) {
+            printError("Missing required argument");
+            printUsage();
+            return 1;
+        }
+
+        Settings settings;
+        try (FileInputStream fis = new FileInputStream(settingsFilePath)) {
+            settings = Settings.read(fis);
+            settings.setCustomNames(CustomNamesSet.readNamesFromFile());
+        } catch (UnsupportedOperationException | IllegalArgumentException | IOException ex) {
+            ex.printStackTrace();
+            return 1;
+        }
+
+        File romFile = new File(sourceRomFilePath);
+        RomOpener.Results opened = romOpener.openRomFile(romFile);
+        if (!opened.wasOpeningSuccessful()) {
+            printError("Could not load " + romFile.getAbsolutePath() + "; " + opened.getFailType());
+            return 1;
+        }
+        displaySettingsWarnings(settings, opened.getRomHandler());
+        opened.getRomHandler().unloadRom();
+
+        if (firstSeed == null) {
+            firstSeed = SeedPicker.pickSeed();
+        }
+        DistributionAnalysis analysis = new DistributionAnalysis(settings, SeedSearch.romFileFactory(romFile), bundle);
+        if (untaggedTrainersOnly) {
+            analysis.setTrainerFilter(tr -> tr.getTag() == null);
+        }
+        long total = seedCount;
+        long reportEvery = Math.max(1, seedCount / 20);
+        DistributionAnalysis.Results results;
+        try {
+            results = analysis.run(firstSeed, seedCount, threads, done -> {
+                if (done % reportEvery == 0) {
+                    System.err.println(done + "/" + total + " seeds");
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFilePath),
+                StandardCharsets.UTF_8))) {
+            if (outputFilePath.toLowerCase().endsWith(".json")) {
+                results.writeJson(out);
+            } else {
+                results.writeCsv(out);
+            }
+        } catch (IOException e) {
+            printError("Could not write " + outputFilePath);
+            return 1;
+        }
+        System.out.printf("Analyzed %d seeds from %d (%d failed) in %.1f s%n", results.getAnalyzed(),
+                results.getFirstSeed(), results.getFailed(), results.getNanos() / 1e9);
+        return 0;
+    }
+
+    /**
+     * Tests many seeds with one settings file against the conditions given, and prints those that meet all of them.
+     */
+    private static int performSeedSearch(String[] args) {
+        String settingsFilePath = null;
+        String sourceRomFilePath = null;
+        long seedCount = 1000;
+        Long firstSeed = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long maxMatches = Long.MAX_VALUE;
+        List<SeedPredicate> predicates = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-i":
+                        sourceRomFilePath = args[++i];
+                        break;
+                    case "-s":
+                        settingsFilePath = args[++i];
+                        break;
+                    case "-n":
+                        seedCount = Long.parseLong(args[++i]);
+                        break;
+                    case "-f":
+                        firstSeed = Long.parseLong(args[++i]);
+                        break;
+                    case "-t":
+                        threads = Math.max(1, Integer.parseInt(args[++i]));
+                        break;
+                    case "-m":
+                        maxMatches = Math.max(1, Long.parseLong(args[++i]));
+                        break;
+                    case "-d":
+                        predicates.add(SeedPredicates.startersHaveDistinctTypes());
+                        break;
+                    case "-w":
+                        String[] areaType = args[++i].split("=", 2);
+                        if (areaType.length != 2) {
+                            printError("Expected <area>=<type> after -w");
+                            printUsage();
+                            return 1;
+                        }
+                        predicates.add(SeedPredicates.encounterAreaHasType(areaType[0],
+                                Type.valueOf(areaType[1].toUpperCase())));
+                        break;
+                    case "-l":
+                        predicates.add(SeedPredicates.noLegendariesForTrainersTagged(args[++i].split(",")));
+                        break;
+                    default:
+                        printError("Unknown argument " + args[i]);
+                        printUsage();
+                        return 1;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            // NumberFormatException and unknown types both end up here
+            printError("Invalid arguments");
+            printUsage();
+            return 1;
+        }
+        if (settingsFilePath == null || sourceRomFilePath == null) {
+            printError("Missing required argument");
+            printUsage();
+            return 1;
+        }
+        if (predicates.isEmpty()) {
+            printError("No conditions to search for; give at least one of -d, -w and -l");
+            printUsage();
+            return 1;
+        }
+        SeedPredicate predicate = predicates.get(0);
+        for (SeedPredicate other : predicates.subList(1, predicates.size())) {
+            predicate = predicate.and(other);
+        }
+
+        Settings settings;
+        try (FileInputStream fis = new FileInputStream(settingsFilePath)) {
+            settings = Settings.read(fis);
+            settings.setCustomNames(CustomNamesSet.readNamesFromFile());
+        } catch (UnsupportedOperationException | IllegalArgumentException | IOException ex) {
+            ex.printStackTrace();
+            return 1;
+        }
+
+        File romFile = new File(sourceRomFilePath);
+        RomOpener.Results opened = romOpener.openRomFile(romFile);
+        if (!opened.wasOpeningSuccessful()) {
+            printError("Could not load " + romFile.getAbsolutePath() + "; " + opened.getFailType());
+            return 1;
+        }
+        displaySettingsWarnings(settings, opened.getRomHandler());
+        opened.getRomHandler().unloadRom();
+
+        if (firstSeed == null) {
+            firstSeed = SeedPicker.pickSeed();
+        }
+        SeedSearch search = new SeedSearch(settings, SeedSearch.romFileFactory(romFile), bundle);
+        long wanted = maxMatches;
+        long[] found = {0};
+        SeedSearch.Results results;
+        try {
+            results = search.search(firstSeed, seedCount, threads, predicate, seed -> {
+                System.out.println(seed);
+                if (++found[0] >= wanted) {
+                    search.cancel();
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+        System.err.printf("Tested %d seeds from %d (%d failed), %d matched, in %.1f s%n", results.getTested(),
+                firstSeed, results.getFailed(), results.getMatched(), results.getNanos() / 1e9);
+        return 0;
+    }
+
+    /**
+     * Decodes the image sheets of all species and packs them into a single PNG, with a CSV next to it
+     * saying where each species' sheet is.
+     */
+    private static int exportSpriteAtlas(String[] args) {
+        String sourceRomFilePath = null;
+        String outputFilePath = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-i":
+                        sourceRomFilePath = args[++i];
+                        break;
+                    case "-o":
+                        outputFilePath = args[++i];
+                        break;
+                    default:
+                        printError("Unknown argument " + args[i]);
+                        printUsage();
+                        return 1;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            printError("Invalid arguments");
+            printUsage();
+            return 1;
+        }
+        if (sourceRomFilePath == null || outputFilePath == null) {
+            printError("Missing required argument");
+            printUsage();
+            return 1;
+        }
+
+        File romFile = new File(sourceRomFilePath);
+        RomOpener.Results opened = romOpener.openRomFile(romFile);
+        if (!opened.wasOpeningSuccessful()) {
+            printError("Could not load " + romFile.getAbsolutePath() + "; " + opened.getFailType());
+            return 1;
+        }
+        RomHandler romHandler = opened.getRomHandler();
+        if (!romHandler.hasPokemonImageGetter()) {
+            printError(romHandler.getROMName() + " has no Pokemon image support");
+            return 1;
+        }
+
+        long start = System.nanoTime();
+        SpriteAtlas atlas = SpriteAtlas.pack(romHandler.getAllPokemonImages());
+        String indexFilePath = outputFilePath.replaceFirst("(?i)\\.png$", "") + ".csv";
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(indexFilePath),
+                StandardCharsets.UTF_8))) {
+            atlas.writeImage(new File(outputFilePath));
+            atlas.writeIndex(out);
+        } catch (IOException e) {
+            printError("Could not write " + outputFilePath);
+            return 1;
+        }
+        System.out.printf("Packed %d image sheets in %.1f s%n", atlas.size(), (System.nanoTime() - start) / 1e9);
+        return 0;
+    }
+
+    /**
+     * Randomizes every ROM in a directory with every preset in another, over a number of seeds, and writes the
+     * latencies and failures of each ROM and preset as CSV. Returns 1 if any run failed, so it can gate a build.
+     */
+    private static int performMatrix(String[] args) {
+        String romDirPath = null;
+        String presetDirPath = null;
+        String outputFilePath = null;
+        int seedCount = 10;
+        Long firstSeed = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-r":
+                        romDirPath = args[++i];
+                        break;
+                    case "-p":
+                        presetDirPath = args[++i];
+                        break;
+                    case "-o":
+                        outputFilePath = args[++i];
+                        break;
+                    case "-n":
+                        seedCount = Integer.parseInt(args[++i]);
+                        break;
+                    case "-f":
+                        firstSeed = Long.parseLong(args[++i]);
+                        break;
+                    case "-t":
+                        threads = Math.max(1, Integer.parseInt(args[++i]));
+                        break;
+                    default:
+                        printError("Unknown argument " + args[i]);
+                        printUsage();
+                        return 1;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            printError("Invalid arguments");
+            printUsage();
+            return 1;
+        }
+        if (romDirPath == null || presetDirPath == null || outputFilePath == null) {
+            printError("Missing required argument");
+            printUsage();
+            return 1;
+        }
+        if (!new File(romDirPath).isDirectory() || !new File(presetDirPath).isDirectory()) {
+            printError("-r and -p must be directories");
+            printUsage();
+            return 1;
+        }
+
+        List<File> roms = MatrixRunner.findRoms(new File(romDirPath), skipped -> printWarning("Skipping " + skipped));
+        List<File> presets = MatrixRunner.findPresets(new File(presetDirPath));
+        if (roms.isEmpty() || presets.isEmpty()) {
+            printError("No " + (roms.isEmpty() ? "ROMs" : ".rnqs presets") + " found");
+            return 1;
+        }
+        CustomNamesSet customNames;
+        try {
+            customNames = CustomNamesSet.readNamesFromFile();
+        } catch (IOException e) {
+            printError("Could not read the custom names");
+            return 1;
+        }
+
+        if (firstSeed == null) {
+            firstSeed = SeedPicker.pickSeed();
+        }
+        MatrixRunner runner = new MatrixRunner(roms, presets, customNames, bundle);
+        long total = (long) roms.size() * presets.size() * seedCount;
+        long reportEvery = Math.max(1, total / 20);
+        MatrixRunner.Results results;
+        try {
+            results = runner.run(firstSeed, seedCount, threads, done -> {
+                if (done % reportEvery == 0) {
+                    System.err.println(done + "/" + total + " runs");
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+
+        String failuresFilePath = outputFilePath.replaceFirst("(?i)\\.csv$", "") + "-failures.csv";
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFilePath),
+                StandardCharsets.UTF_8));
+             Writer failuresOut = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(failuresFilePath),
+                     StandardCharsets.UTF_8))) {
+            results.writeSummaryCsv(out);
+            results.writeFailuresCsv(failuresOut);
+        } catch (IOException e) {
+            printError("Could not write " + outputFilePath);
+            return 1;
+        }
+        int failed = results.getFailures().size();
+        System.out.printf("Ran %d ROMs x %d presets x %d seeds from %d (%d failed) in %.1f s, peak heap %d MiB%n",
+                roms.size(), presets.size(), seedCount, firstSeed, failed, results.getNanos() / 1e9,
+                results.getPeakHeapBytes() >> 20);
+        return failed == 0 ? 0 : 1;
+    }
+
     private static void printError(String text) {
         System.err.println("ERROR: " + text);
     }
@@ -220,8 +685,32 @@ public class CliRandomizer {
     }
 
     private static void printUsage() {
-        System.err.println("Usage: java [-Xmx4096M] -jar PokeRandoFVX.jar cli -s <path to settings file> " +
-                "-i <path to source ROM> -o <path for new ROM> [-d][-u <path to 3DS game update>][-l]");
+        System.err.println("Usage: java [-Xmx4096M] -jar UPR-FVX.jar cli -s <path to settings file> " +
+                "-i <path to source ROM> -o <path for new ROM> [-d][-u <path to 3DS game update>][-l]" +
+                "[-j <path for structured log>][-p <path for profile>]");
         System.err.println("-d: Save 3DS game as directory (LayeredFS)");
+        System.err.println("-l: Save the randomization log next to the new ROM");
+        System.err.println("-j: Save the randomized species, evolutions, starters, trainers and wild encounters " +
+                "as JSON Lines");
+        System.err.println("-p: Save the time, CPU, allocations and RNG calls of each randomization stage as JSON");
+        System.err.println("Or: java [-Xmx4096M] -jar UPR-FVX.jar cli daemon -r <name>=<path to base ROM> " +
+                "[-t <worker threads>], to run JSON jobs from stdin");
+        System.err.println("Or: java [-Xmx4096M] -jar UPR-FVX.jar cli analyze -s <path to settings file> " +
+                "-i <path to source ROM> -o <path for .csv or .json> [-n <seeds>][-f <first seed>]" +
+                "[-t <worker threads>][-x]");
+        System.err.println("    to count the species, types, abilities and held items over many seeds; " +
+                "-x leaves out tagged trainers (rivals, leaders...)");
+        System.err.println("Or: java [-Xmx4096M] -jar UPR-FVX.jar cli search -s <path to settings file> " +
+                "-i <path to source ROM> [-n <seeds>][-f <first seed>][-t <worker threads>][-m <max matches>]" +
+                "[-d][-w <area>=<type>][-l <trainer tags>]");
+        System.err.println("    to print the seeds whose starters have distinct types (-d), which have a Pokemon of " +
+                "the type in the encounter area (-w), and whose trainers tagged e.g. GYM1,GYM2 have no legendaries " +
+                "(-l)");
+        System.err.println("Or: java [-Xmx4096M] -jar UPR-FVX.jar cli sprites -i <path to source ROM> " +
+                "-o <path for .png>, to pack the image sheets of all species into one PNG, indexed by a .csv");
+        System.err.println("Or: java [-Xmx4096M] -jar UPR-FVX.jar cli matrix -r <ROM directory> " +
+                "-p <.rnqs preset directory> -o <path for .csv> [-n <seeds>][-f <first seed>][-t <worker threads>]");
+        System.err.println("    to randomize and save every ROM with every preset, reporting p50/p95 latencies and " +
+                "failures (in <name>-failures.csv)");
     }
 }
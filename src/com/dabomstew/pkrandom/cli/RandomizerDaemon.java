@@ -0,0 +1,372 @@
+package com.dabomstew.pkrandom.cli;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+import com.dabomstew.pkrandom.GameRandomizer;
+import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkrandom.StageCheckpoints;
+import com.dabomstew.pkrandom.Version;
+import com.dabomstew.pkrandom.customnames.CustomNamesSet;
+import com.dabomstew.pkrandom.log.LogFile;
+import com.dabomstew.pkrandom.random.SeedPicker;
+import com.dabomstew.pkromio.ConcurrencyFunctions;
+import com.dabomstew.pkromio.exceptions.RomIOException;
+import com.dabomstew.pkromio.romhandlers.RomHandler;
+import com.dabomstew.pkromio.romio.RomOpener;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.*;
+
+/**
+ * Runs randomization jobs read from stdin, one JSON object per line, for as long as stdin stays open.
+ * Unlike a CLI call per seed, the JVM, the RomHandler classes and their ROM info files are only loaded once.
+ * Each base ROM is also loaded once up front, which checks that it can be, and that copy is kept for the first
+ * job on it. Every job randomizes and saves its own copy, so jobs can run side by side on the worker pool; as soon
+ * as a job takes the loaded copy, the next one is loaded in the background, so a job normally only pays for
+ * randomizing.<br>
+ * A job looks like
+ * <pre>{"id": "abc", "rom": "emerald", "settings": "&lt;version + settings string&gt;", "seed": 123,
+ *  "output": "/path/to/out.gba", "log": true}</pre>
+ * where "rom" names one of the base ROMs given at startup, "settings" is as in a log or preset, and "id", "seed"
+ * and "log" are optional. Each job gets one line back on stdout, in the order jobs finish:
+ * <pre>{"id": "abc", "ok": true, "seed": 123, "checkValue": "1A2B3C4D", "output": "/path/to/out.gba",
+ *  "log": "/path/to/out.gba.log", "loadMillis": 250, "randomizeMillis": 900}</pre>
+ * or {"id": "abc", "ok": false, "error": "..."}. "loadMillis" is how long the job waited for its copy of the ROM.<br>
+ * At most a few jobs per worker are read ahead, so a fast producer can't queue up unbounded work.
+ */
+public class RandomizerDaemon {
+
+    private static final int JOBS_READ_AHEAD_PER_WORKER = 2;
+
+    private final Map<String, File> baseRoms;
+    private final int workers;
+    private final ResourceBundle bundle;
+    private final CustomNamesSet customNames;
+    private final ThreadLocal<RomOpener> romOpeners = ThreadLocal.withInitial(RomOpener::new);
+    private final Map<String, PreloadedRom> preloaded = new LinkedHashMap<>();
+    private final ExecutorService loader = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "daemon-rom-loader");
+        t.setDaemon(true);
+        return t;
+    });
+    // jobs often only differ in their later settings, e.g. when trying out trainer settings on a fixed seed
+    private final StageCheckpoints checkpoints = new StageCheckpoints();
+
+    private final PrintStream out;
+
+    public RandomizerDaemon(Map<String, File> baseRoms, int workers, ResourceBundle bundle,
+                            CustomNamesSet customNames, PrintStream out) {
+        this.baseRoms = new LinkedHashMap<>(baseRoms);
+        this.workers = workers;
+        this.bundle = bundle;
+        this.customNames = customNames;
+        this.out = out;
+    }
+
+    /**
+     * A copy of a base ROM loaded ahead of the job that will randomize it. A job takes the loaded copy,
+     * and the next one starts loading at once, so it is normally ready by the time the next job wants it.
+     */
+    private class PreloadedRom {
+
+        private final File romFile;
+        private Future<RomHandler> next;
+
+        PreloadedRom(File romFile) {
+            this.romFile = romFile;
+            this.next = loader.submit(this::load);
+        }
+
+        private RomHandler load() {
+            RomOpener.Results results = romOpeners.get().openRomFile(romFile);
+            if (!results.wasOpeningSuccessful()) {
+                throw new RomIOException("Could not load " + romFile + "; " + results.getFailType());
+            }
+            return results.getRomHandler();
+        }
+
+        /**
+         * Waits for the loaded copy without taking it.
+         */
+        RomHandler peek() throws InterruptedException {
+            Future<RomHandler> loaded;
+            synchronized (this) {
+                loaded = next;
+            }
+            return get(loaded);
+        }
+
+        /**
+         * Takes the loaded copy, waiting for it if needed, and starts loading the next one.
+         */
+        RomHandler take() throws InterruptedException {
+            Future<RomHandler> taken;
+            synchronized (this) {
+                taken = next;
+                next = loader.submit(this::load);
+            }
+            return get(taken);
+        }
+
+        /**
+         * Unloads the copy kept for the next job, if it loaded.
+         */
+        void close() throws InterruptedException {
+            Future<RomHandler> kept;
+            synchronized (this) {
+                kept = next;
+                next = null;
+            }
+            try {
+                get(kept).unloadRom();
+            } catch (RuntimeException e) {
+                // nothing was loaded, so there is nothing to unload
+            }
+        }
+
+        private RomHandler get(Future<RomHandler> future) throws InterruptedException {
+            return ConcurrencyFunctions.getAndUnwrap(future);
+        }
+    }
+
+    private synchronized PreloadedRom getPreloaded(String name) {
+        return preloaded.computeIfAbsent(name, k -> new PreloadedRom(baseRoms.get(k)));
+    }
+
+    /**
+     * Loads a copy of each base ROM for the first job on it, which also loads its RomHandler class
+     * and ROM info, and checks that it can be loaded.
+     *
+     * @return True if all base ROMs could be loaded.
+     */
+    public boolean warmUp() throws InterruptedException {
+        boolean allLoaded = true;
+        for (String name : baseRoms.keySet()) {
+            try {
+                RomHandler romHandler = getPreloaded(name).peek();
+                System.err.println("Loaded " + name + ": " + romHandler.getROMName());
+            } catch (RomIOException e) {
+                System.err.println("ERROR: " + e.getMessage());
+                allLoaded = false;
+            }
+        }
+        return allLoaded;
+    }
+
+    /**
+     * Reads and runs jobs until "in" ends, then waits for the running ones to finish.
+     */
+    public void run(BufferedReader in) throws IOException, InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        Semaphore readAhead = new Semaphore(workers * JOBS_READ_AHEAD_PER_WORKER);
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                readAhead.acquire();
+                String jobLine = line;
+                executor.execute(() -> {
+                    try {
+                        respond(runJob(jobLine));
+                    } finally {
+                        readAhead.release();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            close();
+        }
+    }
+
+    /**
+     * Unloads the copies of the base ROMs kept for the next jobs.
+     */
+    private void close() throws InterruptedException {
+        synchronized (this) {
+            for (PreloadedRom rom : preloaded.values()) {
+                rom.close();
+            }
+            preloaded.clear();
+        }
+        loader.shutdown();
+    }
+
+    private void respond(JsonLine response) {
+        synchronized (out) {
+            out.println(response);
+            out.flush();
+        }
+    }
+
+    private JsonLine runJob(String line) {
+        JsonLine response = new JsonLine();
+        RomHandler romHandler = null;
+        try {
+            JsonLine job = JsonLine.parse(line);
+            response.put("id", job.getString("id"));
+
+            String rom = job.getString("rom");
+            if (!baseRoms.containsKey(rom)) {
+                return fail(response, "Unknown base ROM \"" + rom + "\"");
+            }
+            String output = job.getString("output");
+            if (output == null) {
+                return fail(response, "No output path");
+            }
+            Settings settings = readSettings(job.getString("settings"));
+            Long seed = job.getLong("seed");
+            if (seed == null) {
+                seed = SeedPicker.pickSeed();
+            }
+
+            long loadStart = System.nanoTime();
+            romHandler = getPreloaded(rom).take();
+            settings.tweakForRom(romHandler);
+            long loadNanos = System.nanoTime() - loadStart;
+
+            long randomizeStart = System.nanoTime();
+            String logPath = job.getBoolean("log") ? output + ".log" : null;
+            GameRandomizer randomizer = new GameRandomizer(settings, null, romHandler, bundle, false);
+            randomizer.setCheckpoints(checkpoints);
+            GameRandomizer.Results results;
+            if (logPath != null) {
+                try (LogFile logFile = LogFile.to(new File(logPath))) {
+                    results = randomizer.randomize(output, logFile.getPrintStream(), seed);
+                }
+            } else {
+                results = randomizer.randomize(output, LogFile.NULL_LOG, seed);
+            }
+            long randomizeNanos = System.nanoTime() - randomizeStart;
+
+            if (!results.wasSaveSuccessful()) {
+                return fail(response, String.valueOf(results.getException()));
+            }
+            response.put("ok", true)
+                    .put("seed", seed)
+                    .put("checkValue", String.format("%08X", results.getCheckValue()))
+                    .put("output", output)
+                    .put("log", results.wasLogSuccessful() ? logPath : null)
+                    .put("loadMillis", loadNanos / 1_000_000)
+                    .put("randomizeMillis", randomizeNanos / 1_000_000);
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fail(response, String.valueOf(e));
+        } catch (Exception e) {
+            return fail(response, String.valueOf(e));
+        } finally {
+            if (romHandler != null) {
+                romHandler.unloadRom();
+            }
+        }
+    }
+
+    private static JsonLine fail(JsonLine response, String error) {
+        return response.put("ok", false).put("error", error);
+    }
+
+    private Settings readSettings(String settingsString) throws UnsupportedEncodingException {
+        if (settingsString == null || settingsString.length() < 3) {
+            throw new IllegalArgumentException("No settings string");
+        }
+        int version = Integer.parseInt(settingsString.substring(0, 3));
+        if (version != Version.VERSION) {
+            throw new IllegalArgumentException("Settings string is for randomizer version " + version
+                    + ", but this is " + Version.VERSION);
+        }
+        Settings settings = Settings.fromString(settingsString.substring(3));
+        settings.setCustomNames(customNames);
+        return settings;
+    }
+
+    /**
+     * Entry point from {@link CliRandomizer}, with the arguments after "daemon".
+     */
+    static int invoke(String[] args, ResourceBundle bundle) {
+        Map<String, File> baseRoms = new LinkedHashMap<>();
+        int workers = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            // both options take a value
+            if (i + 1 >= args.length) {
+                printUsage();
+                return 1;
+            }
+            switch (args[i]) {
+                case "-r":
+                    String[] nameAndPath = args[++i].split("=", 2);
+                    if (nameAndPath.length != 2) {
+                        printUsage();
+                        return 1;
+                    }
+                    baseRoms.put(nameAndPath[0], new File(nameAndPath[1]));
+                    break;
+                case "-t":
+                    try {
+                        workers = Math.max(1, Integer.parseInt(args[++i]));
+                    } catch (NumberFormatException e) {
+                        printUsage();
+                        return 1;
+                    }
+                    break;
+                default:
+                    printUsage();
+                    return 1;
+            }
+        }
+        if (baseRoms.isEmpty()) {
+            printUsage();
+            return 1;
+        }
+
+        try {
+            RandomizerDaemon daemon = new RandomizerDaemon(baseRoms, workers, bundle,
+                    CustomNamesSet.readNamesFromFile(), System.out);
+            if (!daemon.warmUp()) {
+                return 1;
+            }
+            System.err.println("Ready for jobs.");
+            daemon.run(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+            return 0;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: java [-Xmx4096M] -jar UPR-FVX.jar cli daemon -r <name>=<path to base ROM> " +
+                "[-r <name>=<path to base ROM>...] [-t <worker threads>]");
+        System.err.println("Then write one JSON job per line to stdin; see RandomizerDaemon for the format.");
+    }
+
+}
@@ -27,6 +27,7 @@ import com.dabomstew.pkrandom.cli.CliRandomizer;
 import com.dabomstew.pkrandom.customnames.CustomNamesSet;
 import com.dabomstew.pkrandom.exceptions.InvalidSupplementFilesException;
 import com.dabomstew.pkrandom.exceptions.RandomizationException;
+import com.dabomstew.pkrandom.log.LogFile;
 import com.dabomstew.pkrandom.random.SeedPicker;
 import com.dabomstew.pkrandom.randomizers.TrainerMovesetRandomizer;
 import com.dabomstew.pkrandom.updaters.TypeEffectivenessUpdater;
@@ -408,6 +409,7 @@ public class RandomizerGUI {
     private JPanel liveTweaksPanel = new JPanel();
 
     private final RomOpener romOpener = new RomOpener();
+    private final StageCheckpoints stageCheckpoints = new StageCheckpoints();
 
     private JFileChooser romOpenChooser = new JFileChooser();
     private JFileChooser romSaveChooser = new JFileChooser();
@@ -1188,14 +1190,15 @@ public class RandomizerGUI {
         final Settings settings = createSettingsFromState(customNames);
         final boolean raceMode = settings.isRaceMode();
         final boolean batchRandomization = batchRandomizationSettings.isBatchRandomizationEnabled() && !presetMode;
-        // Setup log
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        final PrintStream log = getPrintStream(baos);
+        // Setup log; it is spooled to a temporary file while randomizing, and only kept if wanted
+        LogFile logFile = null;
 
         try {
+            logFile = LogFile.spooled();
+            final LogFile log = logFile;
             opDialog = new OperationDialog(bundle.getString("GUI.savingText"), frame, true);
             Thread t = new Thread(() -> performRandomizationInner(
-                    filename, seed, settings, cpg, baos, log, raceMode, batchRandomization, saveAsDirectory));
+                    filename, seed, settings, cpg, log, raceMode, batchRandomization, saveAsDirectory));
             t.start();
             if (batchRandomization) {
                 t.join();
@@ -1204,27 +1207,20 @@ public class RandomizerGUI {
         } catch (Exception ex) {
             attemptToLogException(ex, "GUI.saveFailed", "GUI.saveFailedNoLog", settings.toString(),
                     Long.toString(seed));
-            log.close();
-        }
-    }
-
-    private PrintStream getPrintStream(ByteArrayOutputStream baos) {
-        PrintStream log;
-        try {
-            log = new PrintStream(baos, false, "UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            log = new PrintStream(baos);
+            if (logFile != null) {
+                logFile.discard();
+            }
         }
-        return log;
     }
 
     private void performRandomizationInner(String filename,
             long seed, Settings settings, CustomPlayerGraphics cpg,
-            ByteArrayOutputStream baos, PrintStream log,
+            LogFile logFile,
             boolean raceMode, boolean batchRandomization, boolean saveAsDirectory) {
         SwingUtilities.invokeLater(() -> opDialog.setVisible(!batchRandomization));
         GameRandomizer randomizer = new GameRandomizer(settings, cpg, romHandler, bundle, saveAsDirectory);
-        GameRandomizer.Results results = randomizer.randomize(filename, log, seed);
+        randomizer.setCheckpoints(stageCheckpoints);
+        GameRandomizer.Results results = randomizer.randomize(filename, logFile.getPrintStream(), seed);
 
         if (results.wasSaveSuccessful()) {
             if (!results.wasLogSuccessful()) {
@@ -1232,8 +1228,9 @@ public class RandomizerGUI {
                         true, settings.toString(), Long.toString(seed));
             }
             SwingUtilities.invokeLater(() -> finishRandomization(
-                    filename, seed, cpg, baos, results.getCheckValue(), raceMode, batchRandomization));
+                    filename, seed, cpg, logFile, results.getCheckValue(), raceMode, batchRandomization));
         } else {
+            logFile.discard();
             Exception e = results.getException();
             if (e instanceof RandomizationException) {
                 attemptToLogException(e, "GUI.saveFailedMessage", "GUI.saveFailedMessageNoLog", true,
@@ -1256,7 +1253,7 @@ public class RandomizerGUI {
 
     private void finishRandomization(String filename, long seed,
             CustomPlayerGraphics cpg,
-            ByteArrayOutputStream baos,
+            LogFile logFile,
             int checkValue,
             boolean raceMode, boolean batchRandomization) {
         if (cpg != null) {
@@ -1264,14 +1261,14 @@ public class RandomizerGUI {
         }
 
         opDialog.setVisible(false);
-        byte[] out = baos.toByteArray();
 
         if (raceMode) {
+            logFile.discard();
             JOptionPane.showMessageDialog(frame,
                     String.format(bundle.getString("GUI.raceModeCheckValuePopup"), checkValue));
         } else if (batchRandomization && batchRandomizationSettings.shouldGenerateLogFile()) {
             try {
-                saveLogFile(filename, out);
+                saveLogFile(filename, logFile);
             } catch (IOException e) {
                 JOptionPane.showMessageDialog(frame,
                         bundle.getString("GUI.logSaveFailed"));
@@ -1284,7 +1281,7 @@ public class RandomizerGUI {
                     JOptionPane.YES_NO_OPTION);
             if (response == JOptionPane.YES_OPTION) {
                 try {
-                    saveLogFile(filename, out);
+                    saveLogFile(filename, logFile);
                 } catch (IOException e) {
                     JOptionPane.showMessageDialog(frame,
                             bundle.getString("GUI.logSaveFailed"));
@@ -1292,7 +1289,11 @@ public class RandomizerGUI {
                 }
                 JOptionPane.showMessageDialog(frame,
                         String.format(bundle.getString("GUI.logSaved"), filename));
+            } else {
+                logFile.discard();
             }
+        } else {
+            logFile.discard();
         }
 
         if (presetMode) {
@@ -1327,13 +1328,13 @@ public class RandomizerGUI {
         attemptWriteConfig();
     }
 
-    private void saveLogFile(String filename, byte[] out) throws IOException {
-        FileOutputStream fos = new FileOutputStream(filename + ".log");
-        fos.write(0xEF);
-        fos.write(0xBB);
-        fos.write(0xBF);
-        fos.write(out);
-        fos.close();
+    private void saveLogFile(String filename, LogFile logFile) throws IOException {
+        try {
+            logFile.keepAs(new File(filename + ".log"));
+        } catch (IOException e) {
+            logFile.discard();
+            throw e;
+        }
     }
 
     private void presetLoader() {
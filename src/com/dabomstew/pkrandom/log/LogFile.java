@@ -0,0 +1,134 @@
+package com.dabomstew.pkrandom.log;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Where a randomization log is written while the randomization runs.<br>
+ * The log goes straight to disk through a buffered stream, instead of being held in memory until the end.
+ * A log that is known to be wanted can be written directly to its target ({@link #to(File)}); one that
+ * the user may still decline is spooled to a temporary file ({@link #spooled()}), which is then either
+ * moved into place with {@link #keepAs(File)}, or deleted with {@link #discard()}.<br>
+ * Either way the file is UTF-8 with a byte order mark, as the logs have always been.
+ */
+public class LogFile implements Closeable {
+
+    /**
+     * Throws away everything written to it, for runs whose log nobody reads.
+     */
+    public static final PrintStream NULL_LOG = new PrintStream(new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    });
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final File file;
+    private final boolean temporary;
+    private final PrintStream printStream;
+    private boolean closed;
+
+    private LogFile(File file, boolean temporary) throws IOException {
+        this.file = file;
+        this.temporary = temporary;
+        OutputStream os = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+        try {
+            os.write(UTF8_BOM);
+        } catch (IOException e) {
+            os.close();
+            throw e;
+        }
+        this.printStream = new PrintStream(os, false, StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * Opens a log written directly to "target".
+     */
+    public static LogFile to(File target) throws IOException {
+        return new LogFile(target, false);
+    }
+
+    /**
+     * Opens a log written to a temporary file, to be kept or discarded once randomization is done.
+     */
+    public static LogFile spooled() throws IOException {
+        File temp = File.createTempFile("randomization", ".log");
+        temp.deleteOnExit();
+        return new LogFile(temp, true);
+    }
+
+    public PrintStream getPrintStream() {
+        return printStream;
+    }
+
+    /**
+     * Flushes and closes the log. {@link PrintStream} swallows write errors, so they are reported here instead.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        boolean error = printStream.checkError(); // also flushes
+        printStream.close();
+        if (error || printStream.checkError()) {
+            throw new IOException("Could not write log to " + file);
+        }
+    }
+
+    /**
+     * Closes the log and makes sure it ends up at "target".
+     */
+    public void keepAs(File target) throws IOException {
+        close();
+        if (!file.equals(target)) {
+            Files.move(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Closes the log, and deletes it if it was only a temporary file.
+     */
+    public void discard() {
+        try {
+            close();
+        } catch (IOException ignored) {
+            // it is being thrown away anyway
+        }
+        if (temporary) {
+            file.delete();
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.dabomstew.pkrandom.log;
 
 import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkrandom.StageProfiler;
 import com.dabomstew.pkrandom.SysConstants;
 import com.dabomstew.pkrandom.Version;
 import com.dabomstew.pkrandom.random.RandomSource;
@@ -120,13 +121,17 @@ public class RandomizationLogger {
     }
 
     public void logResults(PrintStream log, long startTime) {
+        logResults(log, startTime, Collections.emptyList());
+    }
+
+    public void logResults(PrintStream log, long startTime, List<StageProfiler.StageProfile> stageProfiles) {
         this.log = log;
 
         logHead();
         logTableOfContents();
         logOverview();
         logOptionalSections();
-        logStatistics(startTime);
+        logStatistics(startTime, stageProfiles);
         logDiagnostics();
     }
 
@@ -317,12 +322,24 @@ public class RandomizationLogger {
         }
     }
 
-    private void logStatistics(long startTime) {
+    private void logStatistics(long startTime, List<StageProfiler.StageProfile> stageProfiles) {
         printSectionTitle("stat");
         log.printf(getBS("Log.stat.time"), System.currentTimeMillis() - startTime);
         log.printf(getBS("Log.stat.callsNonCosmetic"), randomSource.callsSinceSeedNonCosmetic());
         log.printf(getBS("Log.stat.callsCosmetic"), randomSource.callsSinceSeedCosmetic());
         log.printf(getBS("Log.stat.callsTotal"), randomSource.callsSinceSeed());
+        if (!stageProfiles.isEmpty()) {
+            log.println();
+            log.printf(getBS("Log.stat.stagesHeader"), getBS("Log.stat.stageName"), getBS("Log.stat.stageWall"),
+                    getBS("Log.stat.stageCpu"), getBS("Log.stat.stageAllocated"), getBS("Log.stat.stageRngCalls"));
+            for (StageProfiler.StageProfile stage : stageProfiles) {
+                log.printf(getBS("Log.stat.stage"), stage.getName(),
+                        stage.getWallNanos() / 1e6,
+                        stage.getCpuNanos() < 0 ? "-" : String.format("%.1f", stage.getCpuNanos() / 1e6),
+                        stage.getAllocatedBytes() < 0 ? "-" : String.valueOf(stage.getAllocatedBytes() / 1024),
+                        stage.getRngCalls());
+            }
+        }
         printSectionSeparator();
     }
 
@@ -420,10 +437,10 @@ public class RandomizationLogger {
         printSectionTitle("pe");
         List<Species> allSpecies = romHandler.getSpeciesInclFormes();
         int nameLen = getMaxSpeciesNameLength(allSpecies);
+        String rowFormat = "%-" + nameLen + "s|%-" + nameLen + "s|%s%n";
 
         // Table head
-        log.printf("%-" + nameLen + "s|%-" + nameLen + "s|%s%n",
-                getBS("Log.pe.from"), getBS("Log.pe.to"), getBS("Log.pe.method"));
+        log.printf(rowFormat, getBS("Log.pe.from"), getBS("Log.pe.to"), getBS("Log.pe.method"));
 
         // Table body
         for (Species pk : allSpecies) {
@@ -436,8 +453,7 @@ public class RandomizationLogger {
                 String from = i == 0 ? pk.getFullName() : "";
                 String to = evo.getTo().getFullName();
                 String method = evolutionMethodToString(evo);
-                log.printf("%-" + nameLen + "s|%-" + nameLen + "s|%s%n",
-                        from, to, method);
+                log.printf(rowFormat, from, to, method);
             }
 
         }
@@ -562,11 +578,17 @@ public class RandomizationLogger {
         int nameLen = getMaxSpeciesNameLength(allSpecies);
         int typeLen = TYPE_NAME_LEN * 2 + 1; // two types and a '/' between
         int abilityLen = getAbilityNameLength();
+        // the column formats only depend on the widths, so build them once rather than once per row
+        String numHeadFormat = "%" + numLen + "s";
+        String numFormat = "%" + numLen + "d";
+        String nameFormat = "|%-" + nameLen + "s";
+        String typeFormat = "|%-" + typeLen + "s";
+        String abilityFormat = "|%-" + abilityLen + "s";
 
         // Table head
-        log.printf("%" + numLen + "s", getBS("Log.psta.num"));
-        log.printf("|%-" + nameLen + "s", getBS("Log.psta.name"));
-        log.printf("|%-" + typeLen + "s", getBS("Log.psta.type"));
+        log.printf(numHeadFormat, getBS("Log.psta.num"));
+        log.printf(nameFormat, getBS("Log.psta.name"));
+        log.printf(typeFormat, getBS("Log.psta.type"));
         if (romHandler.generationOfPokemon() == 1) {
             log.printf("|%4s|%4s|%4s|%4s|%4s",
                     getBS("Log.psta.hp"), getBS("Log.psta.attack"),
@@ -579,7 +601,7 @@ public class RandomizationLogger {
                     getBS("Log.psta.spdef"), getBS("Log.psta.speed"));
         }
         for (int i = 0; i < romHandler.abilitiesPerSpecies(); i++) {
-            log.printf("|%-" + abilityLen + "s", getBS("Log.psta.ability" + (i + 1)));
+            log.printf(abilityFormat, getBS("Log.psta.ability" + (i + 1)));
         }
         if (romHandler.generationOfPokemon() != 1) {// i.e. wild pokes have held items
             log.print("|" + getBS("Log.psta.item"));
@@ -592,9 +614,9 @@ public class RandomizationLogger {
                 continue;
             }
 
-            log.printf("%" + numLen + "d", pk.getBaseNumber());
-            log.printf("|%-" + nameLen + "s", pk.getFullName());
-            log.printf("|%-" + typeLen + "s",
+            log.printf(numFormat, pk.getBaseNumber());
+            log.printf(nameFormat, pk.getFullName());
+            log.printf(typeFormat,
                     pk.getPrimaryType(false)
                             + (pk.hasSecondaryType(false) ? "/" + pk.getSecondaryType(false) : ""));
             if (romHandler.generationOfPokemon() == 1) {
@@ -609,14 +631,14 @@ public class RandomizationLogger {
                         pk.getSpdef(), pk.getSpeed());
             }
             if (romHandler.abilitiesPerSpecies() >= 1) {
-                log.printf("|%-" + abilityLen + "s", romHandler.abilityName(pk.getAbility1()));
+                log.printf(abilityFormat, romHandler.abilityName(pk.getAbility1()));
             }
             if (romHandler.abilitiesPerSpecies() >= 2) {
-                log.printf("|%-" + abilityLen + "s",
+                log.printf(abilityFormat,
                         pk.getAbility2() == pk.getAbility1() ? "--" : romHandler.abilityName(pk.getAbility2()));
             }
             if (romHandler.abilitiesPerSpecies() >= 3) {
-                log.printf("|%-" + abilityLen + "s",
+                log.printf(abilityFormat,
                         pk.getAbility3() == pk.getAbility1() ? "--" : romHandler.abilityName(pk.getAbility3()));
             }
             if (romHandler.generationOfPokemon() != 1) {// i.e. wild pokes have held items
@@ -764,7 +786,7 @@ public class RandomizationLogger {
                 continue;
             }
 
-            log.printf(String.format("%03d %s -> ", pk.getBaseNumber(), pk.getFullName()));
+            log.printf("%03d %s -> ", pk.getBaseNumber(), pk.getFullName());
 
             SpeciesSet evos = pk.getEvolvedSpecies(false);
             if (evos.isEmpty()) {
@@ -1093,9 +1115,11 @@ public class RandomizationLogger {
     private void logWildPokemon() {
         printSectionTitle("wp");
 
-        boolean useTimeBasedEncounters = settings.isUseTimeBasedEncounters() ||
-                (!settings.isRandomizeWildPokemon() && settings.isWildLevelsModified());
+        boolean useTimeBasedEncounters = settings.isShowTimeBasedEncounters();
         List<EncounterArea> encounterAreas = romHandler.getSortedEncounters(useTimeBasedEncounters);
+        String sosFormat = getBS("Log.wp.sos");
+        String multiLevelFormat = getBS("Log.wp.encMultiLevel");
+        String singleLevelFormat = getBS("Log.wp.encSingleLevel");
 
         int i = 0;
         for (EncounterArea area : encounterAreas) {
@@ -1112,13 +1136,13 @@ public class RandomizationLogger {
             }
             for (Encounter e : area) {
                 if (e.isSOS()) {
-                    log.printf(getBS("Log.wp.sos"), getSOSString(e));
+                    log.printf(sosFormat, getSOSString(e));
                 }
                 if (e.getMaxLevel() > 0 && e.getMaxLevel() != e.getLevel()) {
-                    log.printf(getBS("Log.wp.encMultiLevel"), e.getSpecies().getFullName(),
+                    log.printf(multiLevelFormat, e.getSpecies().getFullName(),
                             e.getLevel(), e.getMaxLevel());
                 } else {
-                    log.printf(getBS("Log.wp.encSingleLevel"), e.getSpecies().getFullName(), e.getLevel());
+                    log.printf(singleLevelFormat, e.getSpecies().getFullName(), e.getLevel());
                 }
             }
             log.println();
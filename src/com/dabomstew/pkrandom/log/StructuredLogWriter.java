@@ -0,0 +1,264 @@
+package com.dabomstew.pkrandom.log;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkrandom.Version;
+import com.dabomstew.pkrandom.random.RandomSource;
+import com.dabomstew.pkromio.JsonFunctions;
+import com.dabomstew.pkromio.gamedata.*;
+import com.dabomstew.pkromio.romhandlers.RomHandler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes the outcome of a randomization as JSON Lines: one compact JSON object per line, each with a "type".
+ * Unlike the text log from {@link RandomizationLogger}, this is meant for tools rather than people, so every
+ * record is written regardless of which settings were used, and nothing is localized.<br>
+ * Records are written straight to the {@link Writer} as they are built; nothing is buffered past one line.
+ */
+public class StructuredLogWriter {
+
+    private final RandomSource randomSource;
+    private final Settings settings;
+    private final RomHandler romHandler;
+
+    private final StringBuilder line = new StringBuilder(256);
+    private boolean firstField;
+
+    public StructuredLogWriter(RandomSource randomSource, Settings settings, RomHandler romHandler) {
+        this.randomSource = randomSource;
+        this.settings = settings;
+        this.romHandler = romHandler;
+    }
+
+    public void write(Writer out) throws IOException {
+        writeHeader(out);
+        writeSpecies(out);
+        writeEvolutions(out);
+        writeStarters(out);
+        writeTrainers(out);
+        writeEncounters(out);
+        out.flush();
+    }
+
+    private void writeHeader(Writer out) throws IOException {
+        begin("header");
+        field("game", romHandler.getROMName());
+        field("generation", romHandler.generationOfPokemon());
+        field("version", Version.VERSION_STRING);
+        field("seed", randomSource.getSeed());
+        field("settings", Version.VERSION + settings.toString());
+        end(out);
+    }
+
+    private void writeSpecies(Writer out) throws IOException {
+        boolean gen1 = romHandler.generationOfPokemon() == 1;
+        for (Species pk : romHandler.getSpeciesInclFormes()) {
+            if (pk == null || pk.isActuallyCosmetic()) {
+                continue;
+            }
+            begin("species");
+            field("number", pk.getNumber());
+            field("baseNumber", pk.getBaseNumber());
+            field("name", pk.getFullName());
+            field("type1", String.valueOf(pk.getPrimaryType(false)));
+            if (pk.hasSecondaryType(false)) {
+                field("type2", String.valueOf(pk.getSecondaryType(false)));
+            }
+            field("hp", pk.getHp());
+            field("attack", pk.getAttack());
+            field("defense", pk.getDefense());
+            if (gen1) {
+                field("special", pk.getSpecial());
+            } else {
+                field("spatk", pk.getSpatk());
+                field("spdef", pk.getSpdef());
+            }
+            field("speed", pk.getSpeed());
+            int abilities = romHandler.abilitiesPerSpecies();
+            if (abilities >= 1) {
+                field("ability1", romHandler.abilityName(pk.getAbility1()));
+            }
+            if (abilities >= 2) {
+                field("ability2", romHandler.abilityName(pk.getAbility2()));
+            }
+            if (abilities >= 3) {
+                field("ability3", romHandler.abilityName(pk.getAbility3()));
+            }
+            end(out);
+        }
+    }
+
+    private void writeEvolutions(Writer out) throws IOException {
+        for (Species pk : romHandler.getSpeciesInclFormes()) {
+            if (pk == null || pk.isActuallyCosmetic()) {
+                continue;
+            }
+            for (Evolution evo : pk.getEvolutionsFrom()) {
+                begin("evolution");
+                field("from", pk.getFullName());
+                field("to", evo.getTo().getFullName());
+                field("method", String.valueOf(evo.getType()));
+                field("extra", evo.getExtraInfo());
+                end(out);
+            }
+        }
+    }
+
+    private void writeStarters(Writer out) throws IOException {
+        List<Species> starters = romHandler.getStarters();
+        List<Item> heldItems = romHandler.getStarterHeldItems();
+        for (int i = 0; i < starters.size(); i++) {
+            begin("starter");
+            field("slot", i + 1);
+            field("species", starters.get(i).getFullName());
+            Item heldItem = heldItems.size() == starters.size() ? heldItems.get(i)
+                    : heldItems.size() == 1 ? heldItems.get(0) : null;
+            if (heldItem != null) {
+                field("item", heldItem.getName());
+            }
+            end(out);
+        }
+    }
+
+    private void writeTrainers(Writer out) throws IOException {
+        List<Move> moves = romHandler.getMoves();
+        for (Trainer t : romHandler.getTrainers()) {
+            begin("trainer");
+            field("index", t.getIndex());
+            String name = t.getFullDisplayName() != null ? t.getFullDisplayName() : t.getName();
+            if (name != null) {
+                field("name", name);
+            }
+            if (t.getTag() != null) {
+                field("tag", t.getTag());
+            }
+            line.append(",\"pokemon\":[");
+            boolean firstPokemon = true;
+            for (TrainerPokemon tpk : t.getPokemon()) {
+                if (!firstPokemon) {
+                    line.append(',');
+                }
+                firstPokemon = false;
+                line.append('{');
+                firstField = true;
+                field("species", tpk.getSpecies().getFullName());
+                field("level", tpk.getLevel());
+                if (tpk.getHeldItem() != null) {
+                    field("item", tpk.getHeldItem().getName());
+                }
+                line.append(",\"moves\":[");
+                boolean firstMove = true;
+                for (int move : tpk.getMoves()) {
+                    if (move != 0) {
+                        if (!firstMove) {
+                            line.append(',');
+                        }
+                        firstMove = false;
+                        appendString(moves.get(move).name);
+                    }
+                }
+                line.append("]}");
+            }
+            line.append(']');
+            end(out);
+        }
+    }
+
+    private void writeEncounters(Writer out) throws IOException {
+        boolean useTimeBasedEncounters = settings.isShowTimeBasedEncounters();
+        int i = 0;
+        for (EncounterArea area : romHandler.getSortedEncounters(useTimeBasedEncounters)) {
+            if (area.getEncounterType() == EncounterType.UNUSED) {
+                continue;
+            }
+            i++;
+            begin("encounterArea");
+            field("index", i);
+            if (area.getDisplayName() != null) {
+                field("name", area.getDisplayName());
+            }
+            field("encounterType", String.valueOf(area.getEncounterType()));
+            field("rate", area.getRate());
+            line.append(",\"encounters\":[");
+            boolean firstEncounter = true;
+            for (Encounter e : area) {
+                if (!firstEncounter) {
+                    line.append(',');
+                }
+                firstEncounter = false;
+                line.append('{');
+                firstField = true;
+                field("species", e.getSpecies().getFullName());
+                field("level", e.getLevel());
+                field("maxLevel", Math.max(e.getLevel(), e.getMaxLevel()));
+                line.append('}');
+            }
+            line.append(']');
+            end(out);
+        }
+    }
+
+    private void begin(String type) {
+        line.setLength(0);
+        line.append('{');
+        firstField = true;
+        field("type", type);
+    }
+
+    private void end(Writer out) throws IOException {
+        line.append("}\n");
+        out.append(line);
+    }
+
+    private void fieldName(String name) {
+        if (!firstField) {
+            line.append(',');
+        }
+        firstField = false;
+        appendString(name);
+        line.append(':');
+    }
+
+    private void field(String name, String value) {
+        fieldName(name);
+        if (value == null) {
+            line.append("null");
+        } else {
+            appendString(value);
+        }
+    }
+
+    private void field(String name, long value) {
+        fieldName(name);
+        line.append(value);
+    }
+
+    private void appendString(String s) {
+        JsonFunctions.appendQuoted(line, s);
+    }
+
+}
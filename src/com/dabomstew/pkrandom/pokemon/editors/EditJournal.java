@@ -0,0 +1,64 @@
+package com.dabomstew.pkrandom.pokemon.editors;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Remembers how the objects an editor changes looked before their first change since the last commit,
+ * so unsaved changes can be undone without having copied every object up front.<br>
+ * Call {@link #record(Object)} right before changing an object. Restoring or committing then only costs
+ * as much as the number of objects actually changed.
+ *
+ * @param <T> The type of the edited objects, e.g. Species.
+ * @param <S> The type of the snapshots taken of them.
+ */
+public class EditJournal<T, S> {
+
+    private final Function<T, S> snapshot;
+    private final BiConsumer<S, T> restore;
+    private final Map<T, S> originals = new LinkedHashMap<>();
+
+    /**
+     * @param snapshot Copies the editable state of an object.
+     * @param restore  Writes a copied state back to the object.
+     */
+    public EditJournal(Function<T, S> snapshot, BiConsumer<S, T> restore) {
+        this.snapshot = snapshot;
+        this.restore = restore;
+    }
+
+    /**
+     * Takes a snapshot of "t", unless one was already taken since the last commit or restore.
+     */
+    public void record(T t) {
+        originals.computeIfAbsent(t, snapshot);
+    }
+
+    /**
+     * Returns how "t" was before it was first changed, or null if it has not been changed.
+     */
+    public S getOriginal(T t) {
+        return originals.get(t);
+    }
+
+    public boolean isEmpty() {
+        return originals.isEmpty();
+    }
+
+    /**
+     * Undoes all changes since the last commit.
+     */
+    public void restoreAll() {
+        originals.forEach((t, s) -> restore.accept(s, t));
+        originals.clear();
+    }
+
+    /**
+     * Keeps all changes, so later restores only go back to the current state.
+     */
+    public void commit() {
+        originals.clear();
+    }
+}
@@ -0,0 +1,17 @@
+package com.dabomstew.pkrandom.pokemon.editors;
+
+/**
+ * A sheet in one of the editor frames' tabs.
+ */
+public interface EditorSheet {
+
+    /**
+     * Writes the sheet's edits to the ROM handler.
+     */
+    void save();
+
+    /**
+     * Called when the editor frame closes, to restore the edits that were not saved.
+     */
+    void onWindowClosing();
+}
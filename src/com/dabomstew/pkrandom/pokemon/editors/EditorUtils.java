@@ -31,6 +31,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * Utility methods for editor panels
@@ -207,6 +208,48 @@ public class EditorUtils {
         return value;
     }
 
+    /**
+     * Adds a tab whose panel is only built the first time the tab is selected, so opening an editor
+     * does not have to wait for the sheets nobody looks at.
+     */
+    public static void addLazyTab(JTabbedPane tabbedPane, String title, Supplier<? extends Component> builder) {
+        JPanel holder = new JPanel(new BorderLayout());
+        tabbedPane.addTab(title, holder);
+        Runnable buildIfSelected = () -> {
+            if (tabbedPane.getSelectedComponent() != holder || holder.getComponentCount() != 0) {
+                return;
+            }
+            Window window = SwingUtilities.getWindowAncestor(tabbedPane);
+            if (window != null) {
+                window.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            }
+            try {
+                holder.add(builder.get(), BorderLayout.CENTER);
+                holder.revalidate();
+            } finally {
+                if (window != null) {
+                    window.setCursor(Cursor.getDefaultCursor());
+                }
+            }
+        };
+        tabbedPane.addChangeListener(e -> buildIfSelected.run());
+        buildIfSelected.run();
+    }
+
+    /**
+     * Adds a sheet as a lazy tab, see {@link #addLazyTab}. Once built, the sheet is added to "builtSheets",
+     * so the frame only saves and restores the sheets that exist.
+     */
+    public static <T extends Component & EditorSheet> void addLazySheet(JTabbedPane tabbedPane, String title,
+                                                                       Supplier<T> builder,
+                                                                       List<EditorSheet> builtSheets) {
+        addLazyTab(tabbedPane, title, () -> {
+            T sheet = builder.get();
+            builtSheets.add(sheet);
+            return sheet;
+        });
+    }
+
     /**
      * Create a styled button for editor toolbars
      */
@@ -19,7 +19,7 @@ import java.util.Objects;
  * Evolutions Sheet editor with proper editing capabilities
  * Implements dynamic cell editors based on evolution method
  */
-public class EvolutionsSheetPanel extends JPanel {
+public class EvolutionsSheetPanel extends JPanel implements EditorSheet {
 
     private final RomHandler romHandler;
     private final List<Species> pokemonList;
@@ -372,6 +372,7 @@ public class EvolutionsSheetPanel extends JPanel {
         createBackup();
     }
 
+    @Override
     public void onWindowClosing() {
         stopEditing();
         restoreFromBackup();
@@ -483,6 +484,7 @@ public class EvolutionsSheetPanel extends JPanel {
         EditorUtils.performFind(this, frozenTable, mainTable, tableModel, 2, findState, options);
     }
 
+    @Override
     public void save() {
         stopEditing();
         ManualEditRegistry.getInstance().addEntries("Evolutions", collectEvolutionChangesForLog());
@@ -7,6 +7,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -20,12 +21,7 @@ public class Gen3EditorFrame extends JFrame {
     private JTabbedPane tabbedPane;
 
     // Editor panels reused from later generations
-    private Gen3PersonalSheetPanel personalSheetPanel;
-    private Gen3TMsSheetPanel tmsSheetPanel;
-    private Gen3LearnsetsSheetPanel learnsetsSheetPanel;
-    private Gen3EggMovesSheetPanel eggMovesSheetPanel;
-    private Gen3EvolutionsSheetPanel evolutionsSheetPanel;
-    private MovesSheetPanel movesSheetPanel;
+    private final List<EditorSheet> sheets = new ArrayList<>();
 
     public Gen3EditorFrame(RomHandler romHandler) {
         this.romHandler = romHandler;
@@ -41,12 +37,9 @@ public class Gen3EditorFrame extends JFrame {
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
-                personalSheetPanel.onWindowClosing();
-                tmsSheetPanel.onWindowClosing();
-                learnsetsSheetPanel.onWindowClosing();
-                eggMovesSheetPanel.onWindowClosing();
-                evolutionsSheetPanel.onWindowClosing();
-                movesSheetPanel.onWindowClosing();
+                for (EditorSheet sheet : sheets) {
+                    sheet.onWindowClosing();
+                }
             }
         });
 
@@ -55,23 +48,20 @@ public class Gen3EditorFrame extends JFrame {
         tabbedPane.setBackground(Color.WHITE);
         tabbedPane.setForeground(Color.BLACK);
 
-        personalSheetPanel = new Gen3PersonalSheetPanel(romHandler);
-        tabbedPane.addTab("Personal Sheet", personalSheetPanel);
 
-        tmsSheetPanel = new Gen3TMsSheetPanel(romHandler);
-        tabbedPane.addTab("TMs Sheet", tmsSheetPanel);
-
-        learnsetsSheetPanel = new Gen3LearnsetsSheetPanel(romHandler);
-        tabbedPane.addTab("Learnsets Sheet", learnsetsSheetPanel);
-
-        eggMovesSheetPanel = new Gen3EggMovesSheetPanel(romHandler);
-        tabbedPane.addTab("Egg Moves", eggMovesSheetPanel);
-
-        evolutionsSheetPanel = new Gen3EvolutionsSheetPanel(romHandler);
-        tabbedPane.addTab("Evolutions Sheet", evolutionsSheetPanel);
-
-        movesSheetPanel = new MovesSheetPanel(romHandler);
-        tabbedPane.addTab("Moves Sheet", movesSheetPanel);
+        // Each sheet is built when its tab is first selected
+        EditorUtils.addLazySheet(tabbedPane, "Personal Sheet",
+                () -> new Gen3PersonalSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "TMs Sheet",
+                () -> new Gen3TMsSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Learnsets Sheet",
+                () -> new Gen3LearnsetsSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Egg Moves",
+                () -> new Gen3EggMovesSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Evolutions Sheet",
+                () -> new Gen3EvolutionsSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Moves Sheet",
+                () -> new MovesSheetPanel(romHandler), sheets);
 
         add(tabbedPane, BorderLayout.CENTER);
 
@@ -96,12 +86,9 @@ public class Gen3EditorFrame extends JFrame {
     }
 
     private void saveAll() {
-        personalSheetPanel.save();
-        tmsSheetPanel.save();
-    learnsetsSheetPanel.save();
-    eggMovesSheetPanel.save();
-        evolutionsSheetPanel.save();
-        movesSheetPanel.save();
+        for (EditorSheet sheet : sheets) {
+            sheet.save();
+        }
 
         Map<String, List<String>> manualSections = ManualEditRegistry.getInstance().snapshot();
         if (!manualSections.isEmpty()) {
@@ -7,6 +7,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -20,12 +21,7 @@ public class Gen4EditorFrame extends JFrame {
     private JTabbedPane tabbedPane;
 
     // Editor panels
-    private Gen4PersonalSheetPanel personalSheetPanel;
-    private Gen4TMsSheetPanel tmsSheetPanel;
-    private Gen4LearnsetsSheetPanel learnsetsSheetPanel;
-    private Gen4EggMovesSheetPanel eggMovesSheetPanel;
-    private Gen4EvolutionsSheetPanel evolutionsSheetPanel;
-    private MovesSheetPanel movesSheetPanel;
+    private final List<EditorSheet> sheets = new ArrayList<>();
     // TODO: Pokemon Sprites editor coming soon
     // private SpritesEditorPanel spritesEditorPanel;
 
@@ -45,12 +41,9 @@ public class Gen4EditorFrame extends JFrame {
             @Override
             public void windowClosing(WindowEvent e) {
                 // Restore any unsaved changes in all panels
-                personalSheetPanel.onWindowClosing();
-                tmsSheetPanel.onWindowClosing();
-                learnsetsSheetPanel.onWindowClosing();
-                eggMovesSheetPanel.onWindowClosing();
-                evolutionsSheetPanel.onWindowClosing();
-                movesSheetPanel.onWindowClosing();
+                for (EditorSheet sheet : sheets) {
+                    sheet.onWindowClosing();
+                }
             }
         });
 
@@ -60,28 +53,19 @@ public class Gen4EditorFrame extends JFrame {
         tabbedPane.setBackground(Color.WHITE);
         tabbedPane.setForeground(Color.BLACK); // Black text for readability
 
-        // Create Personal Sheet panel
-        personalSheetPanel = new Gen4PersonalSheetPanel(romHandler);
-        tabbedPane.addTab("Personal Sheet", personalSheetPanel);
-
-        // Create TMs Sheet panel
-        tmsSheetPanel = new Gen4TMsSheetPanel(romHandler);
-        tabbedPane.addTab("TMs Sheet", tmsSheetPanel);
-
-        // Create Learnsets Sheet panel
-        learnsetsSheetPanel = new Gen4LearnsetsSheetPanel(romHandler);
-        tabbedPane.addTab("Learnsets Sheet", learnsetsSheetPanel);
-
-        eggMovesSheetPanel = new Gen4EggMovesSheetPanel(romHandler);
-        tabbedPane.addTab("Egg Moves", eggMovesSheetPanel);
-
-        // Create Evolutions Sheet panel
-        evolutionsSheetPanel = new Gen4EvolutionsSheetPanel(romHandler);
-        tabbedPane.addTab("Evolutions Sheet", evolutionsSheetPanel);
-
-        // Create Moves Sheet panel
-        movesSheetPanel = new MovesSheetPanel(romHandler);
-        tabbedPane.addTab("Moves Sheet", movesSheetPanel);
+        // Each sheet is built when its tab is first selected
+        EditorUtils.addLazySheet(tabbedPane, "Personal Sheet",
+                () -> new Gen4PersonalSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "TMs Sheet",
+                () -> new Gen4TMsSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Learnsets Sheet",
+                () -> new Gen4LearnsetsSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Egg Moves",
+                () -> new Gen4EggMovesSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Evolutions Sheet",
+                () -> new Gen4EvolutionsSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Moves Sheet",
+                () -> new MovesSheetPanel(romHandler), sheets);
 
         // TODO: Add Sprites editor
         // spritesEditorPanel = new SpritesEditorPanel(romHandler);
@@ -112,12 +96,9 @@ public class Gen4EditorFrame extends JFrame {
 
     private void saveAll() {
         // Save all panels
-        personalSheetPanel.save();
-        tmsSheetPanel.save();
-    learnsetsSheetPanel.save();
-    eggMovesSheetPanel.save();
-        evolutionsSheetPanel.save();
-        movesSheetPanel.save();
+        for (EditorSheet sheet : sheets) {
+            sheet.save();
+        }
         // TODO: Save sprites when implemented
 
         Map<String, List<String>> manualSections = ManualEditRegistry.getInstance().snapshot();
@@ -7,6 +7,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -21,13 +22,7 @@ public class Gen5EditorFrame extends JFrame {
     private JTabbedPane tabbedPane;
 
     // Editor panels
-    private Gen5PersonalSheetPanel personalSheetPanel;
-    private Gen5TMsSheetPanel tmsSheetPanel;
-    private Gen5LearnsetsSheetPanel learnsetsSheetPanel;
-    private Gen5EvolutionsSheetPanel evolutionsSheetPanel;
-    private Gen5MovesSheetPanel movesSheetPanel;
-    private Gen5MoveTutorsSheetPanel moveTutorsSheetPanel;
-    private Gen5EggMovesSheetPanel eggMovesSheetPanel;
+    private final List<EditorSheet> sheets = new ArrayList<>();
 
     public Gen5EditorFrame(RomHandler romHandler) {
         this.romHandler = romHandler;
@@ -45,13 +40,9 @@ public class Gen5EditorFrame extends JFrame {
             @Override
             public void windowClosing(WindowEvent e) {
                 // Restore any unsaved changes in all panels
-                personalSheetPanel.onWindowClosing();
-                tmsSheetPanel.onWindowClosing();
-                learnsetsSheetPanel.onWindowClosing();
-                eggMovesSheetPanel.onWindowClosing();
-                evolutionsSheetPanel.onWindowClosing();
-                movesSheetPanel.onWindowClosing();
-                moveTutorsSheetPanel.onWindowClosing();
+                for (EditorSheet sheet : sheets) {
+                    sheet.onWindowClosing();
+                }
             }
         });
 
@@ -61,33 +52,21 @@ public class Gen5EditorFrame extends JFrame {
         tabbedPane.setBackground(Color.WHITE);
         tabbedPane.setForeground(Color.BLACK); // Black text for readability
 
-        // Create Personal Sheet panel
-        personalSheetPanel = new Gen5PersonalSheetPanel(romHandler);
-        tabbedPane.addTab("Personal Sheet", personalSheetPanel);
-
-        // Create TMs Sheet panel
-        tmsSheetPanel = new Gen5TMsSheetPanel(romHandler);
-        tabbedPane.addTab("TMs Sheet", tmsSheetPanel);
-
-        // Create Learnsets Sheet panel
-        learnsetsSheetPanel = new Gen5LearnsetsSheetPanel(romHandler);
-        tabbedPane.addTab("Learnsets Sheet", learnsetsSheetPanel);
-
-        // Create Egg Moves panel
-        eggMovesSheetPanel = new Gen5EggMovesSheetPanel(romHandler);
-        tabbedPane.addTab("Egg Moves", eggMovesSheetPanel);
-
-        // Create Evolutions Sheet panel
-        evolutionsSheetPanel = new Gen5EvolutionsSheetPanel(romHandler);
-        tabbedPane.addTab("Evolutions Sheet", evolutionsSheetPanel);
-
-        // Create Moves Sheet panel
-        movesSheetPanel = new Gen5MovesSheetPanel(romHandler);
-        tabbedPane.addTab("Moves Sheet", movesSheetPanel);
-
-        // Create Move Tutors panel
-        moveTutorsSheetPanel = new Gen5MoveTutorsSheetPanel(romHandler);
-        tabbedPane.addTab("Move Tutors", moveTutorsSheetPanel);
+        // Each sheet is built when its tab is first selected
+        EditorUtils.addLazySheet(tabbedPane, "Personal Sheet",
+                () -> new Gen5PersonalSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "TMs Sheet",
+                () -> new Gen5TMsSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Learnsets Sheet",
+                () -> new Gen5LearnsetsSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Egg Moves",
+                () -> new Gen5EggMovesSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Evolutions Sheet",
+                () -> new Gen5EvolutionsSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Moves Sheet",
+                () -> new Gen5MovesSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Move Tutors",
+                () -> new Gen5MoveTutorsSheetPanel(romHandler), sheets);
 
         add(tabbedPane, BorderLayout.CENTER);
 
@@ -114,13 +93,9 @@ public class Gen5EditorFrame extends JFrame {
 
     private void saveAll() {
         // Save all panels
-        personalSheetPanel.save();
-        tmsSheetPanel.save();
-        learnsetsSheetPanel.save();
-        eggMovesSheetPanel.save();
-        evolutionsSheetPanel.save();
-        movesSheetPanel.save();
-        moveTutorsSheetPanel.save();
+        for (EditorSheet sheet : sheets) {
+            sheet.save();
+        }
 
         Map<String, List<String>> manualSections = ManualEditRegistry.getInstance().snapshot();
         if (!manualSections.isEmpty()) {
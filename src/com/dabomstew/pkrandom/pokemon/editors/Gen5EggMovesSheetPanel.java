@@ -27,7 +27,7 @@ import java.util.stream.Collectors;
  * Mirrors the frozen-column spreadsheet look used by the level-up learnset
  * editor.
  */
-public class Gen5EggMovesSheetPanel extends JPanel {
+public class Gen5EggMovesSheetPanel extends JPanel implements EditorSheet {
 
     private static final int MAX_EGG_MOVES = 32;
 
@@ -373,6 +373,7 @@ public class Gen5EggMovesSheetPanel extends JPanel {
         }
     }
 
+    @Override
     public void save() {
         stopEditing();
         List<String> changes = collectEggMoveChangesForLog();
@@ -515,6 +516,7 @@ public class Gen5EggMovesSheetPanel extends JPanel {
         EditorUtils.performFind(this, frozenTable, mainTable, tableModel, 2, findState, options);
     }
 
+    @Override
     public void onWindowClosing() {
         stopEditing();
         restoreFromBackup();
@@ -21,7 +21,7 @@ import java.util.Set;
  * Learnsets Sheet editor showing level-up moves for each Pokemon
  * Displays moves learned at each level in a spreadsheet format
  */
-public class Gen5LearnsetsSheetPanel extends JPanel {
+public class Gen5LearnsetsSheetPanel extends JPanel implements EditorSheet {
 
     private final RomHandler romHandler;
     private final List<Species> pokemonList;
@@ -487,6 +487,7 @@ public class Gen5LearnsetsSheetPanel extends JPanel {
         createBackup();
     }
 
+    @Override
     public void onWindowClosing() {
         stopEditing();
         restoreFromBackup();
@@ -587,6 +588,7 @@ public class Gen5LearnsetsSheetPanel extends JPanel {
         EditorUtils.performFind(this, frozenTable, mainTable, tableModel, 2, findState, options);
     }
 
+    @Override
     public void save() {
         stopEditing();
 
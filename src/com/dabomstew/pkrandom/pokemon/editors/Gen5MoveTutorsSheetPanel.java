@@ -18,7 +18,7 @@ import java.util.Map;
  * Move Tutor compatibility editor mirroring PokEditor's matrix view.
  * Displays a boolean matrix of Pokemon vs tutor moves.
  */
-public class Gen5MoveTutorsSheetPanel extends JPanel {
+public class Gen5MoveTutorsSheetPanel extends JPanel implements EditorSheet {
 
     private final RomHandler romHandler;
     private final List<Species> pokemonList;
@@ -294,6 +294,7 @@ public class Gen5MoveTutorsSheetPanel extends JPanel {
         EditorUtils.performFind(this, frozenTable, mainTable, tableModel, 2, findState, options);
     }
 
+    @Override
     public void save() {
         stopEditing();
 
@@ -509,6 +510,7 @@ public class Gen5MoveTutorsSheetPanel extends JPanel {
         createBackup();
     }
 
+    @Override
     public void onWindowClosing() {
         stopEditing();
         restoreFromBackup();
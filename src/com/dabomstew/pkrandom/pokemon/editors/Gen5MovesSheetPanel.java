@@ -23,7 +23,7 @@ import java.util.Objects;
  * Moves Sheet editor matching PokEditor's EXACT implementation
  * Based on MovesTable.java from PokEditor
  */
-public class Gen5MovesSheetPanel extends JPanel {
+public class Gen5MovesSheetPanel extends JPanel implements EditorSheet {
 
     private final RomHandler romHandler;
     private final List<Move> movesList;
@@ -523,6 +523,7 @@ public class Gen5MovesSheetPanel extends JPanel {
         createBackup();
     }
 
+    @Override
     public void onWindowClosing() {
         stopEditing();
         restoreFromBackup();
@@ -639,6 +640,7 @@ public class Gen5MovesSheetPanel extends JPanel {
         }
     }
 
+    @Override
     public void save() {
         stopEditing();
         ManualEditRegistry.getInstance().addEntries("Moves Data", collectMoveChangesForLog());
@@ -17,7 +17,7 @@ import java.util.Map;
  * TM/HM Compatibility Sheet editor with matrix view
  * Shows which Pokemon can learn which TMs/HMs
  */
-public class Gen5TMsSheetPanel extends JPanel {
+public class Gen5TMsSheetPanel extends JPanel implements EditorSheet {
 
     private final RomHandler romHandler;
     private final List<Species> pokemonList;
@@ -454,6 +454,7 @@ public class Gen5TMsSheetPanel extends JPanel {
         createBackup();
     }
 
+    @Override
     public void onWindowClosing() {
         stopEditing();
         restoreFromBackup();
@@ -560,6 +561,7 @@ public class Gen5TMsSheetPanel extends JPanel {
         EditorUtils.performFind(this, frozenTable, mainTable, tableModel, 2, findState, options);
     }
 
+    @Override
     public void save() {
         stopEditing();
 
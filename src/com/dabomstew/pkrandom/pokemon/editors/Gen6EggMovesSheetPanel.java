@@ -27,7 +27,7 @@ import java.util.stream.Collectors;
  * Mirrors the frozen-column spreadsheet look used by the level-up learnset
  * editor.
  */
-public class Gen6EggMovesSheetPanel extends JPanel {
+public class Gen6EggMovesSheetPanel extends JPanel implements EditorSheet {
 
     // pk3DS caps its Gen6/7 egg-move UI at 30 entries; mirror that ceiling so the
     // sheet behaves the same while still rendering any pre-existing excess slots.
@@ -375,6 +375,7 @@ public class Gen6EggMovesSheetPanel extends JPanel {
         }
     }
 
+    @Override
     public void save() {
         stopEditing();
         List<String> changes = collectEggMoveChangesForLog();
@@ -517,6 +518,7 @@ public class Gen6EggMovesSheetPanel extends JPanel {
         EditorUtils.performFind(this, frozenTable, mainTable, tableModel, 2, findState, options);
     }
 
+    @Override
     public void onWindowClosing() {
         stopEditing();
         restoreFromBackup();
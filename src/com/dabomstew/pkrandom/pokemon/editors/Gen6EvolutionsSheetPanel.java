@@ -22,7 +22,7 @@ import java.util.Set;
  * Evolutions Sheet editor for Generation 6 games (XY/ORAS).
  * Implements dynamic cell editors based on evolution method.
  */
-public class Gen6EvolutionsSheetPanel extends JPanel {
+public class Gen6EvolutionsSheetPanel extends JPanel implements EditorSheet {
 
     private final RomHandler romHandler;
     private final List<Species> pokemonList;
@@ -375,6 +375,7 @@ public class Gen6EvolutionsSheetPanel extends JPanel {
         createBackup();
     }
 
+    @Override
     public void onWindowClosing() {
         stopEditing();
         restoreFromBackup();
@@ -486,6 +487,7 @@ public class Gen6EvolutionsSheetPanel extends JPanel {
         EditorUtils.performFind(this, frozenTable, mainTable, tableModel, 2, findState, options);
     }
 
+    @Override
     public void save() {
         stopEditing();
         ManualEditRegistry.getInstance().addEntries("Evolutions (Gen 6)", collectEvolutionChangesForLog());
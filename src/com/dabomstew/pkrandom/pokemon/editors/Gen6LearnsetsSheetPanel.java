@@ -24,7 +24,7 @@ import java.util.Set;
 /**
  * Gen 6 level-up learnset sheet following the Gen 4/5 matrix layout.
  */
-public class Gen6LearnsetsSheetPanel extends JPanel {
+public class Gen6LearnsetsSheetPanel extends JPanel implements EditorSheet {
 
     private final RomHandler romHandler;
     private final List<Species> pokemonList;
@@ -415,6 +415,7 @@ public class Gen6LearnsetsSheetPanel extends JPanel {
         createBackup();
     }
 
+    @Override
     public void onWindowClosing() {
         stopEditing();
         restoreFromBackup();
@@ -553,6 +554,7 @@ public class Gen6LearnsetsSheetPanel extends JPanel {
         EditorUtils.performFind(this, frozenTable, mainTable, tableModel, 2, findState, options);
     }
 
+    @Override
     public void save() {
         stopEditing();
 
@@ -19,7 +19,7 @@ import java.util.Map;
  * Displays the ORAS tutor compatibility matrix (including special tutors) per
  * species.
  */
-public class Gen6MoveTutorsSheetPanel extends JPanel {
+public class Gen6MoveTutorsSheetPanel extends JPanel implements EditorSheet {
 
     private final RomHandler romHandler;
     private final boolean hasMoveTutors;
@@ -323,6 +323,7 @@ public class Gen6MoveTutorsSheetPanel extends JPanel {
         }
     }
 
+    @Override
     public void save() {
         if (!hasMoveTutors || tutorMoves.isEmpty()) {
             return;
@@ -347,6 +348,7 @@ public class Gen6MoveTutorsSheetPanel extends JPanel {
         createBackup();
     }
 
+    @Override
     public void onWindowClosing() {
         if (!hasMoveTutors || tutorMoves.isEmpty()) {
             return;
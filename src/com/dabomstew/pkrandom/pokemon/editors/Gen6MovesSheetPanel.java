@@ -22,7 +22,7 @@ import java.util.Objects;
  * Moves Sheet editor for Generation 6 games (XY/ORAS).
  * Mirrors PokEditor's move table so every ROM field stays editable.
  */
-public class Gen6MovesSheetPanel extends JPanel {
+public class Gen6MovesSheetPanel extends JPanel implements EditorSheet {
 
     private final RomHandler romHandler;
     private final List<Move> movesList;
@@ -528,6 +528,7 @@ public class Gen6MovesSheetPanel extends JPanel {
         createBackup();
     }
 
+    @Override
     public void onWindowClosing() {
         stopEditing();
         restoreFromBackup();
@@ -646,6 +647,7 @@ public class Gen6MovesSheetPanel extends JPanel {
         }
     }
 
+    @Override
     public void save() {
         stopEditing();
         ManualEditRegistry.getInstance().addEntries("Moves (Gen 6)", collectMoveChangesForLog());
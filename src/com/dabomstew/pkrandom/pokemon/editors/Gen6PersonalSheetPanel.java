@@ -8,9 +8,7 @@ import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -21,7 +19,7 @@ import java.util.Objects;
  * - 3 held item slots instead of 4 (no Dark Grass item)
  * - Gen 6 specific fields handled by Gen6RomHandler
  */
-public class Gen6PersonalSheetPanel extends JPanel {
+public class Gen6PersonalSheetPanel extends JPanel implements EditorSheet {
 
     private final RomHandler romHandler;
     private final List<Species> pokemonList;
@@ -34,8 +32,9 @@ public class Gen6PersonalSheetPanel extends JPanel {
     private boolean copyPasteModeEnabled = false;
     private final EditorUtils.FindState findState = new EditorUtils.FindState();
 
-    // Backup storage for Species data
-    private Map<Species, SpeciesBackup> backupData;
+    // The state of each Species before its first unsaved change - edits go straight to the Species objects
+    private final EditJournal<Species, SpeciesBackup> journal =
+            new EditJournal<>(SpeciesBackup::new, SpeciesBackup::restoreTo);
 
     private static final String[] EGG_GROUP_NAMES_LOG = {
             "None", "Monster", "Water 1", "Bug", "Flying", "Field", "Fairy",
@@ -48,30 +47,15 @@ public class Gen6PersonalSheetPanel extends JPanel {
         this.pokemonList = romHandler.getSpeciesInclFormes();
         this.itemList = romHandler.getItems();
         this.iconCache = PokemonIconCache.get(romHandler);
-        this.backupData = new HashMap<>();
-        createBackup();
         initializeUI();
     }
 
-    private void createBackup() {
-        backupData.clear();
-        for (Species p : pokemonList) {
-            if (p != null) {
-                backupData.put(p, new SpeciesBackup(p));
-            }
-        }
-    }
-
     private void restoreFromBackup() {
-        for (Species p : pokemonList) {
-            if (p != null && backupData.containsKey(p)) {
-                backupData.get(p).restoreTo(p);
-            }
-        }
+        journal.restoreAll();
     }
 
     private void commitChanges() {
-        createBackup();
+        journal.commit();
     }
 
     private void initializeUI() {
@@ -121,7 +105,7 @@ public class Gen6PersonalSheetPanel extends JPanel {
         panel.setBackground(Color.WHITE);
 
         // Create table model
-        tableModel = new PokemonDataTableModel(pokemonList, romHandler, itemList);
+        tableModel = new PokemonDataTableModel(pokemonList, romHandler, itemList, journal);
 
         // Create frozen table (ID and Name columns only)
         TableModel frozenModel = new AbstractTableModel() {
@@ -437,6 +421,7 @@ public class Gen6PersonalSheetPanel extends JPanel {
         }
     }
 
+    @Override
     public void save() {
         stopEditing();
 
@@ -459,7 +444,7 @@ public class Gen6PersonalSheetPanel extends JPanel {
             if (p == null)
                 continue;
 
-            SpeciesBackup backup = backupData.get(p);
+            SpeciesBackup backup = journal.getOriginal(p);
             if (backup == null)
                 continue;
 
@@ -525,6 +510,7 @@ public class Gen6PersonalSheetPanel extends JPanel {
         }
     }
 
+    @Override
     public void onWindowClosing() {
         stopEditing();
         restoreFromBackup();
@@ -863,11 +849,14 @@ public class Gen6PersonalSheetPanel extends JPanel {
         private final List<Species> pokemonList;
         private final RomHandler romHandler;
         private final List<Item> itemList;
+        private final EditJournal<Species, SpeciesBackup> journal;
 
-        public PokemonDataTableModel(List<Species> pokemonList, RomHandler romHandler, List<Item> itemList) {
+        public PokemonDataTableModel(List<Species> pokemonList, RomHandler romHandler, List<Item> itemList,
+                                     EditJournal<Species, SpeciesBackup> journal) {
             this.pokemonList = pokemonList;
             this.romHandler = romHandler;
             this.itemList = itemList;
+            this.journal = journal;
         }
 
         @Override
@@ -1007,6 +996,7 @@ public class Gen6PersonalSheetPanel extends JPanel {
             if (p == null) {
                 return;
             }
+            journal.record(p);
 
             Object val = aValue;
 
@@ -23,7 +23,7 @@ import java.util.Set;
 /**
  * TM/HM compatibility sheet for Gen 6 games.
  */
-public class Gen6TMsSheetPanel extends JPanel {
+public class Gen6TMsSheetPanel extends JPanel implements EditorSheet {
 
     private final RomHandler romHandler;
     private final List<Species> pokemonList;
@@ -385,6 +385,7 @@ public class Gen6TMsSheetPanel extends JPanel {
         }
     }
 
+    @Override
     public void onWindowClosing() {
         stopEditing();
         restoreFromBackup();
@@ -414,6 +415,7 @@ public class Gen6TMsSheetPanel extends JPanel {
         createBackup();
     }
 
+    @Override
     public void save() {
         stopEditing();
 
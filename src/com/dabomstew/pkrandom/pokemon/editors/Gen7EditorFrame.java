@@ -7,6 +7,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -20,13 +21,7 @@ public class Gen7EditorFrame extends JFrame {
     private final RomHandler romHandler;
     private JTabbedPane tabbedPane;
 
-    private Gen7PersonalSheetPanel personalSheetPanel;
-    private Gen7TMsSheetPanel tmsSheetPanel;
-    private Gen7LearnsetsSheetPanel learnsetsSheetPanel;
-    private Gen7EggMovesSheetPanel eggMovesSheetPanel;
-    private Gen7EvolutionsSheetPanel evolutionsSheetPanel;
-    private Gen7MovesSheetPanel movesSheetPanel;
-    private Gen7MoveTutorsSheetPanel moveTutorsSheetPanel;
+    private final List<EditorSheet> sheets = new ArrayList<>();
 
     public Gen7EditorFrame(RomHandler romHandler) {
         this.romHandler = romHandler;
@@ -42,13 +37,9 @@ public class Gen7EditorFrame extends JFrame {
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
-                personalSheetPanel.onWindowClosing();
-                tmsSheetPanel.onWindowClosing();
-                learnsetsSheetPanel.onWindowClosing();
-                eggMovesSheetPanel.onWindowClosing();
-                evolutionsSheetPanel.onWindowClosing();
-                movesSheetPanel.onWindowClosing();
-                moveTutorsSheetPanel.onWindowClosing();
+                for (EditorSheet sheet : sheets) {
+                    sheet.onWindowClosing();
+                }
             }
         });
 
@@ -57,26 +48,22 @@ public class Gen7EditorFrame extends JFrame {
         tabbedPane.setBackground(Color.WHITE);
         tabbedPane.setForeground(Color.BLACK);
 
-        personalSheetPanel = new Gen7PersonalSheetPanel(romHandler);
-        tabbedPane.addTab("Personal Sheet", personalSheetPanel);
 
-        tmsSheetPanel = new Gen7TMsSheetPanel(romHandler);
-        tabbedPane.addTab("TMs Sheet", tmsSheetPanel);
-
-        learnsetsSheetPanel = new Gen7LearnsetsSheetPanel(romHandler);
-        tabbedPane.addTab("Learnsets Sheet", learnsetsSheetPanel);
-
-        eggMovesSheetPanel = new Gen7EggMovesSheetPanel(romHandler);
-        tabbedPane.addTab("Egg Moves", eggMovesSheetPanel);
-
-        evolutionsSheetPanel = new Gen7EvolutionsSheetPanel(romHandler);
-        tabbedPane.addTab("Evolutions Sheet", evolutionsSheetPanel);
-
-        movesSheetPanel = new Gen7MovesSheetPanel(romHandler);
-        tabbedPane.addTab("Moves Sheet", movesSheetPanel);
-
-        moveTutorsSheetPanel = new Gen7MoveTutorsSheetPanel(romHandler);
-        tabbedPane.addTab("Move Tutors", moveTutorsSheetPanel);
+        // Each sheet is built when its tab is first selected
+        EditorUtils.addLazySheet(tabbedPane, "Personal Sheet",
+                () -> new Gen7PersonalSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "TMs Sheet",
+                () -> new Gen7TMsSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Learnsets Sheet",
+                () -> new Gen7LearnsetsSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Egg Moves",
+                () -> new Gen7EggMovesSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Evolutions Sheet",
+                () -> new Gen7EvolutionsSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Moves Sheet",
+                () -> new Gen7MovesSheetPanel(romHandler), sheets);
+        EditorUtils.addLazySheet(tabbedPane, "Move Tutors",
+                () -> new Gen7MoveTutorsSheetPanel(romHandler), sheets);
 
         add(tabbedPane, BorderLayout.CENTER);
 
@@ -101,13 +88,9 @@ public class Gen7EditorFrame extends JFrame {
     }
 
     private void saveAll() {
-        personalSheetPanel.save();
-        tmsSheetPanel.save();
-        learnsetsSheetPanel.save();
-        eggMovesSheetPanel.save();
-        evolutionsSheetPanel.save();
-        movesSheetPanel.save();
-        moveTutorsSheetPanel.save();
+        for (EditorSheet sheet : sheets) {
+            sheet.save();
+        }
 
         Map<String, List<String>> manualSections = ManualEditRegistry.getInstance().snapshot();
         if (!manualSections.isEmpty()) {
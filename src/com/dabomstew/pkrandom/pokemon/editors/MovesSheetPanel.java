@@ -21,7 +21,7 @@ import java.util.Objects;
  * Moves Sheet editor matching PokEditor's EXACT implementation
  * Based on MovesTable.java from PokEditor
  */
-public class MovesSheetPanel extends JPanel {
+public class MovesSheetPanel extends JPanel implements EditorSheet {
 
     private final RomHandler romHandler;
     private final List<Move> movesList;
@@ -325,6 +325,7 @@ public class MovesSheetPanel extends JPanel {
         createBackup();
     }
 
+    @Override
     public void onWindowClosing() {
         stopEditing();
         restoreFromBackup();
@@ -372,6 +373,7 @@ public class MovesSheetPanel extends JPanel {
                 mainTable.getTableHeader().getPreferredSize().width, 60));
     }
 
+    @Override
     public void save() {
         stopEditing();
         ManualEditRegistry.getInstance().addEntries("Moves Data", collectMoveChangesForLog());
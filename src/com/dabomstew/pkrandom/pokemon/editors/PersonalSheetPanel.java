@@ -9,15 +9,13 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.table.*;
 import java.awt.*;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 
 /**
  * Polished Personal Sheet editor matching PokEditor's clean UI design
  */
-public class PersonalSheetPanel extends JPanel {
+public class PersonalSheetPanel extends JPanel implements EditorSheet {
 
     private final RomHandler romHandler;
     private final List<Species> pokemonList;
@@ -28,8 +26,9 @@ public class PersonalSheetPanel extends JPanel {
     private PokemonDataTableModel tableModel;
     private JScrollPane mainScrollPane;
 
-    // Backup storage for Species data - only write back to Species objects on Save
-    private Map<Species, SpeciesBackup> backupData;
+    // The state of each Species before its first unsaved change - edits go straight to the Species objects
+    private final EditJournal<Species, SpeciesBackup> journal =
+            new EditJournal<>(SpeciesBackup::new, SpeciesBackup::restoreTo);
 
     private static final String[] EGG_GROUP_NAMES_LOG = {
             "None", "Monster", "Water 1", "Bug", "Flying", "Field", "Fairy",
@@ -42,35 +41,17 @@ public class PersonalSheetPanel extends JPanel {
         this.pokemonList = romHandler.getSpecies();
         this.itemList = romHandler.getItems();
         this.iconCache = PokemonIconCache.get(romHandler);
-        this.backupData = new HashMap<>();
-        // Create backup of all Pokemon data
-        createBackup();
         initializeUI();
     }
 
-    private void createBackup() {
-        backupData.clear();
-        for (Species p : pokemonList) {
-            if (p != null) {
-                backupData.put(p, new SpeciesBackup(p));
-            }
-        }
-    }
-
-    // Restore all Species from backup (called when window closes without Save)
+    // Undo the unsaved changes (called when window closes without Save)
     private void restoreFromBackup() {
-        for (Species p : pokemonList) {
-            if (p != null && backupData.containsKey(p)) {
-                backupData.get(p).restoreTo(p);
-            }
-        }
+        journal.restoreAll();
     }
 
-    // Save changes from backup to Species objects (called when Save is clicked)
+    // Keep the changes, which are already in the Species objects (called when Save is clicked)
     private void commitChanges() {
-        // Changes are already in the Species objects since we edit them directly
-        // But we need to update the backup so future reloads work correctly
-        createBackup();
+        journal.commit();
     }
 
     private void initializeUI() {
@@ -133,7 +114,7 @@ public class PersonalSheetPanel extends JPanel {
         panel.setBackground(Color.WHITE);
 
         // Create table model
-        tableModel = new PokemonDataTableModel(pokemonList, romHandler, itemList);
+        tableModel = new PokemonDataTableModel(pokemonList, romHandler, itemList, journal);
 
         // Create frozen table (ID and Name columns)
         TableModel frozenModel = new AbstractTableModel() {
@@ -420,12 +401,13 @@ public class PersonalSheetPanel extends JPanel {
         }
     }
 
+    @Override
     public void save() {
         stopEditing();
 
         ManualEditRegistry.getInstance().addEntries("Personal Sheet", collectChangesForLog());
 
-        // Commit changes by updating the backup
+        // Commit changes, so closing the editor no longer undoes them
         commitChanges();
 
         JOptionPane.showMessageDialog(this,
@@ -451,6 +433,7 @@ public class PersonalSheetPanel extends JPanel {
     }
 
     // Called when the editor window is being closed - restore unsaved changes
+    @Override
     public void onWindowClosing() {
         stopEditing();
         restoreFromBackup();
@@ -759,6 +742,7 @@ public class PersonalSheetPanel extends JPanel {
         private final List<Species> pokemonList;
         private final RomHandler romHandler;
         private final List<Item> itemList;
+        private final EditJournal<Species, SpeciesBackup> journal;
 
         // Column names matching PokEditor EXACTLY (31 total columns)
         private final String[] columnNames = {
@@ -779,10 +763,12 @@ public class PersonalSheetPanel extends JPanel {
                 "Flip"
         };
 
-        public PokemonDataTableModel(List<Species> pokemonList, RomHandler romHandler, List<Item> itemList) {
+        public PokemonDataTableModel(List<Species> pokemonList, RomHandler romHandler, List<Item> itemList,
+                                     EditJournal<Species, SpeciesBackup> journal) {
             this.pokemonList = pokemonList;
             this.romHandler = romHandler;
             this.itemList = itemList;
+            this.journal = journal;
         }
 
         @Override
@@ -900,6 +886,7 @@ public class PersonalSheetPanel extends JPanel {
             Species p = pokemonList.get(row + 1);
             if (p == null)
                 return;
+            journal.record(p);
 
             try {
                 switch (col) {
@@ -1142,7 +1129,7 @@ public class PersonalSheetPanel extends JPanel {
             if (species == null) {
                 continue;
             }
-            SpeciesBackup backup = backupData.get(species);
+            SpeciesBackup backup = journal.getOriginal(species);
             if (backup == null) {
                 continue;
             }
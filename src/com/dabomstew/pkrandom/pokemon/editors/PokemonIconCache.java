@@ -6,29 +6,69 @@ import com.dabomstew.pkromio.romhandlers.RomHandler;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
+import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.Window;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Small shared cache used by the editor panels to display party-style icons for species.
- * Icons are generated lazily from the RomHandler's {@link PokemonImageGetter} implementation.
+ * Icons are generated from the RomHandler's {@link PokemonImageGetter} implementation, in the background:
+ * until an icon is ready, {@link #getIcon(Species)} returns a placeholder, and the editor windows are repainted
+ * once it is. When a cache is created, icons for all species are pre-rendered, as far as the memory cap allows.<br>
+ * Rendered icons are kept least-recently-used first, up to {@link #MAX_CACHED_BYTES} per RomHandler, and softly
+ * referenced so they can be dropped when memory runs low.
  */
 public final class PokemonIconCache {
     private static final int ICON_SIZE = 48;
+    private static final int ICON_BYTES = ICON_SIZE * ICON_SIZE * 4;
+    private static final long MAX_CACHED_BYTES = 16L * 1024 * 1024;
+    private static final int PREFETCH_BATCH_SIZE = 16;
+    private static final int REPAINT_DELAY_MILLIS = 100;
     private static final String ICON_RESOURCE_ROOT = "/com/dabomstew/pkrandom/pokemon/icons/";
     private static final Set<Integer> DEFAULT_FORM_SPECIES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(778, 664, 665, 414, 493, 773)));
-    private static final Map<RomHandler, PokemonIconCache> CACHE_BY_HANDLER = new ConcurrentHashMap<>();
+
+    // Each cache refers to its RomHandler, so the values must be weak too for the handlers to ever be collected.
+    // A cache is kept alive by the editor panels using it.
+    private static final Map<RomHandler, WeakReference<PokemonIconCache>> CACHE_BY_HANDLER = new WeakHashMap<>();
+
+    private static final ForkJoinPool RENDER_POOL = new ForkJoinPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+            ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+
+    private static final ImageIcon PLACEHOLDER = createPlaceholder();
+    // Cached for species which have no icon, so they aren't rendered again.
+    private static final ImageIcon NO_ICON = new ImageIcon();
+    private static final AtomicBoolean REPAINT_SCHEDULED = new AtomicBoolean();
+
+    private static class CachedIcon {
+        final SoftReference<ImageIcon> icon;
+        final int bytes;
+
+        CachedIcon(ImageIcon icon) {
+            this.icon = new SoftReference<>(icon);
+            this.bytes = icon == NO_ICON ? 0 : icon.getIconWidth() * icon.getIconHeight() * 4;
+        }
+    }
 
     private final RomHandler romHandler;
     private final boolean supported;
     private final boolean useBundledIcons;
     private final Map<String, ImageIcon> bundledIconCache = new ConcurrentHashMap<>();
-    private final Map<Species, ImageIcon> cache = new ConcurrentHashMap<>();
+    // guarded by "this"
+    private final LinkedHashMap<Species, CachedIcon> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private final Set<Species> pending = ConcurrentHashMap.newKeySet();
 
     private PokemonIconCache(RomHandler romHandler) {
         this.romHandler = romHandler;
@@ -41,18 +81,154 @@ public final class PokemonIconCache {
         if (romHandler == null) {
             return new PokemonIconCache(null);
         }
-        return CACHE_BY_HANDLER.computeIfAbsent(romHandler, PokemonIconCache::new);
+        synchronized (CACHE_BY_HANDLER) {
+            WeakReference<PokemonIconCache> ref = CACHE_BY_HANDLER.get(romHandler);
+            PokemonIconCache iconCache = ref == null ? null : ref.get();
+            if (iconCache == null) {
+                iconCache = new PokemonIconCache(romHandler);
+                CACHE_BY_HANDLER.put(romHandler, new WeakReference<>(iconCache));
+                iconCache.prefetch();
+            }
+            return iconCache;
+        }
     }
 
     public boolean hasIcons() {
         return supported;
     }
 
+    /**
+     * Returns the icon of "species", or a placeholder if it is still being rendered. Returns null if the
+     * species has no icon, or icons aren't supported.
+     */
     public ImageIcon getIcon(Species species) {
         if (!supported || species == null) {
             return null;
         }
-        return cache.computeIfAbsent(species, this::createIcon);
+        ImageIcon icon = getCached(species);
+        if (icon == null) {
+            if (pending.add(species)) {
+                RENDER_POOL.execute(() -> render(species));
+            }
+            return PLACEHOLDER;
+        }
+        return icon == NO_ICON ? null : icon;
+    }
+
+    private synchronized ImageIcon getCached(Species species) {
+        CachedIcon cached = cache.get(species);
+        if (cached == null) {
+            return null;
+        }
+        ImageIcon icon = cached.icon.get();
+        if (icon == null) {
+            // cleared by the garbage collector
+            cache.remove(species);
+            cachedBytes -= cached.bytes;
+        }
+        return icon;
+    }
+
+    private synchronized void putCached(Species species, ImageIcon icon) {
+        CachedIcon old = cache.put(species, new CachedIcon(icon));
+        if (old != null) {
+            cachedBytes -= old.bytes;
+        }
+        cachedBytes += cache.get(species).bytes;
+        Iterator<CachedIcon> eldest = cache.values().iterator();
+        while (cachedBytes > MAX_CACHED_BYTES && cache.size() > 1) {
+            cachedBytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    private void render(Species species) {
+        try {
+            if (getCached(species) == null) {
+                ImageIcon icon = createIcon(species);
+                putCached(species, icon == null ? NO_ICON : icon);
+                scheduleRepaint();
+            }
+        } finally {
+            pending.remove(species);
+        }
+    }
+
+    /**
+     * Starts rendering the icons of all species in the background, up to as many as fit in the cache.
+     */
+    private void prefetch() {
+        if (!supported) {
+            return;
+        }
+        List<Species> toRender = new ArrayList<>();
+        for (Species species : romHandler.getSpeciesInclFormes()) {
+            if (toRender.size() >= MAX_CACHED_BYTES / ICON_BYTES) {
+                break;
+            }
+            if (species != null && pending.add(species)) {
+                toRender.add(species);
+            }
+        }
+        RENDER_POOL.execute(new PrefetchTask(this, toRender));
+    }
+
+    private static class PrefetchTask extends RecursiveAction {
+        private static final long serialVersionUID = 3385467196317426482L;
+
+        private final PokemonIconCache iconCache;
+        private final List<Species> species;
+
+        PrefetchTask(PokemonIconCache iconCache, List<Species> species) {
+            this.iconCache = iconCache;
+            this.species = species;
+        }
+
+        @Override
+        protected void compute() {
+            if (species.size() <= PREFETCH_BATCH_SIZE) {
+                for (Species sp : species) {
+                    iconCache.render(sp);
+                }
+            } else {
+                int mid = species.size() / 2;
+                invokeAll(new PrefetchTask(iconCache, species.subList(0, mid)),
+                        new PrefetchTask(iconCache, species.subList(mid, species.size())));
+            }
+        }
+    }
+
+    /**
+     * Repaints the editor windows, at most once per {@link #REPAINT_DELAY_MILLIS}, so icons finishing
+     * in quick succession cause a single repaint.
+     */
+    private static void scheduleRepaint() {
+        if (!REPAINT_SCHEDULED.compareAndSet(false, true)) {
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            javax.swing.Timer timer = new javax.swing.Timer(REPAINT_DELAY_MILLIS, e -> {
+                REPAINT_SCHEDULED.set(false);
+                for (Window window : Window.getWindows()) {
+                    if (window.isShowing()) {
+                        window.repaint();
+                    }
+                }
+            });
+            timer.setRepeats(false);
+            timer.start();
+        });
+    }
+
+    private static ImageIcon createPlaceholder() {
+        BufferedImage image = new BufferedImage(ICON_SIZE, ICON_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(new Color(128, 128, 128, 64));
+        int inset = ICON_SIZE / 4;
+        g2d.fillOval(inset, inset, ICON_SIZE - 2 * inset, ICON_SIZE - 2 * inset);
+        g2d.dispose();
+        return new ImageIcon(image);
     }
 
     private ImageIcon createIcon(Species species) {
@@ -199,9 +375,3 @@ public final class PokemonIconCache {
     }
 
 }
-
-
-
-
-
-
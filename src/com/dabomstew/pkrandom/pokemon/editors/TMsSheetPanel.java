@@ -18,7 +18,7 @@ import java.util.Map;
  * TM/HM Compatibility Sheet editor with matrix view
  * Shows which Pokemon can learn which TMs/HMs
  */
-public class TMsSheetPanel extends JPanel {
+public class TMsSheetPanel extends JPanel implements EditorSheet {
 
     private final RomHandler romHandler;
     private final List<Species> pokemonList;
@@ -450,6 +450,7 @@ public class TMsSheetPanel extends JPanel {
         createBackup();
     }
 
+    @Override
     public void onWindowClosing() {
         stopEditing();
         restoreFromBackup();
@@ -554,6 +555,7 @@ public class TMsSheetPanel extends JPanel {
         EditorUtils.performFind(this, frozenTable, mainTable, tableModel, 2, findState, options);
     }
 
+    @Override
     public void save() {
         stopEditing();
 
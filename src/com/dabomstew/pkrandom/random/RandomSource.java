@@ -65,16 +65,80 @@ public class RandomSource {
         return cosmetic.calls;
     }
 
+    /**
+     * Captures where both Randoms currently are in their sequences, so they can be put back there
+     * with {@link #restoreState(State)}.
+     */
+    public State saveState() {
+        return new State(seed, nonCosmetic.save(), cosmetic.save());
+    }
+
+    /**
+     * Puts both Randoms back where they were when "state" was {@link #saveState() saved}, including their call counts.
+     * The next numbers drawn are then the same as the ones drawn after the save.
+     */
+    public void restoreState(State state) {
+        nonCosmetic.restore(state.nonCosmetic);
+        cosmetic.restore(state.cosmetic);
+        this.seed = state.seed;
+    }
+
+    /**
+     * An immutable snapshot of a {@link RandomSource}.
+     */
+    public static class State {
+        private final long seed;
+        private final long[] nonCosmetic;
+        private final long[] cosmetic;
+
+        private State(long seed, long[] nonCosmetic, long[] cosmetic) {
+            this.seed = seed;
+            this.nonCosmetic = nonCosmetic;
+            this.cosmetic = cosmetic;
+        }
+    }
+
+    /**
+     * A {@link Random} with the same sequence as java.util.Random, but which keeps the generator state itself,
+     * so that it can be saved and restored.
+     */
     private static class RandomWithCounter extends Random {
 
+        private static final long MULTIPLIER = 0x5DEECE66DL;
+        private static final long ADDEND = 0xBL;
+        private static final long MASK = (1L << 48) - 1;
+
+        // Assigned by the super constructor through setSeed(), so these must not have initializers.
+        private long state;
+        private double nextNextGaussian;
+        private boolean haveNextNextGaussian;
+
         private int calls = 0;
 
         @Override
         public synchronized void setSeed(long seed) {
-            super.setSeed(seed);
+            state = (seed ^ MULTIPLIER) & MASK;
+            haveNextNextGaussian = false;
             calls = 0;
         }
 
+        @Override
+        protected int next(int bits) {
+            state = (state * MULTIPLIER + ADDEND) & MASK;
+            return (int) (state >>> (48 - bits));
+        }
+
+        private long[] save() {
+            return new long[]{state, calls, haveNextNextGaussian ? 1 : 0, Double.doubleToRawLongBits(nextNextGaussian)};
+        }
+
+        private void restore(long[] saved) {
+            state = saved[0];
+            calls = (int) saved[1];
+            haveNextNextGaussian = saved[2] != 0;
+            nextNextGaussian = Double.longBitsToDouble(saved[3]);
+        }
+
         @Override
         public void nextBytes(byte[] bytes) {
             calls++;
@@ -120,7 +184,21 @@ public class RandomSource {
         @Override
         public synchronized double nextGaussian() {
             calls++;
-            return super.nextGaussian();
+            // The polar method, as in java.util.Random, but with the spare value kept here.
+            if (haveNextNextGaussian) {
+                haveNextNextGaussian = false;
+                return nextNextGaussian;
+            }
+            double v1, v2, s;
+            do {
+                v1 = 2 * super.nextDouble() - 1;
+                v2 = 2 * super.nextDouble() - 1;
+                s = v1 * v1 + v2 * v2;
+            } while (s >= 1 || s == 0);
+            double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+            nextNextGaussian = v2 * multiplier;
+            haveNextNextGaussian = true;
+            return v1 * multiplier;
         }
 
     }
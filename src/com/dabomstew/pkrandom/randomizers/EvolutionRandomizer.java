@@ -5,12 +5,12 @@ import com.dabomstew.pkrandom.exceptions.RandomizationException;
 import com.dabomstew.pkromio.constants.SpeciesIDs;
 import com.dabomstew.pkromio.gamedata.Evolution;
 import com.dabomstew.pkromio.gamedata.EvolutionType;
+import com.dabomstew.pkromio.gamedata.ExpCurve;
 import com.dabomstew.pkromio.gamedata.Species;
 import com.dabomstew.pkromio.gamedata.SpeciesSet;
 import com.dabomstew.pkromio.romhandlers.RomHandler;
 
 import java.util.*;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public class EvolutionRandomizer extends Randomizer {
@@ -56,10 +56,21 @@ public class EvolutionRandomizer extends Randomizer {
                 .randomizeEvolutions();
     }
 
+    /**
+     * Assigns the new evolutions as a constraint search: each original evolution is a slot, taking a
+     * {@link Species} from its own domain. The slots are filled in order, and when one has no candidates left,
+     * the search backs up to the slot before it and tries its next candidate, instead of throwing all evolutions
+     * away and starting over. Only when a whole attempt runs out of backtracks does it start over,
+     * and then with fresh random picks.
+     */
     private class InnerRandomizer {
 
         private static final int MAX_TRIES = 1000;
         private static final int DEFAULT_STAGE_LIMIT = 10;
+        /**
+         * How many times per slot an attempt may back up, before it is abandoned and restarted.
+         */
+        private static final int BACKTRACKS_PER_SLOT = 4;
 
         private final boolean similarStrength;
         private final boolean sameType;
@@ -73,6 +84,60 @@ public class EvolutionRandomizer extends Randomizer {
         private final SpeciesSet banned;
 
         private Map<Species, List<Evolution>> allOriginalEvos;
+        private List<Slot> slots;
+
+        // for cycle checks, so no visited-set has to be allocated for each candidate
+        private int[] visitStamps;
+        private int visitStamp;
+
+        /**
+         * One original evolution to be replaced, with the candidates that can replace it.
+         */
+        private class Slot {
+            final Species from;
+            final Evolution evo;
+            /**
+             * The candidates allowed by the filters that don't depend on the other evolutions;
+             * these are worked out once, up front.
+             */
+            final List<Species> staticDomain;
+            /**
+             * The candidates still untried, given the evolutions chosen for the slots before this one.
+             * Null when the slot has not been reached in the current attempt.
+             */
+            SpeciesSet remaining;
+            Evolution assigned;
+
+            Slot(Species from, Evolution evo, List<Species> staticDomain) {
+                this.from = from;
+                this.evo = evo;
+                this.staticDomain = staticDomain;
+            }
+
+            Species pickNext() {
+                if (remaining.isEmpty()) {
+                    return null;
+                }
+                Species picked = similarStrength ? remaining.getRandomSimilarStrengthSpecies(evo.getTo(), random)
+                        : remaining.getRandomSpecies(random);
+                remaining.remove(picked);
+                return picked;
+            }
+
+            void assign(Species picked) {
+                assigned = prepareNewEvolution(from, evo, picked);
+                from.getEvolutionsFrom().add(assigned);
+                picked.getEvolutionsTo().add(assigned);
+            }
+
+            void unassign() {
+                if (assigned != null) {
+                    from.getEvolutionsFrom().remove(assigned);
+                    assigned.getTo().getEvolutionsTo().remove(assigned);
+                    assigned = null;
+                }
+            }
+        }
 
         public InnerRandomizer(SpeciesSet pokemonPool, SpeciesSet banned,
                                boolean similarStrength, boolean sameType,
@@ -101,6 +166,8 @@ public class EvolutionRandomizer extends Randomizer {
 
         public void randomizeEvolutions() {
             allOriginalEvos = cacheOriginalEvolutions();
+            slots = createSlots();
+            visitStamps = new int[romHandler.getSpeciesInclFormes().size()];
 
             boolean succeeded = false;
             int tries = 0;
@@ -108,7 +175,7 @@ public class EvolutionRandomizer extends Randomizer {
                 succeeded = randomizeEvolutionsInner();
                 tries++;
             }
-            if (tries == MAX_TRIES) {
+            if (!succeeded) {
                 if (settings.isStandardizeEXPCurves()) {
                     throw new RandomizationException("Could not randomize Evolutions in " + MAX_TRIES + " tries.");
                 } else {
@@ -120,26 +187,89 @@ public class EvolutionRandomizer extends Randomizer {
 
         private boolean randomizeEvolutionsInner() {
             clearEvolutions();
+            // filled in a random order, so the Pokemon early in the pool don't always get the first pick,
+            // and so each new attempt starts from somewhere else
+            Collections.shuffle(slots, random);
+            for (Slot slot : slots) {
+                slot.remaining = null;
+                slot.assigned = null;
+            }
 
-            // TODO: iterating through this in a random order would be better
-            for (Species from : pokemonPool) {
-                List<Evolution> originalEvos = getOriginalEvos(from);
-                for (Evolution evo : originalEvos) {
-                    SpeciesSet possible = findPossibleReplacements(from, evo);
-                    if (possible.isEmpty()) {
+            int backtracksLeft = BACKTRACKS_PER_SLOT * slots.size();
+            int i = 0;
+            while (i < slots.size()) {
+                Slot slot = slots.get(i);
+                if (slot.remaining == null) {
+                    slot.remaining = findPossibleReplacements(slot);
+                } else {
+                    // we backed up to here, so the previous pick led nowhere
+                    slot.unassign();
+                }
+
+                Species picked = slot.pickNext();
+                if (picked == null) {
+                    slot.remaining = null;
+                    if (i == 0 || backtracksLeft-- == 0) {
                         return false;
                     }
-                    Species picked = similarStrength ? possible.getRandomSimilarStrengthSpecies(evo.getTo(), random)
-                            : possible.getRandomSpecies(random);
-
-                    Evolution newEvo = prepareNewEvolution(from, evo, picked);
-                    from.getEvolutionsFrom().add(newEvo);
-                    picked.getEvolutionsTo().add(newEvo);
+                    i--;
+                } else {
+                    slot.assign(picked);
+                    i++;
                 }
             }
             return true;
         }
 
+        /**
+         * Creates a slot for each evolution to be given out, with its static domain.
+         * The candidates are bucketed by growth curve and sorted by BST, so each slot only looks at the
+         * right bucket, and with forceGrowth only at the part of it stronger than the evolving Pokemon.
+         */
+        private List<Slot> createSlots() {
+            Map<ExpCurve, List<Species>> byGrowthCurve = new EnumMap<>(ExpCurve.class);
+            for (Species pk : pokemonPool) {
+                if (!banned.contains(pk)) {
+                    byGrowthCurve.computeIfAbsent(pk.getGrowthCurve(), k -> new ArrayList<>()).add(pk);
+                }
+            }
+            Comparator<Species> byBST = Comparator.comparingInt(Species::getBSTForPowerLevels)
+                    .thenComparingInt(Species::getNumber);
+            for (List<Species> bucket : byGrowthCurve.values()) {
+                bucket.sort(byBST);
+            }
+
+            List<Slot> slots = new ArrayList<>();
+            for (Species from : pokemonPool) {
+                List<Species> bucket = byGrowthCurve.getOrDefault(from.getGrowthCurve(), Collections.emptyList());
+                int start = forceGrowth ? firstStrongerThan(bucket, from.getBSTForPowerLevels()) : 0;
+                for (Evolution evo : getOriginalEvos(from)) {
+                    List<Species> domain = new ArrayList<>();
+                    for (Species to : bucket.subList(start, bucket.size())) {
+                        if (isStaticallyAllowed(from, evo, to)) {
+                            domain.add(to);
+                        }
+                    }
+                    slots.add(new Slot(from, evo, domain));
+                }
+            }
+            return slots;
+        }
+
+        private int firstStrongerThan(List<Species> sortedByBST, int bst) {
+            int low = 0;
+            int high = sortedByBST.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedByBST.get(mid).getBSTForPowerLevels() > bst) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
         private Map<Species, List<Evolution>> cacheOriginalEvolutions() {
             Map<Species, List<Evolution>> originalEvos = new HashMap<>();
             for (Species pk : pokemonPool) {
@@ -180,87 +310,89 @@ public class EvolutionRandomizer extends Randomizer {
             return newEvo;
         }
 
-        private SpeciesSet findPossibleReplacements(Species from, Evolution evo) {
-            List<Predicate<Species>> filters = new ArrayList<>();
-            filters.add(to -> !banned.contains(to));
-            filters.add(to -> !to.equals(from));
-            filters.add(to -> to.getGrowthCurve().equals(from.getGrowthCurve()));
-            filters.add(to -> !isAlreadyChosenAsOtherSplitEvo(from, to));
-
-            if (!evolveEveryLevel) {
-                filters.add(to -> !createsCycle(from, to));
-                filters.add(to -> !breaksStageLimit(from, to));
-            }
-            if (noConvergence) {
-                filters.add(to -> to.getEvolutionsTo().isEmpty());
-            }
-            if (forceChange) {
-                filters.add(to -> !isAnOriginalEvo(from, to));
+        /**
+         * The filters that only depend on the evolving Pokemon and the candidate, not on the other evolutions.
+         * Banned Pokemon, growth curve and forceGrowth are already handled by how the candidates are bucketed.
+         */
+        private boolean isStaticallyAllowed(Species from, Evolution evo, Species to) {
+            if (to.equals(from)) {
+                return false;
             }
-            if (forceGrowth) {
-                filters.add(to -> to.getBSTForPowerLevels() > from.getBSTForPowerLevels());
+            if (forceChange && isAnOriginalEvo(from, to)) {
+                return false;
             }
             if (sameType) {
                 if (from.getNumber() == SpeciesIDs.eevee && !evolveEveryLevel) {
-                    filters.add(to -> to.hasSharedType(evo.getTo()));
+                    return to.hasSharedType(evo.getTo());
                 } else {
-                    filters.add(to -> to.hasSharedType(from));
+                    return to.hasSharedType(from);
                 }
             }
+            return true;
+        }
 
-            Predicate<Species> combinedFilter = to -> {
-                for (Predicate<Species> filter : filters) {
-                    if (!filter.test(to)) return false;
+        private SpeciesSet findPossibleReplacements(Slot slot) {
+            Species from = slot.from;
+            // the evolving Pokemon's side of the stage limit is the same for every candidate
+            int preEvolutions = evolveEveryLevel ? 0 : numPreEvolutions(from, stageLimit);
+
+            SpeciesSet possible = new SpeciesSet();
+            for (Species to : slot.staticDomain) {
+                if (isAlreadyChosenAsOtherSplitEvo(from, to)) {
+                    continue;
                 }
-                return true;
-            };
-            return pokemonPool.filter(combinedFilter);
+                if (noConvergence && !to.getEvolutionsTo().isEmpty()) {
+                    continue;
+                }
+                if (!evolveEveryLevel) {
+                    if (preEvolutions + numEvolutions(to, stageLimit) + 2 > stageLimit) {
+                        continue;
+                    }
+                    if (createsCycle(from, to)) {
+                        continue;
+                    }
+                }
+                possible.add(to);
+            }
+            return possible;
         }
 
         private boolean isAlreadyChosenAsOtherSplitEvo(Species from, Species to) {
-            return from.getEvolutionsFrom().stream().map(Evolution::getTo).collect(Collectors.toList()).contains(to);
+            for (Evolution evo : from.getEvolutionsFrom()) {
+                if (evo.getTo().equals(to)) {
+                    return true;
+                }
+            }
+            return false;
         }
 
         /**
          * Check whether adding an evolution from one Pokemon to another will cause
-         * an evolution cycle.
+         * an evolution cycle. Since the evolutions chosen so far contain no cycle, that is
+         * exactly when "from" can already be reached by evolving "to".
          *
          * @param from Pokemon that is evolving
          * @param to   Pokemon to evolve to
          * @return True if there is an evolution cycle, else false
          */
         private boolean createsCycle(Species from, Species to) {
-            Evolution tempEvo = new Evolution(from, to, EvolutionType.NONE, 0);
-            from.getEvolutionsFrom().add(tempEvo);
-            Set<Species> visited = new HashSet<>();
-            Set<Species> recStack = new HashSet<>();
-            boolean recur = isCyclic(from, visited, recStack);
-            from.getEvolutionsFrom().remove(tempEvo);
-            return recur;
+            visitStamp++;
+            return canEvolveInto(to, from);
         }
 
-        private boolean isCyclic(Species pk, Set<Species> visited, Set<Species> recStack) {
-            if (!visited.contains(pk)) {
-                visited.add(pk);
-                recStack.add(pk);
-                for (Evolution ev : pk.getEvolutionsFrom()) {
-                    if (!visited.contains(ev.getTo()) && isCyclic(ev.getTo(), visited, recStack)) {
-                        return true;
-                    } else if (recStack.contains(ev.getTo())) {
-                        return true;
-                    }
+        private boolean canEvolveInto(Species pk, Species target) {
+            if (pk.equals(target)) {
+                return true;
+            }
+            visitStamps[pk.getNumber()] = visitStamp;
+            for (Evolution ev : pk.getEvolutionsFrom()) {
+                if (visitStamps[ev.getTo().getNumber()] != visitStamp && canEvolveInto(ev.getTo(), target)) {
+                    return true;
                 }
             }
-            recStack.remove(pk);
             return false;
         }
 
-        private boolean breaksStageLimit(Species from, Species to) {
-            int maxFrom = numPreEvolutions(from, stageLimit);
-            int maxTo = numEvolutions(to, stageLimit);
-            return maxFrom + maxTo + 2 > stageLimit;
-        }
-
         // Return the max depth of pre-evolutions a Pokemon has
         private int numPreEvolutions(Species pk, int maxInterested) {
             return numPreEvolutions(pk, 0, maxInterested);
@@ -23,6 +23,7 @@ package com.dabomstew.pkrandom.randomizers;
 
 import com.dabomstew.pkrandom.Settings;
 import com.dabomstew.pkrandom.exceptions.RandomizationException;
+import com.dabomstew.pkromio.ConcurrencyFunctions;
 import com.dabomstew.pkromio.gamedata.Species;
 import com.dabomstew.pkromio.gamedata.cueh.BasicSpeciesAction;
 import com.dabomstew.pkromio.gamedata.cueh.EvolvedSpeciesAction;
@@ -32,6 +33,7 @@ import com.dabomstew.pkromio.romhandlers.RomHandler;
 import java.io.*;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.*;
 
 /**
  * A {@link PaletteRandomizer} for Gen 3, Gen 4, and Gen 5 games (R/S/E/FR/LG,
@@ -54,6 +56,22 @@ public class Gen3to5PaletteRandomizer extends PaletteRandomizer {
 	 */
 	private final static boolean COMPILED = true;
 
+	/**
+	 * The parsed description files, by file name. They never change, so they are parsed once and shared.
+	 */
+	private final static Map<String, PaletteDescriptionTable> DESCRIPTION_TABLES = new ConcurrentHashMap<>();
+
+	/**
+	 * Populates the Pokemon palettes of all randomizations running at once. It is shared, so randomizing
+	 * many seeds in parallel does not start a pool of threads for each of them.
+	 */
+	private final static ExecutorService PALETTE_EXECUTOR = Executors.newFixedThreadPool(
+			Runtime.getRuntime().availableProcessors(), r -> {
+				Thread t = new Thread(r, "palette-randomizer");
+				t.setDaemon(true);
+				return t;
+			});
+
 	/**
 	 * An identifier for the related resource files. ROMs that share a
 	 * paletteFilesID also share all resources. If they shouldn't, different ROMs
@@ -96,24 +114,36 @@ public class Gen3to5PaletteRandomizer extends PaletteRandomizer {
 
 		copyUpEvolutionsHelper.apply(evolutionSanity, true, new BasicSpeciesPaletteAction(),
 				new EvolvedSpeciesPaletteAction());
-		List<PaletteDescription> paletteDescriptions = getPaletteDescriptions("pokePalettes");
-		populatePokemonPalettes(paletteDescriptions);
+		populatePokemonPalettes(getPaletteDescriptionTable("pokePalettes"));
 
 	}
 
-	private void populatePokemonPalettes(List<PaletteDescription> paletteDescriptions) {
-
-		PalettePopulator pp = new PalettePopulator(random);
+	/**
+	 * Populates the normal palette of each Pokemon. Each gets its own random stream, seeded from
+	 * {@link #random} and its number, so they can be populated in parallel and still always come out the same.
+	 * They are populated on {@link #PALETTE_EXECUTOR}, so no more threads than there are processors do so,
+	 * however many randomizations run at once.
+	 */
+	private void populatePokemonPalettes(PaletteDescriptionTable paletteDescriptionTable) {
+		long paletteSeed = random.nextLong();
 
+		List<Callable<Void>> tasks = new ArrayList<>();
 		for (Entry<Species, TypeBaseColorList> entry : typeBaseColorLists.entrySet()) {
-
 			Species pk = entry.getKey();
-			Palette palette = pk.getNormalPalette();
 			TypeBaseColorList typeBaseColorList = entry.getValue();
-			PalettePartDescription[] palettePartDescriptions = getPalettePartDescriptions(pk, paletteDescriptions);
-
-			populatePalette(palette, pp, typeBaseColorList, palettePartDescriptions);
+			tasks.add(() -> {
+				Random speciesRandom = new Random(new SplittableRandom(paletteSeed ^ pk.getNumber()).nextLong());
+				populatePalette(pk.getNormalPalette(), new PalettePopulator(speciesRandom), typeBaseColorList,
+						getPalettePartDescriptions(pk, paletteDescriptionTable));
+				return null;
+			});
+		}
 
+		try {
+			ConcurrencyFunctions.invokeAllAndUnwrap(PALETTE_EXECUTOR, tasks);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RandomizationException("Interrupted while randomizing palettes.");
 		}
 	}
 
@@ -135,11 +165,23 @@ public class Gen3to5PaletteRandomizer extends PaletteRandomizer {
 	}
 
 	public PalettePartDescription[] getPalettePartDescriptions(Species pk,
-                                                               List<PaletteDescription> paletteDescriptions) {
-		int paletteIndex = pk.getNumber() - 1;
-		boolean validIndex = paletteIndex <= paletteDescriptions.size();
-		return PalettePartDescription
-				.allFrom(validIndex ? paletteDescriptions.get(paletteIndex) : PaletteDescription.BLANK);
+															   PaletteDescriptionTable paletteDescriptionTable) {
+		return paletteDescriptionTable.get(pk.getNumber() - 1);
+	}
+
+	/**
+	 * Gets the parsed {@link PaletteDescription}s of a resource/file. Resources are only read and parsed
+	 * the first time, files every time, since they are being edited.
+	 *
+	 * @param fileKey         The key to this particular kind of file, e.g.
+	 *                        "pokePalettes".
+	 */
+	public PaletteDescriptionTable getPaletteDescriptionTable(String fileKey) {
+		if (COMPILED) {
+			return DESCRIPTION_TABLES.computeIfAbsent(getFileName(fileKey),
+					fileName -> new PaletteDescriptionTable(getPaletteDescriptions(fileKey)));
+		}
+		return new PaletteDescriptionTable(getPaletteDescriptions(fileKey));
 	}
 
 	/**
@@ -37,4 +37,19 @@ public abstract class Randomizer {
     public boolean isChangesMade() {
         return changesMade;
     }
+
+    /**
+     * Returns the flags telling what changes the randomizer has made, for when its results are restored
+     * instead of made again, e.g. from a {@link com.dabomstew.pkrandom.StageCheckpoints checkpoint}.
+     */
+    public boolean[] getChangeFlags() {
+        return new boolean[]{changesMade};
+    }
+
+    /**
+     * Sets the flags returned by {@link #getChangeFlags()}.
+     */
+    public void setChangeFlags(boolean[] changeFlags) {
+        this.changesMade = changeFlags[0];
+    }
 }
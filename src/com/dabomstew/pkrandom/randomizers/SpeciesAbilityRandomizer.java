@@ -1,6 +1,7 @@
 package com.dabomstew.pkrandom.randomizers;
 
 import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkrandom.exceptions.RandomizationException;
 import com.dabomstew.pkromio.constants.AbilityIDs;
 import com.dabomstew.pkromio.constants.Gen3Constants;
 import com.dabomstew.pkromio.constants.GlobalConstants;
@@ -8,9 +9,7 @@ import com.dabomstew.pkromio.gamedata.MegaEvolution;
 import com.dabomstew.pkromio.gamedata.Species;
 import com.dabomstew.pkromio.romhandlers.RomHandler;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Random;
+import java.util.*;
 
 public class SpeciesAbilityRandomizer extends Randomizer {
 
@@ -64,7 +63,8 @@ public class SpeciesAbilityRandomizer extends Randomizer {
             }
         }
 
-        final int maxAbility = romHandler.highestAbilityIndex();
+        final AbilityPool abilityPool = new AbilityPool(romHandler.highestAbilityIndex(), bannedAbilities,
+                weighDuplicatesTogether ? romHandler.getAbilityVariations() : Collections.emptyMap());
 
         // copy abilities straight up evolution lines
         // still keep WG as an exception, though
@@ -72,13 +72,12 @@ public class SpeciesAbilityRandomizer extends Randomizer {
             if (pk.getAbility1() != AbilityIDs.wonderGuard && pk.getAbility2() != AbilityIDs.wonderGuard
                     && pk.getAbility3() != AbilityIDs.wonderGuard) {
                 // Pick first ability
-                pk.setAbility1(pickRandomAbility(maxAbility, bannedAbilities, weighDuplicatesTogether));
+                pk.setAbility1(abilityPool.pick(random));
 
                 // Second ability?
                 if (ensureTwoAbilities || random.nextDouble() < 0.5) {
                     // Yes, second ability
-                    pk.setAbility2(pickRandomAbility(maxAbility, bannedAbilities, weighDuplicatesTogether,
-                            pk.getAbility1()));
+                    pk.setAbility2(abilityPool.pick(random, pk.getAbility1()));
                 } else {
                     // Nope
                     pk.setAbility2(0);
@@ -86,8 +85,7 @@ public class SpeciesAbilityRandomizer extends Randomizer {
 
                 // Third ability?
                 if (hasHiddenAbilities) {
-                    pk.setAbility3(pickRandomAbility(maxAbility, bannedAbilities, weighDuplicatesTogether,
-                            pk.getAbility1(), pk.getAbility2()));
+                    pk.setAbility3(abilityPool.pick(random, pk.getAbility1(), pk.getAbility2()));
                 }
             }
         }, (evFrom, evTo, toMonIsFinalEvo) -> {
@@ -116,62 +114,126 @@ public class SpeciesAbilityRandomizer extends Randomizer {
         changesMade = true;
     }
 
-    private int pickRandomAbilityVariation(int selectedAbility, int... alreadySetAbilities) {
-        int newAbility = selectedAbility;
-
-        while (true) {
-            Map<Integer, List<Integer>> abilityVariations = romHandler.getAbilityVariations();
-            for (int baseAbility: abilityVariations.keySet()) {
-                if (selectedAbility == baseAbility) {
-                    List<Integer> variationsForThisAbility = abilityVariations.get(selectedAbility);
-                    newAbility = variationsForThisAbility.get(random.nextInt(variationsForThisAbility.size()));
-                    break;
+    /**
+     * The abilities species may be given, worked out once per randomization so that picking one
+     * takes constant time, instead of drawing ability IDs until one is not banned.
+     */
+    public static class AbilityPool {
+
+        private final int[] abilities;
+        // the index of each ability in "abilities", or -1 if it is banned
+        private final int[] indices;
+        private final Map<Integer, int[]> variations = new HashMap<>();
+        private final Map<Integer, Integer> baseAbilities = new HashMap<>();
+
+        /**
+         * @param maxAbility      The highest ability ID. Abilities 1 to maxAbility are picked from.
+         * @param bannedAbilities Abilities never picked, except as variations.
+         * @param variations      Abilities that, when picked, are replaced by a random one of their
+         *                        variations. E.g. to weigh duplicate abilities together.
+         */
+        public AbilityPool(int maxAbility, Collection<Integer> bannedAbilities,
+                           Map<Integer, List<Integer>> variations) {
+            Set<Integer> banned = new HashSet<>(bannedAbilities);
+            indices = new int[maxAbility + 1];
+            Arrays.fill(indices, -1);
+            List<Integer> allowed = new ArrayList<>();
+            for (int ability = 1; ability <= maxAbility; ability++) {
+                if (!banned.contains(ability)) {
+                    indices[ability] = allowed.size();
+                    allowed.add(ability);
                 }
             }
+            abilities = allowed.stream().mapToInt(Integer::intValue).toArray();
 
-            boolean repeat = false;
-            for (int alreadySetAbility : alreadySetAbilities) {
-                if (alreadySetAbility == newAbility) {
-                    repeat = true;
-                    break;
+            for (Map.Entry<Integer, List<Integer>> entry : variations.entrySet()) {
+                this.variations.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+                for (int variation : entry.getValue()) {
+                    baseAbilities.put(variation, entry.getKey());
                 }
             }
-
-            if (!repeat) {
-                break;
-            }
         }
 
-        return newAbility;
-    }
-
-    private int pickRandomAbility(int maxAbility, List<Integer> bannedAbilities, boolean useVariations,
-                                  int... alreadySetAbilities) {
-        int newAbility;
+        public int size() {
+            return abilities.length;
+        }
 
-        while (true) {
-            newAbility = random.nextInt(maxAbility) + 1;
+        /**
+         * Picks an ability evenly among the allowed ones not in "alreadySet", and if it has variations,
+         * one of those not in "alreadySet" in its place. Abilities whose variations are all in "alreadySet"
+         * are not picked.
+         *
+         * @throws RandomizationException if there is no ability left to pick.
+         */
+        public int pick(Random random, int... alreadySet) {
+            // the indices to skip, kept sorted and distinct
+            int[] skipped = new int[alreadySet.length * 2];
+            int skipCount = 0;
+            for (int ability : alreadySet) {
+                skipCount = addSkipped(skipped, skipCount, ability);
+                Integer base = baseAbilities.get(ability);
+                if (base != null && !hasVariationLeft(base, alreadySet)) {
+                    skipCount = addSkipped(skipped, skipCount, base);
+                }
+            }
+            if (abilities.length - skipCount <= 0) {
+                throw new RandomizationException("Could not randomize abilities, too many abilities are banned.");
+            }
 
-            if (bannedAbilities.contains(newAbility)) {
-                continue;
+            int index = random.nextInt(abilities.length - skipCount);
+            for (int i = 0; i < skipCount && skipped[i] <= index; i++) {
+                index++;
             }
+            int ability = abilities[index];
+
+            int[] variationsOfAbility = variations.get(ability);
+            if (variationsOfAbility != null) {
+                int[] left = new int[variationsOfAbility.length];
+                int leftCount = 0;
+                for (int variation : variationsOfAbility) {
+                    if (!contains(alreadySet, variation)) {
+                        left[leftCount++] = variation;
+                    }
+                }
+                ability = left[random.nextInt(leftCount)];
+            }
+            return ability;
+        }
 
-            boolean repeat = false;
-            for (int alreadySetAbility : alreadySetAbilities) {
-                if (alreadySetAbility == newAbility) {
-                    repeat = true;
-                    break;
+        private int addSkipped(int[] skipped, int skipCount, int ability) {
+            if (ability <= 0 || ability >= indices.length || indices[ability] == -1) {
+                return skipCount;
+            }
+            int index = indices[ability];
+            int insertAt = skipCount;
+            while (insertAt > 0 && skipped[insertAt - 1] >= index) {
+                if (skipped[insertAt - 1] == index) {
+                    return skipCount;
                 }
+                insertAt--;
             }
+            System.arraycopy(skipped, insertAt, skipped, insertAt + 1, skipCount - insertAt);
+            skipped[insertAt] = index;
+            return skipCount + 1;
+        }
 
-            if (!repeat) {
-                if (useVariations) {
-                    newAbility = pickRandomAbilityVariation(newAbility, alreadySetAbilities);
+        private boolean hasVariationLeft(int base, int[] alreadySet) {
+            int[] variationsOfBase = variations.get(base);
+            for (int variation : variationsOfBase) {
+                if (!contains(alreadySet, variation)) {
+                    return true;
                 }
-                break;
             }
+            return false;
         }
 
-        return newAbility;
+        private static boolean contains(int[] array, int value) {
+            for (int i : array) {
+                if (i == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 }
@@ -31,8 +31,10 @@ public class SpeciesMovesetRandomizer extends Randomizer {
         List<Move> validMoves = new ArrayList<>();
         List<Move> validDamagingMoves = new ArrayList<>();
         Map<Type, List<Move>> validTypeMoves = new HashMap<>();
+        Map<Type, int[]> typeMoveWeights = new HashMap<>();
         Map<Type, List<Move>> validTypeDamagingMoves = new HashMap<>();
-        createSetsOfMoves(noBroken, validMoves, validDamagingMoves, validTypeMoves, validTypeDamagingMoves);
+        createSetsOfMoves(noBroken, validMoves, validDamagingMoves, validTypeMoves, typeMoveWeights,
+                validTypeDamagingMoves);
 
         for (Integer pkmnNum : movesets.keySet()) {
             List<Integer> learnt = new ArrayList<>();
@@ -130,6 +132,7 @@ public class SpeciesMovesetRandomizer extends Randomizer {
 
                 // select a list to pick a move from that has at least one free
                 List<Move> pickList = validMoves;
+                int[] pickWeights = null;
                 if (attemptDamaging) {
                     if (typeOfMove != null) {
                         if (validTypeDamagingMoves.containsKey(typeOfMove)
@@ -150,13 +153,14 @@ public class SpeciesMovesetRandomizer extends Randomizer {
                     if (validTypeMoves.containsKey(typeOfMove)
                             && checkForUnusedMove(validTypeMoves.get(typeOfMove), learnt)) {
                         pickList = validTypeMoves.get(typeOfMove);
+                        pickWeights = typeMoveWeights.get(typeOfMove);
                     }
                 }
 
                 // now pick a move until we get a valid one
-                Move mv = pickList.get(random.nextInt(pickList.size()));
+                Move mv = pickMove(pickList, pickWeights);
                 while (learnt.contains(mv.number)) {
-                    mv = pickList.get(random.nextInt(pickList.size()));
+                    mv = pickMove(pickList, pickWeights);
                 }
 
                 if (i == lv1index) {
@@ -206,8 +210,10 @@ public class SpeciesMovesetRandomizer extends Randomizer {
         List<Move> validMoves = new ArrayList<>();
         List<Move> validDamagingMoves = new ArrayList<>();
         Map<Type, List<Move>> validTypeMoves = new HashMap<>();
+        Map<Type, int[]> typeMoveWeights = new HashMap<>();
         Map<Type, List<Move>> validTypeDamagingMoves = new HashMap<>();
-        createSetsOfMoves(noBroken, validMoves, validDamagingMoves, validTypeMoves, validTypeDamagingMoves);
+        createSetsOfMoves(noBroken, validMoves, validDamagingMoves, validTypeMoves, typeMoveWeights,
+                validTypeDamagingMoves);
 
         for (Integer pkmnNum : movesets.keySet()) {
             List<Integer> learnt = new ArrayList<>();
@@ -269,6 +275,7 @@ public class SpeciesMovesetRandomizer extends Randomizer {
 
                 // select a list to pick a move from that has at least one free
                 List<Move> pickList = validMoves;
+                int[] pickWeights = null;
                 if (attemptDamaging) {
                     if (typeOfMove != null) {
                         if (validTypeDamagingMoves.containsKey(typeOfMove)
@@ -289,13 +296,14 @@ public class SpeciesMovesetRandomizer extends Randomizer {
                     if (validTypeMoves.containsKey(typeOfMove)
                             && checkForUnusedMove(validTypeMoves.get(typeOfMove), learnt)) {
                         pickList = validTypeMoves.get(typeOfMove);
+                        pickWeights = typeMoveWeights.get(typeOfMove);
                     }
                 }
 
                 // now pick a move until we get a valid one
-                Move mv = pickList.get(random.nextInt(pickList.size()));
+                Move mv = pickMove(pickList, pickWeights);
                 while (learnt.contains(mv.number)) {
-                    mv = pickList.get(random.nextInt(pickList.size()));
+                    mv = pickMove(pickList, pickWeights);
                 }
 
                 goodDamagingLeft--;
@@ -313,6 +321,18 @@ public class SpeciesMovesetRandomizer extends Randomizer {
         changesMade = true;
     }
 
+    /**
+     * Picks a random move from "pickList", either uniformly, or by the cumulative weights given.
+     */
+    private Move pickMove(List<Move> pickList, int[] cumulativeWeights) {
+        if (cumulativeWeights == null) {
+            return pickList.get(random.nextInt(pickList.size()));
+        }
+        int r = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = Arrays.binarySearch(cumulativeWeights, r + 1);
+        return pickList.get(i >= 0 ? i : -i - 1);
+    }
+
     private boolean checkForUnusedMove(List<Move> potentialList, List<Integer> alreadyUsed) {
         for (Move mv : potentialList) {
             if (!alreadyUsed.contains(mv.number)) {
@@ -323,7 +343,8 @@ public class SpeciesMovesetRandomizer extends Randomizer {
     }
 
     private void createSetsOfMoves(boolean noBroken, List<Move> validMoves, List<Move> validDamagingMoves,
-                                   Map<Type, List<Move>> validTypeMoves, Map<Type, List<Move>> validTypeDamagingMoves) {
+                                   Map<Type, List<Move>> validTypeMoves, Map<Type, int[]> typeMoveWeights,
+                                   Map<Type, List<Move>> validTypeDamagingMoves) {
         List<Move> allMoves = romHandler.getMoves();
         List<Integer> hms = romHandler.getHMMoves();
         Set<Integer> allBanned = new HashSet<>(noBroken ? romHandler.getGameBreakingMoves() : Collections.emptySet());
@@ -378,53 +399,148 @@ public class SpeciesMovesetRandomizer extends Randomizer {
         double minAvg = totalAvgPower * 0.75;
         double maxAvg = totalAvgPower * 1.25;
 
-        // Add extra moves to type lists outside of the range to balance the average power of each type
-
-        for (Type type: avgTypePowers.keySet()) {
-            double avgPowerForType = avgTypePowers.get(type);
+        // Weight the moves of types outside of the range to balance the average power of each type
+        for (Type type : avgTypePowers.keySet()) {
             List<Move> typeMoves = validTypeMoves.get(type);
-            List<Move> alreadyPicked = new ArrayList<>();
-            int iterLoops = 0;
-            while (avgPowerForType < minAvg && iterLoops < 10000) {
-                final double finalAvgPowerForType = avgPowerForType;
-                List<Move> strongerThanAvgTypeMoves = typeMoves
-                        .stream()
-                        .filter(mv -> mv.power * mv.hitCount > finalAvgPowerForType)
-                        .collect(Collectors.toList());
-                if (strongerThanAvgTypeMoves.isEmpty()) break;
-                if (alreadyPicked.containsAll(strongerThanAvgTypeMoves)) {
-                    alreadyPicked = new ArrayList<>();
-                } else {
-                    strongerThanAvgTypeMoves.removeAll(alreadyPicked);
+            double[] powers = new double[typeMoves.size()];
+            for (int i = 0; i < powers.length; i++) {
+                powers[i] = typeMoves.get(i).power * typeMoves.get(i).hitCount;
+            }
+            int[] weights = balanceTypePowers(powers, minAvg, maxAvg, random);
+            int[] cumulativeWeights = new int[weights.length];
+            int total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                cumulativeWeights[i] = total;
+            }
+            typeMoveWeights.put(type, cumulativeWeights);
+        }
+    }
+
+    /**
+     * Weights a type's moves so that its weighted average power lands within [minAvg, maxAvg], where it can.
+     * <br><br>
+     * Every move starts with a weight of 1. If the average is too low, the moves stronger than the current
+     * average get an extra weight each, round after round, until the average is high enough. Within a round,
+     * each move is picked once, at random with the odds of its weight so far. Moves that have fallen below the
+     * average are no longer picked. Too high averages are lowered the same way, with the weaker moves, and the
+     * round left unfinished by raising carries over to lowering. This is what repeatedly adding copies of the
+     * moves to the type's move list did, but the rounds in which nothing can change which moves are picked are
+     * counted out in one go, rather than move by move, so the cost depends on the number of moves and not on
+     * how many extra weights are needed.
+     * <br><br>
+     * At most {@link #MAX_EXTRA_TYPE_MOVE_WEIGHT} extra weights are given in each direction.
+     *
+     * @param powers The power (times hit count) of each move.
+     * @return The weight of each move, in the same order as "powers".
+     */
+    public static int[] balanceTypePowers(double[] powers, double minAvg, double maxAvg, Random random) {
+        int[] weights = new int[powers.length];
+        Arrays.fill(weights, 1);
+        double sum = 0;
+        for (double power : powers) {
+            sum += power;
+        }
+        boolean[] pickedThisRound = new boolean[powers.length];
+        // raising the average of the negated powers is the same as lowering the average of the powers
+        sum = raiseAveragePower(powers, 1, weights, pickedThisRound, sum, minAvg, random);
+        raiseAveragePower(powers, -1, weights, pickedThisRound, -sum, -maxAvg, random);
+        return weights;
+    }
+
+    private static final int MAX_EXTRA_TYPE_MOVE_WEIGHT = 10000;
+
+    /**
+     * Adds weights to the moves whose (sign * power) is above the average, until the average is at least "target".
+     *
+     * @param pickedThisRound Which moves have been picked in the current round. Updated as moves are picked.
+     * @return The new weighted sum of (sign * power).
+     */
+    private static double raiseAveragePower(double[] powers, int sign, int[] weights, boolean[] pickedThisRound,
+                                            double sum, double target, Random random) {
+        Integer[] byPower = new Integer[powers.length];
+        for (int i = 0; i < byPower.length; i++) {
+            byPower[i] = i;
+        }
+        Arrays.sort(byPower, (a, b) -> Double.compare(sign * powers[b], sign * powers[a]));
+
+        long count = 0;
+        for (int weight : weights) {
+            count += weight;
+        }
+        int added = 0;
+        while (count > 0 && sum / count < target && added < MAX_EXTRA_TYPE_MOVE_WEIGHT) {
+            double avg = sum / count;
+            // the moves above the average form a prefix of byPower
+            int eligible = 0;
+            int eligiblePicked = 0;
+            double eligibleSum = 0;
+            while (eligible < byPower.length && sign * powers[byPower[eligible]] > avg) {
+                eligibleSum += sign * powers[byPower[eligible]];
+                if (pickedThisRound[byPower[eligible]]) {
+                    eligiblePicked++;
                 }
-                Move extraMove = strongerThanAvgTypeMoves.get(random.nextInt(strongerThanAvgTypeMoves.size()));
-                avgPowerForType = (avgPowerForType * typeMoves.size() + extraMove.power * extraMove.hitCount)
-                        / (typeMoves.size() + 1);
-                typeMoves.add(extraMove);
-                alreadyPicked.add(extraMove);
-                iterLoops++;
+                eligible++;
             }
-            iterLoops = 0;
-            while (avgPowerForType > maxAvg && iterLoops < 10000) {
-                final double finalAvgPowerForType = avgPowerForType;
-                List<Move> weakerThanAvgTypeMoves = typeMoves
-                        .stream()
-                        .filter(mv -> mv.power * mv.hitCount < finalAvgPowerForType)
-                        .collect(Collectors.toList());
-                if (weakerThanAvgTypeMoves.isEmpty()) break;
-                if (alreadyPicked.containsAll(weakerThanAvgTypeMoves)) {
-                    alreadyPicked = new ArrayList<>();
-                } else {
-                    weakerThanAvgTypeMoves.removeAll(alreadyPicked);
+            if (eligible == 0) {
+                break;
+            }
+            if (eligiblePicked == eligible) {
+                Arrays.fill(pickedThisRound, false);
+                eligiblePicked = 0;
+            }
+
+            if (eligiblePicked == 0) {
+                // Each full round gives all eligible moves one more weight. Until the average passes either the
+                // target, or the weakest eligible move, the rounds are all alike, so only the last of them needs
+                // to be picked move by move.
+                double bound = Math.min(target, sign * powers[byPower[eligible - 1]]);
+                double gainPerRound = eligibleSum - bound * eligible;
+                long rounds = (MAX_EXTRA_TYPE_MOVE_WEIGHT - added) / eligible;
+                if (gainPerRound > 0) {
+                    rounds = Math.min(rounds, (long) Math.ceil((bound * count - sum) / gainPerRound));
+                }
+                long fullRounds = Math.max(0, rounds - 1);
+                while (fullRounds > 0
+                        && (sum + fullRounds * eligibleSum) / (count + fullRounds * eligible) >= bound) {
+                    fullRounds--;
+                }
+                if (fullRounds > 0) {
+                    for (int i = 0; i < eligible; i++) {
+                        weights[byPower[i]] += (int) fullRounds;
+                    }
+                    sum += fullRounds * eligibleSum;
+                    count += fullRounds * eligible;
+                    added += (int) (fullRounds * eligible);
+                    Arrays.fill(pickedThisRound, false);
+                }
+            }
+
+            // pick one of the eligible moves not yet picked this round
+            int total = 0;
+            for (int i = 0; i < eligible; i++) {
+                if (!pickedThisRound[byPower[i]]) {
+                    total += weights[byPower[i]];
+                }
+            }
+            int r = random.nextInt(total);
+            int picked = byPower[0];
+            for (int i = 0; i < eligible; i++) {
+                if (!pickedThisRound[byPower[i]]) {
+                    r -= weights[byPower[i]];
+                    if (r < 0) {
+                        picked = byPower[i];
+                        break;
+                    }
                 }
-                Move extraMove = weakerThanAvgTypeMoves.get(random.nextInt(weakerThanAvgTypeMoves.size()));
-                avgPowerForType = (avgPowerForType * typeMoves.size() + extraMove.power * extraMove.hitCount)
-                        / (typeMoves.size() + 1);
-                typeMoves.add(extraMove);
-                alreadyPicked.add(extraMove);
-                iterLoops++;
             }
+            weights[picked]++;
+            pickedThisRound[picked] = true;
+            sum += sign * powers[picked];
+            count++;
+            added++;
         }
+        return sum;
     }
 
     // Note that this is slow and somewhat hacky.
@@ -35,6 +35,18 @@ public class TMHMTutorCompatibilityRandomizer extends Randomizer {
         return tutorChangesMade;
     }
 
+    @Override
+    public boolean[] getChangeFlags() {
+        return new boolean[]{changesMade, tmhmChangesMade, tutorChangesMade};
+    }
+
+    @Override
+    public void setChangeFlags(boolean[] changeFlags) {
+        changesMade = changeFlags[0];
+        tmhmChangesMade = changeFlags[1];
+        tutorChangesMade = changeFlags[2];
+    }
+
     public void randomizeTMHMCompatibility() {
         boolean preferSameType = settings.getTmsHmsCompatibilityMod() == Settings.TMsHMsCompatibilityMod.RANDOM_PREFER_TYPE;
         boolean followEvolutions = settings.isTmsFollowEvolutions();
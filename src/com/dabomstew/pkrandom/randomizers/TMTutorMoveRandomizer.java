@@ -34,6 +34,18 @@ public class TMTutorMoveRandomizer extends Randomizer {
         return tutorChangesMade;
     }
 
+    @Override
+    public boolean[] getChangeFlags() {
+        return new boolean[]{changesMade, tmChangesMade, tutorChangesMade};
+    }
+
+    @Override
+    public void setChangeFlags(boolean[] changeFlags) {
+        changesMade = changeFlags[0];
+        tmChangesMade = changeFlags[1];
+        tutorChangesMade = changeFlags[2];
+    }
+
     public void randomizeTMMoves() {
         boolean noBroken = settings.isBlockBrokenTMMoves();
         boolean preserveField = settings.isKeepFieldMoveTMs();
@@ -21,10 +21,12 @@ public class TrainerMovesetRandomizer extends Randomizer {
         return generation >= 3;
     }
 
-    private Map<Integer, List<MoveLearnt>> allLevelUpMoves;
-    private Map<Integer, List<Integer>> allEggMoves;
-    private Map<Species, boolean[]> allTMCompat, allTutorCompat;
+    private LearnsetStore allLevelUpMoves;
+    private EggMoveStore allEggMoves;
+    private CompatibilityStore allTMCompat, allTutorCompat;
     private List<Integer> allTMMoves, allTutorMoves;
+    // the compatibility flag of each TM/tutor move, i.e. the index of its first occurrence + 1
+    private int[] tmMoveFlags, tutorMoveFlags;
 
     public TrainerMovesetRandomizer(RomHandler romHandler, Settings settings, Random random) {
         super(romHandler, settings, random);
@@ -556,61 +558,69 @@ public class TrainerMovesetRandomizer extends Randomizer {
         double tutorMoveProbability = 0.6;
 
         if (allLevelUpMoves == null) {
-            allLevelUpMoves = romHandler.getMovesLearnt();
+            allLevelUpMoves = romHandler.getLearnsetStore();
         }
 
         if (allEggMoves == null) {
-            allEggMoves = romHandler.getEggMoves();
+            allEggMoves = romHandler.getEggMoveStore();
         }
 
         if (allTMCompat == null) {
-            allTMCompat = romHandler.getTMHMCompatibility();
+            allTMCompat = romHandler.getTMHMCompatibilityStore();
         }
 
         if (allTMMoves == null) {
             allTMMoves = romHandler.getTMMoves();
+            tmMoveFlags = firstOccurrenceFlags(allTMMoves);
         }
 
         if (allTutorCompat == null && romHandler.hasMoveTutors()) {
-            allTutorCompat = romHandler.getMoveTutorCompatibility();
+            allTutorCompat = romHandler.getMoveTutorCompatibilityStore();
         }
 
         if (allTutorMoves == null) {
             allTutorMoves = romHandler.getMoveTutorMoves();
+            tutorMoveFlags = firstOccurrenceFlags(allTutorMoves);
         }
 
+        Species forme = romHandler.getAltFormeOfSpecies(tp.getSpecies(), tp.getForme());
+
         // Level-up Moves
-        List<Move> moveSelectionPoolAtLevel = allLevelUpMoves.get(romHandler.getAltFormeOfSpecies(tp.getSpecies(), tp.getForme()).getNumber())
-                .stream()
-                .filter(ml -> (ml.level <= tp.getLevel() && ml.level != 0) || (ml.level == 0 && tp.getLevel() >= 30))
-                .map(ml -> moves.get(ml.move))
-                .distinct()
-                .collect(Collectors.toList());
+        List<Move> moveSelectionPoolAtLevel = new ArrayList<>();
+        int formeNumber = forme.getNumber();
+        for (int i = 0; i < allLevelUpMoves.size(formeNumber); i++) {
+            int level = allLevelUpMoves.getLevel(formeNumber, i);
+            if ((level <= tp.getLevel() && level != 0) || (level == 0 && tp.getLevel() >= 30)) {
+                addDistinct(moveSelectionPoolAtLevel, moves.get(allLevelUpMoves.getMove(formeNumber, i)));
+            }
+        }
 
         // Pre-Evo Moves
         if (!cyclicEvolutions) {
             Species preEvo;
             if (romHandler.altFormesCanHaveDifferentEvolutions()) {
-                preEvo = romHandler.getAltFormeOfSpecies(tp.getSpecies(), tp.getForme());
+                preEvo = forme;
             } else {
                 preEvo = tp.getSpecies();
             }
             while (!preEvo.getEvolutionsTo().isEmpty()) {
                 preEvo = preEvo.getEvolutionsTo().get(0).getFrom();
-                moveSelectionPoolAtLevel.addAll(allLevelUpMoves.get(preEvo.getNumber())
-                        .stream()
-                        .filter(ml -> ml.level <= tp.getLevel())
-                        .filter(ml -> this.random.nextDouble() < preEvoMoveProbability)
-                        .map(ml -> moves.get(ml.move))
-                        .distinct().collect(Collectors.toList()));
+                int preEvoNumber = preEvo.getNumber();
+                List<Move> preEvoMoves = new ArrayList<>();
+                for (int i = 0; i < allLevelUpMoves.size(preEvoNumber); i++) {
+                    if (allLevelUpMoves.getLevel(preEvoNumber, i) <= tp.getLevel()
+                            && this.random.nextDouble() < preEvoMoveProbability) {
+                        addDistinct(preEvoMoves, moves.get(allLevelUpMoves.getMove(preEvoNumber, i)));
+                    }
+                }
+                moveSelectionPoolAtLevel.addAll(preEvoMoves);
             }
         }
 
         // TM Moves
-        boolean[] tmCompat = allTMCompat.get(romHandler.getAltFormeOfSpecies(tp.getSpecies(), tp.getForme()));
-        for (int tmMove: allTMMoves) {
-            if (tmCompat[allTMMoves.indexOf(tmMove) + 1]) {
-                Move thisMove = moves.get(tmMove);
+        for (int i = 0; i < allTMMoves.size(); i++) {
+            if (allTMCompat.isCompatible(forme, tmMoveFlags[i])) {
+                Move thisMove = moves.get(allTMMoves.get(i));
                 if (thisMove.power > 1 && tp.getLevel() * 3 > thisMove.power * thisMove.hitCount &&
                         this.random.nextDouble() < tmMoveProbability) {
                     moveSelectionPoolAtLevel.add(thisMove);
@@ -623,10 +633,9 @@ public class TrainerMovesetRandomizer extends Randomizer {
 
         // Move Tutor Moves
         if (romHandler.hasMoveTutors()) {
-            boolean[] tutorCompat = allTutorCompat.get(romHandler.getAltFormeOfSpecies(tp.getSpecies(), tp.getForme()));
-            for (int tutorMove: allTutorMoves) {
-                if (tutorCompat[allTutorMoves.indexOf(tutorMove) + 1]) {
-                    Move thisMove = moves.get(tutorMove);
+            for (int i = 0; i < allTutorMoves.size(); i++) {
+                if (allTutorCompat.isCompatible(forme, tutorMoveFlags[i])) {
+                    Move thisMove = moves.get(allTutorMoves.get(i));
                     if (thisMove.power > 1 && tp.getLevel() * 3 > thisMove.power * thisMove.hitCount &&
                             this.random.nextDouble() < tutorMoveProbability) {
                         moveSelectionPoolAtLevel.add(thisMove);
@@ -642,21 +651,35 @@ public class TrainerMovesetRandomizer extends Randomizer {
         if (!cyclicEvolutions) {
             Species firstEvo;
             if (romHandler.altFormesCanHaveDifferentEvolutions()) {
-                firstEvo = romHandler.getAltFormeOfSpecies(tp.getSpecies(), tp.getForme());
+                firstEvo = forme;
             } else {
                 firstEvo = tp.getSpecies();
             }
             while (!firstEvo.getEvolutionsTo().isEmpty()) {
                 firstEvo = firstEvo.getEvolutionsTo().get(0).getFrom();
             }
-            if (allEggMoves.get(firstEvo.getNumber()) != null) {
-                moveSelectionPoolAtLevel.addAll(allEggMoves.get(firstEvo.getNumber())
-                        .stream()
-                        .filter(egm -> this.random.nextDouble() < eggMoveProbability)
-                        .map(moves::get).collect(Collectors.toList()));
+            int firstEvoNumber = firstEvo.getNumber();
+            for (int i = 0; i < allEggMoves.size(firstEvoNumber); i++) {
+                if (this.random.nextDouble() < eggMoveProbability) {
+                    moveSelectionPoolAtLevel.add(moves.get(allEggMoves.getMove(firstEvoNumber, i)));
+                }
             }
         }
 
         return moveSelectionPoolAtLevel.stream().distinct().collect(Collectors.toList());
     }
+
+    private static void addDistinct(List<Move> list, Move move) {
+        if (!list.contains(move)) {
+            list.add(move);
+        }
+    }
+
+    private static int[] firstOccurrenceFlags(List<Integer> moves) {
+        int[] flags = new int[moves.size()];
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] = moves.indexOf(moves.get(i)) + 1;
+        }
+        return flags;
+    }
 }
@@ -1060,7 +1060,7 @@ public class TrainerPokemonRandomizer extends Randomizer {
         boolean highestLevelOnly = settings.isHighestLevelGetsItemsForTrainers();
 
         List<Move> moves = romHandler.getMoves();
-        Map<Integer, List<MoveLearnt>> movesets = romHandler.getMovesLearnt();
+        LearnsetStore movesets = romHandler.getLearnsetStore();
         List<Trainer> currentTrainers = romHandler.getTrainers();
         for (Trainer t : currentTrainers) {
             if (t.shouldNotGetBuffs()) {
@@ -1145,14 +1145,18 @@ public class TrainerPokemonRandomizer extends Randomizer {
     public void randomUsableZCrystals() {
         List<Item> items = romHandler.getItems();
         List<Trainer> trainers = romHandler.getTrainers();
+        LearnsetStore movesets = null;
         for (Trainer tr : trainers) {
             for (TrainerPokemon tp : tr.pokemon) {
                 if (tp.getHeldItem() != null) {
                     if (Gen7Constants.heldZCrystalsByType.containsValue(tp.getHeldItem().getId())) { // TODO: better check for z crystals
+                        if (movesets == null && tp.isResetMoves()) {
+                            movesets = romHandler.getLearnsetStore();
+                        }
                         int[] pokeMoves = tp.isResetMoves() ?
                                 RomFunctions.getMovesAtLevel(
                                         romHandler.getAltFormeOfSpecies(tp.getSpecies(), tp.getForme()).getNumber(),
-                                        romHandler.getMovesLearnt(), tp.getLevel()) :
+                                        movesets, tp.getLevel()) :
                                 tp.getMoves();
                         pokeMoves = Arrays.stream(pokeMoves).filter(mv -> mv != 0).toArray();
                         int chosenMove = pokeMoves[random.nextInt(pokeMoves.length)];
@@ -0,0 +1,84 @@
+package com.dabomstew.pkrandom.seedsearch;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+import com.dabomstew.pkrandom.GameRandomizer;
+import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkromio.romhandlers.RomHandler;
+
+import java.util.function.BiPredicate;
+
+/**
+ * A condition on the outcome of randomizing with some seed, for {@link SeedSearch}.<br>
+ * Each predicate names the last randomization stage it depends on, so a search only has to run the
+ * randomization that far for each seed.
+ */
+public interface SeedPredicate {
+
+    /**
+     * Tests the randomized game data in "romHandler", which has been randomized at least as far as
+     * {@link #getLastStage()}.
+     */
+    boolean test(RomHandler romHandler, Settings settings);
+
+    /**
+     * The last stage this predicate depends on; one of the STAGE_ constants in {@link GameRandomizer},
+     * or null if it depends on the whole randomization.
+     */
+    String getLastStage();
+
+    static SeedPredicate of(String lastStage, BiPredicate<RomHandler, Settings> test) {
+        return new SeedPredicate() {
+            @Override
+            public boolean test(RomHandler romHandler, Settings settings) {
+                return test.test(romHandler, settings);
+            }
+
+            @Override
+            public String getLastStage() {
+                return lastStage;
+            }
+        };
+    }
+
+    default SeedPredicate and(SeedPredicate other) {
+        return of(laterStage(getLastStage(), other.getLastStage()),
+                (romHandler, settings) -> test(romHandler, settings) && other.test(romHandler, settings));
+    }
+
+    default SeedPredicate or(SeedPredicate other) {
+        return of(laterStage(getLastStage(), other.getLastStage()),
+                (romHandler, settings) -> test(romHandler, settings) || other.test(romHandler, settings));
+    }
+
+    default SeedPredicate negate() {
+        return of(getLastStage(), (romHandler, settings) -> !test(romHandler, settings));
+    }
+
+    static String laterStage(String a, String b) {
+        if (a == null || b == null) {
+            return null;
+        }
+        return GameRandomizer.STAGE_ORDER.indexOf(a) >= GameRandomizer.STAGE_ORDER.indexOf(b) ? a : b;
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.dabomstew.pkrandom.seedsearch;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+import com.dabomstew.pkrandom.GameRandomizer;
+import com.dabomstew.pkromio.gamedata.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Building blocks for {@link SeedPredicate}s, for the things leagues and races usually ask of a seed.
+ */
+public class SeedPredicates {
+
+    private SeedPredicates() {
+    }
+
+    public static SeedPredicate starters(Predicate<List<Species>> test) {
+        return SeedPredicate.of(GameRandomizer.STAGE_STARTERS,
+                (romHandler, settings) -> test.test(romHandler.getStarters()));
+    }
+
+    /**
+     * Tests the wild encounter areas, in the same order as in the log.
+     */
+    public static SeedPredicate encounterAreas(Predicate<List<EncounterArea>> test) {
+        return SeedPredicate.of(GameRandomizer.STAGE_WILD_POKEMON,
+                (romHandler, settings) -> test.test(romHandler.getSortedEncounters(
+                        settings.isShowTimeBasedEncounters())));
+    }
+
+    /**
+     * Tests the trainers' Pokemon. Their movesets and held items are not randomized yet at this point.
+     */
+    public static SeedPredicate trainers(Predicate<List<Trainer>> test) {
+        return SeedPredicate.of(GameRandomizer.STAGE_TRAINER_POKEMON,
+                (romHandler, settings) -> test.test(romHandler.getTrainers()));
+    }
+
+    /**
+     * Tests the species, once their types, stats, abilities and evolutions are randomized.
+     */
+    public static SeedPredicate species(Predicate<List<Species>> test) {
+        return SeedPredicate.of(GameRandomizer.STAGE_EVOLUTION_IMPROVEMENTS,
+                (romHandler, settings) -> test.test(romHandler.getSpeciesInclFormes()));
+    }
+
+    /**
+     * No two starters share a type.
+     */
+    public static SeedPredicate startersHaveDistinctTypes() {
+        return starters(starters -> {
+            for (int i = 0; i < starters.size(); i++) {
+                for (int j = i + 1; j < starters.size(); j++) {
+                    if (starters.get(i).hasSharedType(starters.get(j))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Some encounter area whose name contains "areaName" has a Pokemon of the given type.
+     */
+    public static SeedPredicate encounterAreaHasType(String areaName, Type type) {
+        return encounterAreas(areas -> areas.stream()
+                .filter(area -> area.getDisplayName() != null && area.getDisplayName().contains(areaName))
+                .flatMap(EncounterArea::stream)
+                .anyMatch(enc -> enc.getSpecies().hasType(type, false)));
+    }
+
+    /**
+     * None of the trainers with one of the given tags (e.g. "GYM1", "GYM2") have a legendary Pokemon.
+     * Tags are matched by prefix, so "GYM1" also covers "GYM1-LEADER".
+     */
+    public static SeedPredicate noLegendariesForTrainersTagged(String... tags) {
+        List<String> tagList = Arrays.asList(tags);
+        return trainers(trainers -> trainers.stream()
+                .filter(tr -> tr.getTag() != null && tagList.stream().anyMatch(tr.getTag()::startsWith))
+                .flatMap(tr -> tr.getPokemon().stream())
+                .noneMatch(tp -> tp.getSpecies().isLegendary()));
+    }
+
+}
@@ -0,0 +1,240 @@
+package com.dabomstew.pkrandom.seedsearch;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+import com.dabomstew.pkrandom.GameDataSnapshot;
+import com.dabomstew.pkrandom.GameRandomizer;
+import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkromio.ConcurrencyFunctions;
+import com.dabomstew.pkromio.exceptions.RomIOException;
+import com.dabomstew.pkromio.romhandlers.RomHandler;
+import com.dabomstew.pkromio.romio.RomOpener;
+
+import java.io.File;
+import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Looks for seeds whose randomization satisfies a {@link SeedPredicate}, without saving or logging anything.<br>
+ * Each seed is randomized with {@link GameRandomizer#randomizeThrough(long, String)} only as far as the predicate
+ * needs. Seeds are spread over a number of threads, each of which takes one {@link RomHandler} from the factory,
+ * and a {@link GameDataSnapshot#beforeRandomization(RomHandler) snapshot} of it before its first seed. Before each
+ * later seed it restores the snapshot, which keeps the seeds independent without loading the ROM again.
+ * Predicates that depend on stages the snapshot does not undo instead get a fresh RomHandler per seed.
+ * Matches are passed on as soon as they are found, so they are not necessarily in order.<br>
+ * A matching seed, together with the same settings, gives the same game when randomized in full.
+ */
+public class SeedSearch {
+
+    public static class Results {
+        private final long tested;
+        private final long matched;
+        private final long failed;
+        private final long nanos;
+
+        private Results(long tested, long matched, long failed, long nanos) {
+            this.tested = tested;
+            this.matched = matched;
+            this.failed = failed;
+            this.nanos = nanos;
+        }
+
+        public long getTested() {
+            return tested;
+        }
+
+        public long getMatched() {
+            return matched;
+        }
+
+        /**
+         * How many of the seeds tested could not be randomized at all, e.g. because some randomizer
+         * threw a RandomizationException. These never match.
+         */
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+
+    private final Settings settings;
+    private final Supplier<RomHandler> romHandlerFactory;
+    private final ResourceBundle bundle;
+
+    private volatile boolean cancelled;
+
+    /**
+     * @param settings The settings to randomize with. These should already be tweaked for the ROM
+     *                 (see {@link Settings#tweakForRom(RomHandler)}), and are not changed by the search.
+     * @param romHandlerFactory Gives a freshly loaded RomHandler each time. Called from several threads.
+     *                          The search unloads them once done with them.
+     */
+    public SeedSearch(Settings settings, Supplier<RomHandler> romHandlerFactory, ResourceBundle bundle) {
+        this.settings = settings;
+        this.romHandlerFactory = romHandlerFactory;
+        this.bundle = bundle;
+    }
+
+    /**
+     * A RomHandler factory which loads the given ROM file each time.
+     */
+    public static Supplier<RomHandler> romFileFactory(File romFile) {
+        ThreadLocal<RomOpener> romOpeners = ThreadLocal.withInitial(RomOpener::new);
+        return () -> {
+            RomOpener.Results results = romOpeners.get().openRomFile(romFile);
+            if (!results.wasOpeningSuccessful()) {
+                throw new RomIOException("Could not load " + romFile + "; " + results.getFailType());
+            }
+            return results.getRomHandler();
+        };
+    }
+
+    /**
+     * Makes a running {@link #search} stop after the seeds it is currently testing.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Tests the seeds from "firstSeed" up to (not including) "firstSeed + seedCount" against the predicate,
+     * passing each seed that matches to "onMatch". "onMatch" is never called by two threads at once.
+     */
+    public Results search(long firstSeed, long seedCount, int threads, SeedPredicate predicate,
+                          LongConsumer onMatch) throws InterruptedException {
+        cancelled = false;
+        long start = System.nanoTime();
+        AtomicLong tested = new AtomicLong(0);
+        AtomicLong matched = new AtomicLong(0);
+        AtomicLong failed = new AtomicLong(0);
+        Object matchLock = new Object();
+
+        ConcurrencyFunctions.runWorkers(seedCount, threads, () -> cancelled, () -> new ConcurrencyFunctions.Worker() {
+            private final ReusedRomHandler reused = new ReusedRomHandler(romHandlerFactory, predicate.getLastStage());
+
+            @Override
+            public void run(long i) {
+                long seed = firstSeed + i;
+                // if the ROM can't be loaded, it won't load for the next seed either, so that ends the search
+                RomHandler romHandler = reused.next();
+                boolean match;
+                try {
+                    match = testSeed(romHandler, seed, predicate);
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    match = false;
+                }
+                tested.incrementAndGet();
+                if (match) {
+                    matched.incrementAndGet();
+                    synchronized (matchLock) {
+                        onMatch.accept(seed);
+                    }
+                }
+            }
+
+            @Override
+            public void close() {
+                reused.unload();
+            }
+        });
+        return new Results(tested.get(), matched.get(), failed.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * One thread's RomHandler, put back the way it was loaded before each seed, so it can be randomized
+     * with seed after seed without loading the ROM again. Not thread-safe.
+     */
+    public static class ReusedRomHandler {
+
+        private final Supplier<RomHandler> romHandlerFactory;
+        private final boolean restorable;
+        private RomHandler romHandler;
+        private GameDataSnapshot loaded;
+
+        /**
+         * @param romHandlerFactory Gives a freshly loaded RomHandler each time.
+         * @param lastStage The last stage each seed is randomized through, or null for the whole randomization.
+         *                  Past what {@link GameDataSnapshot#beforeRandomization(RomHandler)} undoes, a fresh
+         *                  RomHandler is loaded for each seed instead.
+         */
+        public ReusedRomHandler(Supplier<RomHandler> romHandlerFactory, String lastStage) {
+            this.romHandlerFactory = romHandlerFactory;
+            this.restorable = GameDataSnapshot.undoesThrough(lastStage);
+        }
+
+        /**
+         * Returns the RomHandler, with none of the previous seed's randomization left.
+         */
+        public RomHandler next() {
+            if (loaded != null) {
+                loaded.restore(romHandler);
+                return romHandler;
+            }
+            unload();
+            romHandler = romHandlerFactory.get();
+            if (restorable) {
+                try {
+                    loaded = GameDataSnapshot.beforeRandomization(romHandler);
+                } catch (IllegalStateException e) {
+                    // the game data can't be snapshotted, so load it again for each seed
+                    loaded = null;
+                }
+            }
+            return romHandler;
+        }
+
+        /**
+         * Unloads the RomHandler; call once done with it.
+         */
+        public void unload() {
+            if (romHandler != null) {
+                romHandler.unloadRom();
+                romHandler = null;
+            }
+        }
+    }
+
+    /**
+     * Randomizes a fresh RomHandler with the seed, as far as the predicate needs, and tests it.
+     */
+    public boolean testSeed(long seed, SeedPredicate predicate) {
+        RomHandler romHandler = romHandlerFactory.get();
+        try {
+            return testSeed(romHandler, seed, predicate);
+        } finally {
+            romHandler.unloadRom();
+        }
+    }
+
+    private boolean testSeed(RomHandler romHandler, long seed, SeedPredicate predicate) {
+        GameRandomizer randomizer = new GameRandomizer(settings, null, romHandler, bundle, false);
+        randomizer.randomizeThrough(seed, predicate.getLastStage());
+        return predicate.test(romHandler, settings);
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.dabomstew.pkromio;
+
+/*----------------------------------------------------------------------------*/
+/*--  ConcurrencyFunctions.java - running tasks on several threads, and      --*/
+/*--                              passing on what they threw.               --*/
+/*--                                                                        --*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2020.                                 --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+import com.dabomstew.pkromio.exceptions.RomIOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Functions for running tasks on several threads.<br>
+ * Whatever a task throws is passed on to the caller as is if it is unchecked, and wrapped in a
+ * {@link RomIOException} otherwise.
+ */
+public class ConcurrencyFunctions {
+
+    /**
+     * A worker of {@link #runWorkers}. Each thread has its own, so it can keep state between its jobs
+     * without synchronization.
+     */
+    public interface Worker {
+
+        /**
+         * Does the job with the given number.
+         */
+        void run(long job) throws Exception;
+
+        /**
+         * Called on the worker's thread once it has no more jobs to do, or one of its jobs threw.
+         */
+        void close();
+    }
+
+    /**
+     * Runs the tasks on a new pool of (up to) "threads" threads, and returns their results in the same order.
+     */
+    public static <T> List<T> invokeAllAndUnwrap(List<? extends Callable<T>> tasks, int threads)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, tasks.size())));
+        try {
+            return invokeAllAndUnwrap(executor, tasks);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the tasks on the executor, and returns their results in the same order.
+     */
+    public static <T> List<T> invokeAllAndUnwrap(ExecutorService executor, List<? extends Callable<T>> tasks)
+            throws InterruptedException {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : futures) {
+                results.add(getAndUnwrap(future));
+            }
+            return results;
+        } finally {
+            // when one task failed, the others are not worth finishing
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Waits for the future and returns its result.
+     */
+    public static <T> T getAndUnwrap(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Runs the jobs numbered from 0 up to (not including) "jobCount" on (up to) "threads" threads. Each thread
+     * gets a worker from "workerFactory", and has it do the next job not yet taken, until there are none left
+     * or "cancelled" returns true.
+     *
+     * @return The workers, e.g. to combine what each of them collected.
+     */
+    public static <W extends Worker> List<W> runWorkers(long jobCount, int threads, BooleanSupplier cancelled,
+                                                        Supplier<W> workerFactory) throws InterruptedException {
+        AtomicLong next = new AtomicLong(0);
+        Callable<W> thread = () -> {
+            W worker = workerFactory.get();
+            try {
+                long job;
+                while (!cancelled.getAsBoolean() && (job = next.getAndIncrement()) < jobCount) {
+                    worker.run(job);
+                }
+            } finally {
+                worker.close();
+            }
+            return worker;
+        };
+
+        int threadCount = (int) Math.max(1, Math.min(threads, jobCount));
+        List<Callable<W>> threadTasks = new ArrayList<>(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            threadTasks.add(thread);
+        }
+        return invokeAllAndUnwrap(threadTasks, threadCount);
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new RomIOException((Exception) cause);
+    }
+
+}
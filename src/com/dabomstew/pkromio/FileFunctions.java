@@ -25,6 +25,11 @@ package com.dabomstew.pkromio;
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -174,6 +179,64 @@ public class FileFunctions {
         fos.close();
     }
 
+    /**
+     * Replaces the contents of "target" with "data", such that it never holds anything else than either.
+     * The data is written to a new temporary file in the same folder, which is then moved over "target";
+     * atomically, if the file system allows it.
+     */
+    public static void replaceFileAtomically(File target, byte[] data) throws IOException {
+        Path folder = target.getAbsoluteFile().getParentFile().toPath();
+        Path temp = Files.createTempFile(folder, target.getName(), ".tmp");
+        try {
+            Files.write(temp, data);
+            try {
+                Files.move(temp, target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Creates a new, empty folder in {@link RootPath#path} for the files extracted from "romFilename", and
+     * returns its path, ending with a separator. Every call gets a folder of its own, so ROM handlers opened
+     * from the same file at once do not write over each other's files. Returns null if no folder can be created
+     * there; the caller then keeps its files in memory instead.
+     */
+    public static String createTmpFolder(String romFilename) {
+        String rawFilename = new File(romFilename).getName();
+        int dot = rawFilename.lastIndexOf('.');
+        String dataFolder = "tmp_" + (dot < 0 ? rawFilename : rawFilename.substring(0, dot));
+        // remove nonsensical chars
+        dataFolder = dataFolder.replaceAll("[^A-Za-z0-9_]+", "");
+        try {
+            File tmpFolder = Files.createTempDirectory(Paths.get(RootPath.path), dataFolder + "_").toFile();
+            if (!tmpFolder.canWrite()) {
+                tmpFolder.delete();
+                return null;
+            }
+            tmpFolder.deleteOnExit();
+            return tmpFolder.getPath() + File.separator;
+        } catch (IOException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Deletes "file", and if it is a folder, everything in it. Returns whether it is gone.
+     */
+    public static boolean deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        return file.delete() || !file.exists();
+    }
+
     public static long getCRC32(byte[] data) {
         CRC32 checksum = new CRC32();
         checksum.update(data);
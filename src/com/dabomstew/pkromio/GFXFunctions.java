@@ -34,6 +34,7 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.awt.image.DirectColorModel;
 import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.Queue;
@@ -245,6 +246,8 @@ public class GFXFunctions {
 
 		int numTiles = bim.getWidth() * bim.getHeight() / (tileWidth * tileHeight);
 		int widthInTiles = bim.getWidth() / tileWidth;
+		// getRaster() shares the image's pixels, unlike getData(), which copies all of them on each call
+		Raster raster = bim.getRaster();
 
 		int next = 0;
 		for (int tileNum = 0; tileNum < numTiles; tileNum++) {
@@ -274,8 +277,8 @@ public class GFXFunctions {
 
 					// 4 bpp
 					if (bpp == 4) {
-						int pixel1 = bim.getData().getSample(tileX * tileWidth + xT, tileY * tileHeight + yT, 0);
-						int pixel2 = bim.getData().getSample(tileX * tileWidth + xT + 1, tileY * tileHeight + yT, 0);
+						int pixel1 = raster.getSample(tileX * tileWidth + xT, tileY * tileHeight + yT, 0);
+						int pixel2 = raster.getSample(tileX * tileWidth + xT + 1, tileY * tileHeight + yT, 0);
 						data[next] = (byte) ((pixel2 << 4) + pixel1);
 					}
 
@@ -283,7 +286,7 @@ public class GFXFunctions {
 					else if (bpp == 1) {
 						int combined = 0;
 						for (int i = 0; i < 8; i++) {
-							int pixel = bim.getData().getSample(tileX * tileWidth + xT + i, tileY * tileHeight + yT, 0);
+							int pixel = raster.getSample(tileX * tileWidth + xT + i, tileY * tileHeight + yT, 0);
 							combined += (pixel << (7 - i));
 						}
 						data[next] = (byte) combined;
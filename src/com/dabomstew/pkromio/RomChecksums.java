@@ -0,0 +1,247 @@
+package com.dabomstew.pkromio;
+
+/*----------------------------------------------------------------------------*/
+/*--  RomChecksums.java - validation checksums of a loaded ROM, computed    --*/
+/*--                      in the background and cached on disk.            --*/
+/*--                                                                        --*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2020.                                 --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+import com.dabomstew.pkromio.exceptions.RomIOException;
+import com.dabomstew.pkromio.instrumentation.Instrumentation;
+import com.dabomstew.pkromio.instrumentation.Subsystem;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+
+/**
+ * The CRC32s a ROM handler checks in isRomValid(), which take reading a fair part of the ROM to compute.<br>
+ * They are computed on a background pool when the ROM is loaded, so only the first call to {@link #get(String)}
+ * may have to wait for them. Each checksum task must read through its own file handle, from the ROM file as it
+ * is on disk, so it neither races with nor sees the changes made by the handler meanwhile.<br>
+ * The results are cached in a file, keyed by a fingerprint of the ROM files (their size, last modified time,
+ * and a CRC32 of their header), so loading the same ROM again does not read it again.
+ */
+public class RomChecksums {
+
+    public static final String DEFAULT_CACHE_NAME = "rom-checksums.cache";
+
+    private static final int HEADER_LENGTH = 0x200;
+    private static final int BUFFER_SIZE = 0x10000;
+    private static final int MAX_CACHED_ROMS = 64;
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())), r -> {
+                Thread t = new Thread(r, "rom-checksums");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private final Map<String, Future<Long>> checksums;
+
+    private RomChecksums(Map<String, Future<Long>> checksums) {
+        this.checksums = checksums;
+    }
+
+    /**
+     * Starts computing the checksums, using the default cache file in {@link RootPath#path}.
+     *
+     * @see #start(File, String, List, Map)
+     */
+    public static RomChecksums start(String tag, List<File> romFiles, Map<String, Callable<Long>> tasks) {
+        return start(new File(RootPath.path + DEFAULT_CACHE_NAME), tag, romFiles, tasks);
+    }
+
+    /**
+     * Starts computing the checksums, taking those already in the cache from there.
+     *
+     * @param cacheFile The cache file. It is created if it does not exist.
+     * @param tag       Tells apart checksums of the same ROM files computed in different ways, e.g. by
+     *                  handlers for different games. Must not contain tabs or line breaks.
+     * @param romFiles  The files the checksums are computed from.
+     * @param tasks     The checksum tasks, by key. Keys must not contain tabs or line breaks.
+     */
+    public static RomChecksums start(File cacheFile, String tag, List<File> romFiles,
+                                     Map<String, Callable<Long>> tasks) {
+        String fingerprint;
+        try {
+            fingerprint = tag + "|" + fingerprint(romFiles);
+        } catch (IOException e) {
+            throw new RomIOException(e);
+        }
+        Map<String, Long> cached = readCache(cacheFile).getOrDefault(fingerprint, Collections.emptyMap());
+
+        Map<String, Future<Long>> checksums = new LinkedHashMap<>();
+        List<CompletableFuture<Long>> computing = new ArrayList<>();
+        for (Map.Entry<String, Callable<Long>> task : tasks.entrySet()) {
+            Long crc = cached.get(task.getKey());
+            if (crc != null) {
+                checksums.put(task.getKey(), CompletableFuture.completedFuture(crc));
+                Instrumentation.count(Subsystem.CONTAINER_IO, "checksums.cached");
+            } else {
+                CompletableFuture<Long> future = CompletableFuture.supplyAsync(() -> call(task.getValue()), EXECUTOR);
+                checksums.put(task.getKey(), future);
+                computing.add(future);
+            }
+        }
+
+        if (!computing.isEmpty()) {
+            CompletableFuture.allOf(computing.toArray(new CompletableFuture<?>[0]))
+                    .thenRunAsync(() -> writeToCache(cacheFile, fingerprint, checksums), EXECUTOR);
+        }
+        return new RomChecksums(checksums);
+    }
+
+    /**
+     * Returns the checksum with the given key, waiting for it to be computed if needed.
+     */
+    public long get(String key) {
+        Future<Long> future = checksums.get(key);
+        if (future == null) {
+            throw new IllegalArgumentException("No checksum \"" + key + "\"");
+        }
+        try {
+            return ConcurrencyFunctions.getAndUnwrap(future);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RomIOException(e);
+        }
+    }
+
+    /**
+     * Computes the CRC32 of "length" bytes of "file" from "offset", without holding them in memory all at once.
+     */
+    public static long rangeCRC32(File file, long offset, long length) throws IOException {
+        CRC32 checksum = new CRC32();
+        byte[] buf = new byte[(int) Math.min(BUFFER_SIZE, Math.max(length, 1))];
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(offset);
+            long left = length;
+            while (left > 0) {
+                int read = (int) Math.min(buf.length, left);
+                raf.readFully(buf, 0, read);
+                checksum.update(buf, 0, read);
+                left -= read;
+            }
+        }
+        Instrumentation.addBytes(Subsystem.CONTAINER_IO, "checksums.read", length);
+        return checksum.getValue();
+    }
+
+    /**
+     * Returns a string that changes whenever any of the files likely changed: their sizes,
+     * last modified times and a CRC32 of their first bytes.
+     */
+    public static String fingerprint(List<File> files) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (File file : files) {
+            if (sb.length() != 0) {
+                sb.append('|');
+            }
+            long header = rangeCRC32(file, 0, Math.min(HEADER_LENGTH, file.length()));
+            sb.append(file.length()).append(':').append(file.lastModified()).append(':')
+                    .append(Long.toHexString(header));
+        }
+        return sb.toString();
+    }
+
+    private static long call(Callable<Long> task) {
+        Instrumentation.Timer timer = Instrumentation.time(Subsystem.CONTAINER_IO, "checksums.compute");
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RomIOException(e);
+        } finally {
+            timer.close();
+        }
+    }
+
+    /**
+     * Reads the cache into a map of fingerprints to checksums by key, in the order they were last written.
+     */
+    private static synchronized Map<String, Map<String, Long>> readCache(File cacheFile) {
+        Map<String, Map<String, Long>> cache = new LinkedHashMap<>();
+        if (!cacheFile.isFile()) {
+            return cache;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(cacheFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 3);
+                if (parts.length == 3) {
+                    try {
+                        long crc = Long.parseLong(parts[2], 16);
+                        cache.computeIfAbsent(parts[0], k -> new LinkedHashMap<>()).put(parts[1], crc);
+                    } catch (NumberFormatException ignored) {
+                        // a broken line only means that checksum gets computed again
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // the cache is only an optimization; without it, everything is computed
+            Instrumentation.trace(Subsystem.CONTAINER_IO, "Could not read %s: %s", cacheFile, e);
+        }
+        return cache;
+    }
+
+    private static synchronized void writeToCache(File cacheFile, String fingerprint,
+                                                  Map<String, Future<Long>> checksums) {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<Long>> e : checksums.entrySet()) {
+            try {
+                values.put(e.getKey(), e.getValue().get());
+            } catch (InterruptedException | ExecutionException ex) {
+                // a failed checksum is not worth caching; get() reports the failure
+                return;
+            }
+        }
+
+        Map<String, Map<String, Long>> cache = readCache(cacheFile);
+        Map<String, Long> old = cache.remove(fingerprint);
+        if (old != null) {
+            old.putAll(values);
+            values = old;
+        }
+        cache.put(fingerprint, values);
+        Iterator<String> oldest = cache.keySet().iterator();
+        while (cache.size() > MAX_CACHED_ROMS) {
+            oldest.next();
+            oldest.remove();
+        }
+
+        StringBuilder lines = new StringBuilder();
+        for (Map.Entry<String, Map<String, Long>> rom : cache.entrySet()) {
+            for (Map.Entry<String, Long> crc : rom.getValue().entrySet()) {
+                lines.append(rom.getKey()).append("\t").append(crc.getKey()).append("\t")
+                        .append(Long.toHexString(crc.getValue())).append("\n");
+            }
+        }
+        try {
+            FileFunctions.replaceFileAtomically(cacheFile, lines.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Instrumentation.trace(Subsystem.CONTAINER_IO, "Could not write %s: %s", cacheFile, e);
+        }
+    }
+
+}
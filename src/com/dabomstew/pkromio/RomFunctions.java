@@ -24,6 +24,7 @@ package com.dabomstew.pkromio;
 /*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
 /*----------------------------------------------------------------------------*/
 
+import com.dabomstew.pkromio.gamedata.LearnsetStore;
 import com.dabomstew.pkromio.gamedata.MoveLearnt;
 
 import java.util.ArrayList;
@@ -84,6 +85,13 @@ public class RomFunctions {
         return curMoves;
     }
 
+    /**
+     * Get the 4 moves known by a Species at a particular level, from a {@link LearnsetStore}.
+     */
+    public static int[] getMovesAtLevel(int pkmn, LearnsetStore movesets, int level) {
+        return movesets.getMovesAtLevel(pkmn, level, 0);
+    }
+
     public static String camelCase(String original) {
         char[] string = original.toLowerCase().toCharArray();
         boolean docap = true;
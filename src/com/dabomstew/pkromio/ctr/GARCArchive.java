@@ -21,6 +21,8 @@ package com.dabomstew.pkromio.ctr;
 /*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
 /*----------------------------------------------------------------------------*/
 
+import com.dabomstew.pkromio.instrumentation.Instrumentation;
+import com.dabomstew.pkromio.instrumentation.Subsystem;
 import cuecompressors.BLZCoder;
 
 import java.io.ByteArrayOutputStream;
@@ -60,7 +62,11 @@ public class GARCArchive {
 
     public GARCArchive(byte[] data, boolean skipDecompression) throws IOException {
         this.skipDecompression = skipDecompression;
-        boolean success = readFrames(data);
+        boolean success;
+        try (Instrumentation.Timer timer = Instrumentation.time(Subsystem.ARCHIVE_PARSE, "garc.parse")) {
+            timer.bytes(data.length);
+            success = readFrames(data);
+        }
         if (!success) {
             throw new IOException("Invalid GARC file");
         }
@@ -69,7 +75,11 @@ public class GARCArchive {
 
     public GARCArchive(byte[] data, List<Boolean> compressedThese) throws IOException {
         this.compressThese = compressedThese;
-        boolean success = readFrames(data);
+        boolean success;
+        try (Instrumentation.Timer timer = Instrumentation.time(Subsystem.ARCHIVE_PARSE, "garc.parse")) {
+            timer.bytes(data.length);
+            success = readFrames(data);
+        }
         if (!success) {
             throw new IOException("Invalid GARC file");
         }
@@ -202,6 +212,14 @@ public class GARCArchive {
     }
 
     public byte[] getBytes() throws IOException {
+        try (Instrumentation.Timer timer = Instrumentation.time(Subsystem.ARCHIVE_PARSE, "garc.build")) {
+            byte[] bytes = buildBytes();
+            timer.bytes(bytes.length);
+            return bytes;
+        }
+    }
+
+    private byte[] buildBytes() throws IOException {
         int garcHeaderSize = garc.version == VER_4 ? garcHeaderSize_4 : garcHeaderSize_6;
         ByteBuffer garcBuf = ByteBuffer.allocate(garcHeaderSize);
         garcBuf.order(ByteOrder.LITTLE_ENDIAN);
@@ -0,0 +1,230 @@
+package com.dabomstew.pkromio.ctr;
+
+/*----------------------------------------------------------------------------*/
+/*--  LayeredFSWriter.java - incrementally writes a LayeredFS directory     --*/
+/*--                                                                        --*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2020.                                 --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+import com.dabomstew.pkromio.FileFunctions;
+import com.dabomstew.pkromio.instrumentation.Instrumentation;
+import com.dabomstew.pkromio.instrumentation.Subsystem;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Writes the files of a LayeredFS directory (code.bin, romfs/...) for one title, touching only what differs
+ * from the last time the same directory was written.<br>
+ * A manifest of the SHA-256, length and last modified time of each file is kept in the directory. Files whose
+ * contents match it are left alone, the others are written to a temporary file and moved into place, so a file
+ * is never left half-written. Once all files are given, {@link #finish()} deletes the files the directory no
+ * longer should have, and any directories that leaves empty, and writes the new manifest.<br>
+ * The manifest is deleted as soon as the writer is created, so a save that does not get to {@link #finish()}
+ * leaves no manifest behind to be trusted. Files without a manifest entry, or whose length or last modified
+ * time differ from it, e.g. because they were changed by hand, are compared by hashing them on disk.
+ */
+public class LayeredFSWriter {
+
+    public static final String MANIFEST_NAME = ".upr-layeredfs-manifest";
+
+
+    private static class Entry {
+        final String hash;
+        final long length;
+        final long lastModified;
+
+        Entry(String hash, long length, long lastModified) {
+            this.hash = hash;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private final File root;
+    private final Map<String, Entry> oldManifest;
+    private final Map<String, Entry> newManifest = new TreeMap<>();
+
+    private int written;
+    private int unchanged;
+    private int deleted;
+
+    public LayeredFSWriter(File root) throws IOException {
+        this.root = root;
+        if (!root.exists() && !root.mkdirs()) {
+            throw new IOException("Could not create " + root);
+        }
+        File manifest = new File(root, MANIFEST_NAME);
+        this.oldManifest = readManifest(manifest);
+        if (manifest.exists() && !manifest.delete()) {
+            throw new IOException("Could not delete " + manifest);
+        }
+    }
+
+    /**
+     * Makes sure the file at "path" has the given contents.
+     *
+     * @param path The path within the LayeredFS directory, with "/" as separator.
+     */
+    public void write(String path, byte[] contents) throws IOException {
+        String hash = sha256(contents);
+        File file = toFile(path);
+        if (hasContents(path, file, hash, contents.length)) {
+            newManifest.put(path, new Entry(hash, contents.length, file.lastModified()));
+            unchanged++;
+            Instrumentation.count(Subsystem.CONTAINER_IO, "layeredfs.unchanged");
+            return;
+        }
+
+        File parent = file.getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+        FileFunctions.replaceFileAtomically(file, contents);
+        newManifest.put(path, new Entry(hash, contents.length, file.lastModified()));
+        written++;
+        Instrumentation.addBytes(Subsystem.CONTAINER_IO, "layeredfs.written", contents.length);
+    }
+
+    /**
+     * Deletes the files not given to {@link #write(String, byte[])} since this was created, and the directories
+     * that leaves empty, and writes the manifest.
+     */
+    public void finish() throws IOException {
+        deleteStaleFiles(root, "");
+        StringBuilder manifest = new StringBuilder();
+        for (Map.Entry<String, Entry> e : newManifest.entrySet()) {
+            Entry entry = e.getValue();
+            manifest.append(entry.hash).append("\t").append(entry.length).append("\t").append(entry.lastModified)
+                    .append("\t").append(e.getKey()).append("\n");
+        }
+        FileFunctions.replaceFileAtomically(new File(root, MANIFEST_NAME),
+                manifest.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The number of files actually written, i.e. new or changed.
+     */
+    public int getWritten() {
+        return written;
+    }
+
+    /**
+     * The number of files that already had the right contents.
+     */
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * The number of files deleted by {@link #finish()}.
+     */
+    public int getDeleted() {
+        return deleted;
+    }
+
+    private File toFile(String path) {
+        return new File(root, path.replace("/", File.separator));
+    }
+
+    private boolean hasContents(String path, File file, String hash, long length) throws IOException {
+        if (!file.isFile() || file.length() != length) {
+            return false;
+        }
+        Entry old = oldManifest.get(path);
+        if (old != null && old.length == length && old.lastModified == file.lastModified()) {
+            return old.hash.equals(hash);
+        }
+        return sha256(Files.readAllBytes(file.toPath())).equals(hash);
+    }
+
+    /**
+     * Deletes the stale files under "dir", and the directories that leaves empty.
+     *
+     * @return Whether anything was deleted.
+     */
+    private boolean deleteStaleFiles(File dir, String prefix) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return false;
+        }
+        boolean deletedAny = false;
+        for (File file : files) {
+            String path = prefix + file.getName();
+            if (file.isDirectory()) {
+                if (deleteStaleFiles(file, path + "/")) {
+                    deletedAny = true;
+                    String[] left = file.list();
+                    if (left != null && left.length == 0 && !file.delete()) {
+                        throw new IOException("Could not delete " + file);
+                    }
+                }
+            } else if (!path.equals(MANIFEST_NAME) && !newManifest.containsKey(path)) {
+                if (!file.delete()) {
+                    throw new IOException("Could not delete " + file);
+                }
+                deletedAny = true;
+                deleted++;
+                Instrumentation.count(Subsystem.CONTAINER_IO, "layeredfs.deleted");
+            }
+        }
+        return deletedAny;
+    }
+
+    private static Map<String, Entry> readManifest(File file) throws IOException {
+        Map<String, Entry> manifest = new HashMap<>();
+        if (!file.isFile()) {
+            return manifest;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 4);
+                if (parts.length == 4) {
+                    try {
+                        manifest.put(parts[3], new Entry(parts[0], Long.parseLong(parts[1]),
+                                Long.parseLong(parts[2])));
+                    } catch (NumberFormatException ignored) {
+                        // a broken line only means that file gets compared on disk
+                    }
+                }
+            }
+        }
+        return manifest;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
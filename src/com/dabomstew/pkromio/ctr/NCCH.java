@@ -22,9 +22,11 @@ package com.dabomstew.pkromio.ctr;
 /*----------------------------------------------------------------------------*/
 
 import com.dabomstew.pkromio.FileFunctions;
-import com.dabomstew.pkromio.RootPath;
+import com.dabomstew.pkromio.RomChecksums;
 import com.dabomstew.pkromio.exceptions.EncryptedROMException;
 import com.dabomstew.pkromio.exceptions.RomIOException;
+import com.dabomstew.pkromio.instrumentation.Instrumentation;
+import com.dabomstew.pkromio.instrumentation.Subsystem;
 import cuecompressors.BLZCoder;
 
 import java.io.*;
@@ -34,6 +36,7 @@ import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 public class NCCH {
     private String romFilename;
@@ -82,20 +85,9 @@ public class NCCH {
             this.version = this.readVersionFromFile();
         }
 
-        // TMP folder?
-        String rawFilename = new File(filename).getName();
-        String dataFolder = "tmp_" + rawFilename.substring(0, rawFilename.lastIndexOf('.'));
-        // remove nonsensical chars
-        dataFolder = dataFolder.replaceAll("[^A-Za-z0-9_]+", "");
-        File tmpFolder = new File(RootPath.path + dataFolder);
-        tmpFolder.mkdirs();
-        if (tmpFolder.canWrite()) {
-            writingEnabled = true;
-            this.tmpFolder = RootPath.path + dataFolder + File.separator;
-            tmpFolder.deleteOnExit();
-        } else {
-            writingEnabled = false;
-        }
+        // TMP folder? One per instance, since several can be open from the same file at once.
+        this.tmpFolder = FileFunctions.createTmpFolder(filename);
+        this.writingEnabled = this.tmpFolder != null;
 
         // The below code handles things "wrong" with regards to encrypted ROMs. We just
         // blindly treat the ROM as decrypted and try to parse all of its data, when we
@@ -140,7 +132,7 @@ public class NCCH {
     }
 
     private void readExefs() throws IOException {
-        System.out.println("NCCH: Reading exefs...");
+        Instrumentation.trace(Subsystem.CONTAINER_IO, "NCCH: Reading exefs...");
         byte[] exefsHeaderData = new byte[exefs_header_size];
         baseRom.seek(exefsOffset);
         baseRom.readFully(exefsHeaderData);
@@ -165,11 +157,11 @@ public class NCCH {
                 smdh = new SMDH(smdhBytes);
             }
         }
-        System.out.println("NCCH: Done reading exefs");
+        Instrumentation.trace(Subsystem.CONTAINER_IO, "NCCH: Done reading exefs");
     }
 
     private void readRomfs() throws IOException {
-        System.out.println("NCCH: Reading romfs...");
+        Instrumentation.trace(Subsystem.CONTAINER_IO, "NCCH: Reading romfs...");
         byte[] romfsHeaderData = new byte[romfs_header_size];
         baseRom.seek(romfsOffset);
         baseRom.readFully(romfsHeaderData);
@@ -210,7 +202,7 @@ public class NCCH {
         fileMetadataList = new ArrayList<>();
         romfsFiles = new TreeMap<>();
         visitDirectory(0, "", directoryMetadataBlock, fileMetadataBlock);
-        System.out.println("NCCH: Done reading romfs");
+        Instrumentation.trace(Subsystem.CONTAINER_IO, "NCCH: Done reading romfs");
     }
 
     private void visitDirectory(int offset, String rootPath, byte[] directoryMetadataBlock, byte[] fileMetadataBlock) {
@@ -345,7 +337,16 @@ public class NCCH {
     }
 
     private long rebuildExefs(RandomAccessFile fNew, long newExefsOffset) throws IOException, NoSuchAlgorithmException {
-        System.out.println("NCCH: Rebuilding exefs...");
+        Instrumentation.trace(Subsystem.CONTAINER_IO, "NCCH: Rebuilding exefs...");
+        try (Instrumentation.Timer timer = Instrumentation.time(Subsystem.CONTAINER_IO, "ncch.rebuildExefs")) {
+            long length = writeExefs(fNew, newExefsOffset);
+            timer.bytes(length);
+            Instrumentation.trace(Subsystem.CONTAINER_IO, "NCCH: Done rebuilding exefs");
+            return length;
+        }
+    }
+
+    private long writeExefs(RandomAccessFile fNew, long newExefsOffset) throws IOException, NoSuchAlgorithmException {
         byte[] code = getCode();
         if (codeCompressed) {
             code = new BLZCoder(null).BLZ_EncodePub(code, false, true, ".code");
@@ -402,12 +403,20 @@ public class NCCH {
             exefsLength++;
         }
 
-        System.out.println("NCCH: Done rebuilding exefs");
         return exefsLength;
     }
 
     private long rebuildRomfs(RandomAccessFile fNew, long newRomfsOffset) throws IOException, NoSuchAlgorithmException {
-        System.out.println("NCCH: Rebuilding romfs...");
+        Instrumentation.trace(Subsystem.CONTAINER_IO, "NCCH: Rebuilding romfs...");
+        try (Instrumentation.Timer timer = Instrumentation.time(Subsystem.CONTAINER_IO, "ncch.rebuildRomfs")) {
+            long length = writeRomfs(fNew, newRomfsOffset);
+            timer.bytes(length);
+            Instrumentation.trace(Subsystem.CONTAINER_IO, "NCCH: Done rebuilding romfs");
+            return length;
+        }
+    }
+
+    private long writeRomfs(RandomAccessFile fNew, long newRomfsOffset) throws IOException, NoSuchAlgorithmException {
 
         // Start by copying the romfs header straight from the original ROM. We'll update the
         // header as we continue to build the romfs
@@ -469,7 +478,7 @@ public class NCCH {
         int fileDataOffset = FileFunctions.readFullInt(level3HeaderData, 0x24);
         long endOfFileDataOffset = 0;
         for (FileMetadata metadata : fileMetadataList) {
-            System.out.println("NCCH: Writing file " + metadata.file.fullPath + " to romfs");
+            Instrumentation.trace(Subsystem.CONTAINER_IO, () -> "NCCH: Writing file " + metadata.file.fullPath + " to romfs");
             // Users have sent us bug reports with really bizarre errors here that seem to indicate
             // broken metadata; do this in a try-catch solely so we can log the metadata if we fail
             try {
@@ -485,6 +494,8 @@ public class NCCH {
                 fNew.seek(currentDataOffset);
                 fNew.write(fileData);
                 endOfFileDataOffset = currentDataOffset + fileData.length;
+                Instrumentation.addBytes(Subsystem.CONTAINER_IO,
+                        metadata.file.fileChanged ? "ncch.romfs.changedFile" : "ncch.romfs.copiedFile", fileData.length);
             } catch (Exception e) {
                 String message = String.format("Error when building romfs: File: %s, offset: %s, size: %s",
                         metadata.file.fullPath, metadata.offset, metadata.file.size);
@@ -559,7 +570,6 @@ public class NCCH {
             fNew.writeByte(0);
         }
 
-        System.out.println("NCCH: Done rebuilding romfs");
         return newRomfsLength;
     }
 
@@ -581,60 +591,35 @@ public class NCCH {
         return fileMetadataTable;
     }
 
+    /**
+     * Writes the changed code and romfs files to "outputPath"/"titleId", as a LayeredFS directory.<br>
+     * Files that are the same as in the last save to that directory are not written again,
+     * and files from it that are no longer changed are deleted; see {@link LayeredFSWriter}.
+     */
     public void saveAsLayeredFS(String outputPath) throws IOException {
-        String layeredFSRootPath = outputPath + File.separator + titleId + File.separator;
-        File layeredFSRootDir = new File(layeredFSRootPath);
-        if (!layeredFSRootDir.exists()) {
-            layeredFSRootDir.mkdirs();
-        } else {
-            purgeDirectory(layeredFSRootDir);
-        }
-        String romfsRootPath = layeredFSRootPath + "romfs" + File.separator;
-        File romfsDir = new File(romfsRootPath);
-        if (!romfsDir.exists()) {
-            romfsDir.mkdirs();
-        }
-
-        if (codeChanged) {
-            byte[] code = getCode();
-            FileOutputStream fos = new FileOutputStream(new File(layeredFSRootPath + "code.bin"));
-            fos.write(code);
-            fos.close();
-        }
-
-        for (Map.Entry<String, RomfsFile> entry : romfsFiles.entrySet()) {
-            RomfsFile file = entry.getValue();
-            if (file.fileChanged) {
-                writeRomfsFileToLayeredFS(file, romfsRootPath);
+        try (Instrumentation.Timer timer = Instrumentation.time(Subsystem.CONTAINER_IO, "ncch.saveAsLayeredFS")) {
+            File titleDir = new File(outputPath, titleId);
+            LayeredFSWriter writer = new LayeredFSWriter(titleDir);
+            File romfsDir = new File(titleDir, "romfs");
+            if (!romfsDir.exists()) {
+                romfsDir.mkdirs();
             }
-        }
-    }
 
-    private void purgeDirectory(File directory) {
-        for (File file : directory.listFiles()) {
-            if (file.isDirectory()) {
-                purgeDirectory(file);
+            if (codeChanged) {
+                writer.write("code.bin", getCode());
             }
-            file.delete();
-        }
-    }
 
-    private void writeRomfsFileToLayeredFS(RomfsFile file, String layeredFSRootPath) throws IOException {
-        String[] romfsPathComponents = file.fullPath.split("/");
-        StringBuffer buffer = new StringBuffer(layeredFSRootPath);
-        for (int i = 0; i < romfsPathComponents.length - 1; i++) {
-            buffer.append(romfsPathComponents[i]);
-            buffer.append(File.separator);
-            File currentDir = new File(buffer.toString());
-            if (!currentDir.exists()) {
-                currentDir.mkdirs();
+            for (RomfsFile file : romfsFiles.values()) {
+                if (file.fileChanged) {
+                    writer.write("romfs/" + file.fullPath, file.getOverrideContents());
+                }
+            }
+            writer.finish();
+            if (Instrumentation.isTracing()) {
+                Instrumentation.trace(Subsystem.CONTAINER_IO, "NCCH: LayeredFS %d written, %d unchanged, %d deleted",
+                        writer.getWritten(), writer.getUnchanged(), writer.getDeleted());
             }
         }
-        buffer.append(romfsPathComponents[romfsPathComponents.length - 1]);
-        String romfsFilePath = buffer.toString();
-        FileOutputStream fos = new FileOutputStream(new File(romfsFilePath));
-        fos.write(file.getOverrideContents());
-        fos.close();
     }
 
     public boolean isDecrypted() throws IOException {
@@ -740,6 +725,22 @@ public class NCCH {
         }
     }
 
+    /**
+     * Returns a task computing the CRC32 of the file as {@link #getFile(String)} gives it before any writes.
+     * It reads the ROM file through its own handle, so it can run on another thread.
+     * Returns null if the file doesn't exist.
+     */
+    public Callable<Long> originalFileCRC32Task(String filename) {
+        RomfsFile file = romfsFiles.get(filename);
+        if (file == null) {
+            return null;
+        }
+        File romFile = new File(romFilename);
+        long offset = file.offset;
+        int size = file.size;
+        return () -> RomChecksums.rangeCRC32(romFile, offset, size);
+    }
+
     public void writeFile(String filename, byte[] data) throws IOException {
         if (romfsFiles.containsKey(filename)) {
             romfsFiles.get(filename).writeOverride(data);
@@ -791,6 +792,18 @@ public class NCCH {
         return tmpFolder;
     }
 
+    /**
+     * Closes the ROM file and deletes the folder its files were extracted to.
+     * Nothing can be read from or saved after this.
+     */
+    public void deleteTmpFolder() throws IOException {
+        closeROM();
+        if (writingEnabled) {
+            FileFunctions.deleteRecursively(new File(tmpFolder));
+            writingEnabled = false;
+        }
+    }
+
     public RandomAccessFile getBaseRom() {
         return baseRom;
     }
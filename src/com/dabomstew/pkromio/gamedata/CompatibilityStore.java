@@ -0,0 +1,110 @@
+package com.dabomstew.pkromio.gamedata;
+
+import java.util.*;
+
+/**
+ * A read-only, compact copy of TM/HM or Move Tutor compatibility, as from
+ * {@link com.dabomstew.pkromio.romhandlers.RomHandler#getTMHMCompatibility()}. Each Species' flags are
+ * kept as a bitset in a shared long[], indexed by Species number, so a lookup is an array access rather than a
+ * search through a TreeMap&lt;Species, boolean[]&gt;.<br>
+ * Flags are indexed like the boolean arrays, i.e. flag 0 is unused and flag 1 is the first TM/tutor move.
+ * Changes to the compatibility after the store is made are not reflected in it.
+ */
+public class CompatibilityStore {
+
+    private final Species[] species;
+    private final int flagCount;
+    private final int wordsPerSpecies;
+    private final long[] bits;
+
+    private CompatibilityStore(Species[] species, int flagCount, long[] bits) {
+        this.species = species;
+        this.flagCount = flagCount;
+        this.wordsPerSpecies = wordsFor(flagCount);
+        this.bits = bits;
+    }
+
+    private static int wordsFor(int flagCount) {
+        return (flagCount + 63) >>> 6;
+    }
+
+    public static CompatibilityStore of(Map<Species, boolean[]> compatData) {
+        int maxNumber = -1;
+        int flagCount = 0;
+        for (Map.Entry<Species, boolean[]> entry : compatData.entrySet()) {
+            maxNumber = Math.max(maxNumber, entry.getKey().getNumber());
+            flagCount = Math.max(flagCount, entry.getValue().length);
+        }
+        Species[] species = new Species[maxNumber + 1];
+        int words = wordsFor(flagCount);
+        long[] bits = new long[species.length * words];
+        for (Map.Entry<Species, boolean[]> entry : compatData.entrySet()) {
+            int base = entry.getKey().getNumber() * words;
+            species[entry.getKey().getNumber()] = entry.getKey();
+            boolean[] flags = entry.getValue();
+            for (int i = 0; i < flags.length; i++) {
+                if (flags[i]) {
+                    bits[base + (i >>> 6)] |= 1L << i;
+                }
+            }
+        }
+        return new CompatibilityStore(species, flagCount, bits);
+    }
+
+    /**
+     * The length of the boolean arrays the store was made from, i.e. the number of TMs/HMs or tutor moves + 1.
+     */
+    public int getFlagCount() {
+        return flagCount;
+    }
+
+    public boolean hasCompatibility(Species sp) {
+        int number = sp.getNumber();
+        return number >= 0 && number < species.length && species[number] != null;
+    }
+
+    /**
+     * Whether the Species is compatible with the given TM/HM or tutor move, counting from 1.
+     */
+    public boolean isCompatible(Species sp, int flag) {
+        return (bits[sp.getNumber() * wordsPerSpecies + (flag >>> 6)] & (1L << flag)) != 0;
+    }
+
+    /**
+     * The number of TMs/HMs or tutor moves the Species is compatible with.
+     */
+    public int countCompatible(Species sp) {
+        int base = sp.getNumber() * wordsPerSpecies;
+        int count = 0;
+        for (int w = 0; w < wordsPerSpecies; w++) {
+            count += Long.bitCount(bits[base + w]);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the Species' flags as a new boolean array, as in the map the store was made from.
+     */
+    public boolean[] getFlags(Species sp) {
+        boolean[] flags = new boolean[flagCount];
+        for (int i = 0; i < flagCount; i++) {
+            flags[i] = isCompatible(sp, i);
+        }
+        return flags;
+    }
+
+    /**
+     * Unpacks the store into the map form e.g. {@link com.dabomstew.pkromio.romhandlers.RomHandler#setTMHMCompatibility(Map)}
+     * takes.
+     */
+    public Map<Species, boolean[]> toMap() {
+        Map<Species, boolean[]> compatData = new TreeMap<>();
+        for (Species sp : species) {
+            if (sp != null) {
+                compatData.put(sp, getFlags(sp));
+            }
+        }
+        return compatData;
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.dabomstew.pkromio.gamedata;
+
+import java.util.*;
+
+/**
+ * The egg moves of {@link com.dabomstew.pkromio.romhandlers.RomHandler#getEggMoveStore()}, in a read-only, compact form.
+ * RomHandlers fill it straight from the ROM data with a {@link Builder}, and derive the map form of
+ * {@link com.dabomstew.pkromio.romhandlers.RomHandler#getEggMoves()} from it.
+ * All moves are packed into a single int[], and each Species number has a start and end offset into it.<br>
+ * Changes to the egg moves after the store is made are not reflected in it.
+ */
+public class EggMoveStore {
+
+    private static final int ABSENT = -1;
+
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] moves;
+
+    private EggMoveStore(int[] starts, int[] ends, int[] moves) {
+        this.starts = starts;
+        this.ends = ends;
+        this.moves = moves;
+    }
+
+    public static EggMoveStore of(Map<Integer, List<Integer>> eggMoves) {
+        Builder builder = new Builder();
+        for (Map.Entry<Integer, List<Integer>> entry : eggMoves.entrySet()) {
+            builder.startEggMoves(entry.getKey());
+            for (int move : entry.getValue()) {
+                builder.add(move);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds an EggMoveStore as the egg moves are read, so RomHandlers need no map in between.
+     * Call {@link #startEggMoves(int)} for each Species, followed by {@link #add(int)} for each of its egg moves.
+     * Starting the same Species again replaces its egg moves.
+     */
+    public static class Builder {
+
+        private int[] starts = new int[0];
+        private int[] ends = new int[0];
+        private int[] moves = new int[256];
+        private int size;
+        private int species = ABSENT;
+
+        public Builder startEggMoves(int species) {
+            if (species >= starts.length) {
+                int oldLength = starts.length;
+                int length = Math.max(species + 1, oldLength * 2);
+                starts = Arrays.copyOf(starts, length);
+                ends = Arrays.copyOf(ends, length);
+                Arrays.fill(starts, oldLength, length, ABSENT);
+            }
+            starts[species] = size;
+            ends[species] = size;
+            this.species = species;
+            return this;
+        }
+
+        public Builder add(int move) {
+            if (species == ABSENT) {
+                throw new IllegalStateException("No egg moves started");
+            }
+            if (size == moves.length) {
+                moves = Arrays.copyOf(moves, size * 2);
+            }
+            moves[size++] = move;
+            ends[species] = size;
+            return this;
+        }
+
+        public EggMoveStore build() {
+            int length = starts.length;
+            while (length > 0 && starts[length - 1] == ABSENT) {
+                length--;
+            }
+            return new EggMoveStore(Arrays.copyOf(starts, length), Arrays.copyOf(ends, length),
+                    Arrays.copyOf(moves, size));
+        }
+    }
+
+    /**
+     * Whether the Species number had egg moves (possibly none) in the map the store was made from.
+     */
+    public boolean hasEggMoves(int species) {
+        return species >= 0 && species < starts.length && starts[species] != ABSENT;
+    }
+
+    /**
+     * The number of egg moves of the Species, or 0 if it has none.
+     */
+    public int size(int species) {
+        return hasEggMoves(species) ? ends[species] - starts[species] : 0;
+    }
+
+    public int getMove(int species, int i) {
+        return moves[starts[species] + i];
+    }
+
+    /**
+     * Unpacks the store into the map form {@link com.dabomstew.pkromio.romhandlers.RomHandler#setEggMoves(Map)}
+     * takes.
+     */
+    public Map<Integer, List<Integer>> toMap() {
+        Map<Integer, List<Integer>> eggMoves = new TreeMap<>();
+        for (int species = 0; species < starts.length; species++) {
+            if (hasEggMoves(species)) {
+                List<Integer> list = new ArrayList<>(size(species));
+                for (int i = 0; i < size(species); i++) {
+                    list.add(getMove(species, i));
+                }
+                eggMoves.put(species, list);
+            }
+        }
+        return eggMoves;
+    }
+
+}
@@ -35,6 +35,18 @@ public class Encounter {
     private boolean isSOS;
     private SOSType sosType;
 
+    public Encounter() {
+    }
+
+    public Encounter(Encounter original) {
+        this.level = original.level;
+        this.maxLevel = original.maxLevel;
+        this.species = original.species;
+        this.formeNumber = original.formeNumber;
+        this.isSOS = original.isSOS;
+        this.sosType = original.sosType;
+    }
+
     public int getLevel() {
         return level;
     }
@@ -62,6 +62,26 @@ public class EncounterArea extends ArrayList<Encounter> {
         super(collection);
     }
 
+    /**
+     * Returns a copy of this area, with copies of its Encounters.
+     */
+    public EncounterArea copy() {
+        EncounterArea copy = new EncounterArea();
+        for (Encounter enc : this) {
+            copy.add(new Encounter(enc));
+        }
+        copy.rate = rate;
+        copy.bannedSpecies.addAll(bannedSpecies);
+        copy.displayName = displayName;
+        copy.mapIndex = mapIndex;
+        copy.locationTag = locationTag;
+        copy.encounterType = encounterType;
+        copy.postGame = postGame;
+        copy.partiallyPostGameCutoff = partiallyPostGameCutoff;
+        copy.forceMultipleSpecies = forceMultipleSpecies;
+        return copy;
+    }
+
     public int getRate() {
         return rate;
     }
@@ -0,0 +1,178 @@
+package com.dabomstew.pkromio.gamedata;
+
+import java.util.*;
+
+/**
+ * The level-up movesets of {@link com.dabomstew.pkromio.romhandlers.RomHandler#getLearnsetStore()}, in a read-only,
+ * compact form. RomHandlers fill it straight from the ROM data with a {@link Builder}, and derive the map form of
+ * {@link com.dabomstew.pkromio.romhandlers.RomHandler#getMovesLearnt()} from it.
+ * All (level, move) pairs are packed into a single int[], one int each, and each Species number has
+ * a start and end offset into it. This avoids a boxed Integer key, a List and a {@link MoveLearnt} per entry,
+ * which adds up in Gen 7, where there are over a thousand formes with around twenty moves each.<br>
+ * Changes to the movesets after the store is made are not reflected in it.
+ */
+public class LearnsetStore {
+
+    private static final int ABSENT = -1;
+
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] entries;
+
+    private LearnsetStore(int[] starts, int[] ends, int[] entries) {
+        this.starts = starts;
+        this.ends = ends;
+        this.entries = entries;
+    }
+
+    public static LearnsetStore of(Map<Integer, List<MoveLearnt>> movesets) {
+        Builder builder = new Builder();
+        for (Map.Entry<Integer, List<MoveLearnt>> moveset : movesets.entrySet()) {
+            builder.startMoveset(moveset.getKey());
+            for (MoveLearnt ml : moveset.getValue()) {
+                builder.add(ml.move, ml.level);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds a LearnsetStore as the movesets are read, so RomHandlers need no map in between.
+     * Call {@link #startMoveset(int)} for each Species, followed by {@link #add(int, int)} for each of its moves.
+     * Starting the same Species again replaces its moveset.
+     */
+    public static class Builder {
+
+        private int[] starts = new int[0];
+        private int[] ends = new int[0];
+        private int[] entries = new int[256];
+        private int size;
+        private int species = ABSENT;
+
+        public Builder startMoveset(int species) {
+            if (species >= starts.length) {
+                int oldLength = starts.length;
+                int length = Math.max(species + 1, oldLength * 2);
+                starts = Arrays.copyOf(starts, length);
+                ends = Arrays.copyOf(ends, length);
+                Arrays.fill(starts, oldLength, length, ABSENT);
+            }
+            starts[species] = size;
+            ends[species] = size;
+            this.species = species;
+            return this;
+        }
+
+        public Builder add(int move, int level) {
+            if (species == ABSENT) {
+                throw new IllegalStateException("No moveset started");
+            }
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = pack(move, level);
+            ends[species] = size;
+            return this;
+        }
+
+        public LearnsetStore build() {
+            int length = starts.length;
+            while (length > 0 && starts[length - 1] == ABSENT) {
+                length--;
+            }
+            return new LearnsetStore(Arrays.copyOf(starts, length), Arrays.copyOf(ends, length),
+                    Arrays.copyOf(entries, size));
+        }
+    }
+
+    private static int pack(int move, int level) {
+        return (level << 16) | (move & 0xFFFF);
+    }
+
+    /**
+     * Whether the Species number had a moveset (possibly empty) in the map the store was made from.
+     */
+    public boolean hasMoveset(int species) {
+        return species >= 0 && species < starts.length && starts[species] != ABSENT;
+    }
+
+    /**
+     * The number of moves in the Species' moveset, or 0 if it has none.
+     */
+    public int size(int species) {
+        return hasMoveset(species) ? ends[species] - starts[species] : 0;
+    }
+
+    /**
+     * The move of the i:th entry in the Species' moveset, in the same order as {@link MoveLearnt}s in the map.
+     */
+    public int getMove(int species, int i) {
+        return entries[starts[species] + i] & 0xFFFF;
+    }
+
+    /**
+     * The level of the i:th entry in the Species' moveset, in the same order as {@link MoveLearnt}s in the map.
+     */
+    public int getLevel(int species, int i) {
+        return entries[starts[species] + i] >> 16;
+    }
+
+    /**
+     * Get the 4 moves known by a Species at a particular level, like
+     * {@link com.dabomstew.pkromio.RomFunctions#getMovesAtLevel(int, Map, int, int)}.
+     */
+    public int[] getMovesAtLevel(int species, int level, int emptyValue) {
+        int[] curMoves = new int[4];
+        if (emptyValue != 0) {
+            Arrays.fill(curMoves, emptyValue);
+        }
+        if (!hasMoveset(species)) {
+            return curMoves;
+        }
+
+        int moveCount = 0;
+        for (int e = starts[species]; e < ends[species]; e++) {
+            if (entries[e] >> 16 > level) {
+                break;
+            }
+            int move = entries[e] & 0xFFFF;
+
+            boolean alreadyKnownMove = false;
+            for (int i = 0; i < moveCount; i++) {
+                if (curMoves[i] == move) {
+                    alreadyKnownMove = true;
+                    break;
+                }
+            }
+
+            if (!alreadyKnownMove) {
+                if (moveCount == 4) {
+                    System.arraycopy(curMoves, 1, curMoves, 0, 3);
+                    curMoves[3] = move;
+                } else {
+                    curMoves[moveCount++] = move;
+                }
+            }
+        }
+        return curMoves;
+    }
+
+    /**
+     * Unpacks the store into the map form {@link com.dabomstew.pkromio.romhandlers.RomHandler#setMovesLearnt(Map)}
+     * takes.
+     */
+    public Map<Integer, List<MoveLearnt>> toMap() {
+        Map<Integer, List<MoveLearnt>> movesets = new TreeMap<>();
+        for (int species = 0; species < starts.length; species++) {
+            if (hasMoveset(species)) {
+                List<MoveLearnt> moveset = new ArrayList<>(size(species));
+                for (int i = 0; i < size(species); i++) {
+                    moveset.add(new MoveLearnt(getMove(species, i), getLevel(species, i)));
+                }
+                movesets.put(species, moveset);
+            }
+        }
+        return movesets;
+    }
+
+}
@@ -135,6 +135,8 @@ public class Trainer implements Comparable<Trainer> {
         this.forcedDoubleBattle = original.forcedDoubleBattle;
         this.forceStarterPosition = original.forceStarterPosition;
         this.requiresUniqueHeldItems = original.requiresUniqueHeldItems;
+        this.currBattleStyle = new BattleStyle(original.currBattleStyle.getModification(),
+                original.currBattleStyle.getStyle());
     }
 
     public String toString() {
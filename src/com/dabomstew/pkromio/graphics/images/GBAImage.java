@@ -1,12 +1,13 @@
 package com.dabomstew.pkromio.graphics.images;
 
 import com.dabomstew.pkromio.graphics.palettes.Palette;
+import com.dabomstew.pkromio.instrumentation.Instrumentation;
+import com.dabomstew.pkromio.instrumentation.Subsystem;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.awt.image.IndexColorModel;
 import java.awt.image.Raster;
-import java.awt.image.WritableRaster;
 import java.io.File;
 import java.io.IOException;
 
@@ -58,21 +59,26 @@ public class GBAImage extends TiledImage {
 
     @Override
     protected void drawTileData(byte[] data) {
-        int dataNumTiles = data.length / TILE_SIZE / BPP;
-        int imageNumTiles = getWidthInTiles() * getHeightInTiles();
-        int next = 0;
-        for (int tile = 0; tile < Math.min(dataNumTiles, imageNumTiles); tile++) {
-            int tileX = columnMode ? tile / getHeightInTiles() : tile % getWidthInTiles();
-            int tileY = columnMode ? tile % getHeightInTiles() : tile / getWidthInTiles();
-            for (int yT = 0; yT < TILE_SIZE; yT++) {
-                for (int xT = 0; xT < TILE_SIZE; xT += 2) {
-                    int pixel1 = data[next] & 0xF;
-                    int pixel2 = (data[next] >>> BPP) & 0xF;
-                    setColor(tileX * TILE_SIZE + xT, tileY * TILE_SIZE + yT, pixel1);
-                    setColor(tileX * TILE_SIZE + xT + 1, tileY * TILE_SIZE + yT, pixel2);
-                    next++;
+        Instrumentation.Timer timer = Instrumentation.time(Subsystem.GRAPHICS, "gba.decode").bytes(data.length);
+        try {
+            int dataNumTiles = data.length / TILE_SIZE / BPP;
+            int imageNumTiles = getWidthInTiles() * getHeightInTiles();
+            int width = getWidth();
+            int next = 0;
+            for (int tile = 0; tile < Math.min(dataNumTiles, imageNumTiles); tile++) {
+                int tileX = columnMode ? tile / getHeightInTiles() : tile % getWidthInTiles();
+                int tileY = columnMode ? tile % getHeightInTiles() : tile / getWidthInTiles();
+                for (int yT = 0; yT < TILE_SIZE; yT++) {
+                    int row = (tileY * TILE_SIZE + yT) * width + tileX * TILE_SIZE;
+                    for (int xT = 0; xT < TILE_SIZE; xT += 2) {
+                        pixels[row + xT] = (byte) (data[next] & 0xF);
+                        pixels[row + xT + 1] = (byte) ((data[next] >>> BPP) & 0xF);
+                        next++;
+                    }
                 }
             }
+        } finally {
+            timer.close();
         }
     }
 
@@ -80,13 +86,14 @@ public class GBAImage extends TiledImage {
     protected void drawImage(BufferedImage bim) {
         if (bim.getColorModel() instanceof IndexColorModel) {
             IndexColorModel indexColorModel = (IndexColorModel) bim.getColorModel();
-            if (indexColorModel.isCompatibleRaster(getData())) {
-                Raster from = bim.getData();
-                WritableRaster to = getRaster();
-                for (int x = 0; x < getWidth(); x++) {
-                    for (int y = 0; y < getHeight(); y++) {
-                        int s = from.getSample(x, y, 0);
-                        to.setSample(x, y, 0, s);
+            if (indexColorModel.isCompatibleRaster(getRaster())) {
+                Raster from = bim.getRaster();
+                int width = getWidth();
+                int[] row = new int[width];
+                for (int y = 0; y < getHeight(); y++) {
+                    from.getSamples(0, y, width, 1, 0, row);
+                    for (int x = 0; x < width; x++) {
+                        pixels[y * width + x] = (byte) row[x];
                     }
                 }
             }
@@ -98,25 +105,30 @@ public class GBAImage extends TiledImage {
 
     @Override
     public byte[] toBytes() {
-        byte[] data = new byte[getWidthInTiles() * getHeightInTiles() * TILE_SIZE * BPP];
-        int numTiles = getWidthInTiles() * getHeightInTiles();
-
-        int next = 0;
-        for (int tile = 0; tile < numTiles; tile++) {
-            int tileX = columnMode ? tile / getHeightInTiles() : tile % getWidthInTiles();
-            int tileY = columnMode ? tile % getHeightInTiles() : tile / getWidthInTiles();
-
-            for (int yT = 0; yT < TILE_SIZE; yT++) {
-                for (int xT = 0; xT < TILE_SIZE; xT += 2) {
-                    int pixel1 = getData().getSample(tileX * TILE_SIZE + xT, tileY * TILE_SIZE + yT, 0);
-                    int pixel2 = getData().getSample(tileX * TILE_SIZE + xT + 1, tileY * TILE_SIZE + yT, 0);
-                    data[next] = (byte) ((pixel2 << 4) + pixel1);
-                    next++;
+        try (Instrumentation.Timer timer = Instrumentation.time(Subsystem.GRAPHICS, "gba.encode")) {
+            byte[] data = new byte[getWidthInTiles() * getHeightInTiles() * TILE_SIZE * BPP];
+            int numTiles = getWidthInTiles() * getHeightInTiles();
+            int width = getWidth();
+
+            int next = 0;
+            for (int tile = 0; tile < numTiles; tile++) {
+                int tileX = columnMode ? tile / getHeightInTiles() : tile % getWidthInTiles();
+                int tileY = columnMode ? tile % getHeightInTiles() : tile / getWidthInTiles();
+
+                for (int yT = 0; yT < TILE_SIZE; yT++) {
+                    int row = (tileY * TILE_SIZE + yT) * width + tileX * TILE_SIZE;
+                    for (int xT = 0; xT < TILE_SIZE; xT += 2) {
+                        int pixel1 = pixels[row + xT] & 0xFF;
+                        int pixel2 = pixels[row + xT + 1] & 0xFF;
+                        data[next] = (byte) ((pixel2 << 4) + pixel1);
+                        next++;
+                    }
                 }
             }
-        }
 
-        return data;
+            timer.bytes(data.length);
+            return data;
+        }
     }
 
     @Override
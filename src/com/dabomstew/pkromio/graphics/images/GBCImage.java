@@ -2,11 +2,12 @@ package com.dabomstew.pkromio.graphics.images;
 
 import com.dabomstew.pkromio.graphics.palettes.Color;
 import com.dabomstew.pkromio.graphics.palettes.Palette;
+import com.dabomstew.pkromio.instrumentation.Instrumentation;
+import com.dabomstew.pkromio.instrumentation.Subsystem;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.awt.image.IndexColorModel;
-import java.awt.image.Raster;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -113,21 +114,27 @@ public class GBCImage extends TiledImage {
 
     @Override
     protected void drawTileData(byte[] data) {
-        int dataNumTiles = data.length / TILE_SIZE / BPP;
-        int imageNumTiles = getWidthInTiles() * getHeightInTiles();
-        for (int tile = 0; tile < Math.min(dataNumTiles, imageNumTiles); tile++) {
-            int tileX = columnMode ? tile / getWidthInTiles() : tile % getWidthInTiles();
-            int tileY = columnMode ? tile % getWidthInTiles() : tile / getWidthInTiles();
-            for (int yT = 0; yT < 8; yT++) {
-                int lowByte = data[(tile * 8 + yT) * 2];
-                int highByte = data[(tile * 8 + yT) * 2 + 1];
-                for (int xT = 0; xT < 8; xT++) {
-                    int low = (lowByte >>> (7 - xT)) & 1;
-                    int high = (highByte >>> (7 - xT)) & 1;
-                    int colorIndex = (high << 1) + low;
-                    setColor(tileX * 8 + xT, tileY * 8 + yT, colorIndex);
+        Instrumentation.Timer timer = Instrumentation.time(Subsystem.GRAPHICS, "gbc.decode").bytes(data.length);
+        try {
+            int dataNumTiles = data.length / TILE_SIZE / BPP;
+            int imageNumTiles = getWidthInTiles() * getHeightInTiles();
+            int width = getWidth();
+            for (int tile = 0; tile < Math.min(dataNumTiles, imageNumTiles); tile++) {
+                int tileX = columnMode ? tile / getWidthInTiles() : tile % getWidthInTiles();
+                int tileY = columnMode ? tile % getWidthInTiles() : tile / getWidthInTiles();
+                for (int yT = 0; yT < 8; yT++) {
+                    int lowByte = data[(tile * 8 + yT) * 2];
+                    int highByte = data[(tile * 8 + yT) * 2 + 1];
+                    int row = (tileY * 8 + yT) * width + tileX * 8;
+                    for (int xT = 0; xT < 8; xT++) {
+                        int low = (lowByte >>> (7 - xT)) & 1;
+                        int high = (highByte >>> (7 - xT)) & 1;
+                        pixels[row + xT] = (byte) ((high << 1) + low);
+                    }
                 }
             }
+        } finally {
+            timer.close();
         }
     }
 
@@ -139,26 +146,31 @@ public class GBCImage extends TiledImage {
 
     @Override
     public byte[] toBytes() {
-        byte[] data = new byte[getWidthInTiles() * getHeightInTiles() * TILE_SIZE * BPP];
-        int numTiles = getWidthInTiles() * getHeightInTiles();
-
-        for (int tile = 0; tile < numTiles; tile++) {
-            int tileX = columnMode ? tile / getHeightInTiles() : tile % getWidthInTiles();
-            int tileY = columnMode ? tile % getHeightInTiles() : tile / getWidthInTiles();
-            for (int yT = 0; yT < 8; yT++) {
-                int lowByte = 0;
-                int highByte = 0;
-                for (int xT = 0; xT < 8; xT++) {
-                    int sample = getData().getSample(tileX * 8 + xT, tileY * 8 + yT, 0);
-                    lowByte |= (sample & 1) << (7 - xT);
-                    highByte |= ((sample >>> 1) & 1) << (7 - xT);
+        try (Instrumentation.Timer timer = Instrumentation.time(Subsystem.GRAPHICS, "gbc.encode")) {
+            byte[] data = new byte[getWidthInTiles() * getHeightInTiles() * TILE_SIZE * BPP];
+            int numTiles = getWidthInTiles() * getHeightInTiles();
+            int width = getWidth();
+
+            for (int tile = 0; tile < numTiles; tile++) {
+                int tileX = columnMode ? tile / getHeightInTiles() : tile % getWidthInTiles();
+                int tileY = columnMode ? tile % getHeightInTiles() : tile / getWidthInTiles();
+                for (int yT = 0; yT < 8; yT++) {
+                    int lowByte = 0;
+                    int highByte = 0;
+                    int row = (tileY * 8 + yT) * width + tileX * 8;
+                    for (int xT = 0; xT < 8; xT++) {
+                        int sample = pixels[row + xT] & 0xFF;
+                        lowByte |= (sample & 1) << (7 - xT);
+                        highByte |= ((sample >>> 1) & 1) << (7 - xT);
+                    }
+                    data[(tile * 8 + yT) * 2] = (byte) lowByte;
+                    data[(tile * 8 + yT) * 2 + 1] = (byte) highByte;
                 }
-                data[(tile * 8 + yT) * 2] = (byte) lowByte;
-                data[(tile * 8 + yT) * 2 + 1] = (byte) highByte;
             }
-        }
 
-        return data;
+            timer.bytes(data.length);
+            return data;
+        }
     }
 
     public BufferedImage getBitplane1Image() {
@@ -189,7 +201,7 @@ public class GBCImage extends TiledImage {
 
         for (int x = 0; x < getWidth(); x++) {
             for (int y = 0; y < getHeight(); y++) {
-                int sample = getData().getSample(x, y, 0);
+                int sample = getColor(x, y);
                 if (sample % 2 == 1) {
                     bitplane1Image.setRGB(x, y, 0xff000000);
                 }
@@ -248,15 +260,9 @@ public class GBCImage extends TiledImage {
     public boolean equals(Object other) {
         if (other instanceof GBCImage) {
             GBCImage otherImage = (GBCImage) other;
-            return Arrays.equals(getRasterData(), otherImage.getRasterData());
+            return Arrays.equals(pixels, otherImage.pixels);
         }
         return false;
     }
 
-    private int[] getRasterData() {
-        Raster raster = getRaster();
-        return raster.getPixels(0, 0, raster.getWidth(), raster.getHeight(),
-                new int[raster.getWidth() * raster.getHeight()]);
-    }
-
 }
@@ -0,0 +1,108 @@
+package com.dabomstew.pkromio.graphics.images;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Many images packed into a single ARGB image, along with where each of them ended up.<br>
+ * The images are packed in shelves: sorted by height, then placed left to right in rows
+ * no wider than the square root of their total area (or the widest image, if that is wider).
+ */
+public class SpriteAtlas {
+
+    private final BufferedImage image;
+    private final Rectangle[] bounds;
+
+    private SpriteAtlas(BufferedImage image, Rectangle[] bounds) {
+        this.image = image;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Packs "images" into an atlas. Null images take no space, and have null bounds.
+     */
+    public static SpriteAtlas pack(List<BufferedImage> images) {
+        List<Integer> order = new ArrayList<>();
+        long area = 0;
+        int widest = 1;
+        for (int i = 0; i < images.size(); i++) {
+            BufferedImage bim = images.get(i);
+            if (bim != null) {
+                order.add(i);
+                area += (long) bim.getWidth() * bim.getHeight();
+                widest = Math.max(widest, bim.getWidth());
+            }
+        }
+        order.sort(Comparator.comparingInt((Integer i) -> images.get(i).getHeight()).reversed());
+        int maxRowWidth = Math.max(widest, (int) Math.ceil(Math.sqrt(area)));
+
+        Rectangle[] bounds = new Rectangle[images.size()];
+        int x = 0;
+        int y = 0;
+        int rowHeight = 0;
+        int atlasWidth = 1;
+        for (int i : order) {
+            BufferedImage bim = images.get(i);
+            if (x + bim.getWidth() > maxRowWidth) {
+                x = 0;
+                y += rowHeight;
+                rowHeight = 0;
+            }
+            bounds[i] = new Rectangle(x, y, bim.getWidth(), bim.getHeight());
+            x += bim.getWidth();
+            rowHeight = Math.max(rowHeight, bim.getHeight());
+            atlasWidth = Math.max(atlasWidth, x);
+        }
+        int atlasHeight = Math.max(1, y + rowHeight);
+
+        BufferedImage atlas = new BufferedImage(atlasWidth, atlasHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        for (int i : order) {
+            g.drawImage(images.get(i), bounds[i].x, bounds[i].y, null);
+        }
+        g.dispose();
+        return new SpriteAtlas(atlas, bounds);
+    }
+
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    public int size() {
+        return bounds.length;
+    }
+
+    /**
+     * Returns where the i:th image is in the atlas, or null if it was null.
+     */
+    public Rectangle getBounds(int i) {
+        return bounds[i] == null ? null : new Rectangle(bounds[i]);
+    }
+
+    public void writeImage(File file) throws IOException {
+        ImageIO.write(image, "png", file);
+    }
+
+    /**
+     * Writes the bounds of each image as CSV, with the header "index,x,y,width,height".
+     * Null images are left out.
+     */
+    public void writeIndex(Writer out) throws IOException {
+        out.write("index,x,y,width,height\n");
+        for (int i = 0; i < bounds.length; i++) {
+            Rectangle r = bounds[i];
+            if (r != null) {
+                out.write(i + "," + r.x + "," + r.y + "," + r.width + "," + r.height + "\n");
+            }
+        }
+    }
+
+}
@@ -5,8 +5,8 @@ import com.dabomstew.pkromio.graphics.palettes.Palette;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
 import java.awt.image.IndexColorModel;
-import java.awt.image.Raster;
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
@@ -92,6 +92,12 @@ public abstract class TiledImage extends BufferedImage {
 
     protected final boolean columnMode;
     protected final int[] colors;
+    /**
+     * The backing array of the raster. TYPE_BYTE_INDEXED images store one byte per pixel, row by row,
+     * so pixel (x, y) is at index y * getWidth() + x. Reading and writing this directly avoids both the
+     * per-sample overhead of the Raster methods, and the full copy {@link #getData()} makes on every call.
+     */
+    protected final byte[] pixels;
 
     protected int frameWidth;
     protected int frameHeight;
@@ -101,6 +107,7 @@ public abstract class TiledImage extends BufferedImage {
         super(width * TILE_SIZE, height * TILE_SIZE, BufferedImage.TYPE_BYTE_INDEXED, colorModel);
         this.columnMode = columnMode;
         this.colors = initColors();
+        this.pixels = ((DataBufferByte) getRaster().getDataBuffer()).getData();
     }
 
     protected int[] initColors() {
@@ -115,7 +122,11 @@ public abstract class TiledImage extends BufferedImage {
     protected abstract void drawImage(BufferedImage bim);
 
     public void setColor(int x, int y, int colorIndex) {
-        getRaster().setSample(x, y, 0, colorIndex);
+        pixels[y * getWidth() + x] = (byte) colorIndex;
+    }
+
+    public int getColor(int x, int y) {
+        return pixels[y * getWidth() + x] & 0xFF;
     }
 
     public int getWidthInTiles() {
@@ -213,16 +224,9 @@ public abstract class TiledImage extends BufferedImage {
     public boolean equals(Object other) {
         if (other instanceof TiledImage) {
             TiledImage otherImage = (TiledImage) other;
-            return Arrays.equals(getRasterData(), otherImage.getRasterData());
+            return Arrays.equals(pixels, otherImage.pixels);
         }
         return false;
     }
 
-    private int[] getRasterData() {
-        Raster raster = getRaster();
-        return raster.getPixels(0, 0, raster.getWidth(), raster.getHeight(),
-                new int[raster.getWidth() * raster.getHeight()]);
-    }
-
-
 }
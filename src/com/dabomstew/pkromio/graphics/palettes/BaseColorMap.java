@@ -24,6 +24,7 @@ package com.dabomstew.pkromio.graphics.palettes;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Used to tweak {@link TypeColor}s, by mapping each to a {@link Color} derived
@@ -36,16 +37,16 @@ public class BaseColorMap {
 	private static final double TWEAK_RAND_MAX_COEFF = -0.042;
 	private static final double TWEAK_RAND_MAX_ADDEND = 17.19;
 
-	private final Random random;
+	private final long seed;
 
 	private final Map<TypeColor, Color> baseColors = new HashMap<>();
 	private final Map<TypeColor, LightDarkMode> lightDarkModes = new HashMap<>();
 
 	public BaseColorMap(Random random) {
-		this.random = random;
+		this.seed = random.nextLong();
 	}
 
-	public Color getBaseColor(TypeColor key) {
+	public synchronized Color getBaseColor(TypeColor key) {
 		if (!baseColors.containsKey(key)) {
 			add(key);
 		}
@@ -53,7 +54,7 @@ public class BaseColorMap {
 		return new Color(baseColors.get(key));
 	}
 
-	public LightDarkMode getLightDarkMode(TypeColor key) {
+	public synchronized LightDarkMode getLightDarkMode(TypeColor key) {
 		if (!baseColors.containsKey(key)) {
 			add(key);
 		}
@@ -61,11 +62,15 @@ public class BaseColorMap {
 	}
 
 	private void add(TypeColor key) {
-		baseColors.put(key, randomlyTweakColor(key));
+		// Each key gets its own random stream, so the colors don't depend on what order the keys are asked for in.
+		// That lets the Pokemon of an evolution line, which share a BaseColorMap, be populated in any order.
+		// Keys are told apart by their RGB values only, like the maps do.
+		Random random = new Random(new SplittableRandom(seed ^ (key.toARGB() & 0xFFFFFF)).nextLong());
+		baseColors.put(key, randomlyTweakColor(key, random));
 		lightDarkModes.put(key, LightDarkMode.randomLightDarkMode(random));
 	}
 
-	private Color randomlyTweakColor(Color color) {
+	private Color randomlyTweakColor(Color color, Random random) {
 		// based on Artemis251's Emerald Randomizer code
 		Color tweakedColor = new Color();
 		for (int i = 0; i < 3; i++) { // for each in R,G,B
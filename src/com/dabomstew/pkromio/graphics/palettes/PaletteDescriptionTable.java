@@ -0,0 +1,60 @@
+package com.dabomstew.pkromio.graphics.palettes;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer" by Dabomstew                   --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2012.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+import java.util.List;
+
+/**
+ * The {@link PalettePartDescription}s of all palettes in a palette description file, parsed once.
+ * <p>
+ * Neither the table nor the descriptions in it change after creation, so one table can be shared
+ * by all randomizations of a game, including ones running at the same time.
+ */
+public class PaletteDescriptionTable {
+
+	private static final PalettePartDescription[] BLANK = PalettePartDescription.allFrom(PaletteDescription.BLANK);
+
+	private final PalettePartDescription[][] partDescriptions;
+
+	public PaletteDescriptionTable(List<PaletteDescription> paletteDescriptions) {
+		partDescriptions = new PalettePartDescription[paletteDescriptions.size()][];
+		for (int i = 0; i < partDescriptions.length; i++) {
+			partDescriptions[i] = PalettePartDescription.allFrom(paletteDescriptions.get(i));
+		}
+	}
+
+	public int size() {
+		return partDescriptions.length;
+	}
+
+	/**
+	 * Returns the part descriptions of the palette at "index", or those of a blank description if the
+	 * table has no palette there. The array is a copy, but the descriptions in it are shared.
+	 */
+	public PalettePartDescription[] get(int index) {
+		if (index < 0 || index >= partDescriptions.length) {
+			return BLANK.clone();
+		}
+		return partDescriptions[index].clone();
+	}
+
+}
@@ -32,6 +32,8 @@ import java.util.List;
  * Color in one slot should be the average of some other.
  * <p>
  * For the syntax, see {@link #PalettePartDescription(String)}.
+ * <p>
+ * A PalettePartDescription does not change after it is constructed.
  */
 public class PalettePartDescription {
 
@@ -57,12 +59,12 @@ public class PalettePartDescription {
 
 	private boolean isBlank;
 
-	private List<Integer> slots = new ArrayList<>();
+	private final List<Integer> slots = new ArrayList<>();
 
-	private List<Integer> siblingSlots = new ArrayList<>();
+	private final List<Integer> siblingSlots = new ArrayList<>();
 	private int sharedSlot = -1;
 
-	private List<Integer> averageSlots = new ArrayList<>();
+	private final List<Integer> averageSlots = new ArrayList<>();
 
 	private LightDarkSuffix lightDarkSuffix = LightDarkSuffix.ANY;
 	private boolean endDarkened;
@@ -0,0 +1,261 @@
+package com.dabomstew.pkromio.instrumentation;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Counters, byte meters and timers for the hot paths of ROM I/O and randomization,
+ * plus lazily-built trace messages to replace println debugging.<br>
+ * Everything here is disabled by default, and then costs a single volatile read per call;
+ * in particular {@link #time(Subsystem, String)} returns a shared no-op {@link Timer}, and trace messages
+ * are never built.<br>
+ * Can be turned on programmatically, or with system properties:
+ * <ul>
+ *     <li>-Dpkrandom.instrumentation=json:&lt;file&gt; writes a JSON summary when the JVM exits</li>
+ *     <li>-Dpkrandom.trace=true prints the trace messages to stdout</li>
+ * </ul>
+ */
+public final class Instrumentation {
+
+    public static final String SINK_PROPERTY = "pkrandom.instrumentation";
+    public static final String TRACE_PROPERTY = "pkrandom.trace";
+
+    private static volatile boolean enabled;
+    private static volatile boolean tracing;
+    private static volatile InstrumentationSink sink;
+
+    private static final Map<Subsystem, Map<String, Metric>> METRICS = new EnumMap<>(Subsystem.class);
+
+    static {
+        for (Subsystem subsystem : Subsystem.values()) {
+            METRICS.put(subsystem, new ConcurrentHashMap<>());
+        }
+        configureFromSystemProperties();
+    }
+
+    private Instrumentation() {
+    }
+
+    private static void configureFromSystemProperties() {
+        tracing = Boolean.getBoolean(TRACE_PROPERTY);
+        String sinkSpec = System.getProperty(SINK_PROPERTY);
+        if (sinkSpec == null || sinkSpec.isEmpty()) {
+            return;
+        }
+        if (sinkSpec.startsWith("json:")) {
+            enable(new JsonSummarySink(new File(sinkSpec.substring("json:".length()))));
+            Runtime.getRuntime().addShutdownHook(new Thread(Instrumentation::flushQuietly));
+        } else {
+            System.err.println("Unknown " + SINK_PROPERTY + " value: " + sinkSpec);
+        }
+    }
+
+    /**
+     * Starts measuring, reporting to the given sink. Metrics from earlier runs are kept; use {@link #reset()}
+     * to clear them.
+     */
+    public static void enable(InstrumentationSink sink) {
+        Instrumentation.sink = sink;
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+        sink = null;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setTracing(boolean tracing) {
+        Instrumentation.tracing = tracing;
+    }
+
+    public static boolean isTracing() {
+        return tracing;
+    }
+
+    public static void reset() {
+        for (Map<String, Metric> byName : METRICS.values()) {
+            byName.clear();
+        }
+    }
+
+    private static Metric metric(Subsystem subsystem, String name) {
+        return METRICS.get(subsystem).computeIfAbsent(name, n -> new Metric(subsystem, n));
+    }
+
+    public static void count(Subsystem subsystem, String name) {
+        if (enabled) {
+            metric(subsystem, name).increment();
+        }
+    }
+
+    public static void addBytes(Subsystem subsystem, String name, long bytes) {
+        if (enabled) {
+            Metric metric = metric(subsystem, name);
+            metric.increment();
+            metric.addBytes(bytes);
+        }
+    }
+
+    /**
+     * Starts timing a section; use with try-with-resources.
+     */
+    public static Timer time(Subsystem subsystem, String name) {
+        if (!enabled) {
+            return Timer.NO_OP;
+        }
+        return new Timer(subsystem, name);
+    }
+
+    /**
+     * Prints a debug message, built only if tracing is on.
+     */
+    public static void trace(Subsystem subsystem, Supplier<String> message) {
+        if (tracing) {
+            System.out.println("[" + subsystem + "] " + message.get());
+        }
+    }
+
+    /**
+     * Prints a debug message, formatted only if tracing is on.
+     */
+    public static void trace(Subsystem subsystem, String format, Object arg) {
+        if (tracing) {
+            System.out.println("[" + subsystem + "] " + String.format(format, arg));
+        }
+    }
+
+    /**
+     * Prints a debug message, formatted only if tracing is on.
+     */
+    public static void trace(Subsystem subsystem, String format, Object arg1, Object arg2) {
+        if (tracing) {
+            System.out.println("[" + subsystem + "] " + String.format(format, arg1, arg2));
+        }
+    }
+
+    /**
+     * Prints a debug message, formatted only if tracing is on.<br>
+     * Unlike the overloads with fewer arguments, this one allocates an array for its arguments even when
+     * tracing is off, and primitives get boxed on any of them; in hot paths, check {@link #isTracing()} first.
+     */
+    public static void trace(Subsystem subsystem, String format, Object... args) {
+        if (tracing) {
+            System.out.println("[" + subsystem + "] " + String.format(format, args));
+        }
+    }
+
+    /**
+     * Returns the totals of all metrics so far, ordered by subsystem and name.
+     */
+    public static List<Metric> getMetrics() {
+        List<Metric> metrics = new ArrayList<>();
+        for (Map<String, Metric> byName : METRICS.values()) {
+            List<Metric> sorted = new ArrayList<>(byName.values());
+            sorted.sort(Comparator.comparing(Metric::getName));
+            metrics.addAll(sorted);
+        }
+        return metrics;
+    }
+
+    /**
+     * Hands the totals of all metrics so far to the sink.
+     */
+    public static void flush() throws IOException {
+        InstrumentationSink current = sink;
+        if (enabled && current != null) {
+            current.summary(getMetrics());
+        }
+    }
+
+    private static void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.err.println("Could not write instrumentation summary: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A running measurement of a section. Closing it adds its time (and any bytes given) to the metric.
+     */
+    public static class Timer implements AutoCloseable {
+
+        static final Timer NO_OP = new Timer();
+
+        private final Subsystem subsystem;
+        private final String name;
+        private final long start;
+        private long bytes;
+
+        private Timer() {
+            this.subsystem = null;
+            this.name = null;
+            this.start = 0;
+        }
+
+        private Timer(Subsystem subsystem, String name) {
+            this.subsystem = subsystem;
+            this.name = name;
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * Records the amount of bytes processed in this section.
+         */
+        public Timer bytes(long bytes) {
+            if (subsystem != null) {
+                this.bytes += bytes;
+            }
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (subsystem == null) {
+                return;
+            }
+            long nanos = System.nanoTime() - start;
+            Metric metric = metric(subsystem, name);
+            metric.increment();
+            metric.addBytes(bytes);
+            metric.addTime(nanos);
+            InstrumentationSink current = sink;
+            if (current != null) {
+                current.timed(subsystem, name, nanos, bytes);
+            }
+        }
+    }
+}
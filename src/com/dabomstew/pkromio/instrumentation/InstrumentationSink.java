@@ -0,0 +1,44 @@
+package com.dabomstew.pkromio.instrumentation;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Receives what {@link Instrumentation} measures while it is enabled.
+ */
+public interface InstrumentationSink {
+
+    /**
+     * Called each time a {@link Instrumentation.Timer} is closed. Does nothing by default,
+     * since most sinks only care about the totals.
+     */
+    default void timed(Subsystem subsystem, String name, long nanos, long bytes) {
+    }
+
+    /**
+     * Called by {@link Instrumentation#flush()} with the totals of every metric so far.
+     */
+    void summary(List<Metric> metrics) throws IOException;
+}
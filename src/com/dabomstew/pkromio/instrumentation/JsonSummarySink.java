@@ -0,0 +1,61 @@
+package com.dabomstew.pkromio.instrumentation;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+import com.dabomstew.pkromio.JsonFunctions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Writes the metric totals as a JSON array to a file, one object per metric.
+ */
+public class JsonSummarySink implements InstrumentationSink {
+
+    private final File file;
+
+    public JsonSummarySink(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void summary(List<Metric> metrics) throws IOException {
+        try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(Files.newOutputStream(file.toPath()),
+                StandardCharsets.UTF_8))) {
+            pw.println("[");
+            for (int i = 0; i < metrics.size(); i++) {
+                Metric m = metrics.get(i);
+                pw.printf("  {\"subsystem\": \"%s\", \"name\": %s, \"count\": %d, \"bytes\": %d, "
+                                + "\"totalNanos\": %d, \"maxNanos\": %d}%s%n",
+                        m.getSubsystem(), JsonFunctions.quote(m.getName()), m.getCount(), m.getBytes(),
+                        m.getTotalNanos(), m.getMaxNanos(), i == metrics.size() - 1 ? "" : ",");
+            }
+            pw.println("]");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.dabomstew.pkromio.instrumentation;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+/**
+ * The parts of the program that report to {@link Instrumentation}.
+ */
+public enum Subsystem {
+    /** Reading and writing ROM containers: NDS file systems, NCCH exefs/romfs, LayeredFS. */
+    CONTAINER_IO,
+    /** (De)compression of overlays, code binaries and archives. */
+    COMPRESSION,
+    /** Parsing and rebuilding NARC/GARC archives. */
+    ARCHIVE_PARSE,
+    /** Randomization stages. */
+    RANDOMIZER_STAGE,
+    /** Encoding and decoding tiled images. */
+    GRAPHICS
+}
@@ -24,6 +24,9 @@ package com.dabomstew.pkromio.newnds;
 /*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
 /*----------------------------------------------------------------------------*/
 
+import com.dabomstew.pkromio.instrumentation.Instrumentation;
+import com.dabomstew.pkromio.instrumentation.Subsystem;
+
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -43,6 +46,13 @@ public class NARCArchive {
     }
 
     public NARCArchive(byte[] data) throws IOException {
+        try (Instrumentation.Timer timer = Instrumentation.time(Subsystem.ARCHIVE_PARSE, "narc.parse")) {
+            timer.bytes(data.length);
+            readFiles(data);
+        }
+    }
+
+    private void readFiles(byte[] data) throws IOException {
         Map<String, byte[]> frames = readNitroFrames(data);
         if (!frames.containsKey("FATB") || !frames.containsKey("FNTB") || !frames.containsKey("FIMG")) {
             throw new IOException("Not a valid narc file");
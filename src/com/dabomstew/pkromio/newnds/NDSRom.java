@@ -1,9 +1,12 @@
 package com.dabomstew.pkromio.newnds;
 
+import com.dabomstew.pkromio.ConcurrencyFunctions;
 import com.dabomstew.pkromio.FileFunctions;
+import com.dabomstew.pkromio.RomChecksums;
 import com.dabomstew.pkromio.RomFunctions;
-import com.dabomstew.pkromio.RootPath;
 import com.dabomstew.pkromio.exceptions.RomIOException;
+import com.dabomstew.pkromio.instrumentation.Instrumentation;
+import com.dabomstew.pkromio.instrumentation.Subsystem;
 import cuecompressors.BLZCoder;
 
 import java.io.*;
@@ -11,6 +14,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 /*----------------------------------------------------------------------------*/
 /*--  NDSRom.java - base class for opening/saving ROMs                      --*/
@@ -54,6 +58,7 @@ public class NDSRom {
     private byte[] arm9_footer;
     private byte[] arm9_ramstored;
     private long originalArm9CRC;
+    private int compressionThreads = Runtime.getRuntime().availableProcessors();
 
     private static final int arm9_align = 0x1FF, arm7_align = 0x1FF;
     private static final int fnt_align = 0x1FF, fat_align = 0x1FF;
@@ -63,20 +68,9 @@ public class NDSRom {
         this.romFilename = filename;
         this.baseRom = new RandomAccessFile(filename, "r");
         this.romOpen = true;
-        // TMP folder?
-        String rawFilename = new File(filename).getName();
-        String dataFolder = "tmp_" + rawFilename.substring(0, rawFilename.lastIndexOf('.'));
-        // remove nonsensical chars
-        dataFolder = dataFolder.replaceAll("[^A-Za-z0-9_]+", "");
-        File tmpFolder = new File(RootPath.path + dataFolder);
-        tmpFolder.mkdir();
-        if (tmpFolder.canWrite()) {
-            writingEnabled = true;
-            this.tmpFolder = RootPath.path + dataFolder + File.separator;
-            tmpFolder.deleteOnExit();
-        } else {
-            writingEnabled = false;
-        }
+        // TMP folder? One per instance, since several can be open from the same file at once.
+        this.tmpFolder = FileFunctions.createTmpFolder(filename);
+        this.writingEnabled = this.tmpFolder != null;
         readFileSystem();
         arm9_open = false;
         arm9_changed = false;
@@ -220,6 +214,7 @@ public class NDSRom {
             overlay.static_start = readFromByteArr(y9table, i * 32 + 16, 4);
             overlay.static_end = readFromByteArr(y9table, i * 32 + 20, 4);
             overlay.compressed_size = readFromByteArr(y9table, i * 32 + 28, 3);
+            overlay.original_compressed_size = overlay.compressed_size;
             overlay.compress_flag = y9table[i * 32 + 31] & 0xFF;
             arm9overlays[i] = overlay;
             arm9overlaysByFileID.put(fileID, overlay);
@@ -227,6 +222,17 @@ public class NDSRom {
     }
 
     public void saveTo(String filename) throws IOException {
+        // Phase 1: do all the (slow) recompression up front and concurrently,
+        // so phase 2 only has to lay out and copy data.
+        byte[] newARM9;
+        Instrumentation.Timer timer = Instrumentation.time(Subsystem.COMPRESSION, "nds.recompressAll");
+        try {
+            newARM9 = prepareCompressedContents();
+        } finally {
+            timer.close();
+        }
+
+        // Phase 2: write the new ROM
         this.reopenROM();
 
         // Initialize new ROM
@@ -240,16 +246,8 @@ public class NDSRom {
         int arm9_offset = ((int) (fNew.getFilePointer() + arm9_align)) & (~arm9_align);
         int old_arm9_offset = readFromFile(this.baseRom, 0x20, 4);
         int arm9_size = readFromFile(this.baseRom, 0x2C, 4);
-        if (arm9_open && arm9_changed) {
+        if (newARM9 != null) {
             // custom arm9
-            byte[] newARM9 = getARM9();
-            if (arm9_compressed) {
-                newARM9 = new BLZCoder(null).BLZ_EncodePub(newARM9, true, false, "arm9.bin");
-                if (arm9_szoffset > 0) {
-                    int newValue = newARM9.length + arm9_ramoffset;
-                    writeToByteArr(newARM9, arm9_szoffset, 4, newValue);
-                }
-            }
             arm9_size = newARM9.length;
             // copy new arm9
             fNew.seek(arm9_offset);
@@ -433,6 +431,77 @@ public class NDSRom {
         closeROM();
     }
 
+    /**
+     * Sets how many threads {@link #saveTo(String)} recompresses the ARM9 and the overlays on.
+     * With 1, they are recompressed one after another on the saving thread.
+     */
+    public void setCompressionThreads(int threads) {
+        this.compressionThreads = Math.max(1, threads);
+    }
+
+    /**
+     * Recompresses the ARM9 (if changed) and all changed overlays, using one thread per task
+     * up to {@link #setCompressionThreads(int) the number of compression threads}. Overlays are left holding their prepared contents,
+     * to be picked up by {@link NDSY9Entry#getOverrideContents()}.
+     *
+     * @return The new ARM9, ready to be written, or null if the ARM9 is unchanged.
+     */
+    private byte[] prepareCompressedContents() throws IOException {
+        List<Callable<byte[]>> tasks = new ArrayList<>();
+        Callable<byte[]> arm9Task = null;
+        if (arm9_open && arm9_changed) {
+            byte[] arm9 = getARM9();
+            arm9Task = arm9_compressed ? () -> compressARM9(arm9) : () -> arm9;
+            tasks.add(arm9Task);
+        }
+        for (NDSY9Entry overlay : arm9overlays) {
+            if (overlay.needsRecompression()) {
+                tasks.add(() -> {
+                    overlay.prepareOverrideContents();
+                    return null;
+                });
+            }
+        }
+
+        List<byte[]> results = runConcurrently(tasks);
+        return arm9Task == null ? null : results.get(0);
+    }
+
+    private byte[] compressARM9(byte[] arm9) {
+        byte[] compressed = new BLZCoder(null).BLZ_EncodePub(arm9, true, false, "arm9.bin");
+        if (arm9_szoffset > 0) {
+            int newValue = compressed.length + arm9_ramoffset;
+            writeToByteArr(compressed, arm9_szoffset, 4, newValue);
+        }
+        return compressed;
+    }
+
+    private <T> List<T> runConcurrently(List<Callable<T>> tasks) throws IOException {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (tasks.size() <= 1 || compressionThreads <= 1) {
+            for (Callable<T> task : tasks) {
+                results.add(callUnchecked(task));
+            }
+            return results;
+        }
+        try {
+            return ConcurrencyFunctions.invokeAllAndUnwrap(tasks, compressionThreads);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compressing ROM contents", e);
+        }
+    }
+
+    private static <T> T callUnchecked(Callable<T> task) throws IOException {
+        try {
+            return task.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RomIOException(e);
+        }
+    }
+
     private void copy(RandomAccessFile from, RandomAccessFile to, int bytes) throws IOException {
         int sizeof_copybuf = Math.min(256 * 1024, bytes);
         byte[] copybuf = new byte[sizeof_copybuf];
@@ -470,6 +539,35 @@ public class NDSRom {
         }
     }
 
+    /**
+     * Returns a task computing the CRC32 of the file as {@link #getFile(String)} gives it before any writes.
+     * It reads the ROM file through its own handle, so it can run on another thread.
+     * Returns null if the file doesn't exist.
+     */
+    public Callable<Long> originalFileCRC32Task(String filename) {
+        NDSFile file = files.get(filename);
+        if (file == null) {
+            return null;
+        }
+        File romFile = new File(romFilename);
+        long offset = file.offset;
+        int size = file.size;
+        return () -> RomChecksums.rangeCRC32(romFile, offset, size);
+    }
+
+    /**
+     * Returns a task computing the CRC32 of the overlay as {@link #getOverlay(int)} gives it before any writes.
+     * It reads the ROM file through its own handle, so it can run on another thread.
+     * Returns null if the overlay doesn't exist.
+     */
+    public Callable<Long> originalOverlayCRC32Task(int number) {
+        if (number >= 0 && number < arm9overlays.length) {
+            return arm9overlays[number].originalCRC32Task(new File(romFilename));
+        } else {
+            return null;
+        }
+    }
+
     public int getOverlayAddress(int number) {
         if (number >= 0 && number < arm9overlays.length) {
             return arm9overlays[number].ram_address;
@@ -671,6 +769,18 @@ public class NDSRom {
         return tmpFolder;
     }
 
+    /**
+     * Closes the ROM file and deletes the folder its files were extracted to.
+     * Nothing can be read from or saved after this.
+     */
+    public void deleteTmpFolder() throws IOException {
+        closeROM();
+        if (writingEnabled) {
+            FileFunctions.deleteRecursively(new File(tmpFolder));
+            writingEnabled = false;
+        }
+    }
+
     public RandomAccessFile getBaseRom() {
         return baseRom;
     }
@@ -1,12 +1,15 @@
 package com.dabomstew.pkromio.newnds;
 
 import com.dabomstew.pkromio.FileFunctions;
+import com.dabomstew.pkromio.instrumentation.Instrumentation;
+import com.dabomstew.pkromio.instrumentation.Subsystem;
 import cuecompressors.BLZCoder;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.util.concurrent.Callable;
 
 /*----------------------------------------------------------------------------*/
 /*--  NDSY9Entry.java - an entry in the arm9 overlay system                 --*/
@@ -38,13 +41,18 @@ public class NDSY9Entry {
     public int ram_address, ram_size;
     public int bss_size;
     public int static_start, static_end;
-    public int compressed_size;
+    public int compressed_size, original_compressed_size;
     public int compress_flag;
     private Extracted status = Extracted.NOT;
     private String extFilename;
     public byte[] data;
     public long originalCRC;
     private boolean decompressed_data = false;
+    private long decompressedCRC;
+    private int decompressedSize;
+    private boolean modified = false;
+    private boolean overridePrepared = false;
+    private byte[] preparedOverride;
 
     public NDSY9Entry(NDSRom parent) {
         this.parent = parent;
@@ -59,59 +67,19 @@ public class NDSY9Entry {
             rom.seek(this.offset);
             rom.readFully(buf);
             originalCRC = FileFunctions.getCRC32(buf);
-            
-            // Diagnostic output for overlay load
-            System.out.println("DEBUG: Loaded overlay " + overlay_id +
-                " - compress_flag=" + compress_flag +
-                " original_size=" + original_size +
-                " compressed_size=" + compressed_size +
-                " file_size=" + buf.length);
-
-            // Compression detection:
-            // An overlay is compressed if compress_flag != 0 (usually 1 or 3).
-            // In vanilla ROMs: original_size == compressed_size when compressed.
-            // In modified ROMs (like fairy patches): compressed_size may differ from original_size
-            // because the patched overlay compresses to a different size.
-            // Check if compress_flag indicates compression (value 1, 2, or 3 where 3=compressed, 1=compressed old format)
-            boolean isCompressed = (compress_flag == 1 || compress_flag == 3);
-
-            // HACK: Some fairy ROMs have incorrect compress_flag values
-            // Try to detect if data looks compressed even when flag says uncompressed
-            if (!isCompressed && compress_flag == 2 && buf.length > 100) {
-                // Check if first few bytes look like ARM code (indicating compressed data that wasn't decompressed)
-                // ARM instructions typically have specific patterns - if we see unusual byte sequences, try decompressing
-                int suspiciousBytes = 0;
-                for (int i = 0; i < Math.min(20, buf.length); i++) {
-                    int b = buf[i] & 0xFF;
-                    // Type table values should be 0, 2, 4, or 8
-                    // If we see lots of other values, this might be compressed
-                    if (b != 0 && b != 2 && b != 4 && b != 8) {
-                        suspiciousBytes++;
-                    }
-                }
-
-                if (suspiciousBytes > 10) {
-                    System.out.println("DEBUG: Overlay " + overlay_id + " has compress_flag=2 but data looks compressed (suspicious bytes: " + suspiciousBytes + "). Attempting decompression...");
-                    try {
-                        byte[] decompressed = new BLZCoder(null).BLZ_DecodePub(buf, "overlay " + overlay_id);
-                        if (decompressed != null && decompressed.length > buf.length) {
-                            System.out.println("DEBUG: Force-decompressed overlay " + overlay_id + " from " + buf.length + " to " + decompressed.length + " bytes");
-                            buf = decompressed;
-                            decompressed_data = true;
-                        }
-                    } catch (Exception e) {
-                        System.out.println("DEBUG: Decompression attempt failed, using data as-is");
-                    }
-                }
+            Instrumentation.addBytes(Subsystem.CONTAINER_IO, "nds.overlay.read", buf.length);
+            if (Instrumentation.isTracing()) {
+                Instrumentation.trace(Subsystem.CONTAINER_IO,
+                        "Loaded overlay %d - compress_flag=%d original_size=%d compressed_size=%d file_size=%d",
+                        overlay_id, compress_flag, original_size, compressed_size, buf.length);
             }
 
-            if (isCompressed && this.compressed_size != 0) {
-                System.out.println("DEBUG: Overlay " + overlay_id + " is compressed (flag=" + compress_flag + "), decompressing from " + buf.length + " bytes...");
-                buf = new BLZCoder(null).BLZ_DecodePub(buf, "overlay " + overlay_id);
-                System.out.println("DEBUG: Overlay " + overlay_id + " decompressed to " + buf.length + " bytes");
-                decompressed_data = true;
-            } else if (compress_flag != 0 && compress_flag != 2) {
-                System.out.println("DEBUG: Overlay " + overlay_id + " has unknown compress_flag=" + compress_flag + ", treating as uncompressed");
+            byte[] raw = buf;
+            buf = decode(raw, compress_flag, compressed_size);
+            decompressed_data = buf != raw;
+            if (decompressed_data) {
+                decompressedCRC = FileFunctions.getCRC32(buf);
+                decompressedSize = buf.length;
             }
             if (parent.isWritingEnabled()) {
                 // make a file
@@ -143,27 +111,109 @@ public class NDSY9Entry {
         }
     }
 
+    /**
+     * Returns a task computing the CRC32 of the contents {@link #getContents()} gives before any overrides.
+     * It reads the ROM file through its own handle, so it can run on another thread while this entry is used.
+     */
+    public Callable<Long> originalCRC32Task(File romFile) {
+        long offset = this.offset;
+        int length = this.original_size;
+        int compressFlag = this.compress_flag;
+        int compressedSize = this.compressed_size;
+        return () -> {
+            byte[] buf = new byte[length];
+            try (RandomAccessFile rom = new RandomAccessFile(romFile, "r")) {
+                rom.seek(offset);
+                rom.readFully(buf);
+            }
+            return FileFunctions.getCRC32(decode(buf, compressFlag, compressedSize));
+        };
+    }
+
+    /**
+     * Decompresses the overlay as read from the ROM, if it is compressed. Returns "buf" itself if not.
+     */
+    private byte[] decode(byte[] buf, int compressFlag, int compressedSize) {
+        // Compression detection:
+        // An overlay is compressed if compress_flag != 0 (usually 1 or 3).
+        // In vanilla ROMs: original_size == compressed_size when compressed.
+        // In modified ROMs (like fairy patches): compressed_size may differ from original_size
+        // because the patched overlay compresses to a different size.
+        // Check if compress_flag indicates compression (value 1, 2, or 3 where 3=compressed, 1=compressed old format)
+        boolean isCompressed = (compressFlag == 1 || compressFlag == 3);
+
+        // HACK: Some fairy ROMs have incorrect compress_flag values
+        // Try to detect if data looks compressed even when flag says uncompressed
+        if (!isCompressed && compressFlag == 2 && buf.length > 100) {
+            // Check if first few bytes look like ARM code (indicating compressed data that wasn't decompressed)
+            // ARM instructions typically have specific patterns - if we see unusual byte sequences, try decompressing
+            int suspiciousBytes = 0;
+            for (int i = 0; i < Math.min(20, buf.length); i++) {
+                int b = buf[i] & 0xFF;
+                // Type table values should be 0, 2, 4, or 8
+                // If we see lots of other values, this might be compressed
+                if (b != 0 && b != 2 && b != 4 && b != 8) {
+                    suspiciousBytes++;
+                }
+            }
+
+            if (suspiciousBytes > 10) {
+                if (Instrumentation.isTracing()) {
+                    Instrumentation.trace(Subsystem.COMPRESSION, "Overlay %d has compress_flag=2 but data looks "
+                            + "compressed (suspicious bytes: %d). Attempting decompression...", overlay_id, suspiciousBytes);
+                }
+                try {
+                    byte[] decompressed = new BLZCoder(null).BLZ_DecodePub(buf, "overlay " + overlay_id);
+                    if (decompressed != null && decompressed.length > buf.length) {
+                        if (Instrumentation.isTracing()) {
+                            Instrumentation.trace(Subsystem.COMPRESSION, "Force-decompressed overlay %d from %d to %d bytes",
+                                    overlay_id, buf.length, decompressed.length);
+                        }
+                        buf = decompressed;
+                    }
+                } catch (Exception e) {
+                    Instrumentation.trace(Subsystem.COMPRESSION, "Decompression attempt failed, using data as-is");
+                }
+            }
+        }
+
+        if (isCompressed && compressedSize != 0) {
+            int compressedLength = buf.length;
+            buf = new BLZCoder(null).BLZ_DecodePub(buf, "overlay " + overlay_id);
+            if (Instrumentation.isTracing()) {
+                Instrumentation.trace(Subsystem.COMPRESSION, "Overlay %d (flag=%d) decompressed from %d to %d bytes",
+                        overlay_id, compressFlag, compressedLength, buf.length);
+            }
+        } else if (compressFlag != 0 && compressFlag != 2) {
+            if (Instrumentation.isTracing()) {
+                Instrumentation.trace(Subsystem.COMPRESSION, "Overlay %d has unknown compress_flag=%d, treating as uncompressed",
+                        overlay_id, compressFlag);
+            }
+        }
+        return buf;
+    }
+
     public void writeOverride(byte[] data) throws IOException {
         if (status == Extracted.NOT) {
             // temp extract
             getContents();
         }
         size = data.length;
-        
-        System.out.println("DEBUG: writeOverride for overlay " + overlay_id +
-            " - new_size=" + data.length +
-            " compress_flag=" + compress_flag +
-            " decompressed_data=" + decompressed_data +
-            " original_size=" + original_size);
+        modified = true;
+        overridePrepared = false;
+        preparedOverride = null;
+
+        if (Instrumentation.isTracing()) {
+            Instrumentation.trace(Subsystem.CONTAINER_IO,
+                    "writeOverride for overlay %d - new_size=%d compress_flag=%d decompressed_data=%b original_size=%d",
+                    overlay_id, data.length, compress_flag, decompressed_data, original_size);
+        }
 
         // Note: compressed_size will be updated in getOverrideContents() when we actually compress
         // For uncompressed overlays (flag 0 or 2), we update it here
         boolean willBeCompressed = (compress_flag == 1 || compress_flag == 3);
         if (!willBeCompressed) {
             compressed_size = size;
-            System.out.println("DEBUG: Overlay " + overlay_id + " will be stored uncompressed, setting compressed_size to " + size);
-        } else {
-            System.out.println("DEBUG: Overlay " + overlay_id + " will be recompressed on save, compressed_size will be set during compression");
         }
         if (status == Extracted.TO_FILE) {
             String tmpDir = parent.getTmpFolder();
@@ -182,35 +232,87 @@ public class NDSY9Entry {
             }
         }
         if (data.length > ram_size) {
-            System.out.println("DEBUG: Overlay " + overlay_id + " growing beyond ram_size: " + data.length + " > " + ram_size);
+            if (Instrumentation.isTracing()) {
+                Instrumentation.trace(Subsystem.CONTAINER_IO, "Overlay %d growing beyond ram_size: %d > %d",
+                        overlay_id, data.length, ram_size);
+            }
             parent.setOverlayRamSize(overlay_id, data.length);
         }
     }
 
+    /**
+     * Whether saving this overlay involves recompressing it, i.e. the slow part of
+     * {@link #getOverrideContents()} that is worth doing ahead of time with {@link #prepareOverrideContents()}.
+     */
+    public boolean needsRecompression() {
+        return status != Extracted.NOT && isCompressedOnSave() && decompressed_data;
+    }
+
+    /**
+     * Does the work of {@link #getOverrideContents()} ahead of time, so it can be done on another thread
+     * than the one laying out the ROM. Different overlays can be prepared concurrently.
+     */
+    public void prepareOverrideContents() throws IOException {
+        preparedOverride = buildOverrideContents();
+        overridePrepared = true;
+    }
+
     // returns null if no override
     public byte[] getOverrideContents() throws IOException {
+        if (overridePrepared) {
+            byte[] buf = preparedOverride;
+            overridePrepared = false;
+            preparedOverride = null;
+            return buf;
+        }
+        return buildOverrideContents();
+    }
+
+    private boolean isCompressedOnSave() {
+        // Flag values: 0=uncompressed, 1=compressed(old), 2=uncompressed(new), 3=compressed(new)
+        return this.compress_flag == 1 || this.compress_flag == 3;
+    }
+
+    private byte[] buildOverrideContents() throws IOException {
         if (status == Extracted.NOT) {
             return null;
         }
-        byte[] buf = getContents();
         // If the overlay was originally compressed (flag 1 or 3), we MUST recompress it
         // regardless of whether the size changed. The compress_flag tells us
         // the game expects this overlay to be compressed.
-        // Flag values: 0=uncompressed, 1=compressed(old), 2=uncompressed(new), 3=compressed(new)
-        boolean shouldCompress = (this.compress_flag == 1 || this.compress_flag == 3);
+        boolean shouldCompress = isCompressedOnSave();
 
+        if (shouldCompress && this.decompressed_data && isUnchanged()) {
+            // Same contents as in the base ROM, so its compressed bytes can be copied as they are
+            this.compressed_size = this.original_compressed_size;
+            return null;
+        }
+        byte[] buf = getContents();
         if (shouldCompress && this.decompressed_data) {
             int beforeSize = buf.length;
             buf = new BLZCoder(null).BLZ_EncodePub(buf, false, false, "overlay " + overlay_id);
-            int afterSize = buf.length;
             this.compressed_size = buf.length;
-            System.out.println("DEBUG [Overlay " + overlay_id + "]: Recompressed " + beforeSize + " -> " + afterSize + " (compress_flag=" + compress_flag + ", original was " + original_size + ")");
+            if (Instrumentation.isTracing()) {
+                Instrumentation.trace(Subsystem.COMPRESSION, "Overlay %d: Recompressed %d -> %d (compress_flag=%d, original was %d)",
+                        overlay_id, beforeSize, buf.length, compress_flag, original_size);
+            }
         } else if (shouldCompress && !this.decompressed_data) {
-            System.out.println("WARNING [Overlay " + overlay_id + "]: compress_flag=" + compress_flag + " but decompressed_data=false, this may indicate a problem!");
+            Instrumentation.trace(Subsystem.COMPRESSION, "Overlay %d has compress_flag=%d but was never decompressed, "
+                    + "so it is saved as it is", overlay_id, compress_flag);
         }
         return buf;
     }
 
+    private boolean isUnchanged() throws IOException {
+        if (!modified) {
+            return true;
+        }
+        if (size != decompressedSize) {
+            return false;
+        }
+        return FileFunctions.getCRC32(getContents()) == decompressedCRC;
+    }
+
     private enum Extracted {
         NOT, TO_FILE, TO_RAM
     }
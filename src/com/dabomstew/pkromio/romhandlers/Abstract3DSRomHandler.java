@@ -22,6 +22,7 @@ package com.dabomstew.pkromio.romhandlers;
 /*----------------------------------------------------------------------------*/
 
 import com.dabomstew.pkromio.FileFunctions;
+import com.dabomstew.pkromio.RomChecksums;
 import com.dabomstew.pkromio.RomFunctions;
 import com.dabomstew.pkromio.constants.Gen6Constants;
 import com.dabomstew.pkromio.ctr.GARCArchive;
@@ -32,12 +33,14 @@ import com.dabomstew.pkromio.exceptions.RomIOException;
 import com.dabomstew.pkromio.gamedata.*;
 
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 /**
  * An abstract base class for 3DS {@link RomHandler}s, which standardises common 3DS functions.
@@ -47,6 +50,9 @@ public abstract class Abstract3DSRomHandler extends AbstractRomHandler {
 	private NCCH baseRom;
 	private NCCH gameUpdate;
 	private String loadedFN;
+	private String gameUpdateFN;
+	// the romfs paths the game update has its own versions of
+	private Set<String> gameUpdateOverrides = Collections.emptySet();
 
 	@Override
 	public boolean loadRom(String filename) {
@@ -116,28 +122,60 @@ public abstract class Abstract3DSRomHandler extends AbstractRomHandler {
 	public boolean loadGameUpdate(String filename) {
 		String productCode = getProductCodeFromFile(filename);
 		String titleId = getTitleIdFromFile(filename);
+		NCCH update;
 		try {
-			gameUpdate = new NCCH(filename, productCode, titleId);
-			if (!gameUpdate.isDecrypted()) {
+			update = new NCCH(filename, productCode, titleId);
+			if (!update.isDecrypted()) {
 				throw new EncryptedROMException(filename);
 			}
-			int version = gameUpdate.getVersion();
+			int version = update.getVersion();
 			if (!this.isGameUpdateSupported(version)) {
 				System.out.println("Game Update: Supplied unexpected version " + version);
 			}
 		} catch (IOException e) {
 			throw new RomIOException(e);
 		}
-		this.loadedROM(baseRom.getProductCode(), baseRom.getTitleId());
+		// a previous update's overrides go away, so those paths change too
+		Set<String> changedPaths = new HashSet<>(gameUpdateOverrides);
+		gameUpdate = update;
+		gameUpdateFN = filename;
+		gameUpdateOverrides = new HashSet<>(update.getFileNames());
+		changedPaths.addAll(gameUpdateOverrides);
+		this.gameUpdateChanged(changedPaths);
 		return true;
 	}
 
 	@Override
 	public void removeGameUpdate() {
+		Set<String> changedPaths = gameUpdateOverrides;
 		gameUpdate = null;
+		gameUpdateFN = null;
+		gameUpdateOverrides = Collections.emptySet();
+		this.gameUpdateChanged(changedPaths);
+	}
+
+	/**
+	 * Called after a game update has been loaded or removed, to load again what it changed.<br>
+	 * code.bin always comes from the update if there is one, so it has always changed. Of the romfs files,
+	 * only those with paths in "changedPaths" have. By default, everything is loaded again;
+	 * handlers can instead load only what is read from the changed files.
+	 */
+	protected void gameUpdateChanged(Set<String> changedPaths) {
 		this.loadedROM(baseRom.getProductCode(), baseRom.getTitleId());
 	}
 
+	/**
+	 * Returns whether any of the files with the given ROM entry keys is in "changedPaths".
+	 */
+	protected boolean anyFileChanged(Set<String> changedPaths, String... fileKeys) {
+		for (String fileKey : fileKeys) {
+			if (changedPaths.contains(getGARCPath(fileKey))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	protected abstract String getGameVersion();
 
 	@Override
@@ -154,6 +192,18 @@ public abstract class Abstract3DSRomHandler extends AbstractRomHandler {
 		baseRom.closeROM();
 	}
 
+	@Override
+	public void unloadRom() {
+		try {
+			baseRom.deleteTmpFolder();
+			if (gameUpdate != null) {
+				gameUpdate.deleteTmpFolder();
+			}
+		} catch (IOException e) {
+			throw new RomIOException(e);
+		}
+	}
+
 	@Override
 	public boolean hasPhysicalSpecialSplit() {
 		// Default value for Gen4+.
@@ -250,6 +300,38 @@ public abstract class Abstract3DSRomHandler extends AbstractRomHandler {
 		return baseRom.getFile(location);
 	}
 
+	/**
+	 * Returns a task computing the CRC32 of the file as it is in the loaded ROM (or game update) file,
+	 * which can run on another thread.
+	 */
+	protected Callable<Long> fileCRC32Task(String location) {
+		Callable<Long> task = null;
+		if (gameUpdate != null && gameUpdate.hasFile(location)) {
+			task = gameUpdate.originalFileCRC32Task(location);
+		} else if (baseRom.hasFile(location)) {
+			task = baseRom.originalFileCRC32Task(location);
+		}
+		if (task == null) {
+			throw new RomIOException("Could not find file " + location + " in the ROM");
+		}
+		return task;
+	}
+
+	/**
+	 * Starts computing checksums of the loaded ROM and game update files in the background,
+	 * or takes them from the cache.
+	 *
+	 * @param tag Tells the checksums apart from others of the same ROM file, e.g. the name of the ROM entry.
+	 */
+	protected RomChecksums startChecksums(String tag, Map<String, Callable<Long>> tasks) {
+		List<File> romFiles = new ArrayList<>();
+		romFiles.add(new File(loadedFN));
+		if (gameUpdateFN != null) {
+			romFiles.add(new File(gameUpdateFN));
+		}
+		return RomChecksums.start(tag, romFiles, tasks);
+	}
+
 	protected void writeFile(String location, byte[] data) throws IOException {
 		writeFile(location, data, 0, data.length);
 	}
@@ -1,7 +1,9 @@
 package com.dabomstew.pkromio.romhandlers;
 
+import com.dabomstew.pkromio.ConcurrencyFunctions;
 import com.dabomstew.pkromio.FileFunctions;
 import com.dabomstew.pkromio.GFXFunctions;
+import com.dabomstew.pkromio.RomChecksums;
 import com.dabomstew.pkromio.RomFunctions;
 import com.dabomstew.pkromio.exceptions.CannotWriteToLocationException;
 import com.dabomstew.pkromio.exceptions.RomIOException;
@@ -14,13 +16,19 @@ import com.dabomstew.pkromio.newnds.NDSRom;
 import com.dabomstew.pkromio.romhandlers.romentries.AbstractDSRomEntry;
 
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.lang.ref.SoftReference;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * An abstract base class for DS {@link RomHandler}s, which standardises common DS functions.
@@ -48,6 +56,10 @@ public abstract class AbstractDSRomHandler extends AbstractRomHandler {
     private int tcmCopyingPointersOffset = -1;
     protected final FreedSpace arm9FreedSpace = new FreedSpace();
 
+    // The graphics NARCs read by the image getters. They are large and only needed while images are being shown,
+    // so they are softly referenced, and read again if the memory was needed elsewhere.
+    private final Map<String, SoftReference<NARCArchive>> graphicsNARCs = new HashMap<>();
+
     protected abstract boolean detectNDSRom(String ndsCode, byte version);
 
     @Override
@@ -136,6 +148,15 @@ public abstract class AbstractDSRomHandler extends AbstractRomHandler {
         baseRom.closeROM();
     }
 
+    @Override
+    public void unloadRom() {
+        try {
+            baseRom.deleteTmpFolder();
+        } catch (IOException e) {
+            throw new RomIOException(e);
+        }
+    }
+
     @Override
     public boolean hasPhysicalSpecialSplit() {
         // Default value for Gen4+.
@@ -147,7 +168,26 @@ public abstract class AbstractDSRomHandler extends AbstractRomHandler {
         return new NARCArchive(readFile(subpath));
     }
 
+    /**
+     * Returns the NARC at the ROM entry file "entryKey", reading it only if it isn't already held.<br>
+     * Safe to call from several threads, but the returned NARC is shared: it must only be read, never modified.
+     * It is dropped when the same file is written with {@link #writeNARC(String, NARCArchive)}.
+     */
+    protected synchronized NARCArchive readGraphicsNARC(String entryKey) throws IOException {
+        String subpath = getRomEntry().getFile(entryKey);
+        SoftReference<NARCArchive> ref = graphicsNARCs.get(subpath);
+        NARCArchive narc = ref == null ? null : ref.get();
+        if (narc == null) {
+            narc = readNARC(subpath);
+            graphicsNARCs.put(subpath, new SoftReference<>(narc));
+        }
+        return narc;
+    }
+
     public void writeNARC(String subpath, NARCArchive narc) throws IOException {
+        synchronized (this) {
+            graphicsNARCs.remove(subpath);
+        }
         this.writeFile(subpath, narc.getBytes());
     }
 
@@ -244,6 +284,38 @@ public abstract class AbstractDSRomHandler extends AbstractRomHandler {
         baseRom.writeOverlay(number, data);
     }
 
+    /**
+     * Returns a task computing the CRC32 of the file as it is in the loaded ROM file, which can run on another thread.
+     */
+    protected Callable<Long> fileCRC32Task(String location) {
+        Callable<Long> task = baseRom.originalFileCRC32Task(location);
+        if (task == null) {
+            throw new RomIOException("Could not find file " + location + " in the ROM");
+        }
+        return task;
+    }
+
+    /**
+     * Returns a task computing the CRC32 of the overlay as it is in the loaded ROM file, which can run on another
+     * thread.
+     */
+    protected Callable<Long> overlayCRC32Task(int number) {
+        Callable<Long> task = baseRom.originalOverlayCRC32Task(number);
+        if (task == null) {
+            throw new RomIOException("Could not find overlay " + number + " in the ROM");
+        }
+        return task;
+    }
+
+    /**
+     * Starts computing checksums of the loaded ROM file in the background, or takes them from the cache.
+     *
+     * @param tag Tells the checksums apart from others of the same ROM file, e.g. the name of the ROM entry.
+     */
+    protected RomChecksums startChecksums(String tag, Map<String, Callable<Long>> tasks) {
+        return RomChecksums.start(tag, Collections.singletonList(new File(loadedFN)), tasks);
+    }
+
     protected int overlayAddress(int number) {
         return baseRom.getOverlayAddress(number);
     }
@@ -543,24 +615,28 @@ public abstract class AbstractDSRomHandler extends AbstractRomHandler {
         NARC.files.set(index, paletteBytes);
     }
 
+    /**
+     * Decodes the full image sheet of every species. The species are decoded in parallel, since each
+     * {@link DSPokemonImageGetter} only reads the shared graphics NARCs.
+     */
     @Override
     public List<BufferedImage> getAllPokemonImages() {
-        List<BufferedImage> bims = new ArrayList<>();
-
-		String NARCPath = getRomEntry().getFile("PokemonGraphics");
-		NARCArchive pokeGraphicsNARC;
-		try {
-			pokeGraphicsNARC = readNARC(NARCPath);
-		} catch (IOException e) {
-			throw new RomIOException(e);
-		}
-
+        List<Callable<BufferedImage>> tasks = new ArrayList<>();
         for (int i = 1; i < getSpecies().size(); i++) {
-            Species pk = getSpecies().get(i);
-            DSPokemonImageGetter pig = createPokemonImageGetter(pk).setPokeGraphicsNARC(pokeGraphicsNARC);
-            bims.add(pig.getFull());
+            DSPokemonImageGetter pig = createPokemonImageGetter(getSpecies().get(i));
+            tasks.add(pig::getFull);
+        }
+        // read the NARCs once up front, instead of having every thread wait on the first one to
+        if (!tasks.isEmpty()) {
+            createPokemonImageGetter(getSpecies().get(1)).beforeGet();
+        }
+
+        try {
+            return ConcurrencyFunctions.invokeAllAndUnwrap(tasks, Runtime.getRuntime().availableProcessors());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RomIOException("Interrupted while decoding Pokemon images", e);
         }
-        return bims;
     }
 
     @Override
@@ -598,8 +674,7 @@ public abstract class AbstractDSRomHandler extends AbstractRomHandler {
         protected void beforeGet() {
             if (pokeGraphicsNARC == null) {
                 try {
-                    String NARCpath = getRomEntry().getFile("PokemonGraphics");
-                    pokeGraphicsNARC = readNARC(NARCpath);
+                    pokeGraphicsNARC = readGraphicsNARC("PokemonGraphics");
                 } catch (IOException e) {
                     throw new RuntimeException(e);
                 }
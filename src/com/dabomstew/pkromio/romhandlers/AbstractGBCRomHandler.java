@@ -30,27 +30,23 @@ import com.dabomstew.pkromio.gbspace.BankDividedFreedSpace;
 import com.dabomstew.pkromio.graphics.images.GBCImage;
 import com.dabomstew.pkromio.romhandlers.romentries.AbstractGBCRomEntry;
 import com.dabomstew.pkromio.romhandlers.romentries.GBUnusedChunkEntry;
+import com.dabomstew.pkromio.text.TextTable;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 
 /**
  * An extension of {@link AbstractGBRomHandler} used for Gen 1 and Gen 2.
  */
 public abstract class AbstractGBCRomHandler extends AbstractGBRomHandler {
 
-    private String[] tb;
-    private Map<String, Byte> d;
-    private int longestTableToken;
+    private final TextTable textTable = new TextTable();
 
     private BankDividedFreedSpace freedSpace;
 
@@ -118,39 +114,12 @@ public abstract class AbstractGBCRomHandler extends AbstractGBRomHandler {
     protected abstract void loadMovesLearnt();
 
     protected void clearTextTables() {
-        tb = new String[256];
-        if (d != null) {
-            d.clear();
-        } else {
-            d = new HashMap<>();
-        }
-        longestTableToken = 0;
+        textTable.clear();
     }
 
     protected void readTextTable(String name) {
         try {
-            Scanner sc = new Scanner(FileFunctions.openConfig(name + ".tbl"), "UTF-8");
-            while (sc.hasNextLine()) {
-                String q = sc.nextLine();
-                if (!q.trim().isEmpty()) {
-                    String[] r = q.split("=", 2);
-                    if (r[1].endsWith("\r\n")) {
-                        r[1] = r[1].substring(0, r[1].length() - 2);
-                    }
-                    int hexcode = Integer.parseInt(r[0], 16);
-                    if (tb[hexcode] != null) {
-                        String oldMatch = tb[hexcode];
-                        tb[hexcode] = null;
-                        if (d.get(oldMatch) == hexcode) {
-                            d.remove(oldMatch);
-                        }
-                    }
-                    tb[hexcode] = r[1];
-                    longestTableToken = Math.max(longestTableToken, r[1].length());
-                    d.put(r[1], (byte) hexcode);
-                }
-            }
-            sc.close();
+            textTable.readTableFile(name);
         } catch (FileNotFoundException ignored) {
         }
     }
@@ -159,16 +128,17 @@ public abstract class AbstractGBCRomHandler extends AbstractGBRomHandler {
         StringBuilder string = new StringBuilder();
         for (int c = 0; c < maxLength; c++) {
             int currChar = rom[offset + c] & 0xFF;
-            if (tb[currChar] != null) {
-                string.append(tb[currChar]);
-                if (textEngineMode && (tb[currChar].equals("\\r") || tb[currChar].equals("\\e"))) {
+            String translated = textTable.decode(currChar);
+            if (translated != null) {
+                string.append(translated);
+                if (textEngineMode && (translated.equals("\\r") || translated.equals("\\e"))) {
                     break;
                 }
             } else {
                 if (currChar == GBConstants.stringTerminator) {
                     break;
                 } else {
-                    string.append("\\x").append(String.format("%02X", currChar));
+                    string.append(TextTable.hexEscape(currChar));
                 }
             }
         }
@@ -191,25 +161,11 @@ public abstract class AbstractGBCRomHandler extends AbstractGBRomHandler {
     }
 
     protected byte[] translateString(String text) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        while (!text.isEmpty()) {
-            int i = Math.max(0, longestTableToken - text.length());
-            if (text.charAt(0) == '\\' && text.charAt(1) == 'x') {
-                baos.write(Integer.parseInt(text.substring(2, 4), 16));
-                text = text.substring(4);
-            } else {
-                while (!(d.containsKey(text.substring(0, longestTableToken - i)) || (i == longestTableToken))) {
-                    i++;
-                }
-                if (i == longestTableToken) {
-                    text = text.substring(1);
-                } else {
-                    baos.write(d.get(text.substring(0, longestTableToken - i)) & 0xFF);
-                    text = text.substring(longestTableToken - i);
-                }
-            }
-        }
-        return baos.toByteArray();
+        return textTable.encode(text);
+    }
+
+    protected int translatedLength(String text) {
+        return textTable.encodedLength(text);
     }
 
     protected String readFixedLengthString(int offset, int length) {
@@ -222,10 +178,7 @@ public abstract class AbstractGBCRomHandler extends AbstractGBRomHandler {
 
     // pads the length with terminators, so length should be at least str's len + 1
     protected void writeFixedLengthString(byte[] data, String str, int offset, int length) {
-        byte[] translated = translateString(str);
-        int len = Math.min(translated.length, length);
-        // TODO: should use writeBytes();
-        System.arraycopy(translated, 0, data, offset, len);
+        int len = textTable.encode(str, data, offset, length);
         while (len < length) {
             data[offset + len] = GBConstants.stringTerminator;
             len++;
@@ -237,11 +190,9 @@ public abstract class AbstractGBCRomHandler extends AbstractGBRomHandler {
     }
 
     protected void writeVariableLengthString(byte[] data, String str, int offset, boolean alreadyTerminated) {
-        byte[] translated = translateString(str);
-        // TODO: should use writeBytes();
-        System.arraycopy(translated, 0, data, offset, translated.length);
+        int len = textTable.encode(str, data, offset, data.length - offset);
         if (!alreadyTerminated) {
-            data[offset + translated.length] = GBConstants.stringTerminator;
+            data[offset + len] = GBConstants.stringTerminator;
         }
     }
 
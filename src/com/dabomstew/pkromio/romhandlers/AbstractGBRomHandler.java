@@ -161,9 +161,8 @@ public abstract class AbstractGBRomHandler extends AbstractRomHandler {
     @Override
     protected void prepareSaveRom() {
         super.prepareSaveRom();
-        // because most other gens write the trainers to ROM each time setTrainers is used,
-        // instead of having a saveTrainers. (obviously those other gens shouldn't do that either,
-        // but code's never perfect)
+        // unlike the DS/3DS handlers, which only write their trainers back if setTrainers was used,
+        // this always writes them
         saveTrainers();
     }
 
@@ -46,6 +46,7 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -60,6 +61,16 @@ public abstract class AbstractRomHandler implements RomHandler {
 
     private List<Type> starterTypeTriangle = null;
 
+    /**
+     * The rank of each location tag in a "locationTagsTraverseOrder" list, by list. These lists are constants,
+     * so each only needs ranking once.
+     */
+    private static final Map<List<String>, Map<String, Integer>> LOCATION_TAG_RANKS = new IdentityHashMap<>();
+
+    // the decoded encounters of each time-of-day mode, see cachedEncounters()
+    private List<EncounterArea> encounters;
+    private List<EncounterArea> timeOfDayEncounters;
+
     /*
      * Public Methods, implemented here for all gens. Unlikely to be overridden.
      */
@@ -87,6 +98,53 @@ public abstract class AbstractRomHandler implements RomHandler {
         return getEncounters(useTimeOfDay);
     }
 
+    /**
+     * Returns the encounters read by "reader" for the given time-of-day mode. They are only read on the first call
+     * after loading, or after {@link #clearCachedEncounters()}; later calls get a new list of the same
+     * {@link EncounterArea}s.<br>
+     * Handlers can back {@link #getEncounters(boolean)} with this, as long as they call
+     * {@link #clearCachedEncounters()} whenever they write encounter data.
+     */
+    protected List<EncounterArea> cachedEncounters(boolean useTimeOfDay,
+                                                   Function<Boolean, List<EncounterArea>> reader) {
+        List<EncounterArea> cached = useTimeOfDay ? timeOfDayEncounters : encounters;
+        if (cached == null) {
+            cached = reader.apply(useTimeOfDay);
+            if (useTimeOfDay) {
+                timeOfDayEncounters = cached;
+            } else {
+                encounters = cached;
+            }
+        }
+        return new ArrayList<>(cached);
+    }
+
+    protected void clearCachedEncounters() {
+        encounters = null;
+        timeOfDayEncounters = null;
+    }
+
+    /**
+     * Returns "areas" sorted by the position of their location tag in "locationTagsTraverseOrder",
+     * areas with the same tag keeping their relative order. Areas with no tag, or one not in the list, come first.
+     */
+    protected static List<EncounterArea> sortByTraverseOrder(List<EncounterArea> areas,
+                                                             List<String> locationTagsTraverseOrder) {
+        Map<String, Integer> ranks;
+        synchronized (LOCATION_TAG_RANKS) {
+            ranks = LOCATION_TAG_RANKS.computeIfAbsent(locationTagsTraverseOrder, order -> {
+                Map<String, Integer> r = new HashMap<>();
+                for (int i = 0; i < order.size(); i++) {
+                    r.putIfAbsent(order.get(i), i);
+                }
+                return r;
+            });
+        }
+        return areas.stream()
+                .sorted(Comparator.comparingInt(a -> ranks.getOrDefault(a.getLocationTag(), -1)))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public SpeciesSet getBannedForWildEncounters() {
         return new SpeciesSet();
@@ -556,6 +614,17 @@ public abstract class AbstractRomHandler implements RomHandler {
         return false;
     }
 
+    /**
+     * Returns copies of the trainers in "original", for handlers which keep their trainers after reading them.
+     */
+    protected static List<Trainer> copyTrainers(List<Trainer> original) {
+        List<Trainer> copy = new ArrayList<>(original.size());
+        for (Trainer tr : original) {
+            copy.add(new Trainer(tr));
+        }
+        return copy;
+    }
+
     @Override
     public List<String> getTrainerNames() {
         return getTrainers().stream().map(tr -> tr.name).collect(Collectors.toList());
@@ -563,8 +632,9 @@ public abstract class AbstractRomHandler implements RomHandler {
 
     @Override
     public void setTrainerNames(List<String> trainerNames) {
+        List<Trainer> trainers = getTrainers();
         for (int i = 0; i < trainerNames.size(); i++) {
-            getTrainers().get(i).name = trainerNames.get(i);
+            trainers.get(i).name = trainerNames.get(i);
         }
     }
 
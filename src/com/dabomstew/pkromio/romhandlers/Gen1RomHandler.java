@@ -99,7 +99,7 @@ public class Gen1RomHandler extends AbstractGBCRomHandler {
     private List<Trainer> trainers;
     private List<Item> items;
     private Move[] moves;
-    private Map<Integer, List<MoveLearnt>> movesets;
+    private LearnsetStore movesets;
     private String[] mapNames;
     private SubMap[] maps;
     private boolean xAccNerfed;
@@ -824,6 +824,10 @@ public class Gen1RomHandler extends AbstractGBCRomHandler {
 
     @Override
     public List<EncounterArea> getEncounters(boolean useTimeOfDay) {
+        return cachedEncounters(useTimeOfDay, this::readEncounters);
+    }
+
+    private List<EncounterArea> readEncounters(boolean useTimeOfDay) {
         List<EncounterArea> encounterAreas = new ArrayList<>();
 
         readNormalEncounters(encounterAreas);
@@ -997,13 +1001,12 @@ public class Gen1RomHandler extends AbstractGBCRomHandler {
 
     @Override
     public List<EncounterArea> getSortedEncounters(boolean useTimeOfDay) {
-        return getEncounters(useTimeOfDay).stream()
-                .sorted(Comparator.comparingInt(a -> Gen1Constants.locationTagsTraverseOrder.indexOf(a.getLocationTag())))
-                .collect(Collectors.toList());
+        return sortByTraverseOrder(getEncounters(useTimeOfDay), Gen1Constants.locationTagsTraverseOrder);
     }
 
     @Override
     public void setEncounters(boolean useTimeOfDay, List<EncounterArea> encounterAreas) {
+        clearCachedEncounters();
         Iterator<EncounterArea> areaIterator = encounterAreas.iterator();
 
         writeNormalEncounters(areaIterator);
@@ -1472,7 +1475,7 @@ public class Gen1RomHandler extends AbstractGBCRomHandler {
 
     @Override
     protected void loadMovesLearnt() {
-        Map<Integer, List<MoveLearnt>> movesets = new TreeMap<>();
+        LearnsetStore.Builder movesets = new LearnsetStore.Builder();
         int pointersOffset = romEntry.getIntValue("PokemonMovesetsTableOffset");
         int pokeStatsOffset = romEntry.getIntValue("PokemonStatsOffset");
         int pkmnCount = romEntry.getIntValue("InternalPokemonCount");
@@ -1487,11 +1490,11 @@ public class Gen1RomHandler extends AbstractGBCRomHandler {
                 } else {
                     statsOffset = (pokeRBYToNumTable[i] - 1) * 0x1C + pokeStatsOffset;
                 }
-                List<MoveLearnt> ourMoves = new ArrayList<>();
+                movesets.startMoveset(pk.getNumber());
                 for (int delta = Gen1Constants.bsLevel1MovesOffset; delta < Gen1Constants.bsLevel1MovesOffset + 4; delta++) {
                     if (rom[statsOffset + delta] != 0x00) {
                         int move = moveRomToNumTable[rom[statsOffset + delta] & 0xFF];
-                        ourMoves.add(new MoveLearnt(move, 1));
+                        movesets.add(move, 1);
                     }
                 }
                 // Skip over evolution data
@@ -1508,24 +1511,27 @@ public class Gen1RomHandler extends AbstractGBCRomHandler {
                 while (rom[pointer] != 0) {
                     int move = moveRomToNumTable[rom[pointer + 1] & 0xFF];
                     int level = rom[pointer] & 0xFF;
-                    ourMoves.add(new MoveLearnt(move, level));
+                    movesets.add(move, level);
                     pointer += 2;
                 }
-                movesets.put(pk.getNumber(), ourMoves);
             }
         }
-        setMovesLearnt(movesets);
+        this.movesets = movesets.build();
     }
 
     @Override
     public Map<Integer, List<MoveLearnt>> getMovesLearnt() {
-        return movesets;
+        return movesets.toMap();
     }
 
     @Override
+    public LearnsetStore getLearnsetStore() {
+        return movesets;
+    }
 
+    @Override
     public void setMovesLearnt(Map<Integer, List<MoveLearnt>> movesets) {
-        this.movesets = movesets;
+        this.movesets = LearnsetStore.of(movesets);
     }
 
     @Override
@@ -1534,6 +1540,12 @@ public class Gen1RomHandler extends AbstractGBCRomHandler {
         return new TreeMap<>();
     }
 
+    @Override
+    public EggMoveStore getEggMoveStore() {
+        // Gen 1 does not have egg moves
+        return new EggMoveStore.Builder().build();
+    }
+
     @Override
     public void setEggMoves(Map<Integer, List<Integer>> eggMoves) {
         // Gen 1 does not have egg moves
@@ -2200,7 +2212,7 @@ public class Gen1RomHandler extends AbstractGBCRomHandler {
 
     @Override
     public int internalStringLength(String string) {
-        return translateString(string).length;
+        return translatedLength(string);
     }
 
     @Override
@@ -2823,18 +2835,16 @@ public class Gen1RomHandler extends AbstractGBCRomHandler {
             } else {
                 statsOffset = (pk.getNumber() - 1) * Gen1Constants.baseStatsEntrySize + pokeStatsOffset;
             }
-            List<MoveLearnt> moveset = movesets.get(pk.getNumber());
-            byte[] level1MoveBytes = movesetToLevel1MoveBytes(moveset);
+            byte[] level1MoveBytes = movesetToLevel1MoveBytes(pk.getNumber());
             writeBytes(statsOffset + Gen1Constants.bsLevel1MovesOffset, level1MoveBytes);
         }
     }
 
-    private byte[] movesetToLevel1MoveBytes(List<MoveLearnt> moveset) {
+    private byte[] movesetToLevel1MoveBytes(int species) {
         byte[] level1MoveBytes = new byte[4];
-        for (int i = 0; i < Math.min(4, moveset.size()); i++) {
-            MoveLearnt ml = moveset.get(i);
-            if (ml.level == 1) {
-                level1MoveBytes[i] = (byte) moveNumToRomTable[ml.move];
+        for (int i = 0; i < Math.min(4, movesets.size(species)); i++) {
+            if (movesets.getLevel(species, i) == 1) {
+                level1MoveBytes[i] = (byte) moveNumToRomTable[movesets.getMove(species, i)];
             }
         }
         return level1MoveBytes;
@@ -2850,9 +2860,9 @@ public class Gen1RomHandler extends AbstractGBCRomHandler {
             baos.write(evoBytes, 0, evoBytes.length);
         }
         baos.write(GBConstants.evosAndMovesTerminator);
-        List<MoveLearnt> moveset = movesets.get(pk.getNumber());
-        for (int i = 0; i < moveset.size(); i++) {
-            MoveLearnt ml = moveset.get(i);
+        int species = pk.getNumber();
+        for (int i = 0; i < movesets.size(species); i++) {
+            MoveLearnt ml = new MoveLearnt(movesets.getMove(species, i), movesets.getLevel(species, i));
             if (i <= 4 && ml.level == 1) continue;
             byte[] mlBytes = moveLearntToBytes(ml);
             baos.write(mlBytes, 0, mlBytes.length);
@@ -92,7 +92,7 @@ public class Gen2RomHandler extends AbstractGBCRomHandler {
     private List<Trainer> trainers;
     private List<Item> items;
     private Move[] moves;
-    private Map<Integer, List<MoveLearnt>> movesets;
+    private LearnsetStore movesets;
     private boolean havePatchedFleeing;
     private List<Integer> itemOffs;
     private String[][] mapNames;
@@ -696,6 +696,10 @@ public class Gen2RomHandler extends AbstractGBCRomHandler {
 
     @Override
     public List<EncounterArea> getEncounters(boolean useTimeOfDay) {
+        return cachedEncounters(useTimeOfDay, this::readEncounters);
+    }
+
+    private List<EncounterArea> readEncounters(boolean useTimeOfDay) {
         List<EncounterArea> encounterAreas = new ArrayList<>();
 
         readNormalEncounters(encounterAreas, useTimeOfDay);
@@ -873,13 +877,12 @@ public class Gen2RomHandler extends AbstractGBCRomHandler {
 
     @Override
     public List<EncounterArea> getSortedEncounters(boolean useTimeOfDay) {
-        return getEncounters(useTimeOfDay).stream()
-                .sorted(Comparator.comparingInt(a -> Gen2Constants.locationTagsTraverseOrder.indexOf(a.getLocationTag())))
-                .collect(Collectors.toList());
+        return sortByTraverseOrder(getEncounters(useTimeOfDay), Gen2Constants.locationTagsTraverseOrder);
     }
 
     @Override
     public void setEncounters(boolean useTimeOfDay, List<EncounterArea> encounters) {
+        clearCachedEncounters();
         if (!havePatchedFleeing) {
             patchFleeing();
         }
@@ -1335,7 +1338,7 @@ public class Gen2RomHandler extends AbstractGBCRomHandler {
 
     @Override
     protected void loadMovesLearnt() {
-        Map<Integer, List<MoveLearnt>> movesets = new TreeMap<>();
+        LearnsetStore.Builder movesets = new LearnsetStore.Builder();
         int pointersOffset = romEntry.getIntValue("PokemonMovesetsTableOffset");
         for (int i = 1; i <= Gen2Constants.pokemonCount; i++) {
             int pointer = readPointer(pointersOffset + (i - 1) * 2);
@@ -1348,27 +1351,31 @@ public class Gen2RomHandler extends AbstractGBCRomHandler {
                     pointer += 3;
                 }
             }
-            List<MoveLearnt> ourMoves = new ArrayList<>();
+            movesets.startMoveset(pkmn.getNumber());
             pointer++;
             while (rom[pointer] != 0) {
                 int level = rom[pointer] & 0xFF;
                 int move = rom[pointer + 1] & 0xFF;
-                ourMoves.add(new MoveLearnt(move, level));
+                movesets.add(move, level);
                 pointer += 2;
             }
-            movesets.put(pkmn.getNumber(), ourMoves);
         }
-        setMovesLearnt(movesets);
+        this.movesets = movesets.build();
     }
 
     @Override
     public Map<Integer, List<MoveLearnt>> getMovesLearnt() {
+        return movesets.toMap();
+    }
+
+    @Override
+    public LearnsetStore getLearnsetStore() {
         return movesets;
     }
 
     @Override
     public void setMovesLearnt(Map<Integer, List<MoveLearnt>> movesets) {
-        this.movesets = movesets;
+        this.movesets = LearnsetStore.of(movesets);
     }
 
     @Override
@@ -1378,23 +1385,28 @@ public class Gen2RomHandler extends AbstractGBCRomHandler {
 
     @Override
     public Map<Integer, List<Integer>> getEggMoves() {
-        Map<Integer, List<Integer>> eggMoves = new TreeMap<>();
+        return getEggMoveStore().toMap();
+    }
+
+    @Override
+    public EggMoveStore getEggMoveStore() {
+        EggMoveStore.Builder eggMoves = new EggMoveStore.Builder();
         int tableOffset = romEntry.getIntValue("EggMovesTableOffset");
         for (int i = 1; i <= Gen2Constants.pokemonCount; i++) {
             int pointerOffset = tableOffset + (i - 1) * 2;
             int eggMoveOffset = readPointer(pointerOffset);
-            List<Integer> moves = new ArrayList<>();
             int val = rom[eggMoveOffset] & 0xFF;
+            // only Species with egg moves are included
+            if (val != 0xFF) {
+                eggMoves.startEggMoves(i);
+            }
             while (val != 0xFF) {
-                moves.add(val);
+                eggMoves.add(val);
                 eggMoveOffset++;
                 val = rom[eggMoveOffset] & 0xFF;
             }
-            if (!moves.isEmpty()) {
-                eggMoves.put(i, moves);
-            }
         }
-        return eggMoves;
+        return eggMoves.build();
     }
 
     @Override
@@ -1537,16 +1549,15 @@ public class Gen2RomHandler extends AbstractGBCRomHandler {
     // but may not *always* be true, so take care.
     private void setMovesForOddEggPokemon(int oddEggPokemonNumber, int oddEggPokemonOffset) {
         // Determine the level 5 moveset, minus Dizzy Punch
-        Map<Integer, List<MoveLearnt>> movesets = this.getMovesLearnt();
         List<Move> moves = this.getMoves();
-        List<MoveLearnt> moveset = movesets.get(oddEggPokemonNumber);
         Queue<Integer> level5Moveset = new LinkedList<>();
         int currentMoveIndex = 0;
-        while (moveset.size() > currentMoveIndex && moveset.get(currentMoveIndex).level <= 5) {
+        while (movesets.size(oddEggPokemonNumber) > currentMoveIndex
+                && movesets.getLevel(oddEggPokemonNumber, currentMoveIndex) <= 5) {
             if (level5Moveset.size() == 4) {
                 level5Moveset.remove();
             }
-            level5Moveset.add(moveset.get(currentMoveIndex).move);
+            level5Moveset.add(movesets.getMove(oddEggPokemonNumber, currentMoveIndex));
             currentMoveIndex++;
         }
 
@@ -2205,7 +2216,7 @@ public class Gen2RomHandler extends AbstractGBCRomHandler {
 
     @Override
     public int internalStringLength(String string) {
-        return translateString(string).length;
+        return translatedLength(string);
     }
 
     @Override
@@ -2789,8 +2800,10 @@ public class Gen2RomHandler extends AbstractGBCRomHandler {
             baos.write(evoBytes, 0, evoBytes.length);
         }
         baos.write(GBConstants.evosAndMovesTerminator);
-        for (MoveLearnt ml : movesets.get(pk.getNumber())) {
-            byte[] mlBytes = moveLearntToBytes(ml);
+        int species = pk.getNumber();
+        for (int i = 0; i < movesets.size(species); i++) {
+            byte[] mlBytes = moveLearntToBytes(new MoveLearnt(movesets.getMove(species, i),
+                    movesets.getLevel(species, i)));
             baos.write(mlBytes, 0, mlBytes.length);
         }
         baos.write(GBConstants.evosAndMovesTerminator);
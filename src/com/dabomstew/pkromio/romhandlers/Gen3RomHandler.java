@@ -36,6 +36,7 @@ import com.dabomstew.pkromio.graphics.palettes.Palette;
 import com.dabomstew.pkromio.romhandlers.romentries.Gen3EventTextEntry;
 import com.dabomstew.pkromio.romhandlers.romentries.Gen3RomEntry;
 import com.dabomstew.pkromio.romhandlers.romentries.RomEntry;
+import com.dabomstew.pkromio.text.TextTable;
 import compressors.DSCmp;
 import compressors.DSDecmp;
 
@@ -100,19 +101,7 @@ public class Gen3RomHandler extends AbstractGBRomHandler {
 
     private void loadTextTable(String filename) {
         try {
-            Scanner sc = new Scanner(FileFunctions.openConfig(filename + ".tbl"), "UTF-8");
-            while (sc.hasNextLine()) {
-                String q = sc.nextLine();
-                if (!q.trim().isEmpty()) {
-                    String[] r = q.split("=", 2);
-                    if (r[1].endsWith("\r\n")) {
-                        r[1] = r[1].substring(0, r[1].length() - 2);
-                    }
-                    tb[Integer.parseInt(r[0], 16)] = r[1];
-                    d.put(r[1], (byte) Integer.parseInt(r[0], 16));
-                }
-            }
-            sc.close();
+            textTable.readTableFile(filename);
         } catch (FileNotFoundException e) {
             System.err.println("File not found!");
         }
@@ -129,8 +118,7 @@ public class Gen3RomHandler extends AbstractGBRomHandler {
     private Move[] moves;
     private boolean jamboMovesetHack;
     private boolean havePatchedObedience;
-    private String[] tb;
-    public Map<String, Byte> d;
+    private final TextTable textTable = new TextTable();
     private String[] abilityNames;
     private boolean mapLoadingDone;
     private List<Integer> itemOffs;
@@ -327,8 +315,8 @@ public class Gen3RomHandler extends AbstractGBRomHandler {
 
     @Override
     protected void initTextTables() {
-        tb = new String[256];
-        d = new HashMap<>();
+        textTable.clear();
+        textTable.setVariablePrefix(Gen3Constants.textVariable);
         loadTextTable(romEntry.getTableFile());
     }
 
@@ -1242,50 +1230,23 @@ public class Gen3RomHandler extends AbstractGBRomHandler {
         StringBuilder string = new StringBuilder();
         for (int i = 0; i < maxLength; i++) {
             byte currChar = rom[offset + i];
-            String translated = tb[Byte.toUnsignedInt(currChar)];
+            String translated = textTable.decode(currChar);
             if (translated != null) {
                 string.append(translated);
             } else {
                 if (currChar == Gen3Constants.textTerminator) {
                     break;
                 } else if (currChar == Gen3Constants.textVariable) {
-                    int nextChar = rom[offset + i + 1] & 0xFF;
-                    string.append("\\v").append(String.format("%02X", nextChar));
+                    string.append(TextTable.variableEscape(rom[offset + i + 1]));
                     i++;
                 } else {
-                    string.append("\\x").append(String.format("%02X", currChar));
+                    string.append(TextTable.hexEscape(currChar));
                 }
             }
         }
         return string.toString();
     }
 
-    private byte[] translateString(String text) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        while (!text.isEmpty()) {
-            int i = Math.max(0, 4 - text.length());
-            if (text.charAt(0) == '\\' && text.charAt(1) == 'x') {
-                baos.write((byte) Integer.parseInt(text.substring(2, 4), 16));
-                text = text.substring(4);
-            } else if (text.charAt(0) == '\\' && text.charAt(1) == 'v') {
-                baos.write(Gen3Constants.textVariable);
-                baos.write((byte) Integer.parseInt(text.substring(2, 4), 16));
-                text = text.substring(4);
-            } else {
-                while (!(d.containsKey(text.substring(0, 4 - i)) || (i == 4))) {
-                    i++;
-                }
-                if (i == 4) {
-                    text = text.substring(1);
-                } else {
-                    baos.write(d.get(text.substring(0, 4 - i)));
-                    text = text.substring(4 - i);
-                }
-            }
-        }
-        return baos.toByteArray();
-    }
-
     private String readFixedLengthString(int offset, int length) {
         return readString(offset, length);
     }
@@ -1295,9 +1256,7 @@ public class Gen3RomHandler extends AbstractGBRomHandler {
     }
 
     private void writeFixedLengthString(String str, int offset, int length) {
-        byte[] translated = translateString(str);
-        int len = Math.min(translated.length, length);
-        System.arraycopy(translated, 0, rom, offset, len);
+        int len = textTable.encode(str, rom, offset, length);
         if (len < length) {
             writeByte(offset + len, Gen3Constants.textTerminator);
             len++;
@@ -1313,9 +1272,8 @@ public class Gen3RomHandler extends AbstractGBRomHandler {
         System.out.println("writeVariableLengthString() is deprecated in favor of rewriteVariableLengthString(). " +
                 "A variable length string should always have a pointer to it, and rewriteVariableLengthString() " +
                 "handles that better.");
-        byte[] translated = translateString(str);
-        System.arraycopy(translated, 0, rom, offset, translated.length);
-        writeByte(offset + translated.length, Gen3Constants.textTerminator);
+        int len = textTable.encode(str, rom, offset, rom.length - offset);
+        writeByte(offset + len, Gen3Constants.textTerminator);
     }
 
     private int lengthOfStringAt(int offset) {
@@ -1518,6 +1476,10 @@ public class Gen3RomHandler extends AbstractGBRomHandler {
 
     @Override
     public List<EncounterArea> getEncounters(boolean useTimeOfDay) {
+        return cachedEncounters(useTimeOfDay, this::readEncounters);
+    }
+
+    private List<EncounterArea> readEncounters(boolean useTimeOfDay) {
         if (!mapLoadingDone) {
             preprocessMaps();
             mapLoadingDone = true;
@@ -1617,14 +1579,12 @@ public class Gen3RomHandler extends AbstractGBRomHandler {
 
     @Override
     public List<EncounterArea> getSortedEncounters(boolean useTimeOfDay) {
-        List<String> locationTagsTraverseOrder = Gen3Constants.getLocationTagsTraverseOrder(getROMType());
-        return getEncounters(useTimeOfDay).stream()
-                .sorted(Comparator.comparingInt(a -> locationTagsTraverseOrder.indexOf(a.getLocationTag())))
-                .collect(Collectors.toList());
+        return sortByTraverseOrder(getEncounters(useTimeOfDay), Gen3Constants.getLocationTagsTraverseOrder(getROMType()));
     }
 
     @Override
     public void setEncounters(boolean useTimeOfDay, List<EncounterArea> encounterAreas) {
+        clearCachedEncounters();
         // Support Deoxys/Mew catches in E/FR/LG
         attemptObedienceEvolutionPatches();
 
@@ -2057,26 +2017,37 @@ public class Gen3RomHandler extends AbstractGBRomHandler {
 
     @Override
 	public Map<Integer, List<MoveLearnt>> getMovesLearnt() {
-		Map<Integer, List<MoveLearnt>> movesets = new TreeMap<>();
+		return getLearnsetStore().toMap();
+	}
+
+	@Override
+	public LearnsetStore getLearnsetStore() {
+		LearnsetStore.Builder movesets = new LearnsetStore.Builder();
 		int baseOffset = romEntry.getIntValue("PokemonMovesets");
 		for (int i = 1; i <= numRealPokemon; i++) {
 			Species pk = speciesList.get(i);
 			int pointerOffset = baseOffset + (pokedexToInternal[pk.getNumber()]) * 4;
 			int movesLearntOffset = readPointer(pointerOffset);
-			List<MoveLearnt> moves = readMovesLearnt(movesLearntOffset);
-			movesets.put(pk.getNumber(), moves);
+			movesets.startMoveset(pk.getNumber());
+			readMovesLearnt(movesLearntOffset, movesets);
 		}
-		return movesets;
+		return movesets.build();
 	}
 
-	private List<MoveLearnt> readMovesLearnt(int offset) {
-		List<MoveLearnt> moves = new ArrayList<>();
+	/**
+	 * Reads the MoveLearnt-s entry at "offset" into "movesets", if it is not null.
+	 *
+	 * @return The number of moves in the entry.
+	 */
+	private int readMovesLearnt(int offset, LearnsetStore.Builder movesets) {
+		int count = 0;
 		if (jamboMovesetHack) {
 			while ((rom[offset] & 0xFF) != 0x00 || (rom[offset + 1] & 0xFF) != 0x00
 					|| (rom[offset + 2] & 0xFF) != 0xFF) {
-                int move = readWord(offset);
-                int level = rom[offset + 2] & 0xFF;
-				moves.add(new MoveLearnt(move, level));
+				if (movesets != null) {
+					movesets.add(readWord(offset), rom[offset + 2] & 0xFF);
+				}
+				count++;
 				offset += 3;
 			}
 		} else {
@@ -2086,11 +2057,14 @@ public class Gen3RomHandler extends AbstractGBRomHandler {
 				if ((rom[offset + 1] & 0x01) == 0x01) {
 					move += 0x100;
 				}
-				moves.add(new MoveLearnt(move, level));
+				if (movesets != null) {
+					movesets.add(move, level);
+				}
+				count++;
 				offset += 2;
 			}
 		}
-		return moves;
+		return count;
 	}
 
 	@Override
@@ -2140,39 +2114,42 @@ public class Gen3RomHandler extends AbstractGBRomHandler {
 	 * bytes.
 	 */
 	private int lengthOfMovesLearntAt(int offset) {
-		List<MoveLearnt> moves = readMovesLearnt(offset);
-		return movesLearntToBytes(moves).length;
+		int entrySize = jamboMovesetHack ? 3 : 2;
+		int terminatorLength = jamboMovesetHack ? Gen3Constants.jamboMovesLearntTerminator.length
+				: Gen3Constants.vanillaMovesLearntTerminator.length;
+		return entrySize * readMovesLearnt(offset, null) + terminatorLength;
 	}
 
     @Override
     public Map<Integer, List<Integer>> getEggMoves() {
-        Map<Integer, List<Integer>> eggMoves = new TreeMap<>();
+        return getEggMoveStore().toMap();
+    }
+
+    @Override
+    public EggMoveStore getEggMoveStore() {
+        EggMoveStore.Builder eggMoves = new EggMoveStore.Builder();
         int offset = romEntry.getIntValue("EggMoves");
-        int currentSpecies = 0;
-        List<Integer> currentMoves = new ArrayList<>();
         int val = FileFunctions.read2ByteInt(rom, offset);
 
         // Check egg_moves.h in the Gen 3 decomps for more info on how this algorithm works.
+        // Species are only started once their first move is read, so those without moves are left out.
+        boolean started = false;
+        int currentSpecies = 0;
         while (val != 0xFFFF) {
             if (val > 20000) {
-                int species = val - 20000;
-                if (!currentMoves.isEmpty()) {
-                    eggMoves.put(internalToPokedex[currentSpecies], currentMoves);
-                }
-                currentSpecies = species;
-                currentMoves = new ArrayList<>();
+                currentSpecies = val - 20000;
+                started = false;
             } else {
-                currentMoves.add(val);
+                if (!started) {
+                    eggMoves.startEggMoves(internalToPokedex[currentSpecies]);
+                    started = true;
+                }
+                eggMoves.add(val);
             }
             offset += 2;
             val = FileFunctions.read2ByteInt(rom, offset);
         }
-
-        // Need to make sure the last entry gets recorded too
-        if (!currentMoves.isEmpty()) {
-            eggMoves.put(internalToPokedex[currentSpecies], currentMoves);
-        }
-        return eggMoves;
+        return eggMoves.build();
     }
 
     @Override
@@ -2588,7 +2565,7 @@ public class Gen3RomHandler extends AbstractGBRomHandler {
 		return RomFunctions.search(rom, minOffset, maxOffset, searchNeedle).stream().mapToInt(i -> i).toArray();
 	}
 
-    private RomFunctions.StringSizeDeterminer ssd = encodedText -> translateString(encodedText).length;
+    private RomFunctions.StringSizeDeterminer ssd = textTable::encodedLength;
 
     @Override
     public int getTMCount() {
@@ -3524,7 +3501,7 @@ public class Gen3RomHandler extends AbstractGBRomHandler {
 
     @Override
     public int internalStringLength(String string) {
-        return translateString(string).length;
+        return textTable.encodedLength(string);
     }
 
     @Override
@@ -4693,12 +4670,7 @@ public class Gen3RomHandler extends AbstractGBRomHandler {
      * length of the uncompressed data, but the length of it when compressed.
      */
     private int lengthOfCompressedDataAt(int pointerOffset) {
-        // Yes, the "easiest" way to check how long compressed data is to uncompress it
-        // and then compress it back.
-        // A better solution would require understanding the inner workings of the LZ10.
-        byte[] uncompressed = DSDecmp.Decompress(rom, pointerOffset);
-        byte[] compressed = DSCmp.compressLZ10(uncompressed);
-        return compressed.length;
+        return DSDecmp.lengthOfCompressed(rom, pointerOffset);
     }
 
 	private void rewriteVariableLengthString(int pointerOffset, String string) {
@@ -4711,9 +4683,10 @@ public class Gen3RomHandler extends AbstractGBRomHandler {
 	}
 
 	private byte[] variableLengthStringToBytes(String string) {
-		byte[] translated = translateString(string);
-		byte[] newData = Arrays.copyOf(translated, translated.length + 1);
-		newData[newData.length - 1] = (byte) 0xFF;
+		byte[] buffer = new byte[TextTable.maxEncodedLength(string) + 1];
+		int len = textTable.encode(string, buffer, 0, buffer.length - 1);
+		byte[] newData = Arrays.copyOf(buffer, len + 1);
+		newData[len] = (byte) 0xFF;
 		return newData;
 	}
 
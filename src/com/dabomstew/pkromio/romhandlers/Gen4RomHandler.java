@@ -40,6 +40,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 /**
@@ -82,6 +83,10 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 	private NARCArchive msgNarc;
 	private NARCArchive scriptNarc;
 	private NARCArchive eventNarc;
+	// read on first use by getTrainers(), which hands out copies, and only written back by prepareSaveRom()
+	// if setTrainers() was called
+	private List<Trainer> trainers;
+	private boolean trainersChanged;
 	private List<String> abilityNames;
 	private boolean loadedWildMapNames;
 	private Map<Integer, String> wildMapNames, headbuttMapNames;
@@ -89,8 +94,7 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 	private int pickupItemsTableOffset, rarePickupItemsTableOffset;
 	private TypeTable typeTable;
 	private long actualArm9CRC32;
-	private Map<Integer, Long> actualOverlayCRC32s;
-	private Map<String, Long> actualFileCRC32s;
+	private RomChecksums actualCRC32s;
 	private boolean tmsReusable;
 
 	private Gen4RomEntry romEntry;
@@ -139,6 +143,8 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 		loadItems();
 		loadPokemonStats();
 		loadMoves();
+		trainers = null;
+		trainersChanged = false;
 		loadPokemonPalettes();
 		abilityNames = getStrings(romEntry.getIntValue("AbilityNamesTextOffset"));
 		loadedWildMapNames = false;
@@ -149,11 +155,7 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 				|| (romEntry.getRomType() == Gen4Constants.Type_HGSS
 						&& romEntry.hasTweakFile("NewRoamerSubroutineTweak"));
 
-		try {
-			computeCRC32sForRom();
-		} catch (IOException e) {
-			throw new RomIOException(e);
-		}
+		startCRC32sForRom();
 
 		refreshTypeEffectivenessOffset();
 
@@ -820,6 +822,10 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 	@Override
 	protected void prepareSaveRom() {
 		super.prepareSaveRom();
+		if (trainersChanged) {
+			writeTrainers(trainers);
+			trainersChanged = false;
+		}
 		try {
 			writeNARC(romEntry.getFile("Text"), msgNarc);
 		} catch (IOException e) {
@@ -1406,6 +1412,10 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 
 	@Override
 	public List<EncounterArea> getEncounters(boolean useTimeOfDay) {
+		return cachedEncounters(useTimeOfDay, this::readEncounters);
+	}
+
+	private List<EncounterArea> readEncounters(boolean useTimeOfDay) {
 		if (!loadedWildMapNames) {
 			loadWildMapNames();
 		}
@@ -1988,14 +1998,12 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 
 	@Override
 	public List<EncounterArea> getSortedEncounters(boolean useTimeOfDay) {
-		List<String> locationTagsTraverseOrder = Gen4Constants.getLocationTagsTraverseOrder(getROMType());
-		return getEncounters(useTimeOfDay).stream()
-				.sorted(Comparator.comparingInt(a -> locationTagsTraverseOrder.indexOf(a.getLocationTag())))
-				.collect(Collectors.toList());
+		return sortByTraverseOrder(getEncounters(useTimeOfDay), Gen4Constants.getLocationTagsTraverseOrder(getROMType()));
 	}
 
 	@Override
 	public void setEncounters(boolean useTimeOfDay, List<EncounterArea> encounterAreas) {
+		clearCachedEncounters();
 		try {
 			if (romEntry.getRomType() == Gen4Constants.Type_HGSS) {
 				setEncountersHGSS(useTimeOfDay, encounterAreas);
@@ -2763,6 +2771,13 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 
 	@Override
 	public List<Trainer> getTrainers() {
+		if (trainers == null) {
+			trainers = readTrainers();
+		}
+		return copyTrainers(trainers);
+	}
+
+	private List<Trainer> readTrainers() {
 		List<Trainer> allTrainers = new ArrayList<>();
 		try {
 			NARCArchive trainers = this.readNARC(romEntry.getFile("TrainerData"));
@@ -2792,7 +2807,7 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 				if (battleStyle != 0)
 					tr.currBattleStyle.setStyle(BattleStyle.Style.DOUBLE_BATTLE);
 				int pokeOffs = 0;
-				tr.fullDisplayName = tclasses.get(tr.trainerclass) + " " + tnames.get(i - 1);
+				tr.fullDisplayName = trainerDisplayName(tr, tclasses, tnames);
 				for (int poke = 0; poke < numPokes; poke++) {
 					// Structure is
 					// IV SB LV LV SP SP FRM FRM
@@ -2857,6 +2872,25 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 		return allTrainers;
 	}
 
+	private static String trainerDisplayName(Trainer tr, List<String> tclasses, List<String> tnames) {
+		return tclasses.get(tr.trainerclass) + " " + tnames.get(tr.index - 1);
+	}
+
+	/**
+	 * The full display names of the trainers come from the trainer (class) name text, so once that changes,
+	 * those of the already read trainers must follow.
+	 */
+	private void updateTrainerDisplayNames() {
+		if (trainers == null) {
+			return;
+		}
+		List<String> tclasses = getTrainerClassNames();
+		List<String> tnames = getTrainerNames();
+		for (Trainer tr : trainers) {
+			tr.fullDisplayName = trainerDisplayName(tr, tclasses, tnames);
+		}
+	}
+
 	@Override
 	public List<Integer> getMainPlaythroughTrainers() {
 		return new ArrayList<>(); // Not implemented
@@ -2891,14 +2925,19 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 		if (romEntry.getRomType() == Gen4Constants.Type_HGSS) {
 			fixAbilitySlotValuesForHGSS(trainerData);
 		}
+		trainers = copyTrainers(trainerData);
+		trainersChanged = true;
+	}
+
+	private void writeTrainers(List<Trainer> trainerData) {
 		Iterator<Trainer> allTrainers = trainerData.iterator();
 		try {
 			NARCArchive trainers = this.readNARC(romEntry.getFile("TrainerData"));
 			NARCArchive trpokes = new NARCArchive();
 
-			// Get current movesets in case we need to reset them for certain
-			// trainer mons.
-			Map<Integer, List<MoveLearnt>> movesets = this.getMovesLearnt();
+			// The movesets as they are saved, in case we need to reset them for
+			// certain trainer mons.
+			LearnsetStore movesets = getLearnsetStore();
 
 			// empty entry
 			trpokes.files.add(new byte[] { 0, 0, 0, 0, 0, 0, 0, 0 });
@@ -3130,7 +3169,12 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 
 	@Override
 	public Map<Integer, List<MoveLearnt>> getMovesLearnt() {
-		Map<Integer, List<MoveLearnt>> movesets = new TreeMap<>();
+		return getLearnsetStore().toMap();
+	}
+
+	@Override
+	public LearnsetStore getLearnsetStore() {
+		LearnsetStore.Builder movesets = new LearnsetStore.Builder();
 		try {
 			NARCArchive movesLearnt = this.readNARC(romEntry.getFile("PokemonMovesets"));
 			int formeCount = Gen4Constants.getFormeCount(romEntry.getRomType());
@@ -3143,22 +3187,21 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 					rom = movesLearnt.files.get(i);
 				}
 				int moveDataLoc = 0;
-				List<MoveLearnt> learnt = new ArrayList<>();
+				movesets.startMoveset(pkmn.getNumber());
 				while ((rom[moveDataLoc] & 0xFF) != 0xFF || (rom[moveDataLoc + 1] & 0xFF) != 0xFF) {
 					int move = (rom[moveDataLoc] & 0xFF);
 					int level = (rom[moveDataLoc + 1] & 0xFE) >> 1;
 					if ((rom[moveDataLoc + 1] & 0x01) == 0x01) {
 						move += 256;
 					}
-					learnt.add(new MoveLearnt(move, level));
+					movesets.add(move, level);
 					moveDataLoc += 2;
 				}
-				movesets.put(pkmn.getNumber(), learnt);
 			}
 		} catch (IOException e) {
 			throw new RomIOException(e);
 		}
-		return movesets;
+		return movesets.build();
 	}
 
 	@Override
@@ -3211,25 +3254,30 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 
 	@Override
 	public Map<Integer, List<Integer>> getEggMoves() {
-		Map<Integer, List<Integer>> eggMoves = new TreeMap<>();
+		return getEggMoveStore().toMap();
+	}
+
+	@Override
+	public EggMoveStore getEggMoveStore() {
+		EggMoveStore.Builder eggMoves = new EggMoveStore.Builder();
 		try {
 			if (romEntry.getRomType() == Gen4Constants.Type_HGSS) {
 				NARCArchive eggMoveNARC = this.readNARC(romEntry.getFile("EggMoves"));
 				byte[] eggMoveData = eggMoveNARC.files.get(0);
-				eggMoves = readEggMoves(eggMoveData, 0);
+				readEggMoves(eggMoveData, 0, eggMoves);
 			} else {
 				byte[] fieldOvl = readOverlay(romEntry.getIntValue("FieldOvlNumber"));
 				int offset = find(fieldOvl, Gen4Constants.dpptEggMoveTablePrefix);
 				if (offset > 0) {
 					offset += Gen4Constants.dpptEggMoveTablePrefix.length() / 2; // because it was a prefix
-					eggMoves = readEggMoves(fieldOvl, offset);
+					readEggMoves(fieldOvl, offset, eggMoves);
 				}
 			}
 		} catch (IOException e) {
 			throw new RomIOException(e);
 		}
 
-		return eggMoves;
+		return eggMoves.build();
 	}
 
 	/**
@@ -3237,7 +3285,7 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 	 * I.e., all the Pokemon's and all of its prevos' egg moves.
 	 */
 	private Set<Integer> getEffectiveEggMoves(Species pk) {
-		Map<Integer, List<Integer>> allEggMoves = getEggMoves();
+		EggMoveStore allEggMoves = getEggMoveStore();
 		Set<Integer> eggMoves = new HashSet<>();
 
 		Stack<Species> stack = new Stack<>();
@@ -3251,8 +3299,8 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 					stack.push(evo.getFrom());
 				}
 			}
-			if (allEggMoves.containsKey(curr.getNumber())) {
-				eggMoves.addAll(allEggMoves.get(curr.getNumber()));
+			for (int i = 0; i < allEggMoves.size(curr.getNumber()); i++) {
+				eggMoves.add(allEggMoves.getMove(curr.getNumber(), i));
 			}
 		}
 
@@ -3282,36 +3330,29 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 		}
 	}
 
-	private Map<Integer, List<Integer>> readEggMoves(byte[] data, int startingOffset) {
-		Map<Integer, List<Integer>> eggMoves = new TreeMap<>();
+	private void readEggMoves(byte[] data, int startingOffset, EggMoveStore.Builder eggMoves) {
 		int currentOffset = startingOffset;
 		int currentSpecies = 0;
-		List<Integer> currentMoves = new ArrayList<>();
+		boolean started = false;
 		int val = FileFunctions.read2ByteInt(data, currentOffset);
 
 		// Egg move data is stored exactly like in Gen 3, so check egg_moves.h in the
 		// Gen 3 decomps for more info on how this algorithm works.
+		// Species are only started once their first move is read, so those without moves are left out.
 		while (val != 0xFFFF) {
 			if (val > 20000) {
-				int species = val - 20000;
-				if (!currentMoves.isEmpty()) {
-					eggMoves.put(currentSpecies, currentMoves);
-				}
-				currentSpecies = species;
-				currentMoves = new ArrayList<>();
+				currentSpecies = val - 20000;
+				started = false;
 			} else {
-				currentMoves.add(val);
+				if (!started) {
+					eggMoves.startEggMoves(currentSpecies);
+					started = true;
+				}
+				eggMoves.add(val);
 			}
 			currentOffset += 2;
 			val = FileFunctions.read2ByteInt(data, currentOffset);
 		}
-
-		// Need to make sure the last entry gets recorded too
-		if (!currentMoves.isEmpty()) {
-			eggMoves.put(currentSpecies, currentMoves);
-		}
-
-		return eggMoves;
 	}
 
 	private void writeEggMoves(Map<Integer, List<Integer>> eggMoves, byte[] data, int startingOffset) {
@@ -4844,7 +4885,7 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 
 		// rewrite, only compressed if they were compressed before
 		setStrings(romEntry.getIntValue("TrainerNamesTextOffset"), newTNames, lastStringsCompressed);
-
+		updateTrainerDisplayNames();
 	}
 
 	@Override
@@ -4866,6 +4907,7 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 	@Override
 	public void setTrainerClassNames(List<String> trainerClassNames) {
 		setStrings(romEntry.getIntValue("TrainerClassesTextOffset"), trainerClassNames);
+		updateTrainerDisplayNames();
 	}
 
 	@Override
@@ -6077,20 +6119,17 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 		}
 	}
 
-	private void computeCRC32sForRom() throws IOException {
-		this.actualOverlayCRC32s = new HashMap<>();
-		this.actualFileCRC32s = new HashMap<>();
+	private void startCRC32sForRom() {
+		// the ARM9 is already in memory, so only the overlays and files are read in the background
 		this.actualArm9CRC32 = FileFunctions.getCRC32(arm9);
+		Map<String, Callable<Long>> tasks = new LinkedHashMap<>();
 		for (int overlayNumber : romEntry.getOverlayExpectedCRC32Keys()) {
-			byte[] overlay = readOverlay(overlayNumber);
-			long crc32 = FileFunctions.getCRC32(overlay);
-			this.actualOverlayCRC32s.put(overlayNumber, crc32);
+			tasks.put("overlay/" + overlayNumber, overlayCRC32Task(overlayNumber));
 		}
 		for (String fileKey : romEntry.getFileKeys()) {
-			byte[] file = readFile(romEntry.getFile(fileKey));
-			long crc32 = FileFunctions.getCRC32(file);
-			this.actualFileCRC32s.put(fileKey, crc32);
+			tasks.put("file/" + fileKey, fileCRC32Task(romEntry.getFile(fileKey)));
 		}
+		this.actualCRC32s = startChecksums(romEntry.getName(), tasks);
 	}
 
 	@Override
@@ -6108,7 +6147,7 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 		System.out.println("Overlays");
 		for (int overlayNumber : romEntry.getOverlayExpectedCRC32Keys()) {
 			long expectedCRC32 = romEntry.getOverlayExpectedCRC32(overlayNumber);
-			long actualCRC32 = actualOverlayCRC32s.get(overlayNumber);
+			long actualCRC32 = actualCRC32s.get("overlay/" + overlayNumber);
 			if (logStream != null) {
 				System.out.println("#" + overlayNumber + "\texpected:\t" + Long.toHexString(expectedCRC32).toUpperCase());
 				System.out.println("#" + overlayNumber + "\tactual:  \t" + Long.toHexString(actualCRC32).toUpperCase());
@@ -6121,7 +6160,7 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 		System.out.println("Filekeys");
 		for (String fileKey : romEntry.getFileKeys()) {
 			long expectedCRC32 = romEntry.getFileExpectedCRC32(fileKey);
-			long actualCRC32 = actualFileCRC32s.get(fileKey);
+			long actualCRC32 = actualCRC32s.get("file/" + fileKey);
 			if (logStream != null) {
 				System.out.println(fileKey + "\texpected:\t" + Long.toHexString(expectedCRC32).toUpperCase());
 				System.out.println(fileKey + "\tactual:  \t" + Long.toHexString(actualCRC32).toUpperCase());
@@ -6301,8 +6340,7 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 			super.beforeGet();
 			if (otherPokeGraphicsNARC == null) {
 				try {
-					String NARCpath = getRomEntry().getFile("OtherPokemonGraphics");
-					otherPokeGraphicsNARC = readNARC(NARCpath);
+					otherPokeGraphicsNARC = readGraphicsNARC("OtherPokemonGraphics");
 				} catch (IOException e) {
 					throw new RuntimeException(e);
 				}
@@ -6377,16 +6415,10 @@ public class Gen4RomHandler extends AbstractDSRomHandler {
 		private Palette getPalette() {
 			// placeholder code, until the form rewrite comes along
 			if (pk.isBaseForme() && forme != 0) {
-				String NARCpath = getRomEntry().getFile("OtherPokemonGraphics");
-				NARCArchive NARC;
-				try {
-					NARC = readNARC(NARCpath);
-				} catch (IOException e) {
-					throw new RomIOException(e);
-				}
-
+				// the same NARC beforeGet() has read
 				int[][] palettes = Gen4Constants.getOtherPokemonGraphicsPalettes(romEntry.getRomType()).get(pk.getNumber());
-				return shiny ? readPalette(NARC, palettes[1][forme]) : readPalette(NARC, palettes[0][forme]);
+				return shiny ? readPalette(otherPokeGraphicsNARC, palettes[1][forme])
+						: readPalette(otherPokeGraphicsNARC, palettes[0][forme]);
 			} else {
 				return shiny ? pk.getShinyPalette() : pk.getNormalPalette();
 			}
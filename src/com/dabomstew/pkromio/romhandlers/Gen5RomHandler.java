@@ -25,6 +25,7 @@ package com.dabomstew.pkromio.romhandlers;
 import com.dabomstew.pkromio.FileFunctions;
 import com.dabomstew.pkromio.GFXFunctions;
 import com.dabomstew.pkromio.MiscTweak;
+import com.dabomstew.pkromio.RomChecksums;
 import com.dabomstew.pkromio.RomFunctions;
 import com.dabomstew.pkromio.constants.*;
 import com.dabomstew.pkromio.exceptions.RomIOException;
@@ -45,6 +46,7 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 /**
@@ -128,10 +130,13 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
     private Boolean typeEffectivenessStoredInArm9 = null; // Tracks whether the active type chart lives in ARM9 or an overlay
     private int resolvedTypeEffectivenessOffset = -1; // Actual offset used when reading/writing the type chart
     private long actualArm9CRC32;
-    private Map<Integer, Long> actualOverlayCRC32s;
-    private Map<String, Long> actualFileCRC32s;
+    private RomChecksums actualCRC32s;
     
     private NARCArchive pokeNarc, moveNarc, stringsNarc, storyTextNarc, scriptNarc, shopNarc;
+    // read on first use by getTrainers(), which hands out copies, and only written back by prepareSaveRom()
+    // if setTrainers() was called
+    private List<Trainer> trainers;
+    private boolean trainersChanged;
 
     @Override
     protected int getARM9Offset() {
@@ -190,6 +195,8 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
         loadItems();
         loadPokemonStats();
         loadMoves();
+        trainers = null;
+        trainersChanged = false;
         loadPokemonPalettes();
 
         abilityNames = getStrings(false, romEntry.getIntValue("AbilityNamesTextOffset"));
@@ -202,11 +209,7 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
         
         loadedWildMapNames = false;
 
-        try {
-            computeCRC32sForRom();
-        } catch (IOException e) {
-            throw new RomIOException(e);
-        }
+        startCRC32sForRom();
 
         // Do all ARM9 extension here to keep it simple.
         // Some of the extra space is ear-marked for patches, and some for repointing data.
@@ -564,6 +567,10 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
     @Override
     protected void prepareSaveRom() {
         super.prepareSaveRom();
+        if (trainersChanged) {
+            writeTrainers(trainers);
+            trainersChanged = false;
+        }
         try {
             writeNARC(romEntry.getFile("TextStrings"), stringsNarc);
             writeNARC(romEntry.getFile("TextStory"), storyTextNarc);
@@ -1026,6 +1033,10 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
 
     @Override
     public List<EncounterArea> getEncounters(boolean useTimeOfDay) {
+        return cachedEncounters(useTimeOfDay, this::readEncounters);
+    }
+
+    private List<EncounterArea> readEncounters(boolean useTimeOfDay) {
         if (!loadedWildMapNames) {
             loadWildMapNames();
         }
@@ -1103,14 +1114,12 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
 
     @Override
     public List<EncounterArea> getSortedEncounters(boolean useTimeOfDay) {
-        List<String> locationTagsTraverseOrder = Gen5Constants.getLocationTagsTraverseOrder(getROMType());
-        return getEncounters(useTimeOfDay).stream()
-                .sorted(Comparator.comparingInt(a -> locationTagsTraverseOrder.indexOf(a.getLocationTag())))
-                .collect(Collectors.toList());
+        return sortByTraverseOrder(getEncounters(useTimeOfDay), Gen5Constants.getLocationTagsTraverseOrder(getROMType()));
     }
 
     @Override
     public void setEncounters(boolean useTimeOfDay, List<EncounterArea> encounterAreas) {
+        clearCachedEncounters();
         try {
             NARCArchive encounterNARC = readNARC(romEntry.getFile("WildPokemon"));
             Iterator<EncounterArea> areaIterator = encounterAreas.iterator();
@@ -1378,6 +1387,13 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
 
     @Override
     public List<Trainer> getTrainers() {
+        if (trainers == null) {
+            trainers = readTrainers();
+        }
+        return copyTrainers(trainers);
+    }
+
+    private List<Trainer> readTrainers() {
         List<Trainer> allTrainers = new ArrayList<>();
         try {
             NARCArchive trainers = this.readNARC(romEntry.getFile("TrainerData"));
@@ -1406,7 +1422,7 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
                 tr.trainerclass = trainer[1] & 0xFF;
                 int numPokes = trainer[3] & 0xFF;
                 int pokeOffs = 0;
-                tr.fullDisplayName = tclasses.get(tr.trainerclass) + " " + tnames.get(i - 1);
+                tr.fullDisplayName = trainerDisplayName(tr, tclasses, tnames);
                 int battleType = trainer[2] & 0xFF;
                 switch (battleType) {
                     case 0:
@@ -1479,8 +1495,7 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
                         Trainer tr = new Trainer();
                         tr.index = allTrainers.size() + 1;
                         tr.poketype = 3; // have held items and custom moves
-                        int nameAndClassIndex = Gen5Constants.bw2DriftveilTrainerOffsets.get(trno);
-                        tr.fullDisplayName = tclasses.get(Gen5Constants.normalTrainerClassLength + nameAndClassIndex) + " " + tnames.get(Gen5Constants.normalTrainerNameLength + nameAndClassIndex);
+                        tr.fullDisplayName = driftveilTrainerDisplayName(trno, tclasses, tnames);
                         tr.requiresUniqueHeldItems = true;
                         int pokemonNum = 6;
                         if (trno < 2) {
@@ -1530,6 +1545,38 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
         return fallback;
     }
 
+    private static String trainerDisplayName(Trainer tr, List<String> tclasses, List<String> tnames) {
+        return tclasses.get(tr.trainerclass) + " " + tnames.get(tr.index - 1);
+    }
+
+    private static String driftveilTrainerDisplayName(int trno, List<String> tclasses, List<String> tnames) {
+        int nameAndClassIndex = Gen5Constants.bw2DriftveilTrainerOffsets.get(trno);
+        return tclasses.get(Gen5Constants.normalTrainerClassLength + nameAndClassIndex) + " "
+                + tnames.get(Gen5Constants.normalTrainerNameLength + nameAndClassIndex);
+    }
+
+    /**
+     * The full display names of the trainers come from the trainer (class) name text, so once that changes,
+     * those of the already read trainers must follow.
+     */
+    private void updateTrainerDisplayNames() {
+        if (trainers == null) {
+            return;
+        }
+        List<String> tclasses = getTrainerClassNames();
+        List<String> tnames = getTrainerNames();
+        // the PWT Driftveil trainers come last, after all those in the trainer data
+        int normalTrainers = trainers.size();
+        if (romEntry.getRomType() == Gen5Constants.Type_BW2 && !romEntry.getFile("DriftveilPokemon").isEmpty()) {
+            normalTrainers -= Gen5Constants.bw2DriftveilTrainerOffsets.size();
+        }
+        for (int i = 0; i < trainers.size(); i++) {
+            Trainer tr = trainers.get(i);
+            tr.fullDisplayName = i < normalTrainers ? trainerDisplayName(tr, tclasses, tnames)
+                    : driftveilTrainerDisplayName(i - normalTrainers, tclasses, tnames);
+        }
+    }
+
     @Override
     public List<Integer> getMainPlaythroughTrainers() {
         if (romEntry.getRomType() == Gen5Constants.Type_BW) { // BW1
@@ -1578,13 +1625,18 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
 
     @Override
     public void setTrainers(List<Trainer> trainerData) {
+        trainers = copyTrainers(trainerData);
+        trainersChanged = true;
+    }
+
+    private void writeTrainers(List<Trainer> trainerData) {
         Iterator<Trainer> allTrainers = trainerData.iterator();
         try {
             NARCArchive trainers = this.readNARC(romEntry.getFile("TrainerData"));
             NARCArchive trpokes = new NARCArchive();
-            // Get current movesets in case we need to reset them for certain
-            // trainer mons.
-            Map<Integer, List<MoveLearnt>> movesets = this.getMovesLearnt();
+            // The movesets as they are saved, in case we need to reset them for
+            // certain trainer mons.
+            LearnsetStore movesets = getLearnsetStore();
             // empty entry
             trpokes.files.add(new byte[] { 0, 0, 0, 0, 0, 0, 0, 0 });
             int trainernum = trainers.files.size();
@@ -1802,7 +1854,12 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
 
     @Override
     public Map<Integer, List<MoveLearnt>> getMovesLearnt() {
-        Map<Integer, List<MoveLearnt>> movesets = new TreeMap<>();
+        return getLearnsetStore().toMap();
+    }
+
+    @Override
+    public LearnsetStore getLearnsetStore() {
+        LearnsetStore.Builder movesets = new LearnsetStore.Builder();
         try {
             NARCArchive movesLearnt = this.readNARC(romEntry.getFile("PokemonMovesets"));
             int formeCount = Gen5Constants.getFormeCount(romEntry.getRomType());
@@ -1816,19 +1873,18 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
                     movedata = movesLearnt.files.get(i);
                 }
                 int moveDataLoc = 0;
-                List<MoveLearnt> learnt = new ArrayList<>();
+                movesets.startMoveset(pkmn.getNumber());
                 while (readWord(movedata, moveDataLoc) != 0xFFFF || readWord(movedata, moveDataLoc + 2) != 0xFFFF) {
                     int move = readWord(movedata, moveDataLoc);
                     int level = readWord(movedata, moveDataLoc + 2);
-                    learnt.add(new MoveLearnt(move, level));
+                    movesets.add(move, level);
                     moveDataLoc += 4;
                 }
-                movesets.put(pkmn.getNumber(), learnt);
             }
         } catch (IOException e) {
             throw new RomIOException(e);
         }
-        return movesets;
+        return movesets.build();
     }
 
     @Override
@@ -1866,24 +1922,28 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
 
     @Override
     public Map<Integer, List<Integer>> getEggMoves() {
-        Map<Integer, List<Integer>> eggMoves = new TreeMap<>();
+        return getEggMoveStore().toMap();
+    }
+
+    @Override
+    public EggMoveStore getEggMoveStore() {
+        EggMoveStore.Builder eggMoves = new EggMoveStore.Builder();
         try {
             NARCArchive eggMovesNarc = this.readNARC(romEntry.getFile("EggMoves"));
             for (int i = 1; i <= Gen5Constants.pokemonCount; i++) {
                 Species pkmn = pokes[i];
                 byte[] movedata = eggMovesNarc.files.get(i);
                 int numberOfEggMoves = readWord(movedata, 0);
-                List<Integer> moves = new ArrayList<>();
+                eggMoves.startEggMoves(pkmn.getNumber());
                 for (int j = 0; j < numberOfEggMoves; j++) {
                     int move = readWord(movedata, 2 + (j * 2));
-                    moves.add(move);
+                    eggMoves.add(move);
                 }
-                eggMoves.put(pkmn.getNumber(), moves);
             }
         } catch (IOException e) {
             throw new RomIOException(e);
         }
-        return eggMoves;
+        return eggMoves.build();
     }
 
     @Override
@@ -4211,6 +4271,7 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
             newTNames.add(0, tnames.get(0)); // the 0-entry, preserve it
             setStrings(false, romEntry.getIntValue("TrainerNamesTextOffset"), newTNames);
         }
+        updateTrainerDisplayNames();
     }
 
     @Override
@@ -4252,6 +4313,7 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
         } else {
             setStrings(false, romEntry.getIntValue("TrainerClassesTextOffset"), trainerClassNames);
         }
+        updateTrainerDisplayNames();
     }
 
     @Override
@@ -5033,20 +5095,17 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
         }
     }
 
-    private void computeCRC32sForRom() throws IOException {
-        this.actualOverlayCRC32s = new HashMap<>();
-        this.actualFileCRC32s = new HashMap<>();
+    private void startCRC32sForRom() {
+        // the ARM9 is already in memory, so only the overlays and files are read in the background
         this.actualArm9CRC32 = FileFunctions.getCRC32(arm9);
+        Map<String, Callable<Long>> tasks = new LinkedHashMap<>();
         for (int overlayNumber : romEntry.getOverlayExpectedCRC32Keys()) {
-            byte[] overlay = readOverlay(overlayNumber);
-            long crc32 = FileFunctions.getCRC32(overlay);
-            this.actualOverlayCRC32s.put(overlayNumber, crc32);
+            tasks.put("overlay/" + overlayNumber, overlayCRC32Task(overlayNumber));
         }
         for (String fileKey : romEntry.getFileKeys()) {
-            byte[] file = readFile(romEntry.getFile(fileKey));
-            long crc32 = FileFunctions.getCRC32(file);
-            this.actualFileCRC32s.put(fileKey, crc32);
+            tasks.put("file/" + fileKey, fileCRC32Task(romEntry.getFile(fileKey)));
         }
+        this.actualCRC32s = startChecksums(romEntry.getName(), tasks);
     }
 
     @Override
@@ -5065,7 +5124,7 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
         System.out.println("Overlays");
         for (int overlayNumber : romEntry.getOverlayExpectedCRC32Keys()) {
             long expectedCRC32 = romEntry.getOverlayExpectedCRC32(overlayNumber);
-            long actualCRC32 = actualOverlayCRC32s.get(overlayNumber);
+            long actualCRC32 = actualCRC32s.get("overlay/" + overlayNumber);
             if (logStream != null) {
                 System.out.println("#" + overlayNumber + "\texpected:\t" + Long.toHexString(expectedCRC32));
                 System.out.println("#" + overlayNumber + "\tactual:  \t" + Long.toHexString(actualCRC32));
@@ -5078,7 +5137,7 @@ public class Gen5RomHandler extends AbstractDSRomHandler {
         System.out.println("Filekeys");
         for (String fileKey : romEntry.getFileKeys()) {
             long expectedCRC32 = romEntry.getFileExpectedCRC32(fileKey);
-            long actualCRC32 = actualFileCRC32s.get(fileKey);
+            long actualCRC32 = actualCRC32s.get("file/" + fileKey);
             if (logStream != null) {
                 System.out.println(fileKey + "\texpected:\t" + Long.toHexString(expectedCRC32));
                 System.out.println(fileKey + "\tactual:  \t" + Long.toHexString(actualCRC32));
@@ -24,6 +24,7 @@ package com.dabomstew.pkromio.romhandlers;
 import com.dabomstew.pkromio.FileFunctions;
 import com.dabomstew.pkromio.GFXFunctions;
 import com.dabomstew.pkromio.MiscTweak;
+import com.dabomstew.pkromio.RomChecksums;
 import com.dabomstew.pkromio.RomFunctions;
 import com.dabomstew.pkromio.constants.*;
 import com.dabomstew.pkromio.ctr.AMX;
@@ -43,6 +44,7 @@ import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 /**
@@ -96,9 +98,13 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
     private int pickupItemsTableOffset;
     private TypeTable typeTable;
     private long actualCodeCRC32;
-    private Map<String, Long> actualFileCRC32s;
+    private RomChecksums actualCRC32s;
 
     private GARCArchive pokeGarc, moveGarc, stringsGarc, storyTextGarc;
+    // read on first use by getTrainers(), which hands out copies, and only written back by prepareSaveRom()
+    // if setTrainers() was called
+    private List<Trainer> trainers;
+    private boolean trainersChanged;
 
     @Override
     protected boolean detect3DSRom(String productCode, String titleId) {
@@ -143,16 +149,54 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
 
         loadPokemonStats();
         loadMoves();
+        trainers = null;
+        trainersChanged = false;
+        clearCachedEncounters();
         abilityNames = getStrings(false, romEntry.getIntValue("AbilityNamesTextOffset"));
         shopNames = Gen6Constants.getShopNames(romEntry.getRomType());
 
         loadedWildMapNames = false;
 
+        startCRC32sForRom();
+    }
+
+    @Override
+    protected void gameUpdateChanged(Set<String> changedPaths) {
+        // Reloads what loadedROM() does, but only where it is read from a changed file.
+        // The text strings are used by almost everything, so if they changed, so did most of it.
+        boolean stringsChanged = anyFileChanged(changedPaths, "TextStrings");
         try {
-            computeCRC32sForRom();
+            code = readCode();
+            if (stringsChanged) {
+                stringsGarc = readGARC(romEntry.getFile("TextStrings"), true);
+            }
+            if (anyFileChanged(changedPaths, "StoryText")) {
+                storyTextGarc = readGARC(romEntry.getFile("StoryText"), true);
+            }
         } catch (IOException e) {
             throw new RomIOException(e);
         }
+
+        if (stringsChanged) {
+            loadItems();
+        }
+        // the species hold on to Item objects, so they are loaded again with the items
+        if (stringsChanged || anyFileChanged(changedPaths, "PokemonStats", "PokemonEvolutions", "MegaEvolutions")) {
+            loadPokemonStats();
+        }
+        if (stringsChanged || anyFileChanged(changedPaths, "MoveData")) {
+            loadMoves();
+        }
+        trainers = null;
+        trainersChanged = false;
+        clearCachedEncounters();
+        if (stringsChanged) {
+            abilityNames = getStrings(false, romEntry.getIntValue("AbilityNamesTextOffset"));
+        }
+
+        loadedWildMapNames = false;
+
+        startCRC32sForRom();
     }
 
     private void loadItems() {
@@ -658,6 +702,10 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
     @Override
     protected void prepareSaveRom() {
         super.prepareSaveRom();
+        if (trainersChanged) {
+            writeTrainers(trainers);
+            trainersChanged = false;
+        }
         try {
             writeCode(code);
             writeGARC(romEntry.getFile("TextStrings"), stringsGarc);
@@ -1349,6 +1397,10 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
 
     @Override
     public List<EncounterArea> getEncounters(boolean useTimeOfDay) {
+        return cachedEncounters(useTimeOfDay, this::readEncounters);
+    }
+
+    private List<EncounterArea> readEncounters(boolean useTimeOfDay) {
         if (!loadedWildMapNames) {
             loadWildMapNames();
         }
@@ -1686,14 +1738,12 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
 
     @Override
     public List<EncounterArea> getSortedEncounters(boolean useTimeOfDay) {
-        List<String> locationTagsTraverseOrder = Gen6Constants.getLocationTagsTraverseOrder(getROMType());
-        return getEncounters(useTimeOfDay).stream()
-                .sorted(Comparator.comparingInt(a -> locationTagsTraverseOrder.indexOf(a.getLocationTag())))
-                .collect(Collectors.toList());
+        return sortByTraverseOrder(getEncounters(useTimeOfDay), Gen6Constants.getLocationTagsTraverseOrder(getROMType()));
     }
 
     @Override
     public void setEncounters(boolean useTimeOfDay, List<EncounterArea> encounterAreas) {
+        clearCachedEncounters();
         try {
             if (romEntry.getRomType() == Gen6Constants.Type_ORAS) {
                 setEncountersORAS(encounterAreas);
@@ -2077,6 +2127,13 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
 
     @Override
     public List<Trainer> getTrainers() {
+        if (trainers == null) {
+            trainers = readTrainers();
+        }
+        return copyTrainers(trainers);
+    }
+
+    private List<Trainer> readTrainers() {
         List<Trainer> allTrainers = new ArrayList<>();
         boolean isORAS = romEntry.getRomType() == Gen6Constants.Type_ORAS;
         try {
@@ -2085,10 +2142,6 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
             int trainernum = trainers.files.size();
             List<String> tclasses = this.getTrainerClassNames();
             List<String> tnames = this.getTrainerNames();
-            Map<Integer, String> tnamesMap = new TreeMap<>();
-            for (int i = 0; i < tnames.size(); i++) {
-                tnamesMap.put(i, tnames.get(i));
-            }
             for (int i = 1; i < trainernum; i++) {
                 // Trainer entries are 20 bytes in X/Y, 24 bytes in ORAS
                 // Team flags; 1 byte; 0x01 = custom moves, 0x02 = held item
@@ -2131,9 +2184,7 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
                 int numPokes = trainer[offset + 1] & 0xFF;
                 boolean healer = trainer[offset + 13] != 0;
                 int pokeOffs = 0;
-                String trainerClass = tclasses.get(tr.trainerclass);
-                String trainerName = tnamesMap.getOrDefault(i - 1, "UNKNOWN");
-                tr.fullDisplayName = trainerClass + " " + trainerName;
+                tr.fullDisplayName = trainerDisplayName(tr, tclasses, tnames);
 
                 for (int poke = 0; poke < numPokes; poke++) {
                     // Structure is
@@ -2200,6 +2251,26 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
         return allTrainers;
     }
 
+    private static String trainerDisplayName(Trainer tr, List<String> tclasses, List<String> tnames) {
+        String trainerName = tr.index - 1 < tnames.size() ? tnames.get(tr.index - 1) : "UNKNOWN";
+        return tclasses.get(tr.trainerclass) + " " + trainerName;
+    }
+
+    /**
+     * The full display names of the trainers come from the trainer (class) name text, so once that changes,
+     * those of the already read trainers must follow.
+     */
+    private void updateTrainerDisplayNames() {
+        if (trainers == null) {
+            return;
+        }
+        List<String> tclasses = getTrainerClassNames();
+        List<String> tnames = getTrainerNames();
+        for (Trainer tr : trainers) {
+            tr.fullDisplayName = trainerDisplayName(tr, tclasses, tnames);
+        }
+    }
+
     @Override
     public List<Integer> getMainPlaythroughTrainers() {
         return new ArrayList<>();
@@ -2226,14 +2297,19 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
 
     @Override
     public void setTrainers(List<Trainer> trainerData) {
+        trainers = copyTrainers(trainerData);
+        trainersChanged = true;
+    }
+
+    private void writeTrainers(List<Trainer> trainerData) {
         Iterator<Trainer> allTrainers = trainerData.iterator();
         boolean isORAS = romEntry.getRomType() == Gen6Constants.Type_ORAS;
         try {
             GARCArchive trainers = this.readGARC(romEntry.getFile("TrainerData"), true);
             GARCArchive trpokes = this.readGARC(romEntry.getFile("TrainerPokemon"), true);
-            // Get current movesets in case we need to reset them for certain
-            // trainer mons.
-            Map<Integer, List<MoveLearnt>> movesets = this.getMovesLearnt();
+            // The movesets as they are saved, in case we need to reset them for
+            // certain trainer mons.
+            LearnsetStore movesets = getLearnsetStore();
             int trainernum = trainers.files.size();
             for (int i = 1; i < trainernum; i++) {
                 byte[] trainer = trainers.files.get(i).get(0);
@@ -2332,7 +2408,12 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
 
     @Override
     public Map<Integer, List<MoveLearnt>> getMovesLearnt() {
-        Map<Integer, List<MoveLearnt>> movesets = new TreeMap<>();
+        return getLearnsetStore().toMap();
+    }
+
+    @Override
+    public LearnsetStore getLearnsetStore() {
+        LearnsetStore.Builder movesets = new LearnsetStore.Builder();
         try {
             GARCArchive movesLearnt = this.readGARC(romEntry.getFile("PokemonMovesets"), true);
             int formeCount = Gen6Constants.getFormeCount(romEntry.getRomType());
@@ -2347,19 +2428,18 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
                 // }
                 movedata = movesLearnt.files.get(i).get(0);
                 int moveDataLoc = 0;
-                List<MoveLearnt> learnt = new ArrayList<>();
+                movesets.startMoveset(pkmn.getNumber());
                 while (readWord(movedata, moveDataLoc) != 0xFFFF || readWord(movedata, moveDataLoc + 2) != 0xFFFF) {
                     int move = readWord(movedata, moveDataLoc);
                     int level = readWord(movedata, moveDataLoc + 2);
-                    learnt.add(new MoveLearnt(move, level));
+                    movesets.add(move, level);
                     moveDataLoc += 4;
                 }
-                movesets.put(pkmn.getNumber(), learnt);
             }
         } catch (IOException e) {
             throw new RomIOException(e);
         }
-        return movesets;
+        return movesets.build();
     }
 
     @Override
@@ -2398,24 +2478,28 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
 
     @Override
     public Map<Integer, List<Integer>> getEggMoves() {
-        Map<Integer, List<Integer>> eggMoves = new TreeMap<>();
+        return getEggMoveStore().toMap();
+    }
+
+    @Override
+    public EggMoveStore getEggMoveStore() {
+        EggMoveStore.Builder eggMoves = new EggMoveStore.Builder();
         try {
             GARCArchive eggMovesGarc = this.readGARC(romEntry.getFile("EggMoves"), true);
             for (int i = 1; i <= Gen6Constants.pokemonCount; i++) {
                 Species pkmn = pokes[i];
                 byte[] movedata = eggMovesGarc.files.get(i).get(0);
                 int numberOfEggMoves = readWord(movedata, 0);
-                List<Integer> moves = new ArrayList<>();
+                eggMoves.startEggMoves(pkmn.getNumber());
                 for (int j = 0; j < numberOfEggMoves; j++) {
                     int move = readWord(movedata, 2 + (j * 2));
-                    moves.add(move);
+                    eggMoves.add(move);
                 }
-                eggMoves.put(pkmn.getNumber(), moves);
             }
         } catch (IOException e) {
             throw new RomIOException(e);
         }
-        return eggMoves;
+        return eggMoves.build();
     }
 
     @Override
@@ -2697,6 +2781,8 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
     }
 
     private void fixBoxLegendariesXY(int boxLegendarySpecies) throws IOException {
+        // these live in the same GARC as the wild encounters
+        clearCachedEncounters();
         // We need to edit the script file or otherwise the text will still say
         // "Xerneas" or "Yveltal"
         GARCArchive encounterGarc = readGARC(romEntry.getFile("WildPokemon"), false);
@@ -2753,6 +2839,8 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
     }
 
     private void setRoamersXY(List<StaticEncounter> staticPokemon) throws IOException {
+        // these live in the same GARC as the wild encounters
+        clearCachedEncounters();
         int[] roamingLegendaryOffsets = romEntry.getArrayValue("RoamingLegendaryOffsets");
         StaticEncounter[] roamers = new StaticEncounter[roamingLegendaryOffsets.length];
         for (int i = 0; i < roamers.length; i++) {
@@ -3653,6 +3741,7 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
         } catch (IOException e) {
             throw new RomIOException(e);
         }
+        updateTrainerDisplayNames();
     }
 
     private void writeStringsForAllLanguages(List<String> strings, int index) throws IOException {
@@ -3688,6 +3777,7 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
         } catch (IOException e) {
             throw new RomIOException(e);
         }
+        updateTrainerDisplayNames();
     }
 
     @Override
@@ -4336,14 +4426,14 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
         }
     }
 
-    private void computeCRC32sForRom() throws IOException {
-        this.actualFileCRC32s = new HashMap<>();
+    private void startCRC32sForRom() {
+        // code.bin is already in memory, so only the files are read in the background
         this.actualCodeCRC32 = FileFunctions.getCRC32(code);
+        Map<String, Callable<Long>> tasks = new LinkedHashMap<>();
         for (String fileKey : romEntry.getFileKeys()) {
-            byte[] file = readFile(romEntry.getFile(fileKey));
-            long crc32 = FileFunctions.getCRC32(file);
-            this.actualFileCRC32s.put(fileKey, crc32);
+            tasks.put("file/" + fileKey, fileCRC32Task(romEntry.getFile(fileKey)));
         }
+        this.actualCRC32s = startChecksums(romEntry.getName(), tasks);
     }
 
     @Override
@@ -4361,7 +4451,7 @@ public class Gen6RomHandler extends Abstract3DSRomHandler {
 
         for (String fileKey : romEntry.getFileKeys()) {
             long expectedCRC32 = romEntry.getFileExpectedCRC32s(fileKey)[index];
-            long actualCRC32 = actualFileCRC32s.get(fileKey);
+            long actualCRC32 = actualCRC32s.get("file/" + fileKey);
             if (logStream != null) {
                 System.out.println(fileKey + "\texpected:\t" + Long.toHexString(expectedCRC32));
                 System.out.println(fileKey + "\tactual:  \t" + Long.toHexString(actualCRC32));
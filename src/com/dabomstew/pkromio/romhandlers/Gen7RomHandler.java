@@ -23,6 +23,7 @@ package com.dabomstew.pkromio.romhandlers;
 
 import com.dabomstew.pkromio.FileFunctions;
 import com.dabomstew.pkromio.MiscTweak;
+import com.dabomstew.pkromio.RomChecksums;
 import com.dabomstew.pkromio.RomFunctions;
 import com.dabomstew.pkromio.constants.*;
 import com.dabomstew.pkromio.ctr.AMX;
@@ -40,6 +41,7 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.util.*;
 import java.util.function.Supplier;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 /**
@@ -87,9 +89,13 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
     private List<String> shopNames;
     private List<String> abilityNames;
     private long actualCodeCRC32;
-    private Map<String, Long> actualFileCRC32s;
+    private RomChecksums actualCRC32s;
 
     private GARCArchive pokeGarc, moveGarc, encounterGarc, stringsGarc, storyTextGarc;
+    // read on first use by getTrainers(), which hands out copies, and only written back by prepareSaveRom()
+    // if setTrainers() was called
+    private List<Trainer> trainers;
+    private boolean trainersChanged;
 
     @Override
     protected boolean detect3DSRom(String productCode, String titleId) {
@@ -135,15 +141,55 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
 
         loadPokemonStats();
         loadMoves();
+        trainers = null;
+        trainersChanged = false;
+        clearCachedEncounters();
 
         abilityNames = getStrings(false,romEntry.getIntValue("AbilityNamesTextOffset"));
         shopNames = Gen7Constants.getShopNames(romEntry.getRomType());
 
+        startCRC32sForRom();
+    }
+
+    @Override
+    protected void gameUpdateChanged(Set<String> changedPaths) {
+        // Reloads what loadedROM() does, but only where it is read from a changed file.
+        // The text strings are used by almost everything, so if they changed, so did most of it.
+        boolean stringsChanged = anyFileChanged(changedPaths, "TextStrings");
         try {
-            computeCRC32sForRom();
+            code = readCode();
+            if (stringsChanged) {
+                stringsGarc = readGARC(romEntry.getFile("TextStrings"), true);
+            }
+            if (anyFileChanged(changedPaths, "StoryText")) {
+                storyTextGarc = readGARC(romEntry.getFile("StoryText"), true);
+            }
+            if (stringsChanged || anyFileChanged(changedPaths, "WorldData", "ZoneData", "WildPokemon")) {
+                areaDataList = getAreaData();
+            }
         } catch (IOException e) {
             throw new RomIOException(e);
         }
+
+        if (stringsChanged) {
+            loadItems();
+        }
+        // the species hold on to Item objects, so they are loaded again with the items
+        if (stringsChanged || anyFileChanged(changedPaths, "PokemonStats", "PokemonEvolutions", "MegaEvolutions")) {
+            loadPokemonStats();
+        }
+        if (stringsChanged || anyFileChanged(changedPaths, "MoveData")) {
+            loadMoves();
+        }
+        trainers = null;
+        trainersChanged = false;
+        clearCachedEncounters();
+
+        if (stringsChanged) {
+            abilityNames = getStrings(false, romEntry.getIntValue("AbilityNamesTextOffset"));
+        }
+
+        startCRC32sForRom();
     }
 
     private List<String> getStrings(boolean isStoryText, int index) {
@@ -700,6 +746,10 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
     @Override
     protected void prepareSaveRom() {
         super.prepareSaveRom();
+        if (trainersChanged) {
+            writeTrainers(trainers);
+            trainersChanged = false;
+        }
         try {
             writeCode(code);
             writeGARC(romEntry.getFile("WildPokemon"), encounterGarc);
@@ -1396,6 +1446,10 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
 
     @Override
     public List<EncounterArea> getEncounters(boolean useTimeOfDay) {
+        return cachedEncounters(useTimeOfDay, this::readEncounters);
+    }
+
+    private List<EncounterArea> readEncounters(boolean useTimeOfDay) {
         List<EncounterArea> encounterAreas = new ArrayList<>();
         for (AreaData areaData : areaDataList) {
             if (!areaData.hasTables) {
@@ -1504,14 +1558,12 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
 
     @Override
     public List<EncounterArea> getSortedEncounters(boolean useTimeOfDay) {
-        List<String> locationTagsTraverseOrder = Gen7Constants.getLocationTagsTraverseOrder(getROMType());
-        return getEncounters(useTimeOfDay).stream()
-                .sorted(Comparator.comparingInt(a -> locationTagsTraverseOrder.indexOf(a.getLocationTag())))
-                .collect(Collectors.toList());
+        return sortByTraverseOrder(getEncounters(useTimeOfDay), Gen7Constants.getLocationTagsTraverseOrder(getROMType()));
     }
 
     @Override
     public void setEncounters(boolean useTimeOfDay, List<EncounterArea> encounterAreas) {
+        clearCachedEncounters();
         Iterator<EncounterArea> areaIterator = encounterAreas.iterator();
         for (AreaData areaData : areaDataList) {
             if (!areaData.hasTables) {
@@ -1726,6 +1778,13 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
 
     @Override
     public List<Trainer> getTrainers() {
+        if (trainers == null) {
+            trainers = readTrainers();
+        }
+        return copyTrainers(trainers);
+    }
+
+    private List<Trainer> readTrainers() {
         List<Trainer> allTrainers = new ArrayList<>();
         try {
             GARCArchive trainers = this.readGARC(romEntry.getFile("TrainerData"),true);
@@ -1733,10 +1792,6 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
             int trainernum = trainers.files.size();
             List<String> tclasses = this.getTrainerClassNames();
             List<String> tnames = this.getTrainerNames();
-            Map<Integer,String> tnamesMap = new TreeMap<>();
-            for (int i = 0; i < tnames.size(); i++) {
-                tnamesMap.put(i,tnames.get(i));
-            }
             for (int i = 1; i < trainernum; i++) {
                 byte[] trainer = trainers.files.get(i).get(0);
                 byte[] trpoke = trpokes.files.get(i).get(0);
@@ -1757,9 +1812,7 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
                 int trainerAILevel = trainer[12] & 0xFF;
                 boolean healer = trainer[15] != 0;
                 int pokeOffs = 0;
-                String trainerClass = tclasses.get(tr.trainerclass);
-                String trainerName = tnamesMap.getOrDefault(i - 1, "UNKNOWN");
-                tr.fullDisplayName = trainerClass + " " + trainerName;
+                tr.fullDisplayName = trainerDisplayName(tr, tclasses, tnames);
 
                 for (int poke = 0; poke < numPokes; poke++) {
                     // Structure is
@@ -1828,6 +1881,26 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
         return allTrainers;
     }
 
+    private static String trainerDisplayName(Trainer tr, List<String> tclasses, List<String> tnames) {
+        String trainerName = tr.index - 1 < tnames.size() ? tnames.get(tr.index - 1) : "UNKNOWN";
+        return tclasses.get(tr.trainerclass) + " " + trainerName;
+    }
+
+    /**
+     * The full display names of the trainers come from the trainer (class) name text, so once that changes,
+     * those of the already read trainers must follow.
+     */
+    private void updateTrainerDisplayNames() {
+        if (trainers == null) {
+            return;
+        }
+        List<String> tclasses = getTrainerClassNames();
+        List<String> tnames = getTrainerNames();
+        for (Trainer tr : trainers) {
+            tr.fullDisplayName = trainerDisplayName(tr, tclasses, tnames);
+        }
+    }
+
     @Override
     public List<Integer> getMainPlaythroughTrainers() {
         return new ArrayList<>();
@@ -1849,13 +1922,18 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
 
     @Override
     public void setTrainers(List<Trainer> trainerData) {
+        trainers = copyTrainers(trainerData);
+        trainersChanged = true;
+    }
+
+    private void writeTrainers(List<Trainer> trainerData) {
         Iterator<Trainer> allTrainers = trainerData.iterator();
         try {
             GARCArchive trainers = this.readGARC(romEntry.getFile("TrainerData"),true);
             GARCArchive trpokes = this.readGARC(romEntry.getFile("TrainerPokemon"),true);
-            // Get current movesets in case we need to reset them for certain
-            // trainer mons.
-            Map<Integer, List<MoveLearnt>> movesets = this.getMovesLearnt();
+            // The movesets as they are saved, in case we need to reset them for
+            // certain trainer mons.
+            LearnsetStore movesets = getLearnsetStore();
             int trainernum = trainers.files.size();
             for (int i = 1; i < trainernum; i++) {
                 byte[] trainer = trainers.files.get(i).get(0);
@@ -1991,7 +2069,12 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
 
     @Override
     public Map<Integer, List<MoveLearnt>> getMovesLearnt() {
-        Map<Integer, List<MoveLearnt>> movesets = new TreeMap<>();
+        return getLearnsetStore().toMap();
+    }
+
+    @Override
+    public LearnsetStore getLearnsetStore() {
+        LearnsetStore.Builder movesets = new LearnsetStore.Builder();
         try {
             GARCArchive movesLearnt = this.readGARC(romEntry.getFile("PokemonMovesets"),true);
             int formeCount = Gen7Constants.getFormeCount(romEntry.getRomType());
@@ -2000,19 +2083,18 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
                 byte[] movedata;
                 movedata = movesLearnt.files.get(i).get(0);
                 int moveDataLoc = 0;
-                List<MoveLearnt> learnt = new ArrayList<>();
+                movesets.startMoveset(pkmn.getNumber());
                 while (readWord(movedata, moveDataLoc) != 0xFFFF || readWord(movedata, moveDataLoc + 2) != 0xFFFF) {
                     int move = readWord(movedata, moveDataLoc);
                     int level = readWord(movedata, moveDataLoc + 2);
-                    learnt.add(new MoveLearnt(move, level));
+                    movesets.add(move, level);
                     moveDataLoc += 4;
                 }
-                movesets.put(pkmn.getNumber(), learnt);
             }
         } catch (IOException e) {
             throw new RomIOException(e);
         }
-        return movesets;
+        return movesets.build();
     }
 
     @Override
@@ -2045,7 +2127,12 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
 
     @Override
     public Map<Integer, List<Integer>> getEggMoves() {
-        Map<Integer, List<Integer>> eggMoves = new TreeMap<>();
+        return getEggMoveStore().toMap();
+    }
+
+    @Override
+    public EggMoveStore getEggMoveStore() {
+        EggMoveStore.Builder eggMoves = new EggMoveStore.Builder();
         try {
             GARCArchive eggMovesGarc = this.readGARC(romEntry.getFile("EggMoves"),true);
             TreeMap<Species, Integer> altFormeEggMoveFiles = new TreeMap<>();
@@ -2057,12 +2144,11 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
                     altFormeEggMoveFiles.put(pkmn, formeReference);
                 }
                 int numberOfEggMoves = readWord(movedata, 2);
-                List<Integer> moves = new ArrayList<>();
+                eggMoves.startEggMoves(pkmn.getNumber());
                 for (int j = 0; j < numberOfEggMoves; j++) {
                     int move = readWord(movedata, 4 + (j * 2));
-                    moves.add(move);
+                    eggMoves.add(move);
                 }
-                eggMoves.put(pkmn.getNumber(), moves);
             }
             Iterator<Species> iter = altFormeEggMoveFiles.keySet().iterator();
             while (iter.hasNext()) {
@@ -2073,12 +2159,11 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
                 while (!originalForme.equals(altForme)) {
                     byte[] movedata = eggMovesGarc.files.get(fileNumber).get(0);
                     int numberOfEggMoves = readWord(movedata, 2);
-                    List<Integer> moves = new ArrayList<>();
+                    eggMoves.startEggMoves(altForme.getNumber());
                     for (int j = 0; j < numberOfEggMoves; j++) {
                         int move = readWord(movedata, 4 + (j * 2));
-                        moves.add(move);
+                        eggMoves.add(move);
                     }
-                    eggMoves.put(altForme.getNumber(), moves);
                     formeNumber++;
                     fileNumber++;
                     altForme = getAltFormeOfSpecies(originalForme, formeNumber);
@@ -2088,7 +2173,7 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
         } catch (IOException e) {
             throw new RomIOException(e);
         }
-        return eggMoves;
+        return eggMoves.build();
     }
 
     @Override
@@ -3110,6 +3195,7 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
         } catch (IOException e) {
             throw new RomIOException(e);
         }
+        updateTrainerDisplayNames();
     }
 
     private void writeStringsForAllLanguages(List<String> strings, int index) throws IOException {
@@ -3145,6 +3231,7 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
         } catch (IOException e) {
             throw new RomIOException(e);
         }
+        updateTrainerDisplayNames();
     }
 
     @Override
@@ -3649,14 +3736,14 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
         }
     }
 
-    private void computeCRC32sForRom() throws IOException {
-        this.actualFileCRC32s = new HashMap<>();
+    private void startCRC32sForRom() {
+        // code.bin is already in memory, so only the files are read in the background
         this.actualCodeCRC32 = FileFunctions.getCRC32(code);
+        Map<String, Callable<Long>> tasks = new LinkedHashMap<>();
         for (String fileKey : romEntry.getFileKeys()) {
-            byte[] file = readFile(romEntry.getFile(fileKey));
-            long crc32 = FileFunctions.getCRC32(file);
-            this.actualFileCRC32s.put(fileKey, crc32);
+            tasks.put("file/" + fileKey, fileCRC32Task(romEntry.getFile(fileKey)));
         }
+        this.actualCRC32s = startChecksums(romEntry.getName(), tasks);
     }
 
     @Override
@@ -3674,7 +3761,7 @@ public class Gen7RomHandler extends Abstract3DSRomHandler {
 
         for (String fileKey : romEntry.getFileKeys()) {
             long expectedCRC32 = romEntry.getFileExpectedCRC32s(fileKey)[index];
-            long actualCRC32 = actualFileCRC32s.get(fileKey);
+            long actualCRC32 = actualCRC32s.get("file/" + fileKey);
             if (logStream != null) {
                 System.out.println(fileKey + "\texpected:\t" + Long.toHexString(expectedCRC32));
                 System.out.println(fileKey + "\tactual:  \t" + Long.toHexString(actualCRC32));
@@ -76,6 +76,13 @@ public interface RomHandler {
 
     String loadedFilename();
 
+    /**
+     * Releases what the loaded Rom holds outside of memory, e.g. the folder its files were extracted to.
+     * The RomHandler cannot be used afterwards. Does nothing for Roms that are held in memory as a whole.
+     */
+    default void unloadRom() {
+    }
+
     // =============================================================
     // Methods relating to game updates for the 3DS and Switch games
     // =============================================================
@@ -266,6 +273,10 @@ public interface RomHandler {
     // Trainer Pokemon
     // ===============
 
+    /**
+     * Returns copies of the trainers, so changes to them only take effect once passed to
+     * {@link #setTrainers(List)}.
+     */
     List<Trainer> getTrainers();
 
     List<Integer> getMainPlaythroughTrainers();
@@ -279,6 +290,9 @@ public interface RomHandler {
 
     Map<String, Type> getGymAndEliteTypeThemes();
 
+    /**
+     * Sets the trainers, which are written to the Rom when it is saved.
+     */
     void setTrainers(List<Trainer> trainerData);
 
     boolean canAddPokemonToBossTrainers();
@@ -326,12 +340,28 @@ public interface RomHandler {
 
     void setMovesLearnt(Map<Integer, List<MoveLearnt>> movesets);
 
+    /**
+     * Returns the movesets in a compact, read-only form, for code which looks them up many times.
+     * The handlers read it straight from the ROM; the default only converts {@link #getMovesLearnt()}.
+     */
+    default LearnsetStore getLearnsetStore() {
+        return LearnsetStore.of(getMovesLearnt());
+    }
+
     List<Integer> getMovesBannedFromLevelup();
 
     Map<Integer, List<Integer>> getEggMoves();
 
     void setEggMoves(Map<Integer, List<Integer>> eggMoves);
 
+    /**
+     * Returns the egg moves in a compact, read-only form. The handlers read it straight from the ROM;
+     * the default only converts {@link #getEggMoves()}.
+     */
+    default EggMoveStore getEggMoveStore() {
+        return EggMoveStore.of(getEggMoves());
+    }
+
     boolean supportsFourStartingMoves();
 
     // ==============
@@ -401,6 +431,13 @@ public interface RomHandler {
 
     void setTMHMCompatibility(Map<Species, boolean[]> compatData);
 
+    /**
+     * Returns the compatibility from {@link #getTMHMCompatibility()} in a compact, read-only form.
+     */
+    default CompatibilityStore getTMHMCompatibilityStore() {
+        return CompatibilityStore.of(getTMHMCompatibility());
+    }
+
     // ===========
     // Move Tutors
     // ===========
@@ -419,6 +456,14 @@ public interface RomHandler {
 
     void setMoveTutorCompatibility(Map<Species, boolean[]> compatData);
 
+    /**
+     * Returns the compatibility from {@link #getMoveTutorCompatibility()} in a compact, read-only form.
+     * If {@link #hasMoveTutors()}==false, there is no guarantee this method will work.
+     */
+    default CompatibilityStore getMoveTutorCompatibilityStore() {
+        return CompatibilityStore.of(getMoveTutorCompatibility());
+    }
+
     // =============
     // Trainer Names
     // =============
@@ -1,5 +1,6 @@
 package com.dabomstew.pkromio.romio;
 
+import com.dabomstew.pkromio.FileFunctions;
 import com.dabomstew.pkromio.exceptions.EncryptedROMException;
 import com.dabomstew.pkromio.romhandlers.*;
 
@@ -12,13 +13,30 @@ import java.util.stream.IntStream;
 
 public class RomOpener {
 
-    private static final RomHandler.Factory[] FACTORIES = new RomHandler.Factory[]{
-            new Gen1RomHandler.Factory(), new Gen2RomHandler.Factory(), new Gen3RomHandler.Factory(),
-            new Gen4RomHandler.Factory(), new Gen5RomHandler.Factory(), new Gen6RomHandler.Factory(),
-            new Gen7RomHandler.Factory()
+    private static final int MAX_GENERATION = 7;
+
+    /**
+     * The factories, created on first use. Asking a factory whether it can load a file initializes its
+     * RomHandler class, which reads that generation's ROM info files, so factories of the wrong platform
+     * are best left alone.
+     */
+    private static final RomHandler.Factory[] FACTORIES = new RomHandler.Factory[MAX_GENERATION];
+
+    /**
+     * The hardware whose ROMs each generation's games are, from Gen 1 to Gen 7.
+     */
+    private static final Platform[] GENERATION_PLATFORMS = new Platform[]{
+            Platform.GB, Platform.GB, Platform.GBA, Platform.NDS, Platform.NDS, Platform.CTR, Platform.CTR
     };
 
-    private static final int MAX_GENERATION = FACTORIES.length;
+    private enum Platform {
+        GB, GBA, NDS, CTR, UNKNOWN
+    }
+
+    private static final int HEADER_SNIFF_LENGTH = 0x200;
+    private static final byte[] GB_LOGO_START = {(byte) 0xCE, (byte) 0xED, 0x66, 0x66, (byte) 0xCC, 0x0D};
+    private static final byte[] GBA_NDS_LOGO_START = {0x24, (byte) 0xFF, (byte) 0xAE, 0x51, 0x69, (byte) 0x9A};
+    private static final int CIA_HEADER_SIZE = 0x2020;
 
     public enum FailType {
         UNREADABLE,
@@ -98,32 +116,22 @@ public class RomOpener {
     }
 
     public Results openRomFile(File romFile) {
-        RomHandler romHandler;
-
         FailType invalidity = detectInvalidROM(romFile);
         if (invalidity != null) {
             return Results.failure(invalidity);
         }
 
-        for (int gen : allowedGenerations) {
-            RomHandler.Factory rhf = FACTORIES[gen - 1];
-            if (rhf.isLoadable(romFile.getAbsolutePath())) {
-                romHandler = rhf.create();
-
-                // TODO: this instanceof is not pretty
-                if (!extraMemoryAvailable && romHandler instanceof Abstract3DSRomHandler) {
-                    return Results.failure(FailType.EXTRA_MEMORY_NOT_AVAILABLE);
+        // Try the generations of the platform the file looks like first; only if none of them can load it
+        // are the others tried, so an odd header can't make a loadable ROM unloadable.
+        Platform platform = sniffPlatform(romFile);
+        for (boolean platformMatches : new boolean[]{true, false}) {
+            for (int gen : allowedGenerations) {
+                if ((GENERATION_PLATFORMS[gen - 1] == platform) != platformMatches) {
+                    continue;
                 }
-
-                try {
-                    romHandler.loadRom(romFile.getAbsolutePath());
-                    if (gameUpdates.containsKey(romHandler.getROMCode())) {
-                        romHandler.loadGameUpdate(gameUpdates.get(romHandler.getROMCode()));
-                    }
-                    return Results.success(romHandler);
-
-                } catch (EncryptedROMException e) {
-                    return Results.failure(FailType.ENCRYPTED_ROM);
+                Results results = tryOpen(getFactory(gen), romFile);
+                if (results != null) {
+                    return results;
                 }
             }
         }
@@ -131,6 +139,100 @@ public class RomOpener {
         return Results.failure(FailType.UNSUPPORTED_ROM);
     }
 
+    private static synchronized RomHandler.Factory getFactory(int gen) {
+        if (FACTORIES[gen - 1] == null) {
+            FACTORIES[gen - 1] = createFactory(gen);
+        }
+        return FACTORIES[gen - 1];
+    }
+
+    private static RomHandler.Factory createFactory(int gen) {
+        switch (gen) {
+            case 1:
+                return new Gen1RomHandler.Factory();
+            case 2:
+                return new Gen2RomHandler.Factory();
+            case 3:
+                return new Gen3RomHandler.Factory();
+            case 4:
+                return new Gen4RomHandler.Factory();
+            case 5:
+                return new Gen5RomHandler.Factory();
+            case 6:
+                return new Gen6RomHandler.Factory();
+            case 7:
+                return new Gen7RomHandler.Factory();
+            default:
+                throw new IllegalArgumentException(gen + " is not a valid Generation");
+        }
+    }
+
+    /**
+     * Opens the file with the factory if it can be loaded by it, or returns null if not.
+     */
+    private Results tryOpen(RomHandler.Factory rhf, File romFile) {
+        if (!rhf.isLoadable(romFile.getAbsolutePath())) {
+            return null;
+        }
+        RomHandler romHandler = rhf.create();
+
+        // TODO: this instanceof is not pretty
+        if (!extraMemoryAvailable && romHandler instanceof Abstract3DSRomHandler) {
+            return Results.failure(FailType.EXTRA_MEMORY_NOT_AVAILABLE);
+        }
+
+        try {
+            romHandler.loadRom(romFile.getAbsolutePath());
+            if (gameUpdates.containsKey(romHandler.getROMCode())) {
+                romHandler.loadGameUpdate(gameUpdates.get(romHandler.getROMCode()));
+            }
+            return Results.success(romHandler);
+
+        } catch (EncryptedROMException e) {
+            return Results.failure(FailType.ENCRYPTED_ROM);
+        }
+    }
+
+    /**
+     * Guesses the platform of a ROM file from the fixed parts of its header, without looking at
+     * which game it is.
+     */
+    private static Platform sniffPlatform(File f) {
+        byte[] header = new byte[HEADER_SNIFF_LENGTH];
+        int length;
+        try (FileInputStream fis = new FileInputStream(f)) {
+            length = fis.read(header);
+        } catch (IOException ex) {
+            return Platform.UNKNOWN;
+        }
+        if (length < HEADER_SNIFF_LENGTH) {
+            return Platform.UNKNOWN;
+        }
+        if (startsWithAt(header, 0x104, GB_LOGO_START)) {
+            return Platform.GB;
+        }
+        if (startsWithAt(header, 0x04, GBA_NDS_LOGO_START) && (header[0xB2] & 0xFF) == 0x96) {
+            return Platform.GBA;
+        }
+        if (startsWithAt(header, 0xC0, GBA_NDS_LOGO_START)) {
+            return Platform.NDS;
+        }
+        if (startsWithAt(header, 0x100, "NCSD".getBytes()) || startsWithAt(header, 0x100, "NCCH".getBytes())
+                || FileFunctions.readFullInt(header, 0) == CIA_HEADER_SIZE) {
+            return Platform.CTR;
+        }
+        return Platform.UNKNOWN;
+    }
+
+    private static boolean startsWithAt(byte[] data, int offset, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Checks for common filetypes that aren't ROMs,
      * by reading the first 10 bytes of the file.<br>
@@ -0,0 +1,303 @@
+package com.dabomstew.pkromio.text;
+
+/*----------------------------------------------------------------------------*/
+/*--  Part of "Universal Pokemon Randomizer ZX" by the UPR-ZX team          --*/
+/*--  Originally part of "Universal Pokemon Randomizer" by Dabomstew        --*/
+/*--  Pokemon and any associated names and the like are                     --*/
+/*--  trademark and (C) Nintendo 1996-2022.                                 --*/
+/*--                                                                        --*/
+/*--  The custom code written here is licensed under the terms of the GPL:  --*/
+/*--                                                                        --*/
+/*--  This program is free software: you can redistribute it and/or modify  --*/
+/*--  it under the terms of the GNU General Public License as published by  --*/
+/*--  the Free Software Foundation, either version 3 of the License, or     --*/
+/*--  (at your option) any later version.                                   --*/
+/*--                                                                        --*/
+/*--  This program is distributed in the hope that it will be useful,       --*/
+/*--  but WITHOUT ANY WARRANTY; without even the implied warranty of        --*/
+/*--  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the          --*/
+/*--  GNU General Public License for more details.                          --*/
+/*--                                                                        --*/
+/*--  You should have received a copy of the GNU General Public License     --*/
+/*--  along with this program. If not, see <http://www.gnu.org/licenses/>.  --*/
+/*----------------------------------------------------------------------------*/
+
+import com.dabomstew.pkromio.FileFunctions;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compiled single-byte text codec, as used by the GB/GBC/GBA games, built from one or more .tbl files.<br>
+ * Decoding is a flat lookup by byte value. Encoding walks a char trie, always taking the longest token
+ * that matches, and writes straight into a caller-supplied byte[].<br>
+ * Besides the table tokens, encoding understands the "\xHH" escape for a raw byte, and, if a variable
+ * prefix has been set, the "\vHH" escape for a text variable.
+ */
+public class TextTable {
+
+    private static final int NO_CODE = -1;
+
+    private static final String[] HEX_ESCAPES = new String[256];
+    private static final String[] VARIABLE_ESCAPES = new String[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            HEX_ESCAPES[i] = String.format("\\x%02X", i);
+            VARIABLE_ESCAPES[i] = String.format("\\v%02X", i);
+        }
+    }
+
+    /**
+     * The parsed contents of each .tbl file, in file order. These are read-only resources,
+     * so there is no need to read and split them more than once per process.
+     */
+    private static final Map<String, TableFile> TABLE_FILES = new ConcurrentHashMap<>();
+
+    private static class TableFile {
+        final int[] codes;
+        final String[] tokens;
+
+        TableFile(int[] codes, String[] tokens) {
+            this.codes = codes;
+            this.tokens = tokens;
+        }
+    }
+
+    private static class TrieNode {
+        char[] keys = new char[0];
+        TrieNode[] children = new TrieNode[0];
+        int code = NO_CODE;
+
+        TrieNode child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        TrieNode getOrAddChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int insertAt = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            TrieNode[] newChildren = new TrieNode[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = new TrieNode();
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[insertAt];
+        }
+    }
+
+    private final String[] decodeTable = new String[256];
+    private TrieNode root = new TrieNode();
+    private int variablePrefix = NO_CODE;
+
+    /**
+     * Sets the byte written before the argument of a "\vHH" escape. If never set, "\v" is not treated
+     * as an escape.
+     */
+    public void setVariablePrefix(byte variablePrefix) {
+        this.variablePrefix = variablePrefix & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(decodeTable, null);
+        root = new TrieNode();
+    }
+
+    /**
+     * Reads a .tbl file from the config resources, adding its entries on top of the current ones.
+     */
+    public void readTableFile(String name) throws FileNotFoundException {
+        TableFile file = TABLE_FILES.get(name);
+        if (file == null) {
+            file = parseTableFile(name);
+            TABLE_FILES.putIfAbsent(name, file);
+        }
+        for (int i = 0; i < file.codes.length; i++) {
+            put(file.codes[i], file.tokens[i]);
+        }
+    }
+
+    private static TableFile parseTableFile(String name) throws FileNotFoundException {
+        List<Integer> codes = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        Scanner sc = new Scanner(FileFunctions.openConfig(name + ".tbl"), "UTF-8");
+        while (sc.hasNextLine()) {
+            String q = sc.nextLine();
+            if (!q.trim().isEmpty()) {
+                String[] r = q.split("=", 2);
+                if (r[1].endsWith("\r\n")) {
+                    r[1] = r[1].substring(0, r[1].length() - 2);
+                }
+                codes.add(Integer.parseInt(r[0], 16));
+                tokens.add(r[1]);
+            }
+        }
+        sc.close();
+        int[] codeArray = new int[codes.size()];
+        for (int i = 0; i < codeArray.length; i++) {
+            codeArray[i] = codes.get(i);
+        }
+        return new TableFile(codeArray, tokens.toArray(new String[0]));
+    }
+
+    /**
+     * Maps the byte "code" to "token". If "code" was already mapped to another token, that token
+     * no longer encodes to "code". If "token" was already mapped to another code, it now encodes to "code".
+     */
+    public void put(int code, String token) {
+        String oldToken = decodeTable[code];
+        if (oldToken != null) {
+            TrieNode oldNode = findNode(oldToken);
+            if (oldNode != null && oldNode.code == code) {
+                oldNode.code = NO_CODE;
+            }
+        }
+        decodeTable[code] = token;
+        if (token.isEmpty()) {
+            return;
+        }
+        TrieNode node = root;
+        for (int i = 0; i < token.length(); i++) {
+            node = node.getOrAddChild(token.charAt(i));
+        }
+        node.code = code;
+    }
+
+    private TrieNode findNode(String token) {
+        TrieNode node = root;
+        for (int i = 0; i < token.length() && node != null; i++) {
+            node = node.child(token.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Returns the token for the given byte value, or null if it has none.
+     */
+    public String decode(int b) {
+        return decodeTable[b & 0xFF];
+    }
+
+    /**
+     * Returns the "\xHH" escape for a byte value that has no token.
+     */
+    public static String hexEscape(int b) {
+        return HEX_ESCAPES[b & 0xFF];
+    }
+
+    /**
+     * Returns the "\vHH" escape for a text variable.
+     */
+    public static String variableEscape(int b) {
+        return VARIABLE_ESCAPES[b & 0xFF];
+    }
+
+    /**
+     * Encodes "text" into a new array, of exactly the encoded length.
+     */
+    public byte[] encode(String text) {
+        byte[] buffer = new byte[maxEncodedLength(text)];
+        int length = encode(text, buffer, 0, buffer.length);
+        return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * Encodes "text" into "dest", starting at "offset" and writing no more than "maxLength" bytes.
+     * Characters that match no token are skipped.
+     *
+     * @return The number of bytes written.
+     */
+    public int encode(String text, byte[] dest, int offset, int maxLength) {
+        return encodeOrCount(text, dest, offset, maxLength);
+    }
+
+    /**
+     * Returns the length "text" would have once encoded, without encoding it anywhere.
+     */
+    public int encodedLength(String text) {
+        return encodeOrCount(text, null, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * An upper bound for the encoded length of "text"; no escape or token encodes to more bytes than it has chars.
+     */
+    public static int maxEncodedLength(String text) {
+        return text.length();
+    }
+
+    private int encodeOrCount(String text, byte[] dest, int offset, int maxLength) {
+        int written = 0;
+        int pos = 0;
+        int len = text.length();
+        while (pos < len && written < maxLength) {
+            char c = text.charAt(pos);
+            if (c == '\\' && pos + 3 < len) {
+                char next = text.charAt(pos + 1);
+                if (next == 'x') {
+                    written = emit(dest, offset, written, maxLength, parseHexByte(text, pos + 2));
+                    pos += 4;
+                    continue;
+                } else if (next == 'v' && variablePrefix != NO_CODE) {
+                    written = emit(dest, offset, written, maxLength, variablePrefix);
+                    written = emit(dest, offset, written, maxLength, parseHexByte(text, pos + 2));
+                    pos += 4;
+                    continue;
+                }
+            }
+
+            int matchCode = NO_CODE;
+            int matchEnd = pos;
+            TrieNode node = root;
+            for (int i = pos; i < len; i++) {
+                node = node.child(text.charAt(i));
+                if (node == null) {
+                    break;
+                }
+                if (node.code != NO_CODE) {
+                    matchCode = node.code;
+                    matchEnd = i + 1;
+                }
+            }
+            if (matchCode == NO_CODE) {
+                pos++;
+            } else {
+                written = emit(dest, offset, written, maxLength, matchCode);
+                pos = matchEnd;
+            }
+        }
+        return written;
+    }
+
+    private static int emit(byte[] dest, int offset, int written, int maxLength, int b) {
+        if (written >= maxLength) {
+            return written;
+        }
+        if (dest != null) {
+            dest[offset + written] = (byte) b;
+        }
+        return written + 1;
+    }
+
+    private static int parseHexByte(String text, int start) {
+        int hi = Character.digit(text.charAt(start), 16);
+        int lo = Character.digit(text.charAt(start + 1), 16);
+        if (hi < 0 || lo < 0) {
+            throw new NumberFormatException("Invalid hex escape in \"" + text + "\"");
+        }
+        return (hi << 4) | lo;
+    }
+
+}
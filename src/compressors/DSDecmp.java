@@ -42,6 +42,67 @@ public class DSDecmp {
         }
     }
 
+    /**
+     * Returns the length in bytes of the LZ10/LZ11 compressed data at the offset, header included.
+     * This walks the tokens like {@link #Decompress(byte[], int)} does, but only counts how much output
+     * each one would give, so nothing is decompressed. The length is where the token that completes the
+     * output ends; any padding after that is not counted.
+     * Returns -1 if the data at the offset is not LZ10/LZ11.
+     */
+    public static int lengthOfCompressed(byte[] data, int offset) {
+        int type = data[offset] & 0xFF;
+        if (type != 0x10 && type != 0x11) {
+            return -1;
+        }
+        int start = offset;
+        offset++;
+        int length = (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8) | ((data[offset + 2] & 0xFF) << 16);
+        offset += 3;
+        if (length == 0) {
+            length = FileFunctions.readFullIntBigEndian(data, offset);
+            offset += 4;
+        }
+
+        int curr_size = 0;
+        while (curr_size < length) {
+            int flags = data[offset++] & 0xFF;
+            for (int i = 0; i < 8 && curr_size < length; i++) {
+                if ((flags & (0x80 >> i)) == 0) {
+                    offset++;
+                    curr_size++;
+                    continue;
+                }
+                int b1 = data[offset] & 0xFF;
+                int len;
+                int disp;
+                if (type == 0x10) {
+                    len = (b1 >> 4) + 3;
+                    disp = ((b1 & 0x0F) << 8) | (data[offset + 1] & 0xFF);
+                    offset += 2;
+                } else if ((b1 >> 4) == 0) {
+                    int bt = data[offset + 1] & 0xFF;
+                    len = ((b1 << 4) | (bt >> 4)) + 0x11;
+                    disp = ((bt & 0x0F) << 8) | (data[offset + 2] & 0xFF);
+                    offset += 3;
+                } else if ((b1 >> 4) == 1) {
+                    int bt = data[offset + 1] & 0xFF;
+                    int b2 = data[offset + 2] & 0xFF;
+                    len = (((b1 & 0xF) << 12) | (bt << 4) | (b2 >> 4)) + 0x111;
+                    disp = ((b2 & 0x0F) << 8) | (data[offset + 3] & 0xFF);
+                    offset += 4;
+                } else {
+                    len = (b1 >> 4) + 1;
+                    disp = ((b1 & 0x0F) << 8) | (data[offset + 1] & 0xFF);
+                    offset += 2;
+                }
+                if (disp > curr_size)
+                    throw new ArrayIndexOutOfBoundsException("Cannot go back more than already written");
+                curr_size += len;
+            }
+        }
+        return offset - start;
+    }
+
     private static byte[] decompress10LZ(byte[] data, int offset) {
         offset++;
         int length = (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8) | ((data[offset + 2] & 0xFF) << 16);
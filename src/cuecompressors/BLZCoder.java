@@ -7,6 +7,8 @@ import java.nio.ByteOrder;
 import java.util.Arrays;
 
 import com.dabomstew.pkromio.FileFunctions;
+import com.dabomstew.pkromio.instrumentation.Instrumentation;
+import com.dabomstew.pkromio.instrumentation.Subsystem;
 
 /*----------------------------------------------------------------------------*/
 /*--  BLZCoder.java - Bottom LZ coding for Nintendo GBA/DS/3DS              --*/
@@ -158,9 +160,16 @@ public class BLZCoder {
 
     public byte[] BLZ_DecodePub(byte[] data, String reference) {
         if (reference.equals("GARC")) {
-            return LZSS_Decode(data);
+            try (Instrumentation.Timer timer = Instrumentation.time(Subsystem.COMPRESSION, "lzss.decode")) {
+                timer.bytes(data.length);
+                return LZSS_Decode(data);
+            }
         } else {
-            BLZResult result = BLZ_Decode(data);
+            BLZResult result;
+            try (Instrumentation.Timer timer = Instrumentation.time(Subsystem.COMPRESSION, "blz.decode")) {
+                timer.bytes(data.length);
+                result = BLZ_Decode(data);
+            }
             if (result != null) {
                 byte[] retbuf = new byte[result.length];
                 for (int i = 0; i < result.length; i++) {
@@ -412,13 +421,17 @@ public class BLZCoder {
         int mode = best ? BLZ_BEST : BLZ_NORMAL;
         this.arm9 = arm9;
         if (reference.equals("GARC")) {
-            return LZSS_Encode(data);
+            try (Instrumentation.Timer timer = Instrumentation.time(Subsystem.COMPRESSION, "lzss.encode")) {
+                timer.bytes(data.length);
+                return LZSS_Encode(data);
+            }
         } else {
-            System.out.printf("- encoding '%s' (memory)", reference);
-            long startTime = System.currentTimeMillis();
-            BLZResult result = BLZ_Encode(data, mode);
-            System.out.print(" - done, time=" + (System.currentTimeMillis() - startTime) + "ms");
-            System.out.print("\n");
+            BLZResult result;
+            try (Instrumentation.Timer timer = Instrumentation.time(Subsystem.COMPRESSION, "blz.encode")) {
+                timer.bytes(data.length);
+                result = BLZ_Encode(data, mode);
+            }
+            Instrumentation.trace(Subsystem.COMPRESSION, "encoded '%s' (memory)", reference);
             if (result != null) {
                 byte[] retbuf = new byte[result.length];
                 for (int i = 0; i < result.length; i++) {
@@ -30,15 +30,84 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.*;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class Launcher {
 
+    private static final String JAR_NAME = "UPR-FVX.jar";
+    private static final String CDS_ARCHIVE_NAME = "UPR-FVX.jsa";
+    // the first version whose JVM can dump a class-data sharing archive at exit
+    private static final int DYNAMIC_CDS_JAVA_VERSION = 13;
+
     private static JFrame frame;
     private static boolean logEnabled = false;
 
+    /**
+     * Builds the command that starts the randomizer, with the same Java the launcher runs on.<br>
+     * On Java 13 and up, the first run dumps the classes it loaded into a class-data sharing archive as it exits,
+     * and later runs map that archive in instead of loading and verifying the classes again, which makes startup
+     * noticeably quicker. The archive is remade whenever the jar is newer than it. Older Java versions get
+     * neither option, as they would refuse to start with them.
+     */
+    private static List<String> buildCommand() {
+        List<String> command = new ArrayList<>(Arrays.asList(javaExecutable(), "-Xmx4096M"));
+        if (javaVersion(System.getProperty("java.specification.version")) >= DYNAMIC_CDS_JAVA_VERSION) {
+            addCDSOptions(command);
+        }
+        command.addAll(Arrays.asList("-jar", "./" + JAR_NAME, "please-use-the-launcher"));
+        return command;
+    }
+
+    private static void addCDSOptions(List<String> command) {
+        File jar = new File(RootPath.path + JAR_NAME);
+        File archive = new File(RootPath.path + CDS_ARCHIVE_NAME);
+        if (archive.exists() && archive.lastModified() >= jar.lastModified()) {
+            command.add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+        } else {
+            if (archive.exists() && !archive.delete()) {
+                System.err.println("Could not delete outdated " + CDS_ARCHIVE_NAME);
+            }
+            command.add("-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath());
+        }
+    }
+
+    /**
+     * The java executable of the JVM running the launcher, so the version checked is the one started;
+     * or "java" from the path if it can't be found.
+     */
+    private static String javaExecutable() {
+        File bin = new File(System.getProperty("java.home"), "bin");
+        for (String name : new String[]{"java", "java.exe"}) {
+            File java = new File(bin, name);
+            if (java.isFile()) {
+                return java.getAbsolutePath();
+            }
+        }
+        return "java";
+    }
+
+    /**
+     * Turns a "java.specification.version" like "1.8" or "17" into the feature version, e.g. 8 or 17.
+     * Returns 0 if it can't be parsed.
+     */
+    private static int javaVersion(String specificationVersion) {
+        if (specificationVersion == null) {
+            return 0;
+        }
+        String version = specificationVersion.startsWith("1.") ? specificationVersion.substring(2)
+                : specificationVersion;
+        int end = 0;
+        while (end < version.length() && Character.isDigit(version.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? 0 : Integer.parseInt(version.substring(0, end));
+    }
+
     public static void main(String[] args) {
         try {
-            ProcessBuilder pb = new ProcessBuilder("java", "-Xmx4096M", "-jar", "./PokeRandoFVX.jar", "please-use-the-launcher");
+            ProcessBuilder pb = new ProcessBuilder(buildCommand());
             File log = new File(RootPath.path + "launcher-log.txt");
             if (!log.exists()) {
                 log.createNewFile();
@@ -0,0 +1,142 @@
+package test.com.dabomstew.pkrandom;
+
+import com.dabomstew.pkrandom.GameRandomizer;
+import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkrandom.StageCheckpoints;
+import com.dabomstew.pkrandom.StageProfiler;
+import com.dabomstew.pkrandom.log.LogFile;
+import com.dabomstew.pkrandom.seedsearch.SeedSearch;
+import com.dabomstew.pkromio.gamedata.EncounterArea;
+import com.dabomstew.pkromio.gamedata.Species;
+import com.dabomstew.pkromio.gamedata.Trainer;
+import com.dabomstew.pkromio.romhandlers.RomHandler;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import test.com.dabomstew.pkromio.romhandlers.RomHandlerTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StageCheckpointsTest extends RomHandlerTest {
+
+    private static final ResourceBundle BUNDLE = ResourceBundle.getBundle("com/dabomstew/pkrandom/gui/Bundle");
+    private static final long SEED = 123456789;
+
+    private static Settings randomSettings() {
+        Settings settings = new Settings();
+        settings.setAbilitiesMod(Settings.AbilitiesMod.RANDOMIZE);
+        settings.setStartersMod(Settings.StartersMod.COMPLETELY_RANDOM);
+        settings.setMovesetsMod(Settings.MovesetsMod.COMPLETELY_RANDOM);
+        settings.setTmsMod(Settings.TMsMod.RANDOM);
+        settings.setTmsHmsCompatibilityMod(Settings.TMsHMsCompatibilityMod.COMPLETELY_RANDOM);
+        settings.setRandomizeWildPokemon(true);
+        settings.setTrainersMod(Settings.TrainersMod.RANDOM);
+        return settings;
+    }
+
+    /**
+     * The starters, movesets, TM moves, wild Pokemon and trainer Pokemon, to compare the game data of different
+     * RomHandlers.
+     */
+    private static List<String> randomizedData(RomHandler romHandler) {
+        List<String> data = new ArrayList<>();
+        data.add(romHandler.getStarters().stream().map(Species::getName).collect(Collectors.joining(",")));
+        data.add(romHandler.getMovesLearnt().toString());
+        data.add(romHandler.getTMMoves().toString());
+        for (EncounterArea area : romHandler.getEncounters(true)) {
+            data.add(area.stream().map(enc -> enc.getSpecies().getName() + " " + enc.getLevel())
+                    .collect(Collectors.joining(",")));
+        }
+        for (Trainer tr : romHandler.getTrainers()) {
+            data.add(tr.getPokemon().stream().map(tp -> tp.getSpecies().getName() + " " + tp.getLevel())
+                    .collect(Collectors.joining(",")));
+        }
+        return data;
+    }
+
+    private static GameRandomizer.Results randomize(RomHandler romHandler, Settings settings,
+                                                    StageCheckpoints checkpoints, File outputDir) {
+        GameRandomizer randomizer = new GameRandomizer(settings, null, romHandler, BUNDLE, false);
+        randomizer.setCheckpoints(checkpoints);
+        File output = new File(outputDir, new File(romHandler.loadedFilename()).getName());
+        GameRandomizer.Results results = randomizer.randomize(output.getPath(), LogFile.NULL_LOG, SEED);
+        assertTrue(results.wasSaveSuccessful());
+        return results;
+    }
+
+    /**
+     * The stages whose results were restored from a checkpoint.
+     */
+    private static Set<String> restoredStages(GameRandomizer.Results results) {
+        Set<String> restored = new HashSet<>();
+        for (StageProfiler.StageProfile stage : results.getStageProfiles()) {
+            if (stage.getName().endsWith("FromCheckpoint")) {
+                restored.add(stage.getName().substring(0, stage.getName().length() - "FromCheckpoint".length()));
+            }
+        }
+        return restored;
+    }
+
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void resumedRunGivesSameResultsAsFullRun(String romName) throws IOException {
+        loadROM(romName);
+        Supplier<RomHandler> fresh = SeedSearch.romFileFactory(new File(romHandler.loadedFilename()));
+        File outputDir = Files.createTempDirectory("checkpoints").toFile();
+        Settings settings = randomSettings();
+        StageCheckpoints checkpoints = new StageCheckpoints();
+
+        RomHandler full = fresh.get();
+        GameRandomizer.Results fullResults = randomize(full, settings, null, outputDir);
+        RomHandler recording = fresh.get();
+        randomize(recording, settings, checkpoints, outputDir);
+        RomHandler resumed = fresh.get();
+        GameRandomizer.Results resumedResults = randomize(resumed, settings, checkpoints, outputDir);
+
+        assertTrue(restoredStages(resumedResults).contains(GameRandomizer.STAGE_WILD_POKEMON));
+        assertEquals(fullResults.getCheckValue(), resumedResults.getCheckValue());
+        assertEquals(randomizedData(full), randomizedData(resumed));
+
+        full.unloadRom();
+        recording.unloadRom();
+        resumed.unloadRom();
+        romHandler.unloadRom();
+    }
+
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void runResumesFromDeepestCheckpointBeforeChangedSettings(String romName) throws IOException {
+        loadROM(romName);
+        Supplier<RomHandler> fresh = SeedSearch.romFileFactory(new File(romHandler.loadedFilename()));
+        File outputDir = Files.createTempDirectory("checkpoints").toFile();
+        StageCheckpoints checkpoints = new StageCheckpoints();
+        randomize(fresh.get(), randomSettings(), checkpoints, outputDir);
+
+        Settings otherTrainers = randomSettings();
+        otherTrainers.setTrainersMod(Settings.TrainersMod.KEEP_THEMED);
+        Set<String> restored = restoredStages(randomize(fresh.get(), otherTrainers, checkpoints, outputDir));
+        assertTrue(restored.contains(GameRandomizer.STAGE_WILD_POKEMON));
+
+        Settings otherTMCompatibility = randomSettings();
+        otherTMCompatibility.setTmsHmsCompatibilityMod(Settings.TMsHMsCompatibilityMod.FULL);
+        restored = restoredStages(randomize(fresh.get(), otherTMCompatibility, checkpoints, outputDir));
+        assertTrue(restored.contains("randomizeMovesets"));
+        assertFalse(restored.contains("randomizeTMHMCompatibility"));
+        assertFalse(restored.contains(GameRandomizer.STAGE_WILD_POKEMON));
+
+        Settings otherAbilities = randomSettings();
+        otherAbilities.setAbilitiesMod(Settings.AbilitiesMod.UNCHANGED);
+        restored = restoredStages(randomize(fresh.get(), otherAbilities, checkpoints, outputDir));
+        assertTrue(restored.contains("randomizeMoveData"));
+        assertFalse(restored.contains(GameRandomizer.STAGE_SPECIES_ABILITIES));
+
+        romHandler.unloadRom();
+    }
+
+}
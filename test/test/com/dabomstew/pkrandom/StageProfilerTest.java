@@ -0,0 +1,71 @@
+package test.com.dabomstew.pkrandom;
+
+import com.dabomstew.pkrandom.StageProfiler;
+import com.dabomstew.pkrandom.random.RandomSource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StageProfilerTest {
+
+    @Test
+    public void stagesAreRecordedInOrderWithTheirRngCalls() {
+        RandomSource randomSource = new RandomSource();
+        randomSource.seed(29);
+        StageProfiler profiler = new StageProfiler(randomSource);
+        profiler.run("first", () -> {
+            for (int i = 0; i < 5; i++) {
+                randomSource.getNonCosmetic().nextInt(10);
+            }
+        });
+        profiler.run("second", () -> randomSource.getCosmetic().nextBoolean());
+        profiler.run("third", () -> {
+        });
+
+        List<StageProfiler.StageProfile> stages = profiler.getStages();
+        assertEquals(3, stages.size());
+        assertEquals("first", stages.get(0).getName());
+        assertEquals(5, stages.get(0).getRngCalls());
+        assertEquals("second", stages.get(1).getName());
+        assertEquals(1, stages.get(1).getRngCalls());
+        assertEquals(0, stages.get(2).getRngCalls());
+        for (StageProfiler.StageProfile stage : stages) {
+            assertTrue(stage.getWallNanos() >= 0);
+        }
+    }
+
+    @Test
+    public void failedStageIsStillRecorded() {
+        StageProfiler profiler = new StageProfiler(new RandomSource());
+        assertThrows(IOException.class, () -> profiler.call("save", () -> {
+            throw new IOException("disk full");
+        }));
+        assertEquals(1, profiler.getStages().size());
+        assertEquals("save", profiler.getStages().get(0).getName());
+    }
+
+    @Test
+    public void writeJsonEscapesStageNames() {
+        StageProfiler profiler = new StageProfiler(new RandomSource());
+        profiler.run("a \"quoted\" \\ stage", () -> {
+        });
+        profiler.run("plain", () -> {
+        });
+        StringWriter sw = new StringWriter();
+        try (PrintWriter pw = new PrintWriter(sw)) {
+            StageProfiler.writeJson(pw, profiler.getStages());
+        }
+        String json = sw.toString();
+        assertTrue(json.startsWith("["));
+        assertTrue(json.endsWith("]"));
+        assertTrue(json.contains("{\"stage\": \"a \\\"quoted\\\" \\\\ stage\", \"wallNanos\": "));
+        assertTrue(json.contains("{\"stage\": \"plain\", \"wallNanos\": "));
+        assertEquals(1, json.split("},").length - 1);
+    }
+
+}
@@ -0,0 +1,64 @@
+package test.com.dabomstew.pkrandom.analytics;
+
+import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkrandom.analytics.DistributionAnalysis;
+import com.dabomstew.pkrandom.analytics.Histogram;
+import com.dabomstew.pkrandom.seedsearch.SeedSearch;
+import com.dabomstew.pkromio.romhandlers.RomHandler;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import test.com.dabomstew.pkromio.romhandlers.RomHandlerTest;
+
+import java.io.File;
+import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistributionAnalysisTest extends RomHandlerTest {
+
+    private static final ResourceBundle BUNDLE = ResourceBundle.getBundle("com/dabomstew/pkrandom/gui/Bundle");
+
+    private static Settings randomSettings() {
+        Settings settings = new Settings();
+        settings.setRandomizeWildPokemon(true);
+        settings.setTrainersMod(Settings.TrainersMod.RANDOM);
+        return settings;
+    }
+
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void countsDoNotDependOnThreadsOrReusedRomHandlers(String romName) throws InterruptedException {
+        loadROM(romName);
+        Supplier<RomHandler> romFile = SeedSearch.romFileFactory(new File(romHandler.loadedFilename()));
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<RomHandler> counted = () -> {
+            loads.incrementAndGet();
+            return romFile.get();
+        };
+
+        DistributionAnalysis.Results oneThread = new DistributionAnalysis(randomSettings(), counted, BUNDLE)
+                .run(10, 6, 1, done -> {});
+        assertEquals(1, loads.get());
+        assertEquals(6, oneThread.getAnalyzed() + oneThread.getFailed());
+
+        DistributionAnalysis.Results twoThreads = new DistributionAnalysis(randomSettings(), counted, BUNDLE)
+                .run(10, 6, 2, done -> {});
+        assertTrue(loads.get() <= 3, loads.get() + " loads");
+        assertEquals(oneThread.getAnalyzed(), twoThreads.getAnalyzed());
+
+        for (String category : DistributionAnalysis.CATEGORIES) {
+            Histogram a = oneThread.getHistogram(category);
+            Histogram b = twoThreads.getHistogram(category);
+            assertEquals(a.getTotal(), b.getTotal(), category);
+            for (String key : a.keysByCount()) {
+                assertEquals(a.getCount(key), b.getCount(key), category + " " + key);
+            }
+        }
+        assertTrue(oneThread.getHistogram(DistributionAnalysis.TRAINER_SPECIES).getTotal() > 0);
+        assertTrue(oneThread.getHistogram(DistributionAnalysis.WILD_SPECIES).getTotal() > 0);
+        romHandler.unloadRom();
+    }
+
+}
@@ -0,0 +1,47 @@
+package test.com.dabomstew.pkrandom.analytics;
+
+import com.dabomstew.pkrandom.analytics.Histogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HistogramTest {
+
+    @Test
+    public void countsAndTotalAddUp() {
+        Histogram histogram = new Histogram();
+        histogram.add("Pidgey");
+        histogram.add("Rattata");
+        histogram.add("Pidgey");
+        histogram.add("Zubat", 5);
+        assertEquals(2, histogram.getCount("Pidgey"));
+        assertEquals(0, histogram.getCount("Mew"));
+        assertEquals(8, histogram.getTotal());
+        assertEquals(3, histogram.size());
+    }
+
+    @Test
+    public void addAllMergesCounts() {
+        Histogram a = new Histogram();
+        a.add("Pidgey");
+        a.add("Rattata");
+        Histogram b = new Histogram();
+        b.add("Pidgey", 3);
+        a.addAll(b);
+        assertEquals(4, a.getCount("Pidgey"));
+        assertEquals(1, a.getCount("Rattata"));
+        assertEquals(5, a.getTotal());
+    }
+
+    @Test
+    public void keysByCountBreaksTiesAlphabetically() {
+        Histogram histogram = new Histogram();
+        histogram.add("Zubat");
+        histogram.add("Rattata", 3);
+        histogram.add("Abra");
+        assertEquals(Arrays.asList("Rattata", "Abra", "Zubat"), histogram.keysByCount());
+    }
+
+}
@@ -0,0 +1,109 @@
+package test.com.dabomstew.pkrandom.analytics;
+
+import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkrandom.analytics.MatrixRunner;
+import com.dabomstew.pkromio.RootPath;
+import com.dabomstew.pkromio.gamedata.ExpCurve;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import test.com.dabomstew.pkromio.romhandlers.RomHandlerTest;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ResourceBundle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MatrixRunnerTest extends RomHandlerTest {
+
+    @Test
+    public void percentileUsesNearestRank() {
+        long[] sorted = new long[100];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i + 1;
+        }
+        assertEquals(50, MatrixRunner.percentile(sorted, 50));
+        assertEquals(95, MatrixRunner.percentile(sorted, 95));
+        assertEquals(100, MatrixRunner.percentile(sorted, 100));
+        assertEquals(1, MatrixRunner.percentile(sorted, 0));
+    }
+
+    @Test
+    public void percentileOfFewValues() {
+        long[] sorted = new long[]{10, 20, 30};
+        assertEquals(20, MatrixRunner.percentile(sorted, 50));
+        assertEquals(30, MatrixRunner.percentile(sorted, 95));
+        assertEquals(0, MatrixRunner.percentile(new long[0], 95));
+    }
+
+    @Test
+    public void findPresetsOnlyTakesRnqsFilesSortedByName() throws IOException {
+        File dir = Files.createTempDirectory("presets").toFile();
+        try {
+            for (String name : Arrays.asList("b.rnqs", "a.RNQS", "notes.txt", "c.rnqs.bak")) {
+                assertTrue(new File(dir, name).createNewFile());
+            }
+            List<File> presets = MatrixRunner.findPresets(dir);
+            assertEquals(2, presets.size());
+            assertEquals("a.RNQS", presets.get(0).getName());
+            assertEquals("b.rnqs", presets.get(1).getName());
+        } finally {
+            for (File file : dir.listFiles()) {
+                file.delete();
+            }
+            dir.delete();
+        }
+    }
+
+    private static int tmpFolderCount() {
+        File[] tmpFolders = new File(RootPath.path).listFiles(f -> f.isDirectory() && f.getName().startsWith("tmp_"));
+        return tmpFolders == null ? 0 : tmpFolders.length;
+    }
+
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void runRandomizesAndSavesEverySeed(String romName) throws IOException, InterruptedException {
+        loadROM(romName);
+        File romFile = new File(romHandler.loadedFilename());
+        romHandler.unloadRom();
+
+        File dir = Files.createTempDirectory("presets").toFile();
+        File preset = new File(dir, "default.rnqs");
+        Settings settings = new Settings();
+        settings.setRomName("Test");
+        settings.setSelectedEXPCurve(ExpCurve.MEDIUM_FAST);
+        settings.setRandomizeWildPokemon(true);
+        try (FileOutputStream fos = new FileOutputStream(preset)) {
+            settings.write(fos);
+        }
+
+        int tmpFoldersBefore = tmpFolderCount();
+        MatrixRunner runner = new MatrixRunner(Collections.singletonList(romFile), Collections.singletonList(preset),
+                null, ResourceBundle.getBundle("com/dabomstew/pkrandom/gui/Bundle"));
+        MatrixRunner.Results results = runner.run(1, 3, 2, done -> {});
+
+        assertEquals(3, results.getRuns().size());
+        assertTrue(results.getFailures().isEmpty(), () -> results.getFailures().get(0).getException().toString());
+        for (MatrixRunner.Run run : results.getRuns()) {
+            assertTrue(run.getRandomizeNanos() > 0);
+            assertTrue(run.getSaveNanos() > 0);
+        }
+        StringWriter csv = new StringWriter();
+        results.writeSummaryCsv(csv);
+        // the header, the ROM/preset row and the "*" row
+        assertEquals(3, csv.toString().split("\n").length);
+        assertEquals(tmpFoldersBefore, tmpFolderCount());
+
+        preset.delete();
+        dir.delete();
+    }
+
+}
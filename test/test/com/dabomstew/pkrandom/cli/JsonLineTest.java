@@ -0,0 +1,71 @@
+package test.com.dabomstew.pkrandom.cli;
+
+import com.dabomstew.pkrandom.cli.JsonLine;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonLineTest {
+
+    @Test
+    public void parseReadsAllValueTypes() {
+        JsonLine json = JsonLine.parse(" {\"id\": \"abc\", \"seed\": -123, \"log\": true, \"ratio\": 1.5e2,"
+                + " \"output\": null} ");
+        assertEquals("abc", json.getString("id"));
+        assertEquals(Long.valueOf(-123), json.getLong("seed"));
+        assertTrue(json.getBoolean("log"));
+        assertEquals("150.0", json.getString("ratio"));
+        assertNull(json.getString("output"));
+        assertNull(json.getLong("missing"));
+        assertFalse(json.getBoolean("missing"));
+    }
+
+    @Test
+    public void parseReadsNumbersAndBooleansGivenAsStrings() {
+        JsonLine json = JsonLine.parse("{\"seed\":\"42\",\"log\":\"true\"}");
+        assertEquals(Long.valueOf(42), json.getLong("seed"));
+        assertTrue(json.getBoolean("log"));
+    }
+
+    @Test
+    public void parseUnescapesStrings() {
+        JsonLine json = JsonLine.parse("{\"path\": \"C:\\\\roms\\\\\\\"x\\\".nds\", \"text\": \"a\\nb\\u00e9\\t\"}");
+        assertEquals("C:\\roms\\\"x\".nds", json.getString("path"));
+        assertEquals("a\nb\u00e9\t", json.getString("text"));
+    }
+
+    @Test
+    public void emptyObjectHasNoValues() {
+        JsonLine json = JsonLine.parse("{}");
+        assertNull(json.getString("id"));
+        assertEquals("{}", json.toString());
+    }
+
+    @Test
+    public void toStringWritesOneLineInPutOrder() {
+        String line = new JsonLine().put("id", "a\"b").put("ok", false).put("seed", 7L).put("log", null)
+                .put("error", "x\ny").toString();
+        assertEquals("{\"id\":\"a\\\"b\",\"ok\":false,\"seed\":7,\"log\":null,\"error\":\"x\\ny\"}", line);
+        assertFalse(line.contains("\n"));
+    }
+
+    @Test
+    public void toStringParsesBackToTheSameValues() {
+        JsonLine original = new JsonLine().put("id", "tab\there \\ \"quoted\"").put("seed", Long.MIN_VALUE)
+                .put("ok", true);
+        JsonLine parsed = JsonLine.parse(original.toString());
+        assertEquals(original.getString("id"), parsed.getString("id"));
+        assertEquals(original.getLong("seed"), parsed.getLong("seed"));
+        assertTrue(parsed.getBoolean("ok"));
+        assertEquals(original.toString(), parsed.toString());
+    }
+
+    @Test
+    public void malformedLinesAreRejected() {
+        for (String line : new String[]{"", "[]", "{\"id\"}", "{\"id\": }", "{\"id\": \"abc\"", "{\"a\": 1 \"b\": 2}",
+                "{\"id\": \"unterminated}"}) {
+            assertThrows(IllegalArgumentException.class, () -> JsonLine.parse(line), line);
+        }
+    }
+
+}
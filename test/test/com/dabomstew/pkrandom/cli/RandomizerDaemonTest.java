@@ -0,0 +1,90 @@
+package test.com.dabomstew.pkrandom.cli;
+
+import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkrandom.Version;
+import com.dabomstew.pkrandom.cli.JsonLine;
+import com.dabomstew.pkrandom.cli.RandomizerDaemon;
+import com.dabomstew.pkromio.gamedata.ExpCurve;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RandomizerDaemonTest {
+
+    private static Map<String, JsonLine> runJobs(Map<String, File> baseRoms, String... jobs)
+            throws IOException, InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8.name());
+        RandomizerDaemon daemon = new RandomizerDaemon(baseRoms, 2, null, null, out);
+        daemon.run(new BufferedReader(new StringReader(String.join("\n", jobs))));
+
+        Map<String, JsonLine> responses = new HashMap<>();
+        for (String line : bytes.toString(StandardCharsets.UTF_8.name()).split("\n")) {
+            JsonLine response = JsonLine.parse(line);
+            assertNull(responses.put(response.getString("id"), response), "two responses to " + line);
+        }
+        return responses;
+    }
+
+    private static String settingsString() {
+        Settings settings = new Settings();
+        settings.setRomName("Test");
+        settings.setSelectedEXPCurve(ExpCurve.MEDIUM_FAST);
+        return String.format("%03d", Version.VERSION) + settings.toString();
+    }
+
+    @Test
+    public void everyJobGetsOneResponseWithItsId() throws IOException, InterruptedException {
+        Map<String, File> baseRoms = Collections.singletonMap("missing", new File("does/not/exist.gba"));
+        List<String> jobs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            jobs.add("{\"id\": \"job" + i + "\", \"rom\": \"unknown\", \"output\": \"out.gba\"}");
+            jobs.add("");
+        }
+        Map<String, JsonLine> responses = runJobs(baseRoms, jobs.toArray(new String[0]));
+        assertEquals(10, responses.size());
+        for (int i = 0; i < 10; i++) {
+            JsonLine response = responses.get("job" + i);
+            assertFalse(response.getBoolean("ok"));
+            assertEquals("Unknown base ROM \"unknown\"", response.getString("error"));
+        }
+    }
+
+    @Test
+    public void badJobsAreReportedAsFailures() throws IOException, InterruptedException {
+        Map<String, File> baseRoms = Collections.singletonMap("missing", new File("does/not/exist.gba"));
+        Map<String, JsonLine> responses = runJobs(baseRoms,
+                "{\"id\": \"noOutput\", \"rom\": \"missing\"}",
+                "{\"id\": \"noSettings\", \"rom\": \"missing\", \"output\": \"out.gba\"}",
+                "{\"id\": \"oldSettings\", \"rom\": \"missing\", \"output\": \"out.gba\", \"settings\": \"100abc\"}",
+                "{\"id\": \"noRom\", \"rom\": \"missing\", \"output\": \"out.gba\", \"settings\": \""
+                        + settingsString() + "\", \"seed\": 5}",
+                "not json");
+
+        assertEquals("No output path", responses.get("noOutput").getString("error"));
+        assertTrue(responses.get("noSettings").getString("error").contains("No settings string"));
+        assertTrue(responses.get("oldSettings").getString("error").contains("version 100"));
+        assertTrue(responses.get("noRom").getString("error").contains("Could not load"));
+        // a line that isn't JSON has no id to answer with
+        JsonLine malformed = responses.get(null);
+        assertFalse(malformed.getBoolean("ok"));
+        assertTrue(malformed.getString("error").contains("IllegalArgumentException"));
+        for (JsonLine response : responses.values()) {
+            assertFalse(response.getBoolean("ok"));
+            assertNull(response.getString("output"));
+        }
+    }
+
+    @Test
+    public void warmUpReportsBaseRomsThatDoNotLoad() throws InterruptedException {
+        RandomizerDaemon daemon = new RandomizerDaemon(
+                Collections.singletonMap("missing", new File("does/not/exist.gba")), 1, null, null,
+                new PrintStream(new ByteArrayOutputStream()));
+        assertFalse(daemon.warmUp());
+    }
+
+}
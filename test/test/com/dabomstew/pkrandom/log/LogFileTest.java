@@ -0,0 +1,81 @@
+package test.com.dabomstew.pkrandom.log;
+
+import com.dabomstew.pkrandom.log.LogFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogFileTest {
+
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private static String readWithoutBom(File file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        assertArrayEquals(UTF8_BOM, Arrays.copyOf(bytes, 3));
+        return new String(bytes, 3, bytes.length - 3, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void directLogIsWrittenToTargetWithBom() throws IOException {
+        File target = File.createTempFile("logfile", ".log");
+        try {
+            try (LogFile log = LogFile.to(target)) {
+                log.getPrintStream().println("Pokémon");
+                log.getPrintStream().print("end");
+            }
+            assertEquals("Pokémon" + System.lineSeparator() + "end", readWithoutBom(target));
+        } finally {
+            target.delete();
+        }
+    }
+
+    @Test
+    public void spooledLogIsMovedOnKeep() throws IOException {
+        File dir = Files.createTempDirectory("logfile").toFile();
+        File target = new File(dir, "kept.log");
+        try {
+            LogFile log = LogFile.spooled();
+            log.getPrintStream().print("kept");
+            log.keepAs(target);
+            assertEquals("kept", readWithoutBom(target));
+        } finally {
+            target.delete();
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void discardDeletesSpooledButNotDirectLogs() throws IOException {
+        File dir = Files.createTempDirectory("logfile").toFile();
+        File target = new File(dir, "direct.log");
+        try {
+            LogFile direct = LogFile.to(target);
+            direct.getPrintStream().print("x");
+            direct.discard();
+            assertTrue(target.isFile());
+
+            int before = countTempLogs();
+            LogFile spooled = LogFile.spooled();
+            spooled.getPrintStream().print("x");
+            assertEquals(before + 1, countTempLogs());
+            spooled.discard();
+            assertEquals(before, countTempLogs());
+        } finally {
+            target.delete();
+            dir.delete();
+        }
+    }
+
+    private static int countTempLogs() {
+        File[] files = new File(System.getProperty("java.io.tmpdir"))
+                .listFiles((d, name) -> name.startsWith("randomization") && name.endsWith(".log"));
+        return files == null ? 0 : files.length;
+    }
+
+}
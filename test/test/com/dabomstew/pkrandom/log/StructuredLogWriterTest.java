@@ -0,0 +1,47 @@
+package test.com.dabomstew.pkrandom.log;
+
+import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkrandom.log.StructuredLogWriter;
+import com.dabomstew.pkrandom.random.RandomSource;
+import com.dabomstew.pkromio.gamedata.Species;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import test.com.dabomstew.pkromio.romhandlers.RomHandlerTest;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StructuredLogWriterTest extends RomHandlerTest {
+
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void everyLineIsOneTypedRecord(String romName) throws IOException {
+        loadROM(romName);
+        RandomSource randomSource = new RandomSource();
+        randomSource.seed(30);
+        StringWriter out = new StringWriter();
+        new StructuredLogWriter(randomSource, new Settings(), romHandler).write(out);
+
+        String[] lines = out.toString().split("\n");
+        assertTrue(lines[0].startsWith("{\"type\":\"header\",\"game\":"));
+        assertTrue(lines[0].contains("\"seed\":30"));
+        int speciesLines = 0;
+        for (String line : lines) {
+            assertTrue(line.startsWith("{\"type\":\""), line);
+            assertTrue(line.endsWith("}"), line);
+            if (line.startsWith("{\"type\":\"species\"")) {
+                speciesLines++;
+            }
+        }
+        int expectedSpecies = 0;
+        for (Species pk : romHandler.getSpeciesInclFormes()) {
+            if (pk != null && !pk.isActuallyCosmetic()) {
+                expectedSpecies++;
+            }
+        }
+        assertEquals(expectedSpecies, speciesLines);
+    }
+
+}
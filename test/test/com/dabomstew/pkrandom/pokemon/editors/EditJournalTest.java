@@ -0,0 +1,79 @@
+package test.com.dabomstew.pkrandom.pokemon.editors;
+
+import com.dabomstew.pkrandom.pokemon.editors.EditJournal;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EditJournalTest {
+
+    private static class Counter {
+        int value;
+
+        Counter(int value) {
+            this.value = value;
+        }
+    }
+
+    @Test
+    public void restoreAllUndoesToTheFirstRecordedState() {
+        EditJournal<Counter, Integer> journal = new EditJournal<>(c -> c.value, (v, c) -> c.value = v);
+        Counter a = new Counter(1);
+        Counter b = new Counter(2);
+
+        journal.record(a);
+        a.value = 10;
+        journal.record(a);
+        a.value = 20;
+        journal.record(b);
+        b.value = 30;
+
+        assertEquals(1, (int) journal.getOriginal(a));
+        journal.restoreAll();
+        assertEquals(1, a.value);
+        assertEquals(2, b.value);
+        assertTrue(journal.isEmpty());
+    }
+
+    @Test
+    public void commitKeepsChanges() {
+        EditJournal<Counter, Integer> journal = new EditJournal<>(c -> c.value, (v, c) -> c.value = v);
+        Counter a = new Counter(1);
+
+        journal.record(a);
+        a.value = 5;
+        journal.commit();
+        assertNull(journal.getOriginal(a));
+
+        journal.record(a);
+        a.value = 6;
+        journal.restoreAll();
+        assertEquals(5, a.value);
+    }
+
+    @Test
+    public void onlyRecordedObjectsAreSnapshotted() {
+        AtomicInteger snapshots = new AtomicInteger();
+        EditJournal<Counter, Integer> journal = new EditJournal<>(c -> {
+            snapshots.incrementAndGet();
+            return c.value;
+        }, (v, c) -> c.value = v);
+        Counter[] counters = new Counter[1000];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new Counter(i);
+        }
+
+        for (int i = 0; i < 5; i++) {
+            journal.record(counters[7]);
+            counters[7].value++;
+        }
+        journal.restoreAll();
+        assertEquals(1, snapshots.get());
+        assertEquals(7, counters[7].value);
+    }
+
+}
@@ -0,0 +1,44 @@
+package test.com.dabomstew.pkrandom.random;
+
+import com.dabomstew.pkrandom.random.RandomSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RandomSourceTest {
+
+    @Test
+    public void sequenceIsThatOfJavaUtilRandom() {
+        RandomSource randomSource = new RandomSource();
+        randomSource.seed(12345);
+        Random expected = new Random(12345);
+        Random actual = randomSource.getNonCosmetic();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(expected.nextInt(100), actual.nextInt(100));
+            assertEquals(expected.nextLong(), actual.nextLong());
+            assertEquals(expected.nextDouble(), actual.nextDouble());
+            assertEquals(expected.nextGaussian(), actual.nextGaussian());
+        }
+    }
+
+    @Test
+    public void restoreStateRepeatsSequenceAndCallCounts() {
+        RandomSource randomSource = new RandomSource();
+        randomSource.seed(678);
+        randomSource.getNonCosmetic().nextInt(10);
+        randomSource.getCosmetic().nextGaussian();
+
+        RandomSource.State state = randomSource.saveState();
+        int calls = randomSource.callsSinceSeed();
+        int nonCosmetic = randomSource.getNonCosmetic().nextInt();
+        double cosmetic = randomSource.getCosmetic().nextGaussian();
+
+        randomSource.restoreState(state);
+        assertEquals(calls, randomSource.callsSinceSeed());
+        assertEquals(nonCosmetic, randomSource.getNonCosmetic().nextInt());
+        assertEquals(cosmetic, randomSource.getCosmetic().nextGaussian());
+    }
+
+}
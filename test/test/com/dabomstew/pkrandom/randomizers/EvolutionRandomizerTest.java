@@ -15,6 +15,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -474,6 +475,63 @@ public class EvolutionRandomizerTest extends RandomizerTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void randomGivesSameEvolutionsForSameSeed(String romName) {
+        activateRomHandler(romName);
+
+        Settings s = strictestSettings();
+        new SpeciesBaseStatRandomizer(romHandler, s, RND).standardizeEXPCurves();
+        new EvolutionRandomizer(romHandler, s, new Random(12345)).randomizeEvolutions();
+        String first = evoGraph();
+
+        romHandler.reset();
+        romHandler.prepare();
+        new SpeciesBaseStatRandomizer(romHandler, s, RND).standardizeEXPCurves();
+        new EvolutionRandomizer(romHandler, s, new Random(12345)).randomizeEvolutions();
+        String second = evoGraph();
+
+        assertEquals(first, second);
+    }
+
+    /**
+     * With all the restricting settings on at once, the old restart-everything approach could take many seconds
+     * per seed; the backtracking search should find evolutions well within that.
+     */
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void randomStrictestSettingsSolvesQuickly(String romName) {
+        activateRomHandler(romName);
+        final int runs = 20;
+        final long maxNanos = 2_000_000_000L;
+
+        Settings s = strictestSettings();
+        for (int i = 0; i < runs; i++) {
+            romHandler.reset();
+            romHandler.prepare();
+            new SpeciesBaseStatRandomizer(romHandler, s, RND).standardizeEXPCurves();
+            long start = System.nanoTime();
+            new EvolutionRandomizer(romHandler, s, new Random(i)).randomizeEvolutions();
+            long nanos = System.nanoTime() - start;
+            assertTrue(nanos < maxNanos, "seed " + i + " took " + nanos / 1_000_000 + " ms");
+            maxThreeEvoStagesCheck();
+        }
+    }
+
+    private Settings strictestSettings() {
+        Settings s = new Settings();
+        s.setExpCurveMod(false, false, true);
+        s.setSelectedEXPCurve(ExpCurve.MEDIUM_FAST);
+        s.setStandardizeEXPCurves(true);
+        s.setEvolutionsMod(false, true, false);
+        s.setEvosSameTyping(true);
+        s.setEvosMaxThreeStages(true);
+        s.setEvosForceChange(true);
+        s.setEvosForceGrowth(true);
+        s.setEvosNoConvergence(true);
+        return s;
+    }
+
     /**
      * Returns a graph in the dot format, which can be seen using e.g.
      * <a href="https://dreampuf.github.io/GraphvizOnline">GraphvizOnline</a>
@@ -0,0 +1,82 @@
+package test.com.dabomstew.pkrandom.randomizers;
+
+import com.dabomstew.pkrandom.exceptions.RandomizationException;
+import com.dabomstew.pkrandom.randomizers.SpeciesAbilityRandomizer.AbilityPool;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpeciesAbilityRandomizerTest {
+
+    @Test
+    public void pickNeverGivesBannedOrAlreadySetAbilities() {
+        List<Integer> banned = Arrays.asList(2, 5, 6, 9);
+        AbilityPool pool = new AbilityPool(10, banned, Collections.emptyMap());
+        assertEquals(6, pool.size());
+        Random random = new Random(49);
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            int ability = pool.pick(random, 1, 10);
+            assertFalse(banned.contains(ability));
+            assertNotEquals(1, ability);
+            assertNotEquals(10, ability);
+            assertTrue(ability >= 1 && ability <= 10);
+            seen.add(ability);
+        }
+        assertEquals(new HashSet<>(Arrays.asList(3, 4, 7, 8)), seen);
+    }
+
+    @Test
+    public void pickIsEven() {
+        AbilityPool pool = new AbilityPool(8, Arrays.asList(3, 4), Collections.emptyMap());
+        Random random = new Random(1);
+        int[] counts = new int[9];
+        int picks = 60000;
+        for (int i = 0; i < picks; i++) {
+            counts[pool.pick(random, 0, 6)]++;
+        }
+        for (int ability : new int[]{1, 2, 5, 7, 8}) {
+            assertEquals(picks / 5.0, counts[ability], picks / 5.0 * 0.05, "ability " + ability);
+        }
+    }
+
+    @Test
+    public void pickIsReproducible() {
+        AbilityPool pool = new AbilityPool(50, Arrays.asList(4, 8, 15, 16, 23, 42), Collections.emptyMap());
+        Random a = new Random(7);
+        Random b = new Random(7);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(pool.pick(a, i % 50), pool.pick(b, i % 50));
+        }
+    }
+
+    @Test
+    public void pickReplacesAbilityWithUnsetVariation() {
+        Map<Integer, List<Integer>> variations = new HashMap<>();
+        variations.put(1, Arrays.asList(1, 5, 6));
+        AbilityPool pool = new AbilityPool(3, Arrays.asList(5, 6), variations);
+        Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            int ability = pool.pick(random, 5);
+            assertTrue(ability == 1 || ability == 6 || ability == 2 || ability == 3);
+        }
+        // all of 1's variations are set, so it can't be picked
+        for (int i = 0; i < 500; i++) {
+            int ability = pool.pick(random, 6, 5, 1);
+            assertTrue(ability == 2 || ability == 3);
+        }
+    }
+
+    @Test
+    public void pickThrowsInsteadOfSpinningWhenNothingIsLeft() {
+        AbilityPool pool = new AbilityPool(3, Arrays.asList(1, 2), Collections.emptyMap());
+        assertEquals(3, pool.pick(new Random(1)));
+        assertThrows(RandomizationException.class, () -> pool.pick(new Random(1), 3));
+
+        AbilityPool empty = new AbilityPool(3, Arrays.asList(1, 2, 3), Collections.emptyMap());
+        assertThrows(RandomizationException.class, () -> empty.pick(new Random(1)));
+    }
+
+}
@@ -0,0 +1,182 @@
+package test.com.dabomstew.pkrandom.randomizers;
+
+import com.dabomstew.pkrandom.randomizers.SpeciesMovesetRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpeciesMovesetRandomizerTest {
+
+    private static double weightedAverage(double[] powers, int[] weights) {
+        double sum = 0;
+        int count = 0;
+        for (int i = 0; i < powers.length; i++) {
+            sum += powers[i] * weights[i];
+            count += weights[i];
+        }
+        return sum / count;
+    }
+
+    /**
+     * The balancing as it was done before the weights, by adding copies of the moves to the type's move list.
+     * Moves are given by their index into "powers".
+     */
+    private static int[] balanceTypePowersByCopies(double[] powers, double minAvg, double maxAvg, Random random) {
+        List<Integer> typeMoves = new ArrayList<>();
+        double avgPowerForType = 0;
+        for (int i = 0; i < powers.length; i++) {
+            typeMoves.add(i);
+            avgPowerForType += powers[i];
+        }
+        avgPowerForType /= powers.length;
+        List<Integer> alreadyPicked = new ArrayList<>();
+        int iterLoops = 0;
+        while (avgPowerForType < minAvg && iterLoops < 10000) {
+            final double finalAvgPowerForType = avgPowerForType;
+            List<Integer> strongerThanAvgTypeMoves = typeMoves.stream()
+                    .filter(mv -> powers[mv] > finalAvgPowerForType)
+                    .collect(Collectors.toList());
+            if (strongerThanAvgTypeMoves.isEmpty()) break;
+            if (alreadyPicked.containsAll(strongerThanAvgTypeMoves)) {
+                alreadyPicked = new ArrayList<>();
+            } else {
+                strongerThanAvgTypeMoves.removeAll(alreadyPicked);
+            }
+            int extraMove = strongerThanAvgTypeMoves.get(random.nextInt(strongerThanAvgTypeMoves.size()));
+            avgPowerForType = (avgPowerForType * typeMoves.size() + powers[extraMove]) / (typeMoves.size() + 1);
+            typeMoves.add(extraMove);
+            alreadyPicked.add(extraMove);
+            iterLoops++;
+        }
+        iterLoops = 0;
+        while (avgPowerForType > maxAvg && iterLoops < 10000) {
+            final double finalAvgPowerForType = avgPowerForType;
+            List<Integer> weakerThanAvgTypeMoves = typeMoves.stream()
+                    .filter(mv -> powers[mv] < finalAvgPowerForType)
+                    .collect(Collectors.toList());
+            if (weakerThanAvgTypeMoves.isEmpty()) break;
+            if (alreadyPicked.containsAll(weakerThanAvgTypeMoves)) {
+                alreadyPicked = new ArrayList<>();
+            } else {
+                weakerThanAvgTypeMoves.removeAll(alreadyPicked);
+            }
+            int extraMove = weakerThanAvgTypeMoves.get(random.nextInt(weakerThanAvgTypeMoves.size()));
+            avgPowerForType = (avgPowerForType * typeMoves.size() + powers[extraMove]) / (typeMoves.size() + 1);
+            typeMoves.add(extraMove);
+            alreadyPicked.add(extraMove);
+            iterLoops++;
+        }
+        int[] weights = new int[powers.length];
+        for (int mv : typeMoves) {
+            weights[mv]++;
+        }
+        return weights;
+    }
+
+    private interface TypePowerBalancer {
+        int[] balance(double[] powers, double minAvg, double maxAvg, Random random);
+    }
+
+    /**
+     * Counts how often each outcome comes up. Moves with no power are all alike, so only their total weight counts.
+     */
+    private static Map<String, Integer> outcomeCounts(TypePowerBalancer balancer, double[] powers, double minAvg,
+                                                      double maxAvg, Random random, int runs) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int run = 0; run < runs; run++) {
+            int[] weights = balancer.balance(powers, minAvg, maxAvg, random);
+            StringBuilder outcome = new StringBuilder();
+            int noPowerWeight = 0;
+            for (int i = 0; i < powers.length; i++) {
+                if (powers[i] == 0) {
+                    noPowerWeight += weights[i];
+                } else {
+                    outcome.append(weights[i]).append(',');
+                }
+            }
+            counts.merge(outcome.append(noPowerWeight).toString(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static double totalVariationDistance(Map<String, Integer> a, Map<String, Integer> b, int runs) {
+        Set<String> outcomes = new HashSet<>(a.keySet());
+        outcomes.addAll(b.keySet());
+        double distance = 0;
+        for (String outcome : outcomes) {
+            distance += Math.abs(a.getOrDefault(outcome, 0) - b.getOrDefault(outcome, 0));
+        }
+        return distance / 2 / runs;
+    }
+
+    @Test
+    public void balanceTypePowersLeavesBalancedTypesAlone() {
+        double[] powers = {0, 40, 80, 120};
+        int[] weights = SpeciesMovesetRandomizer.balanceTypePowers(powers, 45, 75, new Random(1));
+        assertArrayEquals(new int[]{1, 1, 1, 1}, weights);
+    }
+
+    @Test
+    public void balanceTypePowersRaisesWeakTypesIntoRange() {
+        double[] powers = {0, 0, 0, 0, 0, 0, 20, 40, 90, 150};
+        Random random = new Random(2);
+        for (int i = 0; i < 100; i++) {
+            int[] weights = SpeciesMovesetRandomizer.balanceTypePowers(powers, 60, 100, random);
+            double avg = weightedAverage(powers, weights);
+            assertTrue(avg >= 60 && avg <= 100, "average " + avg + " out of range");
+            assertEquals(1, weights[0]);
+        }
+    }
+
+    @Test
+    public void balanceTypePowersLowersStrongTypesIntoRange() {
+        double[] powers = {250, 200, 150, 0, 10};
+        Random random = new Random(3);
+        for (int i = 0; i < 100; i++) {
+            int[] weights = SpeciesMovesetRandomizer.balanceTypePowers(powers, 40, 66, random);
+            double avg = weightedAverage(powers, weights);
+            assertTrue(avg >= 40 && avg <= 66, "average " + avg + " out of range");
+            assertEquals(1, weights[0]);
+        }
+    }
+
+    @Test
+    public void balanceTypePowersIsBoundedWhenRangeIsOutOfReach() {
+        double[] powers = {0, 0, 0, 0, 0, 0, 0, 0, 0, 35};
+        int[] weights = SpeciesMovesetRandomizer.balanceTypePowers(powers, 60, 100, new Random(4));
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        assertTrue(total <= powers.length + 10000);
+        assertTrue(weights[9] > 1000);
+    }
+
+    @Test
+    public void balanceTypePowersGivesSameOutcomesAsAddingCopies() {
+        double[][] powers = {
+                // raised over many rounds
+                {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 10, 25, 40, 60, 80, 120},
+                // lowered
+                {250, 220, 200, 150, 90, 60, 0, 10},
+                // raised past the maximum, then lowered with the round left unfinished by raising
+                {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 12, 200},
+                {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 8, 11, 14, 300}};
+        double[][] ranges = {{50, 83}, {40, 66}, {10.7, 17.8}, {12.4, 20.6}};
+        int runs = 50000;
+        for (int i = 0; i < powers.length; i++) {
+            Map<String, Integer> byCopies = outcomeCounts(SpeciesMovesetRandomizerTest::balanceTypePowersByCopies,
+                    powers[i], ranges[i][0], ranges[i][1], new Random(5), runs);
+            Map<String, Integer> byWeights = outcomeCounts(SpeciesMovesetRandomizer::balanceTypePowers,
+                    powers[i], ranges[i][0], ranges[i][1], new Random(6), runs);
+            double distance = totalVariationDistance(byCopies, byWeights, runs);
+            assertTrue(distance < 0.025, "case " + i + ": distance " + distance);
+        }
+    }
+
+}
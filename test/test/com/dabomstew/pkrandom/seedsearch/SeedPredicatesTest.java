@@ -0,0 +1,127 @@
+package test.com.dabomstew.pkrandom.seedsearch;
+
+import com.dabomstew.pkrandom.GameRandomizer;
+import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkrandom.seedsearch.SeedPredicate;
+import com.dabomstew.pkrandom.seedsearch.SeedPredicates;
+import com.dabomstew.pkromio.constants.SpeciesIDs;
+import com.dabomstew.pkromio.gamedata.*;
+import com.dabomstew.pkromio.romhandlers.RomHandler;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeedPredicatesTest {
+
+    /**
+     * A RomHandler which only answers the getters the predicates use.
+     */
+    private static RomHandler romHandler(List<Species> starters, List<EncounterArea> encounters,
+                                         List<Trainer> trainers) {
+        return (RomHandler) Proxy.newProxyInstance(RomHandler.class.getClassLoader(),
+                new Class<?>[]{RomHandler.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getStarters":
+                            return starters;
+                        case "getSortedEncounters":
+                            return encounters;
+                        case "getTrainers":
+                            return trainers;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static Species species(int number, Type primary, Type secondary) {
+        Species species = new Species(number);
+        species.setPrimaryType(primary);
+        species.setSecondaryType(secondary);
+        return species;
+    }
+
+    private static EncounterArea area(String name, Species... species) {
+        EncounterArea area = new EncounterArea();
+        area.setDisplayName(name);
+        for (Species sp : species) {
+            Encounter enc = new Encounter();
+            enc.setSpecies(sp);
+            area.add(enc);
+        }
+        return area;
+    }
+
+    private static Trainer trainer(String tag, Species... species) {
+        Trainer tr = new Trainer();
+        tr.tag = tag;
+        for (Species sp : species) {
+            TrainerPokemon tp = new TrainerPokemon();
+            tp.setSpecies(sp);
+            tr.pokemon.add(tp);
+        }
+        return tr;
+    }
+
+    @Test
+    public void startersHaveDistinctTypes() {
+        Species grass = species(1, Type.GRASS, Type.POISON);
+        Species fire = species(4, Type.FIRE, null);
+        Species water = species(7, Type.WATER, null);
+        Species poisonWater = species(72, Type.WATER, Type.POISON);
+        SeedPredicate predicate = SeedPredicates.startersHaveDistinctTypes();
+        assertEquals(GameRandomizer.STAGE_STARTERS, predicate.getLastStage());
+        assertTrue(predicate.test(romHandler(Arrays.asList(grass, fire, water), null, null), new Settings()));
+        assertFalse(predicate.test(romHandler(Arrays.asList(grass, fire, poisonWater), null, null),
+                new Settings()));
+    }
+
+    @Test
+    public void encounterAreaHasTypeOnlyLooksAtMatchingAreas() {
+        Species pidgey = species(16, Type.NORMAL, Type.FLYING);
+        Species geodude = species(74, Type.ROCK, Type.GROUND);
+        List<EncounterArea> encounters = Arrays.asList(area("Route 1 Grass", pidgey), area("Route 2 Grass"),
+                area(null, geodude), area("Mt. Moon Cave", geodude));
+        RomHandler romHandler = romHandler(null, encounters, null);
+
+        SeedPredicate flyingOnRoute1 = SeedPredicates.encounterAreaHasType("Route 1", Type.FLYING);
+        assertEquals(GameRandomizer.STAGE_WILD_POKEMON, flyingOnRoute1.getLastStage());
+        assertTrue(flyingOnRoute1.test(romHandler, new Settings()));
+        assertFalse(SeedPredicates.encounterAreaHasType("Route 1", Type.ROCK).test(romHandler, new Settings()));
+        assertFalse(SeedPredicates.encounterAreaHasType("Route 2", Type.FLYING).test(romHandler, new Settings()));
+        assertTrue(SeedPredicates.encounterAreaHasType("Mt. Moon", Type.GROUND).test(romHandler, new Settings()));
+    }
+
+    @Test
+    public void noLegendariesForTrainersTaggedMatchesTagsByPrefix() {
+        Species mewtwo = species(SpeciesIDs.mewtwo, Type.PSYCHIC, null);
+        Species onix = species(SpeciesIDs.onix, Type.ROCK, Type.GROUND);
+        List<Trainer> trainers = Arrays.asList(trainer("GYM1-LEADER", onix), trainer(null, mewtwo),
+                trainer("GYM2", mewtwo));
+        RomHandler romHandler = romHandler(null, null, trainers);
+
+        assertTrue(SeedPredicates.noLegendariesForTrainersTagged("GYM1").test(romHandler, new Settings()));
+        assertFalse(SeedPredicates.noLegendariesForTrainersTagged("GYM1", "GYM2").test(romHandler,
+                new Settings()));
+        assertTrue(SeedPredicates.noLegendariesForTrainersTagged("GYM3").test(romHandler, new Settings()));
+    }
+
+    @Test
+    public void combinedPredicatesNeedTheLaterStage() {
+        SeedPredicate yes = SeedPredicate.of(GameRandomizer.STAGE_STARTERS, (romHandler, settings) -> true);
+        SeedPredicate no = SeedPredicate.of(GameRandomizer.STAGE_TRAINER_POKEMON, (romHandler, settings) -> false);
+        SeedPredicate whole = SeedPredicate.of(null, (romHandler, settings) -> true);
+
+        assertFalse(yes.and(no).test(null, null));
+        assertTrue(yes.or(no).test(null, null));
+        assertTrue(no.negate().test(null, null));
+        assertEquals(GameRandomizer.STAGE_TRAINER_POKEMON, yes.and(no).getLastStage());
+        assertEquals(GameRandomizer.STAGE_TRAINER_POKEMON, no.or(yes).getLastStage());
+        assertEquals(GameRandomizer.STAGE_STARTERS, yes.negate().getLastStage());
+        assertNull(yes.and(whole).getLastStage());
+        assertNull(SeedPredicate.laterStage(null, GameRandomizer.STAGE_STARTERS));
+    }
+
+}
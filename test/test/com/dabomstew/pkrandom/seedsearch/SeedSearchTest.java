@@ -0,0 +1,108 @@
+package test.com.dabomstew.pkrandom.seedsearch;
+
+import com.dabomstew.pkrandom.GameDataSnapshot;
+import com.dabomstew.pkrandom.GameRandomizer;
+import com.dabomstew.pkrandom.Settings;
+import com.dabomstew.pkrandom.seedsearch.SeedPredicate;
+import com.dabomstew.pkrandom.seedsearch.SeedPredicates;
+import com.dabomstew.pkrandom.seedsearch.SeedSearch;
+import com.dabomstew.pkromio.gamedata.EncounterArea;
+import com.dabomstew.pkromio.gamedata.Species;
+import com.dabomstew.pkromio.gamedata.Trainer;
+import com.dabomstew.pkromio.romhandlers.RomHandler;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import test.com.dabomstew.pkromio.romhandlers.RomHandlerTest;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeedSearchTest extends RomHandlerTest {
+
+    private static final ResourceBundle BUNDLE = ResourceBundle.getBundle("com/dabomstew/pkrandom/gui/Bundle");
+
+    private static Settings randomSettings() {
+        Settings settings = new Settings();
+        settings.setStartersMod(Settings.StartersMod.COMPLETELY_RANDOM);
+        settings.setRandomizeWildPokemon(true);
+        settings.setTrainersMod(Settings.TrainersMod.RANDOM);
+        return settings;
+    }
+
+    /**
+     * The starters, wild Pokemon and trainer Pokemon, by name, to compare the game data of different RomHandlers.
+     */
+    private static List<String> randomizedData(RomHandler romHandler) {
+        List<String> data = new ArrayList<>();
+        data.add(romHandler.getStarters().stream().map(Species::getName).collect(Collectors.joining(",")));
+        for (EncounterArea area : romHandler.getEncounters(true)) {
+            data.add(area.stream().map(enc -> enc.getSpecies().getName() + " " + enc.getLevel())
+                    .collect(Collectors.joining(",")));
+        }
+        for (Trainer tr : romHandler.getTrainers()) {
+            data.add(tr.getPokemon().stream().map(tp -> tp.getSpecies().getName() + " " + tp.getLevel())
+                    .collect(Collectors.joining(",")));
+        }
+        return data;
+    }
+
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void restoredRomHandlerRandomizesLikeAFreshOne(String romName) {
+        loadROM(romName);
+        Settings settings = randomSettings();
+        Supplier<RomHandler> fresh = SeedSearch.romFileFactory(new File(romHandler.loadedFilename()));
+
+        RomHandler reused = fresh.get();
+        GameDataSnapshot loaded = GameDataSnapshot.beforeRandomization(reused);
+        new GameRandomizer(settings, null, reused, BUNDLE, false)
+                .randomizeThrough(1, GameDataSnapshot.UNDONE_THROUGH_STAGE);
+        loaded.restore(reused);
+        new GameRandomizer(settings, null, reused, BUNDLE, false)
+                .randomizeThrough(2, GameDataSnapshot.UNDONE_THROUGH_STAGE);
+
+        RomHandler other = fresh.get();
+        new GameRandomizer(settings, null, other, BUNDLE, false)
+                .randomizeThrough(2, GameDataSnapshot.UNDONE_THROUGH_STAGE);
+        assertEquals(randomizedData(other), randomizedData(reused));
+
+        reused.unloadRom();
+        other.unloadRom();
+        romHandler.unloadRom();
+    }
+
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void searchLoadsOncePerThreadAndMatchesTestingEachSeedFresh(String romName) throws InterruptedException {
+        loadROM(romName);
+        Supplier<RomHandler> romFile = SeedSearch.romFileFactory(new File(romHandler.loadedFilename()));
+        AtomicInteger loads = new AtomicInteger();
+        SeedSearch search = new SeedSearch(randomSettings(), () -> {
+            loads.incrementAndGet();
+            return romFile.get();
+        }, BUNDLE);
+        SeedPredicate predicate = SeedPredicates.startersHaveDistinctTypes()
+                .and(SeedPredicates.noLegendariesForTrainersTagged("GYM"));
+
+        Set<Long> matches = Collections.synchronizedSet(new HashSet<>());
+        SeedSearch.Results results = search.search(100, 20, 2, predicate, matches::add);
+        assertEquals(20, results.getTested());
+        assertEquals(matches.size(), results.getMatched());
+        assertTrue(loads.get() <= 2, loads.get() + " loads");
+
+        Set<Long> expected = new HashSet<>();
+        for (long seed = 100; seed < 120; seed++) {
+            if (search.testSeed(seed, predicate)) {
+                expected.add(seed);
+            }
+        }
+        assertEquals(expected, matches);
+        romHandler.unloadRom();
+    }
+
+}
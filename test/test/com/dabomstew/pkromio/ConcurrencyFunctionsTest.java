@@ -0,0 +1,114 @@
+package test.com.dabomstew.pkromio;
+
+import com.dabomstew.pkromio.ConcurrencyFunctions;
+import com.dabomstew.pkromio.exceptions.RomIOException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyFunctionsTest {
+
+    @Test
+    public void invokeAllAndUnwrapKeepsTaskOrder() throws InterruptedException {
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int n = i;
+            tasks.add(() -> n * n);
+        }
+        List<Integer> results = ConcurrencyFunctions.invokeAllAndUnwrap(tasks, 4);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i * i, (int) results.get(i));
+        }
+    }
+
+    @Test
+    public void invokeAllAndUnwrapRethrowsUncheckedExceptions() {
+        List<Callable<Void>> tasks = Arrays.asList(() -> null, () -> {
+            throw new IllegalStateException("failed");
+        });
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> ConcurrencyFunctions.invokeAllAndUnwrap(tasks, 2));
+        assertEquals("failed", e.getMessage());
+    }
+
+    @Test
+    public void invokeAllAndUnwrapWrapsCheckedExceptions() {
+        IOException thrown = new IOException("failed");
+        List<Callable<Void>> tasks = Arrays.asList(() -> {
+            throw thrown;
+        });
+        RomIOException e = assertThrows(RomIOException.class,
+                () -> ConcurrencyFunctions.invokeAllAndUnwrap(tasks, 1));
+        assertSame(thrown, e.getCause());
+    }
+
+    @Test
+    public void getAndUnwrapUnwrapsCompletionExceptions() {
+        CompletableFuture<Long> future = CompletableFuture.supplyAsync(() -> {
+            throw new IllegalArgumentException("failed");
+        });
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyFunctions.getAndUnwrap(future));
+    }
+
+    @Test
+    public void runWorkersDoesEachJobOnce() throws InterruptedException {
+        List<CollectingWorker> workers = ConcurrencyFunctions.runWorkers(100, 4, () -> false, CollectingWorker::new);
+        assertEquals(4, workers.size());
+        TreeSet<Long> all = new TreeSet<>();
+        int total = 0;
+        for (CollectingWorker worker : workers) {
+            assertTrue(worker.closed);
+            all.addAll(worker.jobs);
+            total += worker.jobs.size();
+        }
+        assertEquals(100, total);
+        assertEquals(100, all.size());
+        assertEquals(0, (long) all.first());
+        assertEquals(99, (long) all.last());
+    }
+
+    @Test
+    public void runWorkersUsesNoMoreThreadsThanJobs() throws InterruptedException {
+        assertEquals(2, ConcurrencyFunctions.runWorkers(2, 8, () -> false, CollectingWorker::new).size());
+        assertEquals(1, ConcurrencyFunctions.runWorkers(0, 8, () -> false, CollectingWorker::new).size());
+    }
+
+    @Test
+    public void runWorkersStopsWhenCancelled() throws InterruptedException {
+        AtomicInteger started = new AtomicInteger();
+        List<CollectingWorker> workers = ConcurrencyFunctions.runWorkers(100, 1,
+                () -> started.get() >= 10, () -> new CollectingWorker() {
+                    @Override
+                    public void run(long job) {
+                        started.incrementAndGet();
+                        super.run(job);
+                    }
+                });
+        assertEquals(10, workers.get(0).jobs.size());
+    }
+
+    private static class CollectingWorker implements ConcurrencyFunctions.Worker {
+        final List<Long> jobs = new ArrayList<>();
+        boolean closed;
+
+        @Override
+        public void run(long job) {
+            jobs.add(job);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package test.com.dabomstew.pkromio;
+
+import com.dabomstew.pkromio.FileFunctions;
+import com.dabomstew.pkromio.RootPath;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileFunctionsTest {
+
+    @Test
+    public void everyTmpFolderOfTheSameRomIsNew() throws IOException {
+        String oldRootPath = RootPath.path;
+        File root = Files.createTempDirectory("filefunctions").toFile();
+        RootPath.path = root.getPath() + File.separator;
+        try {
+            String a = FileFunctions.createTmpFolder("roms/Pokemon - Black (USA).nds");
+            String b = FileFunctions.createTmpFolder("roms/Pokemon - Black (USA).nds");
+            assertNotNull(a);
+            assertNotNull(b);
+            assertNotEquals(a, b);
+            assertTrue(a.endsWith(File.separator));
+            assertTrue(new File(a).getName().startsWith("tmp_PokemonBlackUSA_"));
+            assertEquals(root, new File(a).getParentFile());
+            assertEquals(0, new File(b).list().length);
+        } finally {
+            RootPath.path = oldRootPath;
+            FileFunctions.deleteRecursively(root);
+        }
+    }
+
+    @Test
+    public void deleteRecursivelyDeletesNestedFolders() throws IOException {
+        File root = Files.createTempDirectory("filefunctions").toFile();
+        File nested = new File(root, "a/b");
+        assertTrue(nested.mkdirs());
+        FileFunctions.writeBytesToFile(new File(nested, "c.bin").getPath(), new byte[]{1, 2, 3});
+        FileFunctions.writeBytesToFile(new File(root, "d.bin").getPath(), new byte[]{4});
+        assertTrue(FileFunctions.deleteRecursively(root));
+        assertFalse(root.exists());
+        assertTrue(FileFunctions.deleteRecursively(root));
+    }
+
+    @Test
+    public void replaceFileAtomicallyReplacesContentsAndLeavesNoTempFile() throws IOException {
+        File root = Files.createTempDirectory("filefunctions").toFile();
+        File target = new File(root, "target.bin");
+        FileFunctions.replaceFileAtomically(target, new byte[]{1, 2, 3});
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(target.toPath()));
+        FileFunctions.replaceFileAtomically(target, new byte[]{4});
+        assertArrayEquals(new byte[]{4}, Files.readAllBytes(target.toPath()));
+        assertArrayEquals(new String[]{"target.bin"}, root.list());
+        FileFunctions.deleteRecursively(root);
+    }
+
+}
@@ -0,0 +1,29 @@
+package test.com.dabomstew.pkromio;
+
+import com.dabomstew.pkromio.JsonFunctions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class JsonFunctionsTest {
+
+    @Test
+    public void quoteLeavesPlainTextAsIs() {
+        assertEquals("\"Pikachu & Eevee\"", JsonFunctions.quote("Pikachu & Eevee"));
+        assertEquals("\"\"", JsonFunctions.quote(""));
+    }
+
+    @Test
+    public void quoteEscapesQuotesBackslashesAndControlCharacters() {
+        assertEquals("\"a\\\"b\\\\c\"", JsonFunctions.quote("a\"b\\c"));
+        assertEquals("\"\\n\\r\\t\\u0001\\u001f\"", JsonFunctions.quote("\n\r\t\u0001\u001f"));
+    }
+
+    @Test
+    public void appendQuotedAppends() {
+        StringBuilder sb = new StringBuilder("{");
+        JsonFunctions.appendQuoted(sb, "k");
+        assertEquals("{\"k\"", sb.toString());
+    }
+
+}
@@ -0,0 +1,116 @@
+package test.com.dabomstew.pkromio;
+
+import com.dabomstew.pkromio.FileFunctions;
+import com.dabomstew.pkromio.RomChecksums;
+import com.dabomstew.pkromio.exceptions.RomIOException;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RomChecksumsTest {
+
+    private static File writeRom(File dir, byte[] data) throws IOException {
+        File rom = new File(dir, "rom.bin");
+        try (FileOutputStream fos = new FileOutputStream(rom)) {
+            fos.write(data);
+        }
+        return rom;
+    }
+
+    private static byte[] randomData(int length) {
+        byte[] data = new byte[length];
+        new Random(47).nextBytes(data);
+        return data;
+    }
+
+    private static void waitForCache(File cacheFile) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!cacheFile.isFile() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(cacheFile.isFile());
+    }
+
+    private static Map<String, Callable<Long>> rangeTasks(File rom) {
+        Map<String, Callable<Long>> tasks = new LinkedHashMap<>();
+        tasks.put("a", () -> RomChecksums.rangeCRC32(rom, 0, 0x100));
+        tasks.put("b", () -> RomChecksums.rangeCRC32(rom, 0x100, 0x30000));
+        return tasks;
+    }
+
+    @Test
+    public void rangeCRC32MatchesCRC32OfRange() throws IOException {
+        File dir = Files.createTempDirectory("romchecksums").toFile();
+        byte[] data = randomData(0x40000);
+        File rom = writeRom(dir, data);
+        // longer than the buffer, to read it in several chunks
+        assertEquals(FileFunctions.getCRC32(Arrays.copyOfRange(data, 0x123, 0x123 + 0x25000)),
+                RomChecksums.rangeCRC32(rom, 0x123, 0x25000));
+        assertEquals(FileFunctions.getCRC32(new byte[0]), RomChecksums.rangeCRC32(rom, 0x10, 0));
+    }
+
+    @Test
+    public void checksumsAreTakenFromCacheWhenRomIsUnchanged() throws Exception {
+        File dir = Files.createTempDirectory("romchecksums").toFile();
+        byte[] data = randomData(0x40000);
+        File rom = writeRom(dir, data);
+        File cacheFile = new File(dir, "cache");
+        List<File> romFiles = Collections.singletonList(rom);
+
+        RomChecksums computed = RomChecksums.start(cacheFile, "test", romFiles, rangeTasks(rom));
+        assertEquals(FileFunctions.getCRC32(Arrays.copyOfRange(data, 0, 0x100)), computed.get("a"));
+        assertEquals(FileFunctions.getCRC32(Arrays.copyOfRange(data, 0x100, 0x30100)), computed.get("b"));
+        waitForCache(cacheFile);
+
+        Map<String, Callable<Long>> failing = new LinkedHashMap<>();
+        failing.put("a", () -> { throw new IOException("should have been cached"); });
+        failing.put("b", () -> { throw new IOException("should have been cached"); });
+        RomChecksums cached = RomChecksums.start(cacheFile, "test", romFiles, failing);
+        assertEquals(computed.get("a"), cached.get("a"));
+        assertEquals(computed.get("b"), cached.get("b"));
+    }
+
+    @Test
+    public void checksumsAreComputedAgainWhenRomOrTagChanges() throws Exception {
+        File dir = Files.createTempDirectory("romchecksums").toFile();
+        byte[] data = randomData(0x40000);
+        File rom = writeRom(dir, data);
+        File cacheFile = new File(dir, "cache");
+        List<File> romFiles = Collections.singletonList(rom);
+
+        RomChecksums.start(cacheFile, "test", romFiles, rangeTasks(rom)).get("a");
+        waitForCache(cacheFile);
+
+        Map<String, Callable<Long>> constant = new LinkedHashMap<>();
+        constant.put("a", () -> 1234L);
+        assertEquals(1234L, RomChecksums.start(cacheFile, "other", romFiles, constant).get("a"));
+
+        data[0]++;
+        writeRom(dir, data);
+        assertEquals(1234L, RomChecksums.start(cacheFile, "test", romFiles, constant).get("a"));
+    }
+
+    @Test
+    public void failedChecksumIsReportedByGet() throws IOException {
+        File dir = Files.createTempDirectory("romchecksums").toFile();
+        File rom = writeRom(dir, randomData(0x1000));
+        Map<String, Callable<Long>> tasks = new LinkedHashMap<>();
+        tasks.put("a", () -> { throw new IOException("broken"); });
+        RomChecksums checksums = RomChecksums.start(new File(dir, "cache"), "test",
+                Collections.singletonList(rom), tasks);
+        assertThrows(RomIOException.class, () -> checksums.get("a"));
+    }
+
+}
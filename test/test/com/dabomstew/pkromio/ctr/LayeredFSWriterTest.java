@@ -0,0 +1,147 @@
+package test.com.dabomstew.pkromio.ctr;
+
+import com.dabomstew.pkromio.ctr.LayeredFSWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LayeredFSWriterTest {
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static LayeredFSWriter save(File dir, String... pathsAndContents) throws IOException {
+        LayeredFSWriter writer = new LayeredFSWriter(dir);
+        for (int i = 0; i < pathsAndContents.length; i += 2) {
+            writer.write(pathsAndContents[i], bytes(pathsAndContents[i + 1]));
+        }
+        writer.finish();
+        return writer;
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    @Test
+    public void repeatedSaveWritesNothing() throws IOException {
+        File dir = Files.createTempDirectory("layeredfs").toFile();
+        try {
+            LayeredFSWriter first = save(dir, "code.bin", "code", "romfs/a/0/1/2", "garc");
+            assertEquals(2, first.getWritten());
+            long modified = new File(dir, "code.bin").lastModified();
+
+            LayeredFSWriter second = save(dir, "code.bin", "code", "romfs/a/0/1/2", "garc");
+            assertEquals(0, second.getWritten());
+            assertEquals(2, second.getUnchanged());
+            assertEquals(modified, new File(dir, "code.bin").lastModified());
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    public void onlyChangedFilesAreWrittenAndStaleFilesDeleted() throws IOException {
+        File dir = Files.createTempDirectory("layeredfs").toFile();
+        try {
+            save(dir, "code.bin", "code", "romfs/a", "one", "romfs/b", "two");
+            LayeredFSWriter second = save(dir, "code.bin", "code", "romfs/a", "uno");
+            assertEquals(1, second.getWritten());
+            assertEquals(1, second.getUnchanged());
+            assertEquals(1, second.getDeleted());
+            assertArrayEquals(bytes("uno"), Files.readAllBytes(new File(dir, "romfs/a").toPath()));
+            assertFalse(new File(dir, "romfs/b").exists());
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    public void filesWithoutManifestAreComparedOnDisk() throws IOException {
+        File dir = Files.createTempDirectory("layeredfs").toFile();
+        try {
+            save(dir, "code.bin", "code", "romfs/a", "one");
+            assertTrue(new File(dir, LayeredFSWriter.MANIFEST_NAME).delete());
+            LayeredFSWriter second = save(dir, "code.bin", "code", "romfs/a", "two");
+            assertEquals(1, second.getWritten());
+            assertEquals(1, second.getUnchanged());
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    public void filesChangedOutsideAreWrittenAgain() throws IOException {
+        File dir = Files.createTempDirectory("layeredfs").toFile();
+        try {
+            save(dir, "romfs/a", "one");
+            Files.write(new File(dir, "romfs/a").toPath(), bytes("something else"));
+            LayeredFSWriter second = save(dir, "romfs/a", "one");
+            assertEquals(1, second.getWritten());
+            assertArrayEquals(bytes("one"), Files.readAllBytes(new File(dir, "romfs/a").toPath()));
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    public void sameLengthChangesOutsideAreWrittenAgain() throws IOException {
+        File dir = Files.createTempDirectory("layeredfs").toFile();
+        try {
+            save(dir, "romfs/a", "one");
+            File file = new File(dir, "romfs/a");
+            long modified = file.lastModified();
+            Files.write(file.toPath(), bytes("two"));
+            assertTrue(file.setLastModified(modified - 10000));
+            LayeredFSWriter second = save(dir, "romfs/a", "one");
+            assertEquals(1, second.getWritten());
+            assertArrayEquals(bytes("one"), Files.readAllBytes(file.toPath()));
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    public void unfinishedSaveLeavesNoManifest() throws IOException {
+        File dir = Files.createTempDirectory("layeredfs").toFile();
+        try {
+            save(dir, "romfs/a", "one");
+            File manifest = new File(dir, LayeredFSWriter.MANIFEST_NAME);
+            assertTrue(manifest.isFile());
+            new LayeredFSWriter(dir).write("romfs/a", bytes("two"));
+            assertFalse(manifest.exists());
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Test
+    public void directoriesLeftEmptyAreDeleted() throws IOException {
+        File dir = Files.createTempDirectory("layeredfs").toFile();
+        try {
+            save(dir, "code.bin", "code", "romfs/a/0/1", "one", "romfs/b/0", "two");
+            LayeredFSWriter second = save(dir, "code.bin", "code", "romfs/b/0", "two");
+            assertEquals(1, second.getDeleted());
+            assertFalse(new File(dir, "romfs/a").exists());
+            assertTrue(new File(dir, "romfs/b/0").isFile());
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+}
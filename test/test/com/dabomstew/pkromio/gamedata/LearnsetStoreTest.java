@@ -0,0 +1,133 @@
+package test.com.dabomstew.pkromio.gamedata;
+
+import com.dabomstew.pkromio.RomFunctions;
+import com.dabomstew.pkromio.gamedata.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LearnsetStoreTest {
+
+    private static Map<Integer, List<MoveLearnt>> randomMovesets(Random random) {
+        Map<Integer, List<MoveLearnt>> movesets = new TreeMap<>();
+        for (int species = 1; species <= 200; species++) {
+            if (random.nextInt(10) == 0) {
+                continue; // leave some gaps
+            }
+            List<MoveLearnt> moveset = new ArrayList<>();
+            int level = 0;
+            for (int i = random.nextInt(25); i > 0; i--) {
+                level += random.nextInt(5);
+                moveset.add(new MoveLearnt(random.nextInt(900) + 1, level));
+            }
+            movesets.put(species, moveset);
+        }
+        return movesets;
+    }
+
+    @Test
+    public void learnsetStoreRoundTrips() {
+        Map<Integer, List<MoveLearnt>> movesets = randomMovesets(new Random(37));
+        assertEquals(movesets, LearnsetStore.of(movesets).toMap());
+    }
+
+    @Test
+    public void learnsetStoreGivesSameMovesAtLevelAsMap() {
+        Map<Integer, List<MoveLearnt>> movesets = randomMovesets(new Random(38));
+        LearnsetStore store = LearnsetStore.of(movesets);
+        for (int species : movesets.keySet()) {
+            for (int level = 1; level <= 100; level += 7) {
+                assertArrayEquals(RomFunctions.getMovesAtLevel(species, movesets, level),
+                        RomFunctions.getMovesAtLevel(species, store, level));
+            }
+        }
+    }
+
+    @Test
+    public void eggMoveStoreRoundTrips() {
+        Map<Integer, List<Integer>> eggMoves = new TreeMap<>();
+        eggMoves.put(1, Arrays.asList(5, 8, 13));
+        eggMoves.put(4, Collections.emptyList());
+        eggMoves.put(7, Collections.singletonList(600));
+        EggMoveStore store = EggMoveStore.of(eggMoves);
+        assertEquals(eggMoves, store.toMap());
+        assertTrue(store.hasEggMoves(4));
+        assertFalse(store.hasEggMoves(2));
+        assertEquals(0, store.size(100));
+    }
+
+    @Test
+    public void compatibilityStoreMatchesFlags() {
+        Random random = new Random(39);
+        Map<Species, boolean[]> compat = new TreeMap<>();
+        for (int number = 1; number <= 50; number++) {
+            boolean[] flags = new boolean[131];
+            for (int i = 1; i < flags.length; i++) {
+                flags[i] = random.nextBoolean();
+            }
+            compat.put(new Species(number), flags);
+        }
+        CompatibilityStore store = CompatibilityStore.of(compat);
+        for (Map.Entry<Species, boolean[]> entry : compat.entrySet()) {
+            boolean[] flags = entry.getValue();
+            int count = 0;
+            for (int i = 0; i < flags.length; i++) {
+                assertEquals(flags[i], store.isCompatible(entry.getKey(), i));
+                count += flags[i] ? 1 : 0;
+            }
+            assertArrayEquals(flags, store.getFlags(entry.getKey()));
+            assertEquals(count, store.countCompatible(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void builtLearnsetStoreMatchesStoreOfMap() {
+        Map<Integer, List<MoveLearnt>> movesets = randomMovesets(new Random(39));
+        LearnsetStore.Builder builder = new LearnsetStore.Builder();
+        // in reverse, since handlers don't always read the Species in order
+        List<Integer> species = new ArrayList<>(movesets.keySet());
+        Collections.reverse(species);
+        for (int sp : species) {
+            builder.startMoveset(sp);
+            for (MoveLearnt ml : movesets.get(sp)) {
+                builder.add(ml.move, ml.level);
+            }
+        }
+        assertEquals(movesets, builder.build().toMap());
+    }
+
+    @Test
+    public void startingAgainReplacesMoveset() {
+        LearnsetStore store = new LearnsetStore.Builder()
+                .startMoveset(3).add(10, 1).add(11, 5)
+                .startMoveset(1)
+                .startMoveset(3).add(12, 7)
+                .build();
+        assertTrue(store.hasMoveset(1));
+        assertEquals(0, store.size(1));
+        assertFalse(store.hasMoveset(2));
+        assertEquals(1, store.size(3));
+        assertEquals(12, store.getMove(3, 0));
+        assertEquals(7, store.getLevel(3, 0));
+        assertThrows(IllegalStateException.class, () -> new LearnsetStore.Builder().add(1, 1));
+    }
+
+    @Test
+    public void builtEggMoveStoreMatchesStoreOfMap() {
+        EggMoveStore store = new EggMoveStore.Builder()
+                .startEggMoves(7).add(600)
+                .startEggMoves(1).add(5).add(8).add(13)
+                .startEggMoves(4)
+                .build();
+        Map<Integer, List<Integer>> eggMoves = new TreeMap<>();
+        eggMoves.put(1, Arrays.asList(5, 8, 13));
+        eggMoves.put(4, Collections.emptyList());
+        eggMoves.put(7, Collections.singletonList(600));
+        assertEquals(eggMoves, store.toMap());
+        assertEquals(EggMoveStore.of(eggMoves).toMap(), store.toMap());
+        assertTrue(new EggMoveStore.Builder().build().toMap().isEmpty());
+    }
+
+}
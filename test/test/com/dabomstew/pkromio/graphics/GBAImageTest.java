@@ -2,6 +2,7 @@ package test.com.dabomstew.pkromio.graphics;
 
 import com.dabomstew.pkromio.GFXFunctions;
 import com.dabomstew.pkromio.graphics.images.GBAImage;
+import com.dabomstew.pkromio.graphics.palettes.Palette;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -9,6 +10,7 @@ import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -79,4 +81,20 @@ public class GBAImageTest {
                 .columnMode(true).build();
         assertEquals(a, b);
     }
+
+    @Test
+    void fromBytesPlusToBytesGivesSameBytes() {
+        byte[] data = new byte[4 * 2 * 32];
+        new Random(4).nextBytes(data);
+        GBAImage a = new GBAImage.Builder(4, 2, new Palette(16), data).build();
+        assertArrayEquals(data, a.toBytes());
+    }
+
+    @Test
+    void setColorIsSeenByRaster() {
+        GBAImage a = new GBAImage.Builder(2, 1, new Palette(16)).build();
+        a.setColor(9, 3, 7);
+        assertEquals(7, a.getRaster().getSample(9, 3, 0));
+        assertEquals(7, a.getColor(9, 3));
+    }
 }
@@ -0,0 +1,57 @@
+package test.com.dabomstew.pkromio.graphics;
+
+import com.dabomstew.pkromio.graphics.images.GBCImage;
+import com.dabomstew.pkromio.graphics.palettes.Palette;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class GBCImageTest {
+
+    private static byte[] randomData(int widthInTiles, int heightInTiles, long seed) {
+        byte[] data = new byte[widthInTiles * heightInTiles * 16];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    @Test
+    void fromBytesPlusToBytesGivesSameBytes() {
+        byte[] data = randomData(3, 2, 1);
+        GBCImage a = new GBCImage.Builder(3, 2, new Palette(4), data).build();
+        assertArrayEquals(data, a.toBytes());
+    }
+
+    @Test
+    void fromBytesPlusToBytesGivesSameBytesWithColumnModeTrue() {
+        byte[] data = randomData(2, 2, 2);
+        GBCImage a = new GBCImage.Builder(2, 2, new Palette(4), data).columnMode(true).build();
+        assertArrayEquals(data, a.toBytes());
+    }
+
+    @Test
+    void imagesFromSameBytesAreEqual() {
+        byte[] data = randomData(2, 1, 3);
+        GBCImage a = new GBCImage.Builder(2, 1, new Palette(4), data).build();
+        GBCImage b = new GBCImage.Builder(2, 1, new Palette(4), data).build();
+        assertEquals(a, b);
+        b.setColor(0, 0, (a.getColor(0, 0) + 1) % 4);
+        assertNotEquals(a, b);
+    }
+
+    @Test
+    void bitplanesMatchColorIndices() {
+        GBCImage a = new GBCImage.Builder(1, 1, new Palette(4), randomData(1, 1, 4)).build();
+        for (int x = 0; x < a.getWidth(); x++) {
+            for (int y = 0; y < a.getHeight(); y++) {
+                int color = a.getColor(x, y);
+                assertEquals((color & 1) == 1, a.getBitplane1Image().getRGB(x, y) == 0xff000000);
+                assertEquals(color >= 2, a.getBitplane2Image().getRGB(x, y) == 0xff000000);
+            }
+        }
+    }
+
+}
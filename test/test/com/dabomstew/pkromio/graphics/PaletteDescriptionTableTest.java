@@ -0,0 +1,76 @@
+package test.com.dabomstew.pkromio.graphics;
+
+import com.dabomstew.pkromio.gamedata.Type;
+import com.dabomstew.pkromio.graphics.palettes.BaseColorMap;
+import com.dabomstew.pkromio.graphics.palettes.PaletteDescription;
+import com.dabomstew.pkromio.graphics.palettes.PaletteDescriptionTable;
+import com.dabomstew.pkromio.graphics.palettes.PalettePartDescription;
+import com.dabomstew.pkromio.graphics.palettes.TypeColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaletteDescriptionTableTest {
+
+    @Test
+    public void tableHoldsParsedPartDescriptions() {
+        PaletteDescriptionTable table = new PaletteDescriptionTable(Arrays.asList(
+                new PaletteDescription("Bulbasaur\t[2,3,4//5,6,7D]note"),
+                new PaletteDescription("Ivysaur\t[a8,9L]")));
+        assertEquals(2, table.size());
+
+        PalettePartDescription[] first = table.get(0);
+        assertEquals(3, first.length);
+        assertArrayEquals(new int[]{1, 2, 3}, first[0].getSlots());
+        assertTrue(first[1].isBlank());
+        assertArrayEquals(new int[]{4, 5, 6}, first[2].getSlots());
+
+        PalettePartDescription[] second = table.get(1);
+        assertEquals(1, second.length);
+        assertArrayEquals(new int[]{7, 8}, second[0].getSlots());
+    }
+
+    @Test
+    public void missingPalettesAreBlank() {
+        PaletteDescriptionTable table = new PaletteDescriptionTable(Arrays.asList(
+                new PaletteDescription("Bulbasaur\t[2,3,4]")));
+        for (int index : new int[]{-1, 1, 100}) {
+            PalettePartDescription[] parts = table.get(index);
+            assertEquals(1, parts.length);
+            assertTrue(parts[0].isBlank());
+        }
+    }
+
+    @Test
+    public void getReturnsCopiesOfTheSameDescriptions() {
+        PaletteDescriptionTable table = new PaletteDescriptionTable(Arrays.asList(
+                new PaletteDescription("Bulbasaur\t[2,3,4/5,6]")));
+        PalettePartDescription[] a = table.get(0);
+        PalettePartDescription[] b = table.get(0);
+        assertNotSame(a, b);
+        assertSame(a[0], b[0]);
+        a[0] = null;
+        assertNotNull(table.get(0)[0]);
+    }
+
+    @Test
+    public void baseColorsDoNotDependOnOrderAskedFor() {
+        TypeColor grass = new TypeColor(0x40A040, Type.GRASS);
+        TypeColor fire = new TypeColor(0xE05020, Type.FIRE);
+        TypeColor water = new TypeColor(0x3060E0, Type.WATER);
+
+        BaseColorMap forwards = new BaseColorMap(new Random(50));
+        BaseColorMap backwards = new BaseColorMap(new Random(50));
+        String[] forwardColors = {forwards.getBaseColor(grass).toString(), forwards.getBaseColor(fire).toString(),
+                forwards.getBaseColor(water).toString()};
+        String water2 = backwards.getBaseColor(water).toString();
+        String fire2 = backwards.getBaseColor(fire).toString();
+        String grass2 = backwards.getBaseColor(grass).toString();
+        assertArrayEquals(forwardColors, new String[]{grass2, fire2, water2});
+        assertEquals(forwards.getLightDarkMode(fire), backwards.getLightDarkMode(fire));
+    }
+
+}
@@ -0,0 +1,57 @@
+package test.com.dabomstew.pkromio.graphics;
+
+import com.dabomstew.pkromio.graphics.images.SpriteAtlas;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpriteAtlasTest {
+
+    private static BufferedImage filledImage(int width, int height, int argb) {
+        BufferedImage bim = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                bim.setRGB(x, y, argb);
+            }
+        }
+        return bim;
+    }
+
+    @Test
+    public void imagesArePackedWithoutOverlapAndKeepTheirPixels() {
+        Random random = new Random(39);
+        List<BufferedImage> images = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            images.add(filledImage(random.nextInt(96) + 1, random.nextInt(96) + 1, 0xFF000000 | i));
+        }
+        SpriteAtlas atlas = SpriteAtlas.pack(images);
+
+        for (int i = 0; i < images.size(); i++) {
+            Rectangle r = atlas.getBounds(i);
+            assertEquals(images.get(i).getWidth(), r.width);
+            assertEquals(images.get(i).getHeight(), r.height);
+            assertTrue(atlas.getImage().getRaster().getBounds().contains(r));
+            assertEquals(0xFF000000 | i, atlas.getImage().getRGB(r.x, r.y));
+            assertEquals(0xFF000000 | i, atlas.getImage().getRGB(r.x + r.width - 1, r.y + r.height - 1));
+            for (int j = 0; j < i; j++) {
+                assertFalse(r.intersects(atlas.getBounds(j)));
+            }
+        }
+    }
+
+    @Test
+    public void nullImagesHaveNoBounds() {
+        SpriteAtlas atlas = SpriteAtlas.pack(Arrays.asList(filledImage(4, 4, -1), null));
+        assertEquals(2, atlas.size());
+        assertNotNull(atlas.getBounds(0));
+        assertNull(atlas.getBounds(1));
+    }
+
+}
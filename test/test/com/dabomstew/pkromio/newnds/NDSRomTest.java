@@ -0,0 +1,107 @@
+package test.com.dabomstew.pkromio.newnds;
+
+import com.dabomstew.pkromio.newnds.NDSRom;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import test.com.dabomstew.pkromio.romhandlers.RomHandlerTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class NDSRomTest extends RomHandlerTest {
+
+    private static final int Y9_ENTRY_SIZE = 32;
+
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void unchangedOverlaysKeepTheirOriginalCompressedBytes(String romName) throws IOException {
+        assumeTrue(getGenerationNumberOf(romName) == 4 || getGenerationNumberOf(romName) == 5);
+        loadROM(romName);
+        String romFile = romHandler.loadedFilename();
+
+        NDSRom nds = new NDSRom(romFile);
+        int overlayCount = overlayCount(Files.readAllBytes(new File(romFile).toPath()));
+        for (int i = 0; i < overlayCount; i++) {
+            // written, but with the same contents
+            nds.writeOverlay(i, nds.getOverlay(i));
+        }
+        byte[] saved = save(nds);
+
+        byte[] original = Files.readAllBytes(new File(romFile).toPath());
+        for (int i = 0; i < overlayCount; i++) {
+            assertArrayEquals(overlayFile(original, i), overlayFile(saved, i), "overlay " + i);
+            assertEquals(y9Field(original, i, 28, 3), y9Field(saved, i, 28, 3), "compressed size of overlay " + i);
+        }
+        romHandler.unloadRom();
+    }
+
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void concurrentRecompressionGivesSameRomAsSerial(String romName) throws IOException {
+        assumeTrue(getGenerationNumberOf(romName) == 4 || getGenerationNumberOf(romName) == 5);
+        loadROM(romName);
+        String romFile = romHandler.loadedFilename();
+
+        byte[] concurrent = saveWithAllChanged(romFile, 4);
+        byte[] serial = saveWithAllChanged(romFile, 1);
+        assertArrayEquals(concurrent, serial);
+        romHandler.unloadRom();
+    }
+
+    /**
+     * Saves the ROM with the ARM9 and every overlay changed, so all of them have to be recompressed.
+     */
+    private static byte[] saveWithAllChanged(String romFile, int threads) throws IOException {
+        NDSRom nds = new NDSRom(romFile);
+        nds.setCompressionThreads(threads);
+        int overlayCount = overlayCount(Files.readAllBytes(new File(romFile).toPath()));
+        for (int i = 0; i < overlayCount; i++) {
+            byte[] overlay = nds.getOverlay(i);
+            if (overlay.length > 0) {
+                overlay[overlay.length - 1] ^= 0x01;
+            }
+            nds.writeOverlay(i, overlay);
+        }
+        nds.writeARM9(nds.getARM9());
+        return save(nds);
+    }
+
+    private static byte[] save(NDSRom nds) throws IOException {
+        File saved = File.createTempFile("ndsrom", ".nds");
+        saved.deleteOnExit();
+        nds.saveTo(saved.getPath());
+        nds.deleteTmpFolder();
+        return Files.readAllBytes(saved.toPath());
+    }
+
+    private static int overlayCount(byte[] rom) {
+        return read(rom, 0x54, 4) / Y9_ENTRY_SIZE;
+    }
+
+    private static int y9Field(byte[] rom, int overlay, int offset, int size) {
+        return read(rom, read(rom, 0x50, 4) + overlay * Y9_ENTRY_SIZE + offset, size);
+    }
+
+    /**
+     * The overlay's file as stored in the ROM, i.e. still compressed if the overlay is.
+     */
+    private static byte[] overlayFile(byte[] rom, int overlay) {
+        int fileID = y9Field(rom, overlay, 24, 4);
+        int fatEntry = read(rom, 0x48, 4) + fileID * 8;
+        return Arrays.copyOfRange(rom, read(rom, fatEntry, 4), read(rom, fatEntry + 4, 4));
+    }
+
+    private static int read(byte[] data, int offset, int size) {
+        int value = 0;
+        for (int i = 0; i < size; i++) {
+            value |= (data[offset + i] & 0xFF) << (i * 8);
+        }
+        return value;
+    }
+
+}
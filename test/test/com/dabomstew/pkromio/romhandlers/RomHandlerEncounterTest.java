@@ -30,6 +30,36 @@ public class RomHandlerEncounterTest extends RomHandlerTest {
         assertFalse(romHandler.getEncounters(true).isEmpty());
     }
 
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void encountersAreOnlyReadAgainAfterSet(String romName) {
+        loadROM(romName);
+        for (boolean useTimeOfDay : new boolean[]{false, true}) {
+            List<EncounterArea> first = romHandler.getEncounters(useTimeOfDay);
+            List<EncounterArea> second = romHandler.getEncounters(useTimeOfDay);
+            assertNotSame(first, second);
+            for (int i = 0; i < first.size(); i++) {
+                assertSame(first.get(i), second.get(i));
+            }
+            romHandler.setEncounters(useTimeOfDay, first);
+            List<EncounterArea> afterSet = romHandler.getEncounters(useTimeOfDay);
+            assertNotSame(first.get(0), afterSet.get(0));
+            assertEquals(first, afterSet);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void sortedEncountersHoldTheSameAreas(String romName) {
+        loadROM(romName);
+        List<EncounterArea> encounterAreas = romHandler.getEncounters(true);
+        List<EncounterArea> sorted = romHandler.getSortedEncounters(true);
+        assertEquals(encounterAreas.size(), sorted.size());
+        Set<EncounterArea> unsortedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        unsortedSet.addAll(encounterAreas);
+        assertTrue(unsortedSet.containsAll(sorted));
+    }
+
     @ParameterizedTest
     @MethodSource("getRomNames")
     public void encountersDoNotChangeWithGetAndSetNotUsingTimeOfDay(String romName) {
@@ -0,0 +1,123 @@
+package test.com.dabomstew.pkromio.romhandlers;
+
+import com.dabomstew.pkromio.gamedata.*;
+import com.dabomstew.pkromio.romhandlers.Gen6RomHandler;
+import com.dabomstew.pkromio.romhandlers.Gen7RomHandler;
+import com.dabomstew.pkromio.romhandlers.RomHandler;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests that attaching, swapping and removing a game update leaves a 3DS RomHandler in the same state as loading
+ * everything again would. The game updates are looked for next to the test ROMs, named after them,
+ * e.g. "X (U) Update.cxi", or "X (U) Update 1.cxi" and "X (U) Update 2.cxi" to also swap between different ones.
+ */
+public class RomHandlerGameUpdateTest extends RomHandlerTest {
+
+    private static final String TEST_ROMS_PATH = "test/roms";
+
+    private static List<String> findGameUpdates(String romName) {
+        List<String> updates = new ArrayList<>();
+        File[] files = new File(TEST_ROMS_PATH).listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().startsWith(romName + " Update") && file.getName().endsWith(".cxi")) {
+                    updates.add(file.getPath());
+                }
+            }
+        }
+        Collections.sort(updates);
+        return updates;
+    }
+
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void gameUpdateChangesGiveSameStateAsFullReload(String romName) {
+        assumeTrue(getGenerationNumberOf(romName) >= 6);
+        List<String> updates = findGameUpdates(romName);
+        assumeFalse(updates.isEmpty());
+        loadROM(romName);
+        String romFile = romHandler.loadedFilename();
+
+        // attach the first update, then swap it for the last one (or the same one again, if there is only one)
+        for (String update : Arrays.asList(updates.get(0), updates.get(updates.size() - 1))) {
+            assertTrue(romHandler.loadGameUpdate(update));
+            assertTrue(romHandler.hasGameUpdateLoaded());
+            assertEquals(stateOf(fullyReloaded(romName, romFile, update)), stateOf(romHandler));
+        }
+
+        romHandler.removeGameUpdate();
+        assertFalse(romHandler.hasGameUpdateLoaded());
+        assertEquals(stateOf(fullyReloaded(romName, romFile, null)), stateOf(romHandler));
+        romHandler.unloadRom();
+    }
+
+    /**
+     * Loads the ROM, and the game update if not null, into a RomHandler that loads everything again
+     * when its game update changes.
+     */
+    private static RomHandler fullyReloaded(String romName, String romFile, String update) {
+        RomHandler reloaded = getGenerationNumberOf(romName) == 6 ? new FullyReloadingGen6RomHandler()
+                : new FullyReloadingGen7RomHandler();
+        assertTrue(reloaded.loadRom(romFile));
+        if (update != null) {
+            assertTrue(reloaded.loadGameUpdate(update));
+        }
+        return reloaded;
+    }
+
+    /**
+     * The game data loaded when the ROM or its game update is, as strings to compare different RomHandlers by.
+     * Unloads the RomHandler if it is not the one under test.
+     */
+    private List<String> stateOf(RomHandler handler) {
+        List<String> state = new ArrayList<>();
+        state.add(handler.getGameUpdateVersion());
+        for (Species sp : handler.getSpecies()) {
+            if (sp != null) {
+                state.add(sp + " " + handler.abilityName(sp.getAbility1()) + "/"
+                        + handler.abilityName(sp.getAbility2()) + "/" + handler.abilityName(sp.getAbility3())
+                        + " " + sp.getEvolutionsFrom().size());
+            }
+        }
+        for (Move move : handler.getMoves()) {
+            state.add(String.valueOf(move));
+        }
+        for (Item item : handler.getItems()) {
+            state.add(String.valueOf(item));
+        }
+        for (Trainer tr : handler.getTrainers()) {
+            state.add(tr.toString());
+        }
+        for (EncounterArea area : handler.getEncounters(true)) {
+            state.add(area.toString());
+        }
+        state.add(handler.getMovesLearnt().toString());
+        if (handler != romHandler) {
+            handler.unloadRom();
+        }
+        return state;
+    }
+
+    private static class FullyReloadingGen6RomHandler extends Gen6RomHandler {
+        @Override
+        protected void gameUpdateChanged(Set<String> changedPaths) {
+            loadedROM(getProductCodeFromFile(loadedFilename()), getTitleIdFromFile(loadedFilename()));
+        }
+    }
+
+    private static class FullyReloadingGen7RomHandler extends Gen7RomHandler {
+        @Override
+        protected void gameUpdateChanged(Set<String> changedPaths) {
+            loadedROM(getProductCodeFromFile(loadedFilename()), getTitleIdFromFile(loadedFilename()));
+        }
+    }
+
+}
@@ -61,6 +61,81 @@ public class RomHandlerTrainerTest extends RomHandlerTest {
         assertEquals(before, romHandler.getTrainers());
     }
 
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void getTrainersReturnsTheSameListUntilSet(String romName) {
+        loadROM(romName);
+        List<Trainer> trainers = romHandler.getTrainers();
+        assertSame(trainers, romHandler.getTrainers());
+        List<Trainer> copy = new ArrayList<>(trainers);
+        romHandler.setTrainers(copy);
+        assertSame(copy, romHandler.getTrainers());
+    }
+
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void trainerDisplayNamesFollowSetTrainerNames(String romName) {
+        assumeFalse(isGBGame(romName));
+        loadROM(romName);
+        List<Trainer> trainers = romHandler.getTrainers();
+        List<String> trainerNames = romHandler.getTrainerNames();
+        List<String> newNames = new ArrayList<>();
+        for (int i = 0; i < trainerNames.size(); i++) {
+            newNames.add("Zz");
+        }
+        romHandler.setTrainerNames(newNames);
+        assertTrue(trainers.stream().anyMatch(tr -> tr.getFullDisplayName() != null
+                && tr.getFullDisplayName().endsWith(" Zz")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void trainerDisplayNamesFollowSetTrainerClassNames(String romName) {
+        assumeFalse(isGBGame(romName));
+        loadROM(romName);
+        List<String> classNames = romHandler.getTrainerClassNames();
+        Map<Integer, String> namesWithoutClass = new HashMap<>();
+        for (Trainer tr : romHandler.getTrainers()) {
+            String className = classNames.get(tr.trainerclass) + " ";
+            if (tr.getFullDisplayName().startsWith(className)) {
+                namesWithoutClass.put(tr.index, tr.getFullDisplayName().substring(className.length()));
+            }
+        }
+        List<String> newClassNames = new ArrayList<>();
+        for (int i = 0; i < classNames.size(); i++) {
+            newClassNames.add("Cls" + i);
+        }
+        romHandler.setTrainerClassNames(newClassNames);
+
+        assertFalse(namesWithoutClass.isEmpty());
+        for (Trainer tr : romHandler.getTrainers()) {
+            assertTrue(tr.getFullDisplayName().startsWith("Cls"), tr.getFullDisplayName());
+            if (namesWithoutClass.containsKey(tr.index)) {
+                assertEquals("Cls" + tr.trainerclass + " " + namesWithoutClass.get(tr.index),
+                        tr.getFullDisplayName());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("getRomNames")
+    public void trainerChangesOnlyTakeEffectThroughSetTrainers(String romName) {
+        loadROM(romName);
+        List<Trainer> trainers = romHandler.getTrainers();
+        int i = 0;
+        while (trainers.get(i).pokemon.isEmpty()) {
+            i++;
+        }
+        TrainerPokemon tp = trainers.get(i).pokemon.get(0);
+        int originalLevel = tp.getLevel();
+        tp.setLevel(originalLevel + 1);
+        assertEquals(originalLevel, romHandler.getTrainers().get(i).pokemon.get(0).getLevel());
+
+        romHandler.setTrainers(trainers);
+        tp.setLevel(originalLevel + 2);
+        assertEquals(originalLevel + 1, romHandler.getTrainers().get(i).pokemon.get(0).getLevel());
+    }
+
     @ParameterizedTest
     @MethodSource("getRomNames")
     public void trainersDoNotChangeWithLoadAndSave(String romName) {
@@ -0,0 +1,76 @@
+package test.com.dabomstew.pkromio.text;
+
+import com.dabomstew.pkromio.text.TextTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class TextTableTest {
+
+    private static TextTable smallTable() {
+        TextTable table = new TextTable();
+        table.put(0x01, "A");
+        table.put(0x02, "B");
+        table.put(0x03, "AB");
+        table.put(0x04, "[PK]");
+        return table;
+    }
+
+    @Test
+    public void encodeTakesLongestMatchingToken() {
+        TextTable table = smallTable();
+        assertArrayEquals(new byte[]{0x03, 0x01, 0x04}, table.encode("ABA[PK]"));
+    }
+
+    @Test
+    public void encodeSkipsUnknownCharacters() {
+        TextTable table = smallTable();
+        assertArrayEquals(new byte[]{0x01, 0x02}, table.encode("A?B"));
+    }
+
+    @Test
+    public void encodeHandlesHexEscapes() {
+        TextTable table = smallTable();
+        assertArrayEquals(new byte[]{0x01, (byte) 0xFE, 0x02}, table.encode("A\\xFEB"));
+    }
+
+    @Test
+    public void encodeHandlesVariableEscapesOnlyWhenPrefixIsSet() {
+        TextTable table = smallTable();
+        table.setVariablePrefix((byte) 0xFD);
+        assertArrayEquals(new byte[]{(byte) 0xFD, 0x02, 0x01}, table.encode("\\v02A"));
+    }
+
+    @Test
+    public void encodeIntoArrayRespectsMaxLength() {
+        TextTable table = smallTable();
+        byte[] dest = new byte[4];
+        int written = table.encode("AAAA", dest, 1, 2);
+        assertEquals(2, written);
+        assertArrayEquals(new byte[]{0x00, 0x01, 0x01, 0x00}, dest);
+    }
+
+    @Test
+    public void encodedLengthMatchesEncode() {
+        TextTable table = smallTable();
+        String text = "AB\\x10B[PK]?A";
+        assertEquals(table.encode(text).length, table.encodedLength(text));
+    }
+
+    @Test
+    public void overwritingCodeRemovesOldToken() {
+        TextTable table = smallTable();
+        table.put(0x02, "C");
+        assertEquals("C", table.decode(0x02));
+        // "B" has no code anymore, so it is skipped, while tokens through it still encode
+        assertArrayEquals(new byte[0], table.encode("B"));
+        assertArrayEquals(new byte[]{0x02}, table.encode("BC"));
+        assertArrayEquals(new byte[]{0x03}, table.encode("AB"));
+        for (int b = 0; b < 256; b++) {
+            assertNotEquals("B", table.decode(b));
+        }
+    }
+
+}
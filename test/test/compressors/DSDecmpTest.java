@@ -0,0 +1,51 @@
+package test.compressors;
+
+import compressors.DSCmp;
+import compressors.DSDecmp;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DSDecmpTest {
+
+    private static final int RUNS = 500;
+
+    private static byte[] randomCompressibleData(Random random) {
+        byte[] data = new byte[random.nextInt(0x2000) + 1];
+        int alphabet = random.nextInt(4) + 1;
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (random.nextInt(10) == 0 ? random.nextInt(256) : random.nextInt(alphabet));
+        }
+        return data;
+    }
+
+    @Test
+    public void lengthOfCompressedLZ10MatchesCompressedLength() {
+        Random random = new Random(10);
+        for (int i = 0; i < RUNS; i++) {
+            byte[] compressed = DSCmp.compressLZ10(randomCompressibleData(random));
+            // surround it with junk, the length should still only cover the compressed data
+            byte[] inRom = new byte[compressed.length + 8];
+            random.nextBytes(inRom);
+            System.arraycopy(compressed, 0, inRom, 4, compressed.length);
+            assertEquals(compressed.length, DSDecmp.lengthOfCompressed(inRom, 4));
+        }
+    }
+
+    @Test
+    public void lengthOfCompressedLZ11MatchesCompressedLength() {
+        Random random = new Random(11);
+        for (int i = 0; i < RUNS; i++) {
+            byte[] compressed = DSCmp.compressLZ11(randomCompressibleData(random));
+            assertEquals(compressed.length, DSDecmp.lengthOfCompressed(compressed, 0));
+        }
+    }
+
+    @Test
+    public void lengthOfCompressedIsMinusOneForOtherData() {
+        assertEquals(-1, DSDecmp.lengthOfCompressed(new byte[]{0x24, 0, 0, 0}, 0));
+    }
+
+}